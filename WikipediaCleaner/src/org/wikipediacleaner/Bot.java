@@ -14,9 +14,11 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Properties;
+import java.util.Set;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
@@ -25,6 +27,9 @@ import java.util.logging.SimpleFormatter;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.APIFactory;
+import org.wikipediacleaner.api.EditThrottle;
+import org.wikipediacleaner.api.RetryPolicy;
 import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithm;
 import org.wikipediacleaner.api.check.algorithm.CheckErrorAlgorithms;
 import org.wikipediacleaner.api.constants.EnumLanguage;
@@ -36,6 +41,7 @@ import org.wikipediacleaner.gui.swing.basic.BasicWorker;
 import org.wikipediacleaner.gui.swing.basic.BasicWorkerListener;
 import org.wikipediacleaner.gui.swing.bot.AutomaticCWWorker;
 import org.wikipediacleaner.gui.swing.bot.AutomaticListCWWorker;
+import org.wikipediacleaner.gui.swing.bot.LinkGraphWorker;
 import org.wikipediacleaner.gui.swing.bot.ListCWWorker;
 import org.wikipediacleaner.gui.swing.worker.LoginWorker;
 import org.wikipediacleaner.gui.swing.worker.UpdateDabWarningWorker;
@@ -215,17 +221,19 @@ public class Bot implements BasicWorkerListener {
     if ("DoTasks".equalsIgnoreCase(action)) {
       if (args.length > currentArg) {
         File tasks = new File(args[currentArg]);
+        List<String[]> tmpActions = new ArrayList<>();
         try (BufferedReader reader = new BufferedReader(new FileReader(tasks))) {
           String line = null;
           while ((line = reader.readLine()) != null) {
             String[] tmpArgs = line.split(" +");
             if ((tmpArgs != null) && (tmpArgs.length > 0)) {
-              actions.add(tmpArgs);
+              tmpActions.add(tmpArgs);
             }
           }
         } catch (IOException e) {
           log.error("Unable to process tasks", e);
         }
+        actions.addAll(mergeTasks(tmpActions));
       }
     } else if ("UpdateDabWarnings".equalsIgnoreCase(action)) {
       Configuration config = Configuration.getConfiguration();
@@ -308,6 +316,15 @@ public class Bot implements BasicWorkerListener {
               algorithms, check);
         }
       }
+    } else if ("BuildLinkGraph".equalsIgnoreCase(action)) {
+      if (args.length > currentArg) {
+        File dumpFile = getDumpFile(args[currentArg]);
+        File output = null;
+        if (args.length > currentArg + 1) {
+          output = new File(args[currentArg + 1]);
+        }
+        worker = new LinkGraphWorker(wiki, null, dumpFile, output);
+      }
     }
     if (worker != null) {
       System.out.println("Running task " + action);
@@ -319,6 +336,110 @@ public class Bot implements BasicWorkerListener {
     }
   }
 
+  /**
+   * Merge consecutive Check Wiki tasks that can be run as a single task.
+   * 
+   * Tasks are merged only if they have the same action and use the same
+   * list of possible algorithms (selected and additional algorithms),
+   * so that pages are fixed in the same way, but lists are retrieved
+   * concurrently and pages listed for several algorithms are analyzed
+   * and saved only once.
+   * 
+   * @param tasks List of tasks.
+   * @return List of tasks with consecutive compatible tasks merged.
+   */
+  private static List<String[]> mergeTasks(List<String[]> tasks) {
+    List<String[]> result = new ArrayList<>();
+    String[] previous = null;
+    for (String[] task : tasks) {
+      if ((previous != null) &&
+          isMergeableTask(previous) &&
+          isMergeableTask(task) &&
+          previous[0].equalsIgnoreCase(task[0]) &&
+          hasSameAlgorithms(previous, task)) {
+        Set<String> selected = getTaskAlgorithms(previous, false);
+        selected.addAll(getTaskAlgorithms(task, false));
+        selected = simplifyAlgorithms(selected);
+        List<String> merged = new ArrayList<>();
+        merged.add(previous[0]);
+        merged.addAll(selected);
+        if (!selected.contains("*")) {
+          for (String algorithm : simplifyAlgorithms(getTaskAlgorithms(previous, true))) {
+            if (!selected.contains(algorithm)) {
+              merged.add("+" + algorithm);
+            }
+          }
+        }
+        previous = merged.toArray(new String[merged.size()]);
+        result.set(result.size() - 1, previous);
+      } else {
+        result.add(task);
+        previous = task;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param task Task.
+   * @return True if the task can be merged with other tasks.
+   */
+  private static boolean isMergeableTask(String[] task) {
+    if (task.length < 2) {
+      return false;
+    }
+    return
+        "FixCheckWiki".equalsIgnoreCase(task[0]) ||
+        "MarkCheckWiki".equalsIgnoreCase(task[0]);
+  }
+
+  /**
+   * @param task1 Task.
+   * @param task2 Other task.
+   * @return True if both tasks use the same list of possible algorithms.
+   */
+  private static boolean hasSameAlgorithms(String[] task1, String[] task2) {
+    return simplifyAlgorithms(getTaskAlgorithms(task1, true)).equals(
+        simplifyAlgorithms(getTaskAlgorithms(task2, true)));
+  }
+
+  /**
+   * @param algorithms Algorithms of a task.
+   * @return Algorithms without duplicates: only "*" if all algorithms are included.
+   */
+  private static Set<String> simplifyAlgorithms(Set<String> algorithms) {
+    Set<String> result = new LinkedHashSet<>();
+    for (String algorithm : algorithms) {
+      if (algorithm.equals("*") || algorithm.equals("!")) {
+        result.clear();
+        result.add("*");
+        return result;
+      }
+      result.add(algorithm);
+    }
+    return result;
+  }
+
+  /**
+   * @param task Task.
+   * @param all True to retrieve all possible algorithms, false for selected algorithms only.
+   * @return Algorithms of the task.
+   */
+  private static Set<String> getTaskAlgorithms(String[] task, boolean all) {
+    Set<String> result = new LinkedHashSet<>();
+    for (int i = 1; i < task.length; i++) {
+      String algorithm = task[i];
+      if (algorithm.startsWith("+")) {
+        if (all) {
+          result.add(algorithm.substring(1));
+        }
+      } else {
+        result.add(algorithm);
+      }
+    }
+    return result;
+  }
+
   /**
    * @param algorithms List of selected algorithms.
    * @param allAlgorithms List of all possible algorithms.
@@ -342,28 +463,36 @@ public class Bot implements BasicWorkerListener {
         List<CheckErrorAlgorithm> possibleAlgorithms = CheckErrorAlgorithms.getAlgorithms(wiki);
         for (CheckErrorAlgorithm algorithm : possibleAlgorithms) {
           if ((algorithm != null) && algorithm.isAvailable()) {
-            if (!addition) {
-              algorithms.add(algorithm);
-            }
-            if (allAlgorithms != null) {
-              allAlgorithms.add(algorithm);
-            }
+            addAlgorithm(algorithms, allAlgorithms, algorithm, addition);
           }
         }
       } else {
         CheckErrorAlgorithm algorithm = CheckErrorAlgorithms.getAlgorithm(wiki, Integer.parseInt(algorithmNumber));
         if (algorithm != null) {
-          if (!addition) {
-            algorithms.add(algorithm);
-          }
-          if (allAlgorithms != null) {
-            allAlgorithms.add(algorithm);
-          }
+          addAlgorithm(algorithms, allAlgorithms, algorithm, addition);
         }
       }
     }
   }
 
+  /**
+   * @param algorithms List of selected algorithms.
+   * @param allAlgorithms List of all possible algorithms.
+   * @param algorithm Algorithm to be added to the lists if not already present.
+   * @param addition True if the algorithm is only a possible algorithm.
+   */
+  private static void addAlgorithm(
+      List<CheckErrorAlgorithm> algorithms,
+      List<CheckErrorAlgorithm> allAlgorithms,
+      CheckErrorAlgorithm algorithm, boolean addition) {
+    if (!addition && !algorithms.contains(algorithm)) {
+      algorithms.add(algorithm);
+    }
+    if ((allAlgorithms != null) && !allAlgorithms.contains(algorithm)) {
+      allAlgorithms.add(algorithm);
+    }
+  }
+
   /**
    * @param path Path to the dump file.
    * @return Dump file.
@@ -435,15 +564,34 @@ public class Bot implements BasicWorkerListener {
   @Override
   public void afterFinished(BasicWorker worker, boolean ok) {
     if (!ok) {
+      logStatistics();
       System.exit(1);
     }
     if (!loginDone) {
       loginDone = true;
     }
     if (actions.isEmpty()) {
+      logStatistics();
       System.exit(0);
     }
     String[] currentAction = actions.remove(0);
     executeAction(currentAction);
   }
+
+  /**
+   * Log statistics about the requests done by the bot.
+   */
+  private void logStatistics() {
+    EditThrottle throttle = APIFactory.getAPI().getEditThrottle();
+    System.out.println(
+        "Edits: " + throttle.getTotalEdits() +
+        ", waiting " + throttle.getTotalWaitTime() + "ms in total" +
+        " (maximum " + throttle.getMaxWaitTime() + "ms, " +
+        throttle.getQueuedEdits() + " edits still waiting)");
+    RetryPolicy policy = RetryPolicy.getPolicy();
+    System.out.println(
+        "Retries: " + policy.getRetries() +
+        ", waiting " + policy.getRetriesDelay() + "ms in total" +
+        ", requests paused " + policy.getPauses() + " times");
+  }
 }
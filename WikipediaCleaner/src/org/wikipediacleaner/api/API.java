@@ -246,6 +246,19 @@ public interface API {
       Collection<Page> pages, boolean usePageId,
       boolean withRedirects) throws APIException;
 
+  /**
+   * Retrieves the contents of a list of pages, using a local cache
+   * for pages that haven't been modified since they were cached.
+   * (<code>action=query</code>, <code>prop=info</code>, <code>prop=revisions</code>).
+   * 
+   * @param wiki Wiki.
+   * @param pages List of pages.
+   * @throws APIException
+   */
+  public void retrieveContentsWithCache(
+      EnumWikipedia wiki,
+      Collection<Page> pages) throws APIException;
+
   /**
    * Initialize the disambiguation flags of a list of <code>pages</code>.
    * (<code>action=query</code>, <code>prop=categories</code>) or
@@ -320,6 +333,20 @@ public interface API {
   public String getLanguageLink(
       EnumWikipedia from, EnumWikipedia to, String title) throws APIException;
 
+  /**
+   * Retrieve language links of a list of pages, following redirects.
+   * (<code>action=query</code>, <code>prop=langlinks</code>).
+   * 
+   * @param from Wiki in which the articles are.
+   * @param to Wiki to which the links are searched.
+   * @param titles Page titles.
+   * @return Page titles in the destination wiki (page title => language link).
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Properties#langlinks_.2F_ll">API:Properties#langlinks</a>
+   */
+  public Map<String, String> getLanguageLinks(
+      EnumWikipedia from, EnumWikipedia to, Collection<String> titles) throws APIException;
+
   // ==========================================================================
   // API : Queries / Lists
   // ==========================================================================
@@ -619,6 +646,30 @@ public interface API {
   public TemplateData retrieveTemplateData(
       EnumWikipedia wiki, Page page) throws APIException;
 
+  /**
+   * Retrieve the TemplateData for a list of pages.
+   * (<code>action=templatedata</code>).
+   * 
+   * @param wiki Wiki.
+   * @param pages List of pages.
+   * @return TemplateData for each page having a TemplateData block (page title => TemplateData).
+   * @throws APIException
+   */
+  public Map<String, TemplateData> retrieveTemplateData(
+      EnumWikipedia wiki, Collection<Page> pages) throws APIException;
+
+  /**
+   * Compute the TemplateData of a list of pages from their contents.
+   * (<code>action=query</code>, <code>prop=info</code>, <code>prop=revisions</code>).
+   * 
+   * @param wiki Wiki.
+   * @param pages List of pages.
+   * @return TemplateData computed for each page (page title => TemplateData).
+   * @throws APIException
+   */
+  public Map<String, TemplateData> computeTemplateData(
+      EnumWikipedia wiki, Collection<Page> pages) throws APIException;
+
   // ==========================================================================
   // Recent changes management.
   // ==========================================================================
@@ -642,4 +693,13 @@ public interface API {
   public void removeRecentChangesListener(
       EnumWikipedia wiki,
       RecentChangesListener listener);
+
+  // ==========================================================================
+  // Edits management.
+  // ==========================================================================
+
+  /**
+   * @return Throttle for edits.
+   */
+  public EditThrottle getEditThrottle();
 }
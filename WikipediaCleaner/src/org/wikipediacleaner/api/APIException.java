@@ -137,6 +137,14 @@ public class APIException extends Exception {
     return (result != null) ? result.getMaxRetry() : 0;
   }
 
+  /**
+   * @return Minimum delay before retrying (in milliseconds).
+   */
+  public long getRetryDelay() {
+    EnumQueryResult result = getQueryResult();
+    return (result != null) ? result.getDelayRetry() : 0;
+  }
+
   /**
    * Wait for retry.
    */
@@ -9,7 +9,6 @@ package org.wikipediacleaner.api;
 
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpConnectionManager;
-import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
 import org.apache.commons.httpclient.params.HttpMethodParams;
 import org.wikipediacleaner.api.check.CheckWiki;
 import org.wikipediacleaner.api.impl.MediaWikiAPI;
@@ -33,19 +32,19 @@ public class APIFactory {
   static {
 
     // Initialize MediaWiki API
-    HttpConnectionManager connectionManager = new MultiThreadedHttpConnectionManager();
+    HttpConnectionManager connectionManager = HttpConnectionPools.createConnectionManager();
     HttpClient httpClient = createHttpClient(connectionManager);
     httpClient.getParams().setParameter("http.protocol.single-cookie-header", Boolean.TRUE);
     api = new MediaWikiAPI(httpClient);
 
     // Initialize MediaWiki REST API
-    connectionManager = new MultiThreadedHttpConnectionManager();
+    connectionManager = HttpConnectionPools.createConnectionManager();
     httpClient = createHttpClient(connectionManager);
     httpClient.getParams().setParameter("http.protocol.single-cookie-header", Boolean.TRUE);
     restApi = new MediaWikiRESTAPI(httpClient);
 
     // Initialize WMF Labs access
-    connectionManager = new MultiThreadedHttpConnectionManager();
+    connectionManager = HttpConnectionPools.createConnectionManager();
     httpClient = createHttpClient(connectionManager);
     HttpServer labs = new HttpServer(httpClient, "http://tools.wmflabs.org/");
 
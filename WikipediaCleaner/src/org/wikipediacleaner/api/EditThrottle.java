@@ -0,0 +1,187 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * Throttle for limiting the rate of edits.
+ *
+ * Each edit reserves a time slot while holding a short lock,
+ * and then waits for its slot without holding the lock,
+ * so that other threads can keep working and reserve their own slots.
+ * Slots are given in the order of the requests.
+ */
+public class EditThrottle {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(EditThrottle.class);
+
+  /** Duration of the window for the maximum number of edits (in milliseconds) */
+  private final static long WINDOW = 60 * 1000L;
+
+  /** Times reserved for the edits in the current window, in increasing order */
+  private final ArrayDeque<Long> editTimes;
+
+  /** Number of edits currently waiting for their time slot */
+  private final AtomicInteger queuedEdits;
+
+  /** Total number of edits authorized */
+  private final AtomicLong totalEdits;
+
+  /** Total time spent waiting for time slots (in milliseconds) */
+  private final AtomicLong totalWaitTime;
+
+  /** Maximum time spent waiting for a time slot (in milliseconds) */
+  private final AtomicLong maxWaitTime;
+
+  public EditThrottle() {
+    this.editTimes = new ArrayDeque<Long>();
+    this.queuedEdits = new AtomicInteger();
+    this.totalEdits = new AtomicLong();
+    this.totalWaitTime = new AtomicLong();
+    this.maxWaitTime = new AtomicLong();
+  }
+
+  /**
+   * Wait until an edit is authorized.
+   *
+   * @param minimumTime Minimum time between edits (in seconds, 0 for no limit).
+   * @param maxEdits Maximum number of edits per minute (0 for no limit).
+   * @return True if the edit is authorized, false if the wait has been interrupted.
+   */
+  public boolean waitForEdit(int minimumTime, int maxEdits) {
+    long currentTime = System.currentTimeMillis();
+    long editTime = reserve(currentTime, minimumTime, maxEdits);
+    long waitTime = editTime - currentTime;
+    if (waitTime <= 0) {
+      totalEdits.incrementAndGet();
+      return true;
+    }
+
+    // Wait for the reserved time slot
+    int queued = queuedEdits.incrementAndGet();
+    if (log.isDebugEnabled()) {
+      log.debug("Waiting " + waitTime + "ms before editing (" + queued + " edits waiting)");
+    }
+    try {
+      while (currentTime < editTime) {
+        try {
+          Thread.sleep(editTime - currentTime);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          release(editTime);
+          log.warn("Interrupted while waiting before editing");
+          return false;
+        }
+        currentTime = System.currentTimeMillis();
+      }
+    } finally {
+      queuedEdits.decrementAndGet();
+    }
+    totalEdits.incrementAndGet();
+    totalWaitTime.addAndGet(waitTime);
+    long previousMax = maxWaitTime.get();
+    while ((waitTime > previousMax) &&
+           !maxWaitTime.compareAndSet(previousMax, waitTime)) {
+      previousMax = maxWaitTime.get();
+    }
+    return true;
+  }
+
+  /**
+   * Reserve a time slot for an edit.
+   *
+   * @param currentTime Current time.
+   * @param minimumTime Minimum time between edits (in seconds, 0 for no limit).
+   * @param maxEdits Maximum number of edits per minute (0 for no limit).
+   * @return Time at which the edit can be done.
+   */
+  private long reserve(long currentTime, int minimumTime, int maxEdits) {
+    synchronized (editTimes) {
+      long editTime = currentTime;
+
+      // Keep the order of the requests and the minimum time between edits
+      if (!editTimes.isEmpty()) {
+        long lastEditTime = editTimes.getLast().longValue();
+        editTime = Math.max(editTime, lastEditTime + Math.max(minimumTime, 0) * 1000L);
+      }
+
+      // Forget edits outside the window
+      while (!editTimes.isEmpty() &&
+             (editTimes.getFirst().longValue() + WINDOW <= editTime)) {
+        editTimes.removeFirst();
+      }
+
+      // Check the maximum number of edits in the window
+      if ((maxEdits > 0) && (editTimes.size() >= maxEdits)) {
+        Iterator<Long> itEditTime = editTimes.descendingIterator();
+        long limitingTime = 0;
+        for (int count = 0; count < maxEdits; count++) {
+          limitingTime = itEditTime.next().longValue();
+        }
+        editTime = Math.max(editTime, limitingTime + WINDOW);
+      }
+
+      editTimes.addLast(Long.valueOf(editTime));
+      return editTime;
+    }
+  }
+
+  /**
+   * Release a time slot that will not be used.
+   *
+   * @param editTime Time reserved for the edit.
+   */
+  private void release(long editTime) {
+    synchronized (editTimes) {
+      Iterator<Long> itEditTime = editTimes.descendingIterator();
+      while (itEditTime.hasNext()) {
+        if (itEditTime.next().longValue() == editTime) {
+          itEditTime.remove();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * @return Number of edits currently waiting for their time slot.
+   */
+  public int getQueuedEdits() {
+    return queuedEdits.get();
+  }
+
+  /**
+   * @return Total number of edits authorized.
+   */
+  public long getTotalEdits() {
+    return totalEdits.get();
+  }
+
+  /**
+   * @return Total time spent waiting for time slots (in milliseconds).
+   */
+  public long getTotalWaitTime() {
+    return totalWaitTime.get();
+  }
+
+  /**
+   * @return Maximum time spent waiting for a time slot (in milliseconds).
+   */
+  public long getMaxWaitTime() {
+    return maxWaitTime.get();
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+import org.apache.commons.httpclient.util.IdleConnectionTimeoutThread;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
+
+
+/**
+ * Pools of persistent HTTP connections.
+ *
+ * Connections are kept alive between requests and shared by the threads,
+ * so the size of the pools follows the number of interrogation threads.
+ */
+public class HttpConnectionPools {
+
+  /** Time before an unused connection is closed (in milliseconds) */
+  private final static long IDLE_TIMEOUT = 30000;
+
+  /** Timeout for establishing a connection (in milliseconds) */
+  private final static int CONNECTION_TIMEOUT = 30000;
+
+  /** Additional connections per host for requests outside interrogation threads */
+  private final static int EXTRA_CONNECTIONS = 2;
+
+  /** Number of hosts that may be accessed at the same time by the threads */
+  private final static int HOSTS_FACTOR = 4;
+
+  /** Connection managers */
+  private final static List<MultiThreadedHttpConnectionManager> managers =
+      new ArrayList<MultiThreadedHttpConnectionManager>();
+
+  /** Thread closing unused connections */
+  private static IdleConnectionTimeoutThread idleThread = null;
+
+  /**
+   * Create a connection manager.
+   *
+   * @return Connection manager.
+   */
+  public static synchronized MultiThreadedHttpConnectionManager createConnectionManager() {
+    MultiThreadedHttpConnectionManager manager = new MultiThreadedHttpConnectionManager();
+    HttpConnectionManagerParams params = manager.getParams();
+    params.setConnectionTimeout(CONNECTION_TIMEOUT);
+    params.setStaleCheckingEnabled(true);
+    params.setTcpNoDelay(true);
+    configure(manager, getConnectionsPerHost());
+    managers.add(manager);
+    if (idleThread == null) {
+      idleThread = new IdleConnectionTimeoutThread();
+      idleThread.setName("HTTP idle connections");
+      idleThread.setConnectionTimeout(IDLE_TIMEOUT);
+      idleThread.setTimeoutInterval(IDLE_TIMEOUT / 2);
+      idleThread.start();
+    }
+    idleThread.addConnectionManager(manager);
+    return manager;
+  }
+
+  /**
+   * Update configuration.
+   */
+  public static synchronized void updateConfiguration() {
+    int connectionsPerHost = getConnectionsPerHost();
+    for (MultiThreadedHttpConnectionManager manager : managers) {
+      configure(manager, connectionsPerHost);
+    }
+  }
+
+  /**
+   * @param manager Connection manager.
+   * @param connectionsPerHost Maximum number of connections per host.
+   */
+  private static void configure(
+      MultiThreadedHttpConnectionManager manager,
+      int connectionsPerHost) {
+    HttpConnectionManagerParams params = manager.getParams();
+    params.setDefaultMaxConnectionsPerHost(connectionsPerHost);
+    params.setMaxTotalConnections(connectionsPerHost * HOSTS_FACTOR);
+  }
+
+  /**
+   * @return Maximum number of connections per host.
+   */
+  private static int getConnectionsPerHost() {
+    Configuration config = Configuration.getConfiguration();
+    int connections = config.getInt(null, ConfigurationValueInteger.HTTP_CONNECTIONS_PER_HOST);
+    if (connections <= 0) {
+      connections = config.getInt(null, ConfigurationValueInteger.INTERROG_THREAD) + EXTRA_CONNECTIONS;
+    }
+    return Math.max(connections, 1 + EXTRA_CONNECTIONS);
+  }
+}
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -27,6 +28,7 @@ import org.wikipediacleaner.api.data.AutomaticFormatter;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.execution.AllLinksToPageCallable;
 import org.wikipediacleaner.api.execution.ContentsCallable;
+import org.wikipediacleaner.api.execution.ContentsListCallable;
 import org.wikipediacleaner.api.execution.DisambiguationStatusCallable;
 import org.wikipediacleaner.api.execution.EmbeddedInCallable;
 import org.wikipediacleaner.api.execution.ExpandTemplatesCallable;
@@ -36,8 +38,6 @@ import org.wikipediacleaner.api.execution.TemplatesCallable;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
 import org.wikipediacleaner.gui.swing.worker.UpdateDabWarningTools;
 import org.wikipediacleaner.i18n.GT;
-import org.wikipediacleaner.utils.Configuration;
-import org.wikipediacleaner.utils.ConfigurationValueInteger;
 
 
 /**
@@ -109,6 +109,8 @@ public class MediaWiki extends MediaWikiController {
   /**
    * Retrieve page contents.
    * 
+   * Pages are grouped so that each request retrieves as many pages as possible.
+   * 
    * @param wikipedia Wikipedia.
    * @param pages Pages.
    * @param block Flag indicating if the call should block until completed.
@@ -125,16 +127,54 @@ public class MediaWiki extends MediaWikiController {
       return;
     }
     final API api = APIFactory.getAPI();
+    final int maxPages = Math.max(api.getMaxPagesPerQuery(), 1);
+    List<Page> tmpPages = new ArrayList<Page>(maxPages);
     for (Page page : pages) {
-      addTask(new ContentsCallable(
-          wikipedia, this, api,
-          page, null,
-          usePageId, withRedirects, null,
-          doAnalysis));
+      tmpPages.add(page);
+      if (tmpPages.size() >= maxPages) {
+        addTask(new ContentsListCallable(
+            wikipedia, this, api, tmpPages,
+            usePageId, withRedirects, doAnalysis, false));
+        tmpPages = new ArrayList<Page>(maxPages);
+      }
+    }
+    if (!tmpPages.isEmpty()) {
+      addTask(new ContentsListCallable(
+          wikipedia, this, api, tmpPages,
+          usePageId, withRedirects, doAnalysis, false));
     }
     block(block);
   }
 
+  /**
+   * Retrieve contents of the next group of pages.
+   * 
+   * @param wikipedia Wikipedia.
+   * @param pages Pages.
+   * @param firstPage Index of the first page of the group.
+   * @return Index of the first page after the group.
+   */
+  private int retrieveNextContents(
+      EnumWikipedia wikipedia, Page[] pages, int firstPage) {
+    final API api = APIFactory.getAPI();
+    final int maxPages = Math.max(api.getMaxPagesPerQuery(), 1);
+    List<Page> tmpPages = new ArrayList<Page>(maxPages);
+    int currentPage = firstPage;
+    while ((currentPage < pages.length) && (tmpPages.size() < maxPages)) {
+      if (pages[currentPage] != null) {
+        tmpPages.add(pages[currentPage]);
+      }
+      pages[currentPage] = null; // To release memory
+      currentPage++;
+    }
+    if (!tmpPages.isEmpty()) {
+      addTask(new ContentsListCallable(
+          wikipedia, this, api, tmpPages,
+          false, true, false, true)); // TODO: withRedirects=false ?
+    }
+    return currentPage;
+  }
+
   /**
    * Retrieve page section contents.
    * 
@@ -191,16 +231,10 @@ public class MediaWiki extends MediaWikiController {
       return 0;
     }
 
-    // Initialize page loading
-    Configuration config = Configuration.getConfiguration();
-    int nThreads = Math.max(
-        config.getInt(null, ConfigurationValueInteger.INTERROG_THREAD), 1);
-    int currentPage = 0;
-    while ((currentPage < nThreads) && (currentPage < pages.length)) {
-      retrieveContents(wiki, pages[currentPage], false, true, false, true, false); // TODO: withRedirects=false ?
-      pages[currentPage] = null; // To release memory
-      currentPage++;
-    }
+    // Initialize page loading: pages are retrieved by groups,
+    // the next group being retrieved while the current one is processed
+    int currentPage = retrieveNextContents(wiki, pages, 0);
+    List<Page> retrievedPages = new LinkedList<Page>();
 
     // Analyze pages
     UpdateDabWarningTools dabWarnings = new UpdateDabWarningTools(wiki, null, false, false);
@@ -210,12 +244,23 @@ public class MediaWiki extends MediaWikiController {
     StringBuilder fullComment = new StringBuilder();
     ModificationReport.Modification modification = null;
     boolean stopRequested = false;
-    while (hasRemainingTask() && !shouldStop() && !stopRequested) {
-      Object result = getNextResult();
-      if (currentPage < pages.length) {
-        retrieveContents(wiki, pages[currentPage], false, true, false, true, false); // TODO: withRedirects=false ?
-        pages[currentPage] = null; // To release memory
-        currentPage++;
+    while ((!retrievedPages.isEmpty() || hasRemainingTask()) &&
+           !shouldStop() && !stopRequested) {
+      Object result = null;
+      if (!retrievedPages.isEmpty()) {
+        result = retrievedPages.remove(0);
+      } else {
+        Object group = getNextResult();
+        if (currentPage < pages.length) {
+          currentPage = retrieveNextContents(wiki, pages, currentPage);
+        }
+        if (group instanceof List) {
+          for (Object element : (List<?>) group) {
+            if (element instanceof Page) {
+              retrievedPages.add((Page) element);
+            }
+          }
+        }
       }
       if ((result != null) && (result instanceof Page)) {
         List<String> replacementsDone = new ArrayList<String>();
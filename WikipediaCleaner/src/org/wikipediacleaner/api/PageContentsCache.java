@@ -0,0 +1,176 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueBoolean;
+
+
+/**
+ * On-disk cache of the contents of pages read at each start
+ * (configuration pages, suggestions, ...).
+ *
+ * Contents are stored by wiki and by title with their revision id,
+ * and they are used only while the revision id is still the last one.
+ * Each page has a single file, replaced when a newer revision is stored.
+ */
+public class PageContentsCache {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(PageContentsCache.class);
+
+  /** Version of the file format */
+  private final static int VERSION = 1;
+
+  /** Directory containing the cache */
+  private final File directory;
+
+  /**
+   * @return Cache (null if the cache is disabled).
+   */
+  public static PageContentsCache getCache() {
+    File directory = getCacheDirectory();
+    if (directory == null) {
+      return null;
+    }
+    return new PageContentsCache(new File(directory, "pages"));
+  }
+
+  /**
+   * @return Directory for local caches (null if caches are disabled).
+   */
+  public static File getCacheDirectory() {
+    Configuration config = Configuration.getConfiguration();
+    if (!config.getBoolean(null, ConfigurationValueBoolean.CACHE_PAGES)) {
+      return null;
+    }
+    return new File(
+        new File(System.getProperty("user.home"), ".wpcleaner"),
+        "cache");
+  }
+
+  /**
+   * @param directory Directory containing the cache.
+   */
+  PageContentsCache(File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Restore the contents of a page from the cache.
+   *
+   * @param page Page with its last revision id.
+   * @return True if the contents of the page has been restored.
+   */
+  public boolean restore(Page page) {
+    if ((page == null) ||
+        (page.getRevisionId() == null) ||
+        (page.getRevisionId().intValue() <= 0)) {
+      return false;
+    }
+    File file = getFile(page.getWikipedia(), page.getTitle());
+    if ((file == null) || !file.isFile()) {
+      return false;
+    }
+    try (DataInputStream input = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(file)))) {
+      if ((input.readInt() != VERSION) ||
+          !page.getTitle().equals(input.readUTF()) ||
+          (input.readInt() != page.getRevisionId().intValue())) {
+        return false;
+      }
+      input.readUTF();
+      byte[] contents = new byte[input.readInt()];
+      input.readFully(contents);
+      page.setContents(new String(contents, StandardCharsets.UTF_8));
+      page.setExisting(Boolean.TRUE);
+      return true;
+    } catch (IOException e) {
+      log.warn("Unable to read cache for " + page.getTitle() + ": " + e.getMessage());
+    }
+    return false;
+  }
+
+  /**
+   * Store the contents of a page in the cache.
+   *
+   * @param page Page with its contents and its revision id.
+   */
+  public void store(Page page) {
+    if ((page == null) ||
+        (page.getContents() == null) ||
+        (page.getRevisionId() == null) ||
+        (page.getRevisionId().intValue() <= 0) ||
+        !Boolean.TRUE.equals(page.isExisting())) {
+      return;
+    }
+    File file = getFile(page.getWikipedia(), page.getTitle());
+    if (file == null) {
+      return;
+    }
+    File parent = file.getParentFile();
+    if (!parent.isDirectory() && !parent.mkdirs()) {
+      return;
+    }
+
+    // Write in a temporary file, then replace the previous file
+    File tmpFile = new File(parent, file.getName() + ".tmp");
+    try (DataOutputStream output = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+      output.writeInt(VERSION);
+      output.writeUTF(page.getTitle());
+      output.writeInt(page.getRevisionId().intValue());
+      output.writeUTF((page.getContentsTimestamp() != null) ? page.getContentsTimestamp() : "");
+      byte[] contents = page.getContents().getBytes(StandardCharsets.UTF_8);
+      output.writeInt(contents.length);
+      output.write(contents);
+    } catch (IOException e) {
+      log.warn("Unable to write cache for " + page.getTitle() + ": " + e.getMessage());
+      tmpFile.delete();
+      return;
+    }
+    file.delete();
+    if (!tmpFile.renameTo(file)) {
+      tmpFile.delete();
+    }
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param title Page title.
+   * @return File for storing the contents of the page.
+   */
+  private File getFile(EnumWikipedia wiki, String title) {
+    if ((wiki == null) || (title == null)) {
+      return null;
+    }
+    try {
+      return new File(
+          new File(directory, wiki.getSettings().getCode()),
+          URLEncoder.encode(Page.normalizeTitle(title), "UTF-8"));
+    } catch (UnsupportedEncodingException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,346 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.httpclient.Header;
+import org.apache.commons.httpclient.HttpMethod;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
+
+
+/**
+ * Policy for retrying requests after a failure.
+ *
+ * Delays between attempts grow exponentially with some jitter,
+ * and are extended when the server asks for it (Retry-After header, maxlag errors, ...).
+ * When too many consecutive failures happen on a wiki, requests to this wiki
+ * are paused for some time to let the server recover.
+ */
+public class RetryPolicy {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(RetryPolicy.class);
+
+  /** Maximum delay accepted from a Retry-After header (in milliseconds) */
+  private final static long MAX_RETRY_AFTER = 10 * 60 * 1000L;
+
+  /** Policy used for requests */
+  private final static RetryPolicy policy = new RetryPolicy(
+      ConfigurationValueInteger.RETRY_MIN_DELAY.getDefaultValue() * 1000L,
+      ConfigurationValueInteger.RETRY_MAX_DELAY.getDefaultValue() * 1000L,
+      ConfigurationValueInteger.CIRCUIT_BREAKER_ERRORS.getDefaultValue(),
+      ConfigurationValueInteger.CIRCUIT_BREAKER_DELAY.getDefaultValue() * 1000L);
+
+  /**
+   * @return Policy used for requests.
+   */
+  public static RetryPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Update configuration.
+   */
+  public static void updateConfiguration() {
+    Configuration config = Configuration.getConfiguration();
+    policy.setParameters(
+        config.getInt(null, ConfigurationValueInteger.RETRY_MIN_DELAY) * 1000L,
+        config.getInt(null, ConfigurationValueInteger.RETRY_MAX_DELAY) * 1000L,
+        config.getInt(null, ConfigurationValueInteger.CIRCUIT_BREAKER_ERRORS),
+        config.getInt(null, ConfigurationValueInteger.CIRCUIT_BREAKER_DELAY) * 1000L);
+  }
+
+  /** Delay before the first retry (in milliseconds) */
+  private volatile long minDelay;
+
+  /** Maximum delay between two attempts (in milliseconds) */
+  private volatile long maxDelay;
+
+  /** Number of consecutive failures pausing the requests to a wiki (0 to never pause) */
+  private volatile int breakerErrors;
+
+  /** Duration of the pause of the requests to a wiki (in milliseconds) */
+  private volatile long breakerDelay;
+
+  /** Circuit breakers for each wiki */
+  private final ConcurrentHashMap<EnumWikipedia, CircuitBreaker> breakers;
+
+  /** Number of retries */
+  private final AtomicLong retries;
+
+  /** Total time spent waiting before retrying (in milliseconds) */
+  private final AtomicLong retriesDelay;
+
+  /** Number of times requests to a wiki have been paused */
+  private final AtomicLong pauses;
+
+  /**
+   * @param minDelay Delay before the first retry (in milliseconds).
+   * @param maxDelay Maximum delay between two attempts (in milliseconds).
+   * @param breakerErrors Number of consecutive failures pausing the requests to a wiki.
+   * @param breakerDelay Duration of the pause of the requests to a wiki (in milliseconds).
+   */
+  public RetryPolicy(
+      long minDelay, long maxDelay,
+      int breakerErrors, long breakerDelay) {
+    this.breakers = new ConcurrentHashMap<EnumWikipedia, CircuitBreaker>();
+    this.retries = new AtomicLong();
+    this.retriesDelay = new AtomicLong();
+    this.pauses = new AtomicLong();
+    setParameters(minDelay, maxDelay, breakerErrors, breakerDelay);
+  }
+
+  /**
+   * @param minDelay Delay before the first retry (in milliseconds).
+   * @param maxDelay Maximum delay between two attempts (in milliseconds).
+   * @param breakerErrors Number of consecutive failures pausing the requests to a wiki.
+   * @param breakerDelay Duration of the pause of the requests to a wiki (in milliseconds).
+   */
+  private void setParameters(
+      long minDelay, long maxDelay,
+      int breakerErrors, long breakerDelay) {
+    this.minDelay = Math.max(minDelay, 0);
+    this.maxDelay = Math.max(maxDelay, this.minDelay);
+    this.breakerErrors = Math.max(breakerErrors, 0);
+    this.breakerDelay = Math.max(breakerDelay, 0);
+  }
+
+  // ==========================================================================
+  // Retries
+  // ==========================================================================
+
+  /**
+   * Compute the delay before retrying a request.
+   *
+   * @param attempt Number of the attempt that failed (starting at 1).
+   * @param method HTTP method of the attempt that failed (may be null).
+   * @param minimumDelay Minimum delay required by the error (in milliseconds).
+   * @return Delay before retrying (in milliseconds).
+   */
+  public long getDelay(int attempt, HttpMethod method, long minimumDelay) {
+
+    // Exponential backoff with jitter
+    long delay = minDelay;
+    for (int count = 1; (count < attempt) && (delay < maxDelay); count++) {
+      delay *= 2;
+    }
+    delay = Math.min(delay, maxDelay);
+    if (delay > 1) {
+      delay = delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    // Delays required by the server
+    delay = Math.max(delay, minimumDelay);
+    delay = Math.max(delay, getRetryAfter(method));
+    return delay;
+  }
+
+  /**
+   * Wait before retrying a request.
+   *
+   * @param wiki Wiki on which the request failed.
+   * @param attempt Number of the attempt that failed (starting at 1).
+   * @param method HTTP method of the attempt that failed (may be null).
+   * @param minimumDelay Minimum delay required by the error (in milliseconds).
+   * @throws APIException Exception thrown if the wait is interrupted.
+   */
+  public void waitBeforeRetrying(
+      EnumWikipedia wiki, int attempt,
+      HttpMethod method, long minimumDelay) throws APIException {
+    recordFailure(wiki);
+    long delay = getDelay(attempt, method, minimumDelay);
+    retries.incrementAndGet();
+    retriesDelay.addAndGet(delay);
+    log.warn("Waiting " + delay + "ms before trying again");
+    sleep(delay);
+  }
+
+  /**
+   * @param method HTTP method (may be null).
+   * @return Delay requested by the server in a Retry-After header (in milliseconds).
+   */
+  public static long getRetryAfter(HttpMethod method) {
+    if (method == null) {
+      return 0;
+    }
+    Header header = method.getResponseHeader("Retry-After");
+    if ((header == null) || (header.getValue() == null)) {
+      return 0;
+    }
+    try {
+      long delay = Long.parseLong(header.getValue().trim()) * 1000L;
+      return Math.min(Math.max(delay, 0), MAX_RETRY_AFTER);
+    } catch (NumberFormatException e) {
+      // HTTP dates are not used by MediaWiki
+      return 0;
+    }
+  }
+
+  // ==========================================================================
+  // Circuit breaker
+  // ==========================================================================
+
+  /**
+   * Wait until requests to a wiki are no longer paused.
+   *
+   * @param wiki Wiki.
+   * @throws APIException Exception thrown if the wait is interrupted.
+   */
+  public void waitForAvailability(EnumWikipedia wiki) throws APIException {
+    if (wiki == null) {
+      return;
+    }
+    CircuitBreaker breaker = breakers.get(wiki);
+    if (breaker == null) {
+      return;
+    }
+    long delay = breaker.getPausedUntil() - System.currentTimeMillis();
+    if (delay > 0) {
+      sleep(delay);
+    }
+  }
+
+  /**
+   * Record a successful request.
+   *
+   * @param wiki Wiki.
+   */
+  public void recordSuccess(EnumWikipedia wiki) {
+    if (wiki == null) {
+      return;
+    }
+    CircuitBreaker breaker = breakers.get(wiki);
+    if (breaker != null) {
+      breaker.recordSuccess();
+    }
+  }
+
+  /**
+   * Record a failed request.
+   *
+   * @param wiki Wiki.
+   */
+  public void recordFailure(EnumWikipedia wiki) {
+    if ((wiki == null) || (breakerErrors <= 0)) {
+      return;
+    }
+    CircuitBreaker breaker = breakers.get(wiki);
+    if (breaker == null) {
+      breaker = new CircuitBreaker();
+      CircuitBreaker previous = breakers.putIfAbsent(wiki, breaker);
+      if (previous != null) {
+        breaker = previous;
+      }
+    }
+    if (breaker.recordFailure(breakerErrors, breakerDelay)) {
+      pauses.incrementAndGet();
+      log.warn(
+          "Too many errors on " + wiki.getSettings().getCode() +
+          ", pausing requests for " + breakerDelay + "ms");
+    }
+  }
+
+  // ==========================================================================
+  // Metrics
+  // ==========================================================================
+
+  /**
+   * @return Number of retries.
+   */
+  public long getRetries() {
+    return retries.get();
+  }
+
+  /**
+   * @return Total time spent waiting before retrying (in milliseconds).
+   */
+  public long getRetriesDelay() {
+    return retriesDelay.get();
+  }
+
+  /**
+   * @return Number of times requests to a wiki have been paused.
+   */
+  public long getPauses() {
+    return pauses.get();
+  }
+
+  // ==========================================================================
+  // Utilities
+  // ==========================================================================
+
+  /**
+   * @param delay Delay to wait (in milliseconds).
+   * @throws APIException Exception thrown if the wait is interrupted.
+   */
+  private static void sleep(long delay) throws APIException {
+    long endWait = System.currentTimeMillis() + delay;
+    for (;;) {
+      long currentTime = System.currentTimeMillis();
+      if (currentTime >= endWait) {
+        return;
+      }
+      try {
+        Thread.sleep(endWait - currentTime);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new APIException("Interrupted while waiting before retrying", e);
+      }
+    }
+  }
+
+  /**
+   * Consecutive failures on a wiki.
+   */
+  private static class CircuitBreaker {
+
+    /** Number of consecutive failures */
+    private int failures;
+
+    /** Time until which requests are paused */
+    private long pausedUntil;
+
+    /**
+     * @return Time until which requests are paused.
+     */
+    synchronized long getPausedUntil() {
+      return pausedUntil;
+    }
+
+    /**
+     * Record a successful request.
+     */
+    synchronized void recordSuccess() {
+      failures = 0;
+    }
+
+    /**
+     * Record a failed request.
+     *
+     * @param maxFailures Number of consecutive failures pausing the requests.
+     * @param delay Duration of the pause (in milliseconds).
+     * @return True if requests are now paused.
+     */
+    synchronized boolean recordFailure(int maxFailures, long delay) {
+      failures++;
+      if (failures < maxFailures) {
+        return false;
+      }
+      failures = 0;
+      pausedUntil = System.currentTimeMillis() + delay;
+      return true;
+    }
+  }
+}
@@ -286,7 +286,7 @@ public class CheckWiki {
         Page page = DataManager.getPage(
             wiki, translationPage,
             null, null, null);
-        api.retrieveContents(wiki, Collections.singleton(page), false, false);
+        api.retrieveContentsWithCache(wiki, Collections.singleton(page));
         if (Boolean.TRUE.equals(page.isExisting())) {
           cwConfiguration.setWikiConfiguration(new StringReader(page.getContents()));
         }
@@ -13,6 +13,7 @@ import java.util.List;
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.data.PageAnalysis;
 import org.wikipediacleaner.api.data.PageElementTitle;
+import org.wikipediacleaner.api.data.contents.ContentsReplacements;
 
 
 /**
@@ -96,25 +97,17 @@ public class CheckErrorAlgorithm007 extends CheckErrorAlgorithmBase {
     }
 
     // Replace titles
-    StringBuilder tmp = new StringBuilder();
-    int lastIndex = 0;
+    ContentsReplacements replacements = new ContentsReplacements();
     int offset = minTitle - 2;
     for (PageElementTitle title : titles) {
-      if (lastIndex < title.getBeginIndex()) {
-        tmp.append(contents.substring(lastIndex, title.getBeginIndex()));
-        lastIndex = title.getBeginIndex();
-      }
-      tmp.append(PageElementTitle.createTitle(
-          title.getLevel() - offset, title.getTitle(), title.getAfterTitle()));
+      String newTitle = PageElementTitle.createTitle(
+          title.getLevel() - offset, title.getTitle(), title.getAfterTitle());
       if (title.getAfterTitle() != null) {
-        tmp.append(title.getAfterTitle());
+        newTitle += title.getAfterTitle();
       }
-      lastIndex = title.getEndIndex();
-    }
-    if (lastIndex < contents.length()) {
-      tmp.append(contents.substring(lastIndex));
+      replacements.add(title.getBeginIndex(), title.getEndIndex(), newTitle);
     }
 
-    return tmp.toString();
+    return replacements.apply(contents);
   }
 }
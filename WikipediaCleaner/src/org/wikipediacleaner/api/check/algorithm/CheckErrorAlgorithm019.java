@@ -13,6 +13,7 @@ import java.util.List;
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.data.PageAnalysis;
 import org.wikipediacleaner.api.data.PageElementTitle;
+import org.wikipediacleaner.api.data.contents.ContentsReplacements;
 
 
 /**
@@ -96,30 +97,22 @@ public class CheckErrorAlgorithm019 extends CheckErrorAlgorithmBase {
     }
 
     // Replace titles
-    StringBuilder tmp = new StringBuilder();
-    int lastIndex = 0;
+    ContentsReplacements replacements = new ContentsReplacements();
     boolean found = false;
     for (PageElementTitle title : titles) {
       if (!found && title.getLevel() == 1) {
         found = true;
       }
       if (found) {
-        if (lastIndex < title.getBeginIndex()) {
-          tmp.append(contents.substring(lastIndex, title.getBeginIndex()));
-          lastIndex = title.getBeginIndex();
-        }
-        tmp.append(PageElementTitle.createTitle(
-            title.getLevel() + 1, title.getTitle(), title.getAfterTitle()));
+        String newTitle = PageElementTitle.createTitle(
+            title.getLevel() + 1, title.getTitle(), title.getAfterTitle());
         if (title.getAfterTitle() != null) {
-          tmp.append(title.getAfterTitle());
+          newTitle += title.getAfterTitle();
         }
-        lastIndex = title.getEndIndex();
+        replacements.add(title.getBeginIndex(), title.getEndIndex(), newTitle);
       }
     }
-    if (lastIndex < contents.length()) {
-      tmp.append(contents.substring(lastIndex));
-    }
 
-    return tmp.toString();
+    return replacements.apply(contents);
   }
 }
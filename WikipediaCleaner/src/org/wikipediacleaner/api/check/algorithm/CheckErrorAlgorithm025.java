@@ -14,6 +14,7 @@ import java.util.Vector;
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.data.PageAnalysis;
 import org.wikipediacleaner.api.data.PageElementTitle;
+import org.wikipediacleaner.api.data.contents.ContentsReplacements;
 
 
 /**
@@ -81,8 +82,7 @@ public class CheckErrorAlgorithm025 extends CheckErrorAlgorithmBase {
     }
 
     // Replace titles
-    StringBuilder tmp = new StringBuilder();
-    int lastIndex = 0;
+    ContentsReplacements replacements = new ContentsReplacements();
     Vector<Integer> offsets = new Vector<Integer>();
     List<PageElementTitle> titles = analysis.getTitles();
     for (int index = 0; index < titles.size(); index++) {
@@ -99,16 +99,12 @@ public class CheckErrorAlgorithm025 extends CheckErrorAlgorithmBase {
 
       // Replace title if needed
       if (offset > 0) {
-        if (lastIndex < title.getBeginIndex()) {
-          tmp.append(contents.substring(lastIndex, title.getBeginIndex()));
-          lastIndex = title.getBeginIndex();
-        }
-        tmp.append(PageElementTitle.createTitle(
-            title.getLevel() - offset, title.getTitle(), title.getAfterTitle()));
+        String newTitle = PageElementTitle.createTitle(
+            title.getLevel() - offset, title.getTitle(), title.getAfterTitle());
         if (title.getAfterTitle() != null) {
-          tmp.append(title.getAfterTitle());
+          newTitle += title.getAfterTitle();
         }
-        lastIndex = title.getEndIndex();
+        replacements.add(title.getBeginIndex(), title.getEndIndex(), newTitle);
       }
 
       // Compute level offset
@@ -127,13 +123,7 @@ public class CheckErrorAlgorithm025 extends CheckErrorAlgorithmBase {
         offsets.add(Integer.valueOf(titles.get(index + 1).getLevel() - title.getLevel() - 1));
       }
     }
-    if (lastIndex == 0) {
-      return contents;
-    }
-    if (lastIndex < contents.length()) {
-      tmp.append(contents.substring(lastIndex));
-    }
 
-    return tmp.toString();
+    return replacements.apply(contents);
   }
 }
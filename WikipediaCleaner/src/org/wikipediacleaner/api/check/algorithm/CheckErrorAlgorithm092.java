@@ -15,6 +15,7 @@ import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.check.CheckErrorResult.ErrorLevel;
 import org.wikipediacleaner.api.data.PageAnalysis;
 import org.wikipediacleaner.api.data.PageElementTitle;
+import org.wikipediacleaner.api.data.contents.ContentsReplacements;
 
 
 /**
@@ -116,8 +117,7 @@ public class CheckErrorAlgorithm092 extends CheckErrorAlgorithmBase {
     }
 
     // Fix double headlines
-    int lastIndex = 0;
-    StringBuilder buffer = new StringBuilder();
+    ContentsReplacements replacements = new ContentsReplacements();
     for (int i = 1; i < titles.size(); i++) {
       PageElementTitle previousTitle = titles.get(i - 1);
       PageElementTitle currentTitle = titles.get(i);
@@ -142,11 +142,7 @@ public class CheckErrorAlgorithm092 extends CheckErrorAlgorithmBase {
           }
         }
         if (shouldRemove) {
-          if (previousTitle.getBeginIndex() > lastIndex) {
-            buffer.append(contents.substring(lastIndex, previousTitle.getBeginIndex()));
-            lastIndex = previousTitle.getBeginIndex();
-          }
-          lastIndex = currentTitle.getBeginIndex();
+          replacements.add(previousTitle.getBeginIndex(), currentTitle.getBeginIndex(), "");
         } else {
 
           // Analyze if second title can be removed
@@ -168,21 +164,14 @@ public class CheckErrorAlgorithm092 extends CheckErrorAlgorithmBase {
             }
           }
           if (shouldRemove) {
-            if (currentTitle.getBeginIndex() > lastIndex) {
-              buffer.append(contents.substring(lastIndex, currentTitle.getBeginIndex()));
-              lastIndex = currentTitle.getBeginIndex();
-            }
-            lastIndex = (nextTitle != null) ? nextTitle.getBeginIndex() : contents.length();
+            replacements.add(
+                currentTitle.getBeginIndex(),
+                (nextTitle != null) ? nextTitle.getBeginIndex() : contents.length(),
+                "");
           }
         }
       }
     }
-    if (lastIndex == 0) {
-      return contents;
-    }
-    if (lastIndex < contents.length()) {
-      buffer.append(contents.substring(lastIndex));
-    }
-    return buffer.toString();
+    return replacements.apply(contents);
   }
 }
@@ -31,6 +31,7 @@ import org.wikipediacleaner.api.data.PageElementTag;
 import org.wikipediacleaner.api.data.PageElementTemplate;
 import org.wikipediacleaner.api.data.Suggestion;
 import org.wikipediacleaner.api.data.Suggestion.ElementarySuggestion;
+import org.wikipediacleaner.api.data.SuggestionFilter;
 import org.wikipediacleaner.gui.swing.component.MWPaneReplaceAllAction;
 import org.wikipediacleaner.i18n.GT;
 import org.wikipediacleaner.utils.Configuration;
@@ -101,14 +102,23 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
       result |= analyzeTags(analysis, activeSuggestions, replacements);
     }
 
+    // Find where suggestions may match in the text
+    SuggestionFilter.Candidates candidates = null;
+    if ((result == false) || (errors != null)) {
+      SuggestionFilter filter = analysis.getWPCConfiguration().getSuggestionFilter();
+      if (filter != null) {
+        candidates = filter.scan(analysis.getContents());
+      }
+    }
+
     // Check spelling in normal text with non native regular expressions
     if ((result == false) || (errors != null)) {
-      result |= analyzeNonNativeText(analysis, activeSuggestions, replacements, slowRegexp);
+      result |= analyzeNonNativeText(analysis, activeSuggestions, candidates, replacements, slowRegexp);
     }
 
     // Check spelling in normal text with native regular expressions
     if ((result == false) || (errors != null)) {
-      result |= analyzeNativeText(analysis, activeSuggestions, replacements, slowRegexp);
+      result |= analyzeNativeText(analysis, activeSuggestions, candidates, replacements, slowRegexp);
     }
 
     if (errors == null) {
@@ -201,12 +211,14 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
    * 
    * @param analysis Page analysis.
    * @param suggestions Active suggestions.
+   * @param candidates Candidate areas for suggestions (null if not available).
    * @param replacements List of possible replacements.
    * @param slowRegexp Threshold for slow regular expression.
    * @return True if an error has been found.
    */
   private boolean analyzeNativeText(
       PageAnalysis analysis, List<Suggestion> suggestions,
+      SuggestionFilter.Candidates candidates,
       List<Replacement> replacements, int slowRegexp) {
     boolean result = false;
 
@@ -218,11 +230,19 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     while (itSuggestion.hasNext()) {
       Suggestion suggestion = itSuggestion.next();
       if (!suggestion.isOtherPattern()) {
+        itSuggestion.remove();
+        if ((candidates != null) &&
+            !candidates.hasCandidate(suggestion, 0, contents.length())) {
+          continue;
+        }
         Performance perf = Performance.getInstance("Slow regular expression");
         perf.setThreshold(slowRegexp);
-        itSuggestion.remove();
         Matcher matcher = suggestion.initMatcher(contents);
         for (ContentsChunk chunk : chunks) {
+          if ((candidates != null) &&
+              !candidates.hasCandidate(suggestion, chunk.getBegin(), chunk.getEnd())) {
+            continue;
+          }
           matcher.region(chunk.getBegin(), chunk.getEnd());
           int authorizedBegin = chunk.getBegin();
           while (matcher.find()) {
@@ -274,12 +294,14 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
    * 
    * @param analysis Page analysis.
    * @param suggestions Active suggestions.
+   * @param candidates Candidate areas for suggestions (null if not available).
    * @param replacements List of possible replacements.
    * @param slowRegexp Threshold for slow regular expression.
    * @return True if an error has been found.
    */
   private boolean analyzeNonNativeText(
       PageAnalysis analysis, List<Suggestion> suggestions,
+      SuggestionFilter.Candidates candidates,
       List<Replacement> replacements, int slowRegexp) {
     boolean result = false;
 
@@ -291,11 +313,19 @@ public class CheckErrorAlgorithm501 extends CheckErrorAlgorithmBase {
     while (itSuggestion.hasNext()) {
       Suggestion suggestion = itSuggestion.next();
       if (suggestion.isOtherPattern()) {
+        itSuggestion.remove();
+        if ((candidates != null) &&
+            !candidates.hasCandidate(suggestion, 0, contents.length())) {
+          continue;
+        }
         Performance perf = Performance.getInstance("Slow regular expression");
         perf.setThreshold(slowRegexp);
-        itSuggestion.remove();
         Matcher matcher = suggestion.initMatcher(contents);
         for (ContentsChunk chunk : chunks) {
+          if ((candidates != null) &&
+              !candidates.hasCandidate(suggestion, chunk.getBegin(), chunk.getEnd())) {
+            continue;
+          }
           matcher.region(chunk.getBegin(), chunk.getEnd());
           int authorizedBegin = chunk.getBegin();
           while (matcher.find()) {
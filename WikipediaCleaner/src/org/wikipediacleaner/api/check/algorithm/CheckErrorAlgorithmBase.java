@@ -29,6 +29,7 @@ import org.wikipediacleaner.api.constants.WPCConfigurationString;
 import org.wikipediacleaner.api.data.MagicWord;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.api.data.contents.ContentsReplacements;
 import org.wikipediacleaner.gui.swing.component.MWPane;
 import org.wikipediacleaner.i18n.GT;
 
@@ -358,22 +359,18 @@ public abstract class CheckErrorAlgorithmBase implements CheckErrorAlgorithm {
    * @return Page contents after fix.
    */
   public String fixUsingFirstReplacement(String fixName, PageAnalysis analysis) {
-    String result = analysis.getContents();
     List<CheckErrorResult> errors = new ArrayList<CheckErrorResult>();
+    ContentsReplacements replacements = new ContentsReplacements();
     if (analyze(analysis, errors, false)) {
-      for (int i = errors.size(); i > 0; i--) {
-        CheckErrorResult errorResult = errors.get(i - 1);
+      for (CheckErrorResult errorResult : errors) {
         String newText = errorResult.getFirstReplacement();
         if (newText != null) {
-          String tmp =
-            result.substring(0, errorResult.getStartPosition()) +
-            newText +
-            result.substring(errorResult.getEndPosition());
-          result = tmp;
+          replacements.add(
+              errorResult.getStartPosition(), errorResult.getEndPosition(), newText);
         }
       }
     }
-    return result;
+    return replacements.apply(analysis.getContents());
   }
 
   /**
@@ -383,31 +380,24 @@ public abstract class CheckErrorAlgorithmBase implements CheckErrorAlgorithm {
    * @return Page contents after fix.
    */
   public String fixUsingAutomaticReplacement(PageAnalysis analysis) {
-    String result = analysis.getContents();
     List<CheckErrorResult> errors = new ArrayList<CheckErrorResult>();
+    ContentsReplacements replacements = new ContentsReplacements();
     if (analyze(analysis, errors, true)) {
       Collections.sort(errors);
-      for (int i = errors.size(); i > 0; i--) {
-        CheckErrorResult errorResult = errors.get(i - 1);
-        boolean shouldTry = true;
-        for (int j = 0; j < i - 1; j++) {
-          if (errors.get(j).getEndPosition() > errorResult.getStartPosition()) {
-            shouldTry = false;
-          }
-        }
+      int maxEnd = 0;
+      for (CheckErrorResult errorResult : errors) {
+        boolean shouldTry = (maxEnd <= errorResult.getStartPosition());
+        maxEnd = Math.max(maxEnd, errorResult.getEndPosition());
         if (shouldTry) {
           String newText = errorResult.getAutomaticReplacement();
           if (newText != null) {
-            String tmp =
-              result.substring(0, errorResult.getStartPosition()) +
-              newText +
-              result.substring(errorResult.getEndPosition());
-            result = tmp;
+            replacements.add(
+                errorResult.getStartPosition(), errorResult.getEndPosition(), newText);
           }
         }
       }
     }
-    return result;
+    return replacements.apply(analysis.getContents());
   }
 
   /**
@@ -417,23 +407,19 @@ public abstract class CheckErrorAlgorithmBase implements CheckErrorAlgorithm {
    * @return Page contents after fix.
    */
   public String fixUsingAutomaticBotReplacement(PageAnalysis analysis) {
-    String result = analysis.getContents();
     List<CheckErrorResult> errors = new ArrayList<CheckErrorResult>();
+    ContentsReplacements replacements = new ContentsReplacements();
     if (analyze(analysis, errors, true)) {
       Collections.sort(errors);
-      for (int i = errors.size(); i > 0; i--) {
-        CheckErrorResult errorResult = errors.get(i - 1);
+      for (CheckErrorResult errorResult : errors) {
         String newText = errorResult.getAutomaticBotReplacement();
         if (newText != null) {
-          String tmp =
-            result.substring(0, errorResult.getStartPosition()) +
-            newText +
-            result.substring(errorResult.getEndPosition());
-          result = tmp;
+          replacements.add(
+              errorResult.getStartPosition(), errorResult.getEndPosition(), newText);
         }
       }
     }
-    return result;
+    return replacements.apply(analysis.getContents());
   }
 
   /**
@@ -444,18 +430,15 @@ public abstract class CheckErrorAlgorithmBase implements CheckErrorAlgorithm {
    * @return Page contents after fix.
    */
   public String fixUsingRemove(String fixName, PageAnalysis analysis) {
-    String result = analysis.getContents();
     List<CheckErrorResult> errors = new ArrayList<CheckErrorResult>();
+    ContentsReplacements replacements = new ContentsReplacements();
     if (analyze(analysis, errors, false)) {
-      for (int i = errors.size(); i > 0; i--) {
-        CheckErrorResult errorResult = errors.get(i - 1);
-        String tmp =
-          result.substring(0, errorResult.getStartPosition()) +
-          result.substring(errorResult.getEndPosition());
-        result = tmp;
+      for (CheckErrorResult errorResult : errors) {
+        replacements.add(
+            errorResult.getStartPosition(), errorResult.getEndPosition(), "");
       }
     }
-    return result;
+    return replacements.apply(analysis.getContents());
   }
 
   /**
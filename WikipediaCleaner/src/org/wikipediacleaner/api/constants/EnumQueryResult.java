@@ -57,6 +57,9 @@ public enum EnumQueryResult {
                         "Bad title"),
   INVALID_USER         ("InvalidUser",
                         "Invalid username"),
+  MAX_LAG              ("MaxLag",
+                        "Waiting for lagged database servers",
+                        5, 5),
   MISSING_TITLE        ("MissingTitle",
                         "The page you requested doesn't exist"),
   MUST_BE_POSTED       ("MustBePosted",
@@ -215,6 +218,13 @@ public enum EnumQueryResult {
     return maxRetry;
   }
 
+  /**
+   * @return Number of milliseconds to wait before next attempt.
+   */
+  public long getDelayRetry() {
+    return delayRetry;
+  }
+
   /**
    * Wait for retry.
    */
@@ -8,20 +8,24 @@
 package org.wikipediacleaner.api.constants;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.PageContentsCache;
 import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Namespace;
 import org.wikipediacleaner.api.data.Page;
@@ -31,6 +35,8 @@ import org.wikipediacleaner.api.data.PageElementTag.Parameter;
 import org.wikipediacleaner.api.data.PageAnalysisUtils;
 import org.wikipediacleaner.api.data.PageElementTemplate;
 import org.wikipediacleaner.api.data.Suggestion;
+import org.wikipediacleaner.api.data.SuggestionCache;
+import org.wikipediacleaner.api.data.SuggestionFilter;
 import org.wikipediacleaner.api.data.TemplateMatch;
 import org.wikipediacleaner.api.data.TemplateMatcher;
 import org.wikipediacleaner.api.data.TemplateMatcher1L;
@@ -70,6 +76,7 @@ public class WPCConfiguration {
     generalLongValues = new HashMap<WPCConfigurationLong, Long>();
     userLongValues = new HashMap<WPCConfigurationLong, Long>();
     initDefaultEncyclopedicNamespaces();
+    snapshot = new WPCConfigurationSnapshot(this);
   }
 
   /**
@@ -86,6 +93,7 @@ public class WPCConfiguration {
     } catch (IOException e) {
       // Nothing
     }
+    snapshot = new WPCConfigurationSnapshot(this);
   }
 
   /**
@@ -103,6 +111,7 @@ public class WPCConfiguration {
     initDefaultEncyclopedicNamespaces();
     disambiguationCategories = null;
     suggestions = null;
+    suggestionFilter = null;
     templateMatchers = new HashMap<String, List<TemplateMatcher>>();
     templatesAfterAskHelp = null;
     wiktionaryMatches = null;
@@ -121,6 +130,7 @@ public class WPCConfiguration {
     } catch (IOException e) {
       // Nothing
     }
+    snapshot = new WPCConfigurationSnapshot(this);
   }
 
   /**
@@ -209,6 +219,11 @@ public class WPCConfiguration {
    */
   private final Map<WPCConfigurationLong, Long> userLongValues;
 
+  /**
+   * Values computed when the configuration is loaded, replaced at each reload.
+   */
+  private volatile WPCConfigurationSnapshot snapshot;
+
   /**
    * Retrieve the value of a Boolean attribute.
    * 
@@ -216,6 +231,16 @@ public class WPCConfiguration {
    * @return Attribute value.
    */
   public boolean getBoolean(WPCConfigurationBoolean attribute) {
+    return snapshot.getBoolean(attribute);
+  }
+
+  /**
+   * Compute the value of a Boolean attribute.
+   * 
+   * @param attribute Attribute.
+   * @return Attribute value.
+   */
+  boolean computeBoolean(WPCConfigurationBoolean attribute) {
     Boolean result = userBooleanValues.get(attribute);
     if (result == null) {
       result = generalBooleanValues.get(attribute);
@@ -233,6 +258,16 @@ public class WPCConfiguration {
    * @return Attribute value.
    */
   public String getString(WPCConfigurationString attribute) {
+    return snapshot.getString(attribute);
+  }
+
+  /**
+   * Compute the value of a String attribute.
+   * 
+   * @param attribute Attribute.
+   * @return Attribute value.
+   */
+  String computeString(WPCConfigurationString attribute) {
     String result = userStringValues.get(attribute);
     if ((result == null) ||
         ((!attribute.canBeEmpty()) && (result.trim().length() == 0))) {
@@ -255,22 +290,7 @@ public class WPCConfiguration {
    * @return Attribute value divided into an array.
    */
   public String[] getStringArray(WPCConfigurationString attribute) {
-    String result = userStringValues.get(attribute);
-    if ((result == null) ||
-        ((!attribute.canBeEmpty()) && (result.trim().length() == 0))) {
-      result = generalStringValues.get(attribute);
-    }
-    if ((result == null) ||
-        ((!attribute.canBeEmpty()) && (result.trim().length() == 0))) {
-      result = attribute.getDefaultValue();
-    }
-    if ((result != null) && (!attribute.canBeEmpty()) && (result.trim().length() == 0)) {
-      result = null;
-    }
-    if (result == null) {
-      return null;
-    }
-    return result.split("\\|");
+    return snapshot.getStringArray(attribute);
   }
 
   /**
@@ -280,31 +300,50 @@ public class WPCConfiguration {
    * @return Attribute value.
    */
   public List<String> getStringList(WPCConfigurationStringList attribute) {
-    List<String> userResult = userStringListValues.get(attribute);
-    List<String> generalResult = generalStringListValues.get(attribute);
-    if ((userResult == null) && (generalResult == null)) {
+    List<String> result = snapshot.getStringList(attribute);
+    if (result == null) {
       return null;
     }
-    List<String> result = new ArrayList<String>();
-    if ((generalResult != null) && ((userResult == null) || (attribute.canCombine()))) {
-      result.addAll(generalResult);
-    }
-    if (userResult != null) {
-      result.addAll(userResult);
-    }
-    return result;
+    return new ArrayList<String>(result);
   }
 
   /**
    * Retrieve the value of a String list attribute, each element divided into an array.
    * 
    * @param attribute Attribute.
-   * @return Attribute value.
+   * @return Attribute value (unmodifiable).
    */
   public List<String[]> getStringArrayList(WPCConfigurationStringList attribute) {
+    return snapshot.getStringArrayList(attribute);
+  }
+
+  /**
+   * Check if a name is the first part of an element of a String list attribute.
+   * 
+   * @param attribute Attribute.
+   * @param name Name (template, page, ...).
+   * @return True if the name is in the attribute value.
+   */
+  public boolean isNameInList(WPCConfigurationStringList attribute, String name) {
+    Set<String> names = snapshot.getNames(attribute);
+    if ((names == null) || names.isEmpty() || (name == null)) {
+      return false;
+    }
+    return names.contains(Page.normalizeTitle(name));
+  }
+
+  /**
+   * Compute the value of a String list attribute.
+   * 
+   * @param attribute Attribute.
+   * @param useDefault True if the default value should be used when the attribute is not set.
+   * @return Attribute value.
+   */
+  List<String> computeStringList(WPCConfigurationStringList attribute, boolean useDefault) {
     List<String> userResult = userStringListValues.get(attribute);
     List<String> generalResult = generalStringListValues.get(attribute);
-    if ((userResult == null) && (generalResult == null) && (attribute.getDefaultValue() == null)) {
+    List<String> defaultResult = useDefault ? attribute.getDefaultValue() : null;
+    if ((userResult == null) && (generalResult == null) && (defaultResult == null)) {
       return null;
     }
     List<String> result = new ArrayList<String>();
@@ -315,13 +354,9 @@ public class WPCConfiguration {
       result.addAll(userResult);
     }
     if ((generalResult == null) && (userResult == null)) {
-      result.addAll(attribute.getDefaultValue());
-    }
-    List<String[]> fullResult = new ArrayList<String[]>(result.size());
-    for (String element : result) {
-      fullResult.add(element.split("\\|"));
+      result.addAll(defaultResult);
     }
-    return fullResult;
+    return result;
   }
 
   /**
@@ -331,6 +366,16 @@ public class WPCConfiguration {
    * @return Attribute value.
    */
   public long getLong(WPCConfigurationLong attribute) {
+    return snapshot.getLong(attribute);
+  }
+
+  /**
+   * Compute the value of a Long attribute.
+   * 
+   * @param attribute Attribute.
+   * @return Attribute value.
+   */
+  long computeLong(WPCConfigurationLong attribute) {
     Long result = userLongValues.get(attribute);
     if (result == null) {
       result = generalLongValues.get(attribute);
@@ -577,6 +622,21 @@ public class WPCConfiguration {
    */
   private Map<String, Suggestion> suggestions;
 
+  /**
+   * Prefilter for spelling suggestions.
+   */
+  private SuggestionFilter suggestionFilter;
+
+  /**
+   * Sources (pages and revisions) of the spelling suggestions.
+   */
+  private List<String> suggestionSources;
+
+  /**
+   * Cache of suggestion definitions.
+   */
+  private SuggestionCache suggestionCache;
+
   /**
    * Initialize suggestions for text replacements.
    * 
@@ -608,112 +668,181 @@ public class WPCConfiguration {
           }
         }
         try {
-          api.retrieveContents(wiki, pages.values(), false, false);
+          api.retrieveContentsWithCache(wiki, pages.values());
         } catch (APIException e) {
           System.err.println("Exception retrieving contents for suggestions");
         }
 
-        // Construct suggestions
-        Map<String, Suggestion> tmpMap = new HashMap<String, Suggestion>();
+        // Retrieve suggestion definitions, from cache for unmodified pages
+        if (suggestionCache == null) {
+          File directory = PageContentsCache.getCacheDirectory();
+          suggestionCache = new SuggestionCache((directory != null) ?
+              new File(new File(directory, wiki.getSettings().getCode()), "suggestions") :
+              null);
+        }
+        List<String> suggestionIgnore = getStringList(WPCConfigurationStringList.SUGGESTION_IGNORE);
+        String ignoreKey = (suggestionIgnore != null) ? suggestionIgnore.toString() : "";
+        List<String> sources = new ArrayList<String>();
+        List<SuggestionCache.Definition> definitions = new ArrayList<SuggestionCache.Definition>();
         if (suggestionPages != null) {
-          List<String> suggestionIgnore = getStringList(WPCConfigurationStringList.SUGGESTION_IGNORE);
           for (String[] elements : suggestionPages) {
             if (elements.length >= 4) {
-              String pageName = elements[0];
-              String[] elementsReplacement = elements[3].split(",");
-              Page page = pages.get(pageName);
+              Page page = pages.get(elements[0]);
               if ((page != null) && (page.getContents() != null)) {
-                String contents = page.getContents();
-                PageAnalysis analysis = page.getAnalysis(contents, true);
-                Collection<PageElementTemplate> templates = analysis.getTemplates(elements[1]);
-                for (PageElementTemplate template : templates) {
-                  String chapterId = PageAnalysisUtils.getCurrentChapterId(analysis, template.getBeginIndex());
-                  if ((suggestionIgnore == null) || (!suggestionIgnore.contains(chapterId))) {
-                    String patternText = template.getParameterValue(elements[2]);
-                    Suggestion suggestion = tmpMap.get(patternText);
-                    if (suggestion == null) {
-                      String chapter = PageAnalysisUtils.getCurrentChapterId(analysis, template.getBeginIndex());
-                      suggestion = Suggestion.createSuggestion(patternText, false, chapter);
-                      if (suggestion != null) {
-                        tmpMap.put(patternText, suggestion);
-                      }
-                    }
-                    if (suggestion != null) {
-                      boolean automatic = false;
-                      if (elements.length > 4) {
-                        suggestion.setComment(template.getParameterValue(elements[4]));
-                        if (elements.length > 6) {
-                          if (elements[6].equalsIgnoreCase(template.getParameterValue(elements[5]))) {
-                            automatic = true;
-                          }
-                        }
-                      }
-                      for (String elementReplacement : elementsReplacement) {
-                        String replacementText = template.getParameterValue(elementReplacement);
-                        if ((replacementText != null) &&
-                            (replacementText.length() > 0)) {
-                          suggestion.addReplacement(replacementText, automatic);
-                        }
-                      }
-                    }
-                  }
+                String source = Arrays.toString(elements) + ignoreKey;
+                List<SuggestionCache.Definition> pageDefinitions =
+                    suggestionCache.getDefinitions(source, page.getRevisionId());
+                if (pageDefinitions == null) {
+                  pageDefinitions = extractSuggestions(page, elements, suggestionIgnore);
+                  suggestionCache.setDefinitions(source, page.getRevisionId(), pageDefinitions);
                 }
+                sources.add(source + getRevisionKey(page));
+                definitions.addAll(pageDefinitions);
               }
             }
           }
         }
-
-        // Construct suggestions from AWB format
         if (suggestionTypoPages != null) {
-          List<String> suggestionIgnore = getStringList(WPCConfigurationStringList.SUGGESTION_IGNORE);
           for (String suggestionPage : suggestionTypoPages) {
             Page page = pages.get(suggestionPage);
             if ((page != null) && (page.getContents() != null)) {
-              String contents = page.getContents();
-              PageAnalysis analysis = page.getAnalysis(contents, true);
-              Collection<PageElementTag> tags = analysis.getTags(PageElementTag.TAG_OTHER_TYPO);
-              for (PageElementTag tag : tags) {
-                String chapterId = PageAnalysisUtils.getCurrentChapterId(analysis, tag.getBeginIndex());
-                if ((suggestionIgnore == null) || (!suggestionIgnore.contains(chapterId))) {
-                  Parameter word = tag.getParameter("word");
-                  Parameter find = tag.getParameter("find");
-                  Parameter replace = tag.getParameter("replace");
-                  Parameter disabled = tag.getParameter("disabled");
-                  if ((word != null) && (find != null) && (replace != null) && (disabled == null)) {
-                    String wordValue = word.getValue();
-                    String findValue = find.getValue();
-                    String replaceValue = replace.getValue();
-                    if ((wordValue != null) && (findValue != null) && (replaceValue != null)) {
-                      String cleanFindValue = Suggestion.cleanPattern(findValue);
-                      if (cleanFindValue == null) {
-                        System.err.println("Rejecting " + wordValue + " : " + findValue);
-                      } else {
-                        Suggestion suggestion = tmpMap.get(cleanFindValue);
-                        if (suggestion == null) {
-                          String chapter = PageAnalysisUtils.getCurrentChapterId(analysis, tag.getBeginIndex());
-                          suggestion = Suggestion.createSuggestion(cleanFindValue, true, chapter);
-                          if (suggestion != null) {
-                            tmpMap.put(cleanFindValue, suggestion);
-                          }
-                        }
-                        if (suggestion != null) {
-                          suggestion.setComment("Typo AWB " + wordValue);
-                          suggestion.addReplacement(replaceValue, false);
-                        }
-                      }
-                    }
-                  }
-                }
+              String source = "[" + suggestionPage + "]" + ignoreKey;
+              List<SuggestionCache.Definition> pageDefinitions =
+                  suggestionCache.getDefinitions(source, page.getRevisionId());
+              if (pageDefinitions == null) {
+                pageDefinitions = extractTypoSuggestions(page, suggestionIgnore);
+                suggestionCache.setDefinitions(source, page.getRevisionId(), pageDefinitions);
               }
+              sources.add(source + getRevisionKey(page));
+              definitions.addAll(pageDefinitions);
             }
           }
         }
+        suggestionCache.save();
+
+        // Keep current suggestions if no page has been modified
+        if ((suggestions != null) && sources.equals(suggestionSources)) {
+          return;
+        }
+
+        // Construct suggestions
+        Map<String, Suggestion> tmpMap = new HashMap<String, Suggestion>();
+        for (SuggestionCache.Definition definition : definitions) {
+          definition.apply(tmpMap, suggestions);
+        }
 
         suggestions = tmpMap;
+        suggestionSources = sources;
+        suggestionFilter = null;
       }
     }
   }
 
+  /**
+   * @param page Page.
+   * @return Key identifying the revision of the page.
+   */
+  private static String getRevisionKey(Page page) {
+    Integer revisionId = page.getRevisionId();
+    if ((revisionId == null) || (revisionId.intValue() <= 0)) {
+      // Unknown revision, so that the suggestions are always constructed
+      return "|" + System.identityHashCode(page);
+    }
+    return "|" + revisionId;
+  }
+
+  /**
+   * Extract suggestion definitions from templates.
+   * 
+   * @param page Page containing suggestions.
+   * @param elements Configuration: page, template name, parameter for pattern,
+   *                 parameters for replacements, parameter for comment,
+   *                 parameter and value for automatic replacements.
+   * @param suggestionIgnore Chapters to be ignored.
+   * @return Suggestion definitions.
+   */
+  private List<SuggestionCache.Definition> extractSuggestions(
+      Page page, String[] elements, List<String> suggestionIgnore) {
+    List<SuggestionCache.Definition> result = new ArrayList<SuggestionCache.Definition>();
+    String[] elementsReplacement = elements[3].split(",");
+    String contents = page.getContents();
+    PageAnalysis analysis = page.getAnalysis(contents, true);
+    Collection<PageElementTemplate> templates = analysis.getTemplates(elements[1]);
+    for (PageElementTemplate template : templates) {
+      String chapterId = PageAnalysisUtils.getCurrentChapterId(analysis, template.getBeginIndex());
+      if ((suggestionIgnore == null) || (!suggestionIgnore.contains(chapterId))) {
+        String patternText = template.getParameterValue(elements[2]);
+        if (patternText != null) {
+          boolean automatic = false;
+          SuggestionCache.Definition definition = null;
+          if (elements.length > 4) {
+            definition = new SuggestionCache.Definition(
+                patternText, false, chapterId,
+                true, template.getParameterValue(elements[4]));
+            if (elements.length > 6) {
+              if (elements[6].equalsIgnoreCase(template.getParameterValue(elements[5]))) {
+                automatic = true;
+              }
+            }
+          } else {
+            definition = new SuggestionCache.Definition(
+                patternText, false, chapterId, false, null);
+          }
+          for (String elementReplacement : elementsReplacement) {
+            String replacementText = template.getParameterValue(elementReplacement);
+            if ((replacementText != null) &&
+                (replacementText.length() > 0)) {
+              definition.addReplacement(replacementText, automatic);
+            }
+          }
+          result.add(definition);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Extract suggestion definitions from AWB typos.
+   * 
+   * @param page Page containing suggestions.
+   * @param suggestionIgnore Chapters to be ignored.
+   * @return Suggestion definitions.
+   */
+  private List<SuggestionCache.Definition> extractTypoSuggestions(
+      Page page, List<String> suggestionIgnore) {
+    List<SuggestionCache.Definition> result = new ArrayList<SuggestionCache.Definition>();
+    String contents = page.getContents();
+    PageAnalysis analysis = page.getAnalysis(contents, true);
+    Collection<PageElementTag> tags = analysis.getTags(PageElementTag.TAG_OTHER_TYPO);
+    for (PageElementTag tag : tags) {
+      String chapterId = PageAnalysisUtils.getCurrentChapterId(analysis, tag.getBeginIndex());
+      if ((suggestionIgnore == null) || (!suggestionIgnore.contains(chapterId))) {
+        Parameter word = tag.getParameter("word");
+        Parameter find = tag.getParameter("find");
+        Parameter replace = tag.getParameter("replace");
+        Parameter disabled = tag.getParameter("disabled");
+        if ((word != null) && (find != null) && (replace != null) && (disabled == null)) {
+          String wordValue = word.getValue();
+          String findValue = find.getValue();
+          String replaceValue = replace.getValue();
+          if ((wordValue != null) && (findValue != null) && (replaceValue != null)) {
+            String cleanFindValue = Suggestion.cleanPattern(findValue);
+            if (cleanFindValue == null) {
+              System.err.println("Rejecting " + wordValue + " : " + findValue);
+            } else {
+              SuggestionCache.Definition definition = new SuggestionCache.Definition(
+                  cleanFindValue, true, chapterId, true, "Typo AWB " + wordValue);
+              definition.addReplacement(replaceValue, false);
+              result.add(definition);
+            }
+          }
+        }
+      }
+    }
+    return result;
+  }
+
   /**
    * @return Suggestions.
    */
@@ -721,6 +850,22 @@ public class WPCConfiguration {
     return suggestions;
   }
 
+  /**
+   * @return Prefilter for suggestions.
+   */
+  public SuggestionFilter getSuggestionFilter() {
+    SuggestionFilter filter = suggestionFilter;
+    if (filter == null) {
+      Map<String, Suggestion> tmpSuggestions = suggestions;
+      if (tmpSuggestions == null) {
+        return null;
+      }
+      filter = new SuggestionFilter(tmpSuggestions.values());
+      suggestionFilter = filter;
+    }
+    return filter;
+  }
+
   /* ================================================================================= */
   /* Template matches                                                                  */
   /* ================================================================================= */
@@ -0,0 +1,151 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.constants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.wikipediacleaner.api.data.Page;
+
+
+/**
+ * Immutable values of the WPCleaner configuration.
+ *
+ * Values are computed once when the configuration is loaded,
+ * so that they can be read by several threads without locking or allocation.
+ */
+class WPCConfigurationSnapshot {
+
+  /** Values of Boolean attributes */
+  private final Map<WPCConfigurationBoolean, Boolean> booleanValues;
+
+  /** Values of String attributes */
+  private final Map<WPCConfigurationString, String> stringValues;
+
+  /** Values of String attributes, divided into arrays */
+  private final Map<WPCConfigurationString, String[]> stringArrayValues;
+
+  /** Values of String list attributes */
+  private final Map<WPCConfigurationStringList, List<String>> stringListValues;
+
+  /** Values of String list attributes, each element divided into an array */
+  private final Map<WPCConfigurationStringList, List<String[]>> stringArrayListValues;
+
+  /** Normalized names (first part of each element) of String list attributes */
+  private final Map<WPCConfigurationStringList, Set<String>> nameValues;
+
+  /** Values of Long attributes */
+  private final Map<WPCConfigurationLong, Long> longValues;
+
+  /**
+   * @param configuration Configuration.
+   */
+  WPCConfigurationSnapshot(WPCConfiguration configuration) {
+    booleanValues = new EnumMap<>(WPCConfigurationBoolean.class);
+    for (WPCConfigurationBoolean attribute : WPCConfigurationBoolean.values()) {
+      booleanValues.put(attribute, Boolean.valueOf(configuration.computeBoolean(attribute)));
+    }
+    stringValues = new EnumMap<>(WPCConfigurationString.class);
+    stringArrayValues = new EnumMap<>(WPCConfigurationString.class);
+    for (WPCConfigurationString attribute : WPCConfigurationString.values()) {
+      String value = configuration.computeString(attribute);
+      if (value != null) {
+        stringValues.put(attribute, value);
+        stringArrayValues.put(attribute, value.split("\\|"));
+      }
+    }
+    stringListValues = new EnumMap<>(WPCConfigurationStringList.class);
+    stringArrayListValues = new EnumMap<>(WPCConfigurationStringList.class);
+    nameValues = new EnumMap<>(WPCConfigurationStringList.class);
+    for (WPCConfigurationStringList attribute : WPCConfigurationStringList.values()) {
+      List<String> value = configuration.computeStringList(attribute, false);
+      if (value != null) {
+        stringListValues.put(attribute, Collections.unmodifiableList(value));
+      }
+      value = configuration.computeStringList(attribute, true);
+      if (value != null) {
+        List<String[]> arrayValue = new ArrayList<>(value.size());
+        Set<String> names = new HashSet<>();
+        for (String element : value) {
+          String[] elements = element.split("\\|");
+          arrayValue.add(elements);
+          if ((elements.length > 0) && (elements[0].trim().length() > 0)) {
+            names.add(Page.normalizeTitle(elements[0]));
+          }
+        }
+        stringArrayListValues.put(attribute, Collections.unmodifiableList(arrayValue));
+        nameValues.put(attribute, Collections.unmodifiableSet(names));
+      }
+    }
+    longValues = new EnumMap<>(WPCConfigurationLong.class);
+    for (WPCConfigurationLong attribute : WPCConfigurationLong.values()) {
+      longValues.put(attribute, Long.valueOf(configuration.computeLong(attribute)));
+    }
+  }
+
+  /**
+   * @param attribute Attribute.
+   * @return Attribute value.
+   */
+  boolean getBoolean(WPCConfigurationBoolean attribute) {
+    return booleanValues.get(attribute).booleanValue();
+  }
+
+  /**
+   * @param attribute Attribute.
+   * @return Attribute value.
+   */
+  String getString(WPCConfigurationString attribute) {
+    return stringValues.get(attribute);
+  }
+
+  /**
+   * @param attribute Attribute.
+   * @return Attribute value divided into an array.
+   */
+  String[] getStringArray(WPCConfigurationString attribute) {
+    return stringArrayValues.get(attribute);
+  }
+
+  /**
+   * @param attribute Attribute.
+   * @return Attribute value (unmodifiable).
+   */
+  List<String> getStringList(WPCConfigurationStringList attribute) {
+    return stringListValues.get(attribute);
+  }
+
+  /**
+   * @param attribute Attribute.
+   * @return Attribute value, each element divided into an array (unmodifiable).
+   */
+  List<String[]> getStringArrayList(WPCConfigurationStringList attribute) {
+    return stringArrayListValues.get(attribute);
+  }
+
+  /**
+   * @param attribute Attribute.
+   * @return Normalized names of the attribute value (unmodifiable).
+   */
+  Set<String> getNames(WPCConfigurationStringList attribute) {
+    return nameValues.get(attribute);
+  }
+
+  /**
+   * @param attribute Attribute.
+   * @return Attribute value.
+   */
+  long getLong(WPCConfigurationLong attribute) {
+    return longValues.get(attribute).longValue();
+  }
+}
@@ -8,6 +8,7 @@
 package org.wikipediacleaner.api.constants;
 
 import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +17,7 @@ import org.wikipediacleaner.api.data.Interwiki;
 import org.wikipediacleaner.api.data.Language;
 import org.wikipediacleaner.api.data.LinterCategory;
 import org.wikipediacleaner.api.data.MagicWord;
+import org.wikipediacleaner.api.data.MagicWordMatcher;
 import org.wikipediacleaner.api.data.Namespace;
 import org.wikipediacleaner.api.data.SpecialPage;
 
@@ -248,6 +250,21 @@ public class WikiConfiguration {
    */
   private Map<String, MagicWord> magicWords;
 
+  /**
+   * Matcher for all magic words.
+   */
+  private MagicWordMatcher magicWordMatcher;
+
+  /**
+   * Matcher for function magic words.
+   */
+  private MagicWordMatcher functionMagicWordMatcher;
+
+  /**
+   * Matcher for image magic words.
+   */
+  private MagicWordMatcher imgMagicWordMatcher;
+
   /**
    * @param name Magic word name.
    * @return Magic word.
@@ -264,15 +281,10 @@ public class WikiConfiguration {
    * @return Magic word.
    */
   public MagicWord getMagicWordByAlias(String value) {
-    if ((value == null) || (magicWords == null)) {
+    if ((value == null) || (magicWordMatcher == null)) {
       return null;
     }
-    for (MagicWord magicWord : magicWords.values()) {
-      if (magicWord.isPossibleAlias(value)) {
-        return magicWord;
-      }
-    }
-    return null; 
+    return magicWordMatcher.getMagicWord(value);
   }
 
   /**
@@ -281,20 +293,10 @@ public class WikiConfiguration {
    * @return Matching Magic Word if the text is an alias for a Function Magic Word.
    */
   public MagicWord getFunctionMagicWord(String text, boolean colon) {
-    List<String> functionMagicWords = MagicWord.getFunctionMagicWords();
-    String colonText = text + ":";
-    for (String functionMagicWord : functionMagicWords) {
-      MagicWord magicWord = getMagicWordByName(functionMagicWord);
-      if (magicWord != null) {
-        if (magicWord.isPossibleAlias(text)) {
-          return magicWord;
-        }
-        if (colon && magicWord.isPossibleAlias(colonText)) {
-          return magicWord;
-        }
-      }
+    if (functionMagicWordMatcher == null) {
+      return null;
     }
-    return null;
+    return functionMagicWordMatcher.getMagicWord(text, colon ? text + ":" : null);
   }
 
   /**
@@ -302,14 +304,10 @@ public class WikiConfiguration {
    * @return Matching Magic Word if the text is an alias for a Image Magic Word.
    */
   public MagicWord getImgMagicWord(String text) {
-    List<String> imgMagicWords = MagicWord.getImgMagicWords();
-    for (String imgMagicWord : imgMagicWords) {
-      MagicWord magicWord = getMagicWordByName(imgMagicWord);
-      if ((magicWord != null) && magicWord.isPossibleAlias(text)) {
-        return magicWord;
-      }
+    if (imgMagicWordMatcher == null) {
+      return null;
     }
-    return null;
+    return imgMagicWordMatcher.getMagicWord(text);
   }
 
   /**
@@ -317,6 +315,30 @@ public class WikiConfiguration {
    */
   public void setMagicWords(Map<String, MagicWord> magicWords) {
     this.magicWords = magicWords;
+    if (magicWords == null) {
+      magicWordMatcher = null;
+      functionMagicWordMatcher = null;
+      imgMagicWordMatcher = null;
+      return;
+    }
+    magicWordMatcher = new MagicWordMatcher(new ArrayList<MagicWord>(magicWords.values()));
+    functionMagicWordMatcher = createMagicWordMatcher(MagicWord.getFunctionMagicWords());
+    imgMagicWordMatcher = createMagicWordMatcher(MagicWord.getImgMagicWords());
+  }
+
+  /**
+   * @param names Names of the magic words, by priority.
+   * @return Matcher for the magic words.
+   */
+  private MagicWordMatcher createMagicWordMatcher(List<String> names) {
+    List<MagicWord> tmpMagicWords = new ArrayList<MagicWord>(names.size());
+    for (String name : names) {
+      MagicWord magicWord = getMagicWordByName(name);
+      if (magicWord != null) {
+        tmpMagicWords.add(magicWord);
+      }
+    }
+    return new MagicWordMatcher(tmpMagicWords);
   }
 
   // ==========================================================================
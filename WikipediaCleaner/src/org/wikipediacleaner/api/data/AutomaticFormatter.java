@@ -8,6 +8,7 @@
 
 package org.wikipediacleaner.api.data;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -18,6 +19,8 @@ import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.constants.WPCConfiguration;
 import org.wikipediacleaner.api.constants.WPCConfigurationBoolean;
 import org.wikipediacleaner.api.constants.WPCConfigurationString;
+import org.wikipediacleaner.api.data.contents.ContentsReplacement;
+import org.wikipediacleaner.api.data.contents.ContentsReplacements;
 
 
 /**
@@ -25,6 +28,9 @@ import org.wikipediacleaner.api.constants.WPCConfigurationString;
  */
 public class AutomaticFormatter {
 
+  /** Maximum number of passes of the Check Wiki algorithms on an article */
+  private final static int MAX_PASSES = 50;
+
   /**
    * Tidy up an article.
    * 
@@ -47,41 +53,14 @@ public class AutomaticFormatter {
 
     // Fix Check Wiki errors
     if (algorithms != null) {
-      boolean finished = true;
-      do {
-        finished = true;
-        for (CheckErrorAlgorithm algorithm : algorithms) {
-          if (algorithm.isAvailable() &&
-              CheckErrorAlgorithms.isAlgorithmActive(wiki, algorithm.getErrorNumber())) {
-            String currentContents = contents;
-            int iterations = 0;
-            boolean modified = false;
-            do {
-              currentContents = contents;
-              PageAnalysis analysis = page.getAnalysis(currentContents, true);
-              contents = botFix ? algorithm.botFix(analysis) : algorithm.automaticFix(analysis);
-              if (!contents.equals(currentContents)) {
-                modified = true;
-              }
-            } while ((!contents.equals(currentContents)) && (iterations < 10));
-            if (modified) {
-              finished = false;
-              if (usedAlgorithms != null) {
-                boolean shouldAdd = true;
-                for (CheckError.Progress progress : usedAlgorithms) {
-                  if (progress.algorithm == algorithm) {
-                    shouldAdd = false;
-                  }
-                }
-                if (shouldAdd) {
-                  usedAlgorithms.add(new CheckError.Progress(algorithm, true));
-                  // TODO: compute if fix is complete ?
-                }
-              }
-            }
-          }
+      List<CheckErrorAlgorithm> activeAlgorithms = new ArrayList<>();
+      for (CheckErrorAlgorithm algorithm : algorithms) {
+        if (algorithm.isAvailable() &&
+            CheckErrorAlgorithms.isAlgorithmActive(wiki, algorithm.getErrorNumber())) {
+          activeAlgorithms.add(algorithm);
         }
-      } while (!finished);
+      }
+      contents = fixErrors(page, contents, activeAlgorithms, botFix, usedAlgorithms);
     }
 
     // Auto formatting options
@@ -102,6 +81,77 @@ public class AutomaticFormatter {
     return contents;
   }
 
+  /**
+   * Fix Check Wiki errors.
+   * 
+   * All algorithms are run on the same analysis of the page,
+   * and their modifications are merged in a single rewrite when they don't overlap.
+   * The page is analyzed again only if it has been modified,
+   * until no algorithm modifies it anymore.
+   * 
+   * @param page Page.
+   * @param contents Current contents.
+   * @param algorithms List of active Check Wiki algorithms.
+   * @param botFix True to use bot fixes.
+   * @param usedAlgorithms Algorithms used to tidy up the article.
+   * @return New contents.
+   */
+  private static String fixErrors(
+      Page page, String contents,
+      List<CheckErrorAlgorithm> algorithms, boolean botFix,
+      List<CheckError.Progress> usedAlgorithms) {
+    int passes = 0;
+    while (passes < MAX_PASSES) {
+      passes++;
+      PageAnalysis analysis = page.getAnalysis(contents, true);
+      ContentsReplacements replacements = new ContentsReplacements();
+      for (CheckErrorAlgorithm algorithm : algorithms) {
+        String newContents = botFix ? algorithm.botFix(analysis) : algorithm.automaticFix(analysis);
+        ContentsReplacements differences = ContentsReplacements.createDifferences(contents, newContents);
+        if (!differences.isEmpty()) {
+
+          // Modifications touching modifications from other algorithms are kept for the next pass
+          boolean overlaps = false;
+          for (ContentsReplacement difference : differences.getReplacements()) {
+            if (replacements.overlaps(difference.getBeginIndex() - 1, difference.getEndIndex() + 1)) {
+              overlaps = true;
+            }
+          }
+          if (!overlaps) {
+            for (ContentsReplacement difference : differences.getReplacements()) {
+              replacements.add(difference);
+            }
+            addUsedAlgorithm(usedAlgorithms, algorithm);
+          }
+        }
+      }
+      if (replacements.isEmpty()) {
+        return contents;
+      }
+      contents = replacements.apply(contents);
+    }
+    return contents;
+  }
+
+  /**
+   * @param usedAlgorithms Algorithms used to tidy up the article.
+   * @param algorithm Algorithm that has modified the article.
+   */
+  private static void addUsedAlgorithm(
+      List<CheckError.Progress> usedAlgorithms,
+      CheckErrorAlgorithm algorithm) {
+    if (usedAlgorithms == null) {
+      return;
+    }
+    for (CheckError.Progress progress : usedAlgorithms) {
+      if (progress.algorithm == algorithm) {
+        return;
+      }
+    }
+    usedAlgorithms.add(new CheckError.Progress(algorithm, true));
+    // TODO: compute if fix is complete ?
+  }
+
   /**
    * Auto formatting options: link default sort and categories.
    * 
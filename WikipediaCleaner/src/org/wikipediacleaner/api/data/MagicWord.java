@@ -9,6 +9,8 @@ package org.wikipediacleaner.api.data;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 
 /**
@@ -31,6 +33,17 @@ public class MagicWord implements Comparable<MagicWord> {
    */
   private boolean caseSensitive;
 
+  /**
+   * Flag indicating if the magic word needs a # to be used.
+   */
+  private final boolean sharp;
+
+  /**
+   * Compiled patterns for aliases containing $1 that can't be matched
+   * with a simple prefix and suffix (same order as aliases).
+   */
+  private final Pattern[] aliasPatterns;
+
   public final static String ABBREVIATE                  = "abbreviate";
   public final static String ARTICLE_PATH                = "articlepath";
   public final static String ANCHOR_ENCODE               = "anchorencode";
@@ -65,6 +78,7 @@ public class MagicWord implements Comparable<MagicWord> {
   public final static String DEFAULT_SORT_NOERROR        = "defaultsort_noerror";
   public final static String DEFAULT_SORT_NOREPLACE      = "defaultsort_noreplace";
   public final static String DIRECTION_MARK              = "directionmark";
+  public final static String DISAMBIGUATION              = "disambiguation";
   public final static String DISPLAY_TITLE               = "displaytitle";
   public final static String EXPLODE                     = "explode";
   public final static String EXPR                        = "expr";
@@ -436,6 +450,24 @@ public class MagicWord implements Comparable<MagicWord> {
     this.name = name;
     this.aliases = aliases;
     this.caseSensitive = caseSensitive;
+    boolean tmpSharp = false;
+    for (String magicWord : sharpMagicWords) {
+      if (magicWord.equals(name)) {
+        tmpSharp = true;
+      }
+    }
+    this.sharp = tmpSharp;
+    this.aliasPatterns = new Pattern[(aliases != null) ? aliases.size() : 0];
+    for (int i = 0; i < aliasPatterns.length; i++) {
+      String alias = aliases.get(i);
+      if ((alias != null) && alias.contains("$1") && !isSimpleVariableAlias(alias)) {
+        try {
+          aliasPatterns[i] = Pattern.compile(alias.replaceAll("\\$1", ".*"));
+        } catch (PatternSyntaxException e) {
+          // Alias is not usable
+        }
+      }
+    }
   }
 
   /**
@@ -452,12 +484,51 @@ public class MagicWord implements Comparable<MagicWord> {
     return aliases;
   }
 
+  /**
+   * @return Flag indicating if the name is case sensitive.
+   */
+  public boolean isCaseSensitive() {
+    return caseSensitive;
+  }
+
+  /**
+   * @return Flag indicating if the magic word needs a # to be used.
+   */
+  public boolean isSharp() {
+    return sharp;
+  }
+
   /**
    * @param text Text to check.
    * @return Flag indicating if the text is a possible alias.
    */
   public boolean isPossibleAlias(String text) {
-    return isPossibleAlias(text, ".*");
+    if (text == null) {
+      return false;
+    }
+    if (sharp && (text.length() > 0) && (text.charAt(0) == '#')) {
+      text = text.substring(1);
+    }
+    for (int i = 0; i < aliasPatterns.length; i++) {
+      String alias = aliases.get(i);
+      int variableIndex = alias.indexOf("$1");
+      if (variableIndex >= 0) {
+        if (aliasPatterns[i] != null) {
+          if (aliasPatterns[i].matcher(text).matches()) {
+            return true;
+          }
+        } else if (isSimpleVariableAlias(alias) &&
+                   text.startsWith(alias.substring(0, variableIndex)) &&
+                   matchesVariableAlias(text, variableIndex, alias.substring(variableIndex + 2))) {
+          return true;
+        }
+      } else if (alias.equals(text)) {
+        return true;
+      } else if (!caseSensitive && alias.equalsIgnoreCase(text)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   /**
@@ -466,19 +537,14 @@ public class MagicWord implements Comparable<MagicWord> {
    * @return Flag indicating if the text is a possible alias.
    */
   public boolean isPossibleAlias(String text, String pattern) {
+    if (".*".equals(pattern)) {
+      return isPossibleAlias(text);
+    }
     if (text == null) {
       return false;
     }
-    if ((text.length() > 0) && (text.charAt(0) == '#')) {
-      boolean sharp = false;
-      for (String magicWord : sharpMagicWords) {
-        if (magicWord.equals(name)) {
-          sharp = true;
-        }
-      }
-      if (sharp) {
-        text = text.substring(1);
-      }
+    if (sharp && (text.length() > 0) && (text.charAt(0) == '#')) {
+      text = text.substring(1);
     }
     for (String alias : aliases) {
       if (alias.contains("$1")) {
@@ -494,6 +560,48 @@ public class MagicWord implements Comparable<MagicWord> {
     return false;
   }
 
+  /**
+   * @param alias Alias.
+   * @return True if the alias contains only one $1 and no other special character,
+   *         so that it can be matched with a prefix and a suffix.
+   */
+  static boolean isSimpleVariableAlias(String alias) {
+    int variableIndex = alias.indexOf("$1");
+    if ((variableIndex < 0) || (alias.indexOf("$1", variableIndex + 2) >= 0)) {
+      return false;
+    }
+    for (int i = 0; i < alias.length(); i++) {
+      if ((i != variableIndex) && ("\\^$.|?*+()[]{}".indexOf(alias.charAt(i)) >= 0)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Check if a text matches the end of a simple alias containing $1,
+   * the beginning being checked by the caller.
+   * 
+   * @param text Text to check.
+   * @param prefixLength Length of the part before $1.
+   * @param suffix Part after $1.
+   * @return True if the text can match the alias ($1 matching any text without line terminators).
+   */
+  static boolean matchesVariableAlias(String text, int prefixLength, String suffix) {
+    int endIndex = text.length() - suffix.length();
+    if ((endIndex < prefixLength) || !text.endsWith(suffix)) {
+      return false;
+    }
+    for (int i = prefixLength; i < endIndex; i++) {
+      char currentChar = text.charAt(i);
+      if ((currentChar == '\n') || (currentChar == '\r') ||
+          (currentChar == '\u0085') || (currentChar == '\u2028') || (currentChar == '\u2029')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /**
    * @return List of magic words that can be used as functions.
    */
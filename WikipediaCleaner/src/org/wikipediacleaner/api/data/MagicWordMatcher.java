@@ -0,0 +1,260 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Matcher for finding the magic word corresponding to a text.
+ *
+ * Aliases without $1 are indexed in hash maps (one for case sensitive aliases,
+ * one with folded case for other aliases), aliases with $1 are indexed
+ * by their prefix in a trie, so that finding a magic word costs O(length of text).
+ * When several magic words match, the first one in the list given
+ * to the constructor is returned, as when checking each magic word in turn.
+ */
+public class MagicWordMatcher {
+
+  /** Magic words, by priority */
+  private final List<MagicWord> magicWords;
+
+  /** Positions of the magic words for each exact alias */
+  private final Map<String, List<Integer>> exactAliases;
+
+  /** Positions of the magic words for each case insensitive alias (folded case) */
+  private final Map<String, List<Integer>> foldedAliases;
+
+  /** Trie for aliases containing $1, by prefix */
+  private final TrieNode variableAliases;
+
+  /** Positions of the magic words with aliases that can't be indexed */
+  private final List<Integer> otherMagicWords;
+
+  /**
+   * @param magicWords Magic words, by priority.
+   */
+  public MagicWordMatcher(List<MagicWord> magicWords) {
+    this.magicWords = new ArrayList<MagicWord>();
+    this.exactAliases = new HashMap<String, List<Integer>>();
+    this.foldedAliases = new HashMap<String, List<Integer>>();
+    this.variableAliases = new TrieNode();
+    this.otherMagicWords = new ArrayList<Integer>();
+    if (magicWords == null) {
+      return;
+    }
+    for (MagicWord magicWord : magicWords) {
+      if ((magicWord != null) && (magicWord.getAliases() != null)) {
+        Integer position = Integer.valueOf(this.magicWords.size());
+        this.magicWords.add(magicWord);
+        boolean other = false;
+        for (String alias : magicWord.getAliases()) {
+          if (alias == null) {
+            // Nothing to do
+          } else if (!alias.contains("$1")) {
+            if (magicWord.isCaseSensitive()) {
+              addPosition(exactAliases, alias, position);
+            } else {
+              addPosition(foldedAliases, foldCase(alias), position);
+            }
+          } else if (MagicWord.isSimpleVariableAlias(alias)) {
+            int variableIndex = alias.indexOf("$1");
+            TrieNode node = variableAliases;
+            for (int i = 0; i < variableIndex; i++) {
+              node = node.getChild(alias.charAt(i), true);
+            }
+            node.positions.add(position);
+            node.suffixes.add(alias.substring(variableIndex + 2));
+          } else {
+            other = true;
+          }
+        }
+        if (other) {
+          otherMagicWords.add(position);
+        }
+      }
+    }
+  }
+
+  /**
+   * @param text Text.
+   * @return First magic word for which the text is a possible alias.
+   */
+  public MagicWord getMagicWord(String text) {
+    return getMagicWord(text, null);
+  }
+
+  /**
+   * @param text Text.
+   * @param otherText Other text (may be null).
+   * @return First magic word for which one of the texts is a possible alias.
+   */
+  public MagicWord getMagicWord(String text, String otherText) {
+    int best = getPosition(text, Integer.MAX_VALUE);
+    best = getPosition(otherText, best);
+    if (best == Integer.MAX_VALUE) {
+      return null;
+    }
+    return magicWords.get(best);
+  }
+
+  /**
+   * @param text Text.
+   * @param best Best position found so far.
+   * @return Best position of a magic word for which the text is a possible alias.
+   */
+  private int getPosition(String text, int best) {
+    if (text == null) {
+      return best;
+    }
+    if ((text.length() > 0) && (text.charAt(0) == '#')) {
+      // A # is removed only for magic words that need it
+      best = getPosition(text, Boolean.FALSE, best);
+      best = getPosition(text.substring(1), Boolean.TRUE, best);
+    } else {
+      best = getPosition(text, null, best);
+    }
+
+    // Magic words with aliases that can't be indexed
+    for (Integer position : otherMagicWords) {
+      if ((position.intValue() < best) &&
+          magicWords.get(position.intValue()).isPossibleAlias(text)) {
+        best = position.intValue();
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @param text Text.
+   * @param sharp Restriction on magic words needing a # (null if no restriction).
+   * @param best Best position found so far.
+   * @return Best position of a magic word for which the text is a possible alias.
+   */
+  private int getPosition(String text, Boolean sharp, int best) {
+
+    // Aliases without $1
+    best = getPosition(exactAliases.get(text), sharp, best);
+    best = getPosition(foldedAliases.get(foldCase(text)), sharp, best);
+
+    // Aliases with $1
+    TrieNode node = variableAliases;
+    int index = 0;
+    while (node != null) {
+      for (int i = 0; i < node.positions.size(); i++) {
+        int position = node.positions.get(i).intValue();
+        if ((position < best) &&
+            isAcceptable(position, sharp) &&
+            MagicWord.matchesVariableAlias(text, index, node.suffixes.get(i))) {
+          best = position;
+        }
+      }
+      node = (index < text.length()) ? node.getChild(text.charAt(index), false) : null;
+      index++;
+    }
+    return best;
+  }
+
+  /**
+   * @param positions Positions of magic words.
+   * @param sharp Restriction on magic words needing a # (null if no restriction).
+   * @param best Best position found so far.
+   * @return Best position.
+   */
+  private int getPosition(List<Integer> positions, Boolean sharp, int best) {
+    if (positions != null) {
+      for (Integer position : positions) {
+        if ((position.intValue() < best) && isAcceptable(position.intValue(), sharp)) {
+          best = position.intValue();
+        }
+      }
+    }
+    return best;
+  }
+
+  /**
+   * @param position Position of a magic word.
+   * @param sharp Restriction on magic words needing a # (null if no restriction).
+   * @return True if the magic word is acceptable.
+   */
+  private boolean isAcceptable(int position, Boolean sharp) {
+    return (sharp == null) || (sharp.booleanValue() == magicWords.get(position).isSharp());
+  }
+
+  /**
+   * @param map Map of positions.
+   * @param key Key.
+   * @param position Position to add.
+   */
+  private static void addPosition(Map<String, List<Integer>> map, String key, Integer position) {
+    List<Integer> positions = map.get(key);
+    if (positions == null) {
+      positions = new ArrayList<Integer>(1);
+      map.put(key, positions);
+    }
+    positions.add(position);
+  }
+
+  /**
+   * Fold case of a text, so that texts equal when ignoring case have the same folded case.
+   *
+   * @param text Text.
+   * @return Text with folded case.
+   */
+  private static String foldCase(String text) {
+    StringBuilder result = null;
+    for (int i = 0; i < text.length(); i++) {
+      char currentChar = text.charAt(i);
+      char foldedChar = Character.toLowerCase(Character.toUpperCase(currentChar));
+      if ((result == null) && (foldedChar != currentChar)) {
+        result = new StringBuilder(text.length());
+        result.append(text, 0, i);
+      }
+      if (result != null) {
+        result.append(foldedChar);
+      }
+    }
+    return (result != null) ? result.toString() : text;
+  }
+
+  /**
+   * Node of the trie for aliases containing $1.
+   */
+  private static class TrieNode {
+
+    /** Children of the node */
+    private Map<Character, TrieNode> children;
+
+    /** Positions of the magic words with an alias having this prefix */
+    final List<Integer> positions = new ArrayList<Integer>(0);
+
+    /** Suffixes of the aliases having this prefix */
+    final List<String> suffixes = new ArrayList<String>(0);
+
+    /**
+     * @param c Character.
+     * @param create True if the child should be created when missing.
+     * @return Child of the node for the character.
+     */
+    TrieNode getChild(char c, boolean create) {
+      TrieNode child = (children != null) ? children.get(Character.valueOf(c)) : null;
+      if ((child == null) && create) {
+        if (children == null) {
+          children = new HashMap<Character, TrieNode>();
+        }
+        child = new TrieNode();
+        children.put(Character.valueOf(c), child);
+      }
+      return child;
+    }
+  }
+}
@@ -1012,6 +1012,16 @@ public class Page implements Comparable<Page> {
     return result;
   }
 
+  /**
+   * Create a page analysis without storing it with the page.
+   * 
+   * @param currentContents Current page content to take into account.
+   * @return New page analysis for the current page contents.
+   */
+  public PageAnalysis createAnalysis(String currentContents) {
+    return new PageAnalysis(this, currentContents);
+  }
+
   /**
    * @return Last page analysis.
    */
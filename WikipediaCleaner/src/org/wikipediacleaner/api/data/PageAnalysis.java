@@ -12,6 +12,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.wikipediacleaner.api.check.CheckErrorResult;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
@@ -22,6 +24,8 @@ import org.wikipediacleaner.api.data.contents.Contents;
 import org.wikipediacleaner.api.data.contents.ContentsComment;
 import org.wikipediacleaner.api.data.contents.ContentsElement;
 import org.wikipediacleaner.api.data.contents.ContentsElementComparator;
+import org.wikipediacleaner.api.data.contents.Interval;
+import org.wikipediacleaner.api.data.contents.IntervalIndex;
 import org.wikipediacleaner.utils.Configuration;
 import org.wikipediacleaner.utils.ConfigurationValueBoolean;
 import org.wikipediacleaner.utils.Performance;
@@ -554,9 +558,16 @@ public class PageAnalysis {
   // Content analysis
   // ==========================================================================
 
+  /**
+   * Level of analysis already done.
+   * 
+   * Results of each level are assigned before the level is published here,
+   * so once a level is reached, its results can be read without locking.
+   */
+  private volatile int analysisLevel = 0;
+
   /** Internal lock for level 1 analysis. */
   private final Object level1Lock = new Object();
-  private boolean level1Done = false;
 
   /** Internal lock for level 2 analysis. */
   private final Object level2Lock = new Object();
@@ -577,8 +588,11 @@ public class PageAnalysis {
    * Perform a level 1 analysis of the page (comments).
    */
   private void level1Analysis() {
+    if (analysisLevel >= 1) {
+      return;
+    }
     synchronized (level1Lock) {
-      if (level1Done) {
+      if (analysisLevel >= 1) {
         return;
       }
 
@@ -590,6 +604,7 @@ public class PageAnalysis {
 
       // Update areas of non wiki text
       areas.addComments(getComments());
+      analysisLevel = 1;
 
       if (perf != null) {
         perf.printEnd();
@@ -602,8 +617,11 @@ public class PageAnalysis {
    * Perform a level analysis 2 of the page (tags).
    */
   private void level2Analysis() {
+    if (analysisLevel >= 2) {
+      return;
+    }
     synchronized (level2Lock) {
-      if (tags != null) {
+      if (analysisLevel >= 2) {
         return;
       }
       level1Analysis();
@@ -615,7 +633,7 @@ public class PageAnalysis {
       }
 
       // Initialize
-      tags = new ArrayList<PageElementTag>();
+      List<PageElementTag> tmpTags = new ArrayList<PageElementTag>();
 
       // Go through all the text of the page
       int maxIndex = contents.length();
@@ -634,11 +652,11 @@ public class PageAnalysis {
             if (tag != null) {
               if (tag.isEndTag() && !tag.isFullTag()) {
                 boolean found = false;
-                int i = tags.size();
+                int i = tmpTags.size();
                 int level = 0;
                 while ((i > 0) && !found) {
                   i--;
-                  PageElementTag tmpTag = tags.get(i);
+                  PageElementTag tmpTag = tmpTags.get(i);
                   if (tag.getNormalizedName().equals(tmpTag.getNormalizedName())) {
                     if (!tmpTag.isFullTag()) {
                       if (tmpTag.isEndTag()) {
@@ -654,7 +672,7 @@ public class PageAnalysis {
                   }
                 }
               }
-              tags.add(tag);
+              tmpTags.add(tag);
               currentIndex = tag.getEndIndex();
             } else {
               currentIndex++;
@@ -663,8 +681,22 @@ public class PageAnalysis {
         }
       }
 
+      tags = tmpTags;
+      tagsIndex = new IntervalIndex<PageElementTag>(tags);
+      tagsByName = new HashMap<String, List<PageElementTag>>();
+      for (PageElementTag tag : tags) {
+        String name = tag.getNormalizedName();
+        List<PageElementTag> tmpList = tagsByName.get(name);
+        if (tmpList == null) {
+          tmpList = new ArrayList<PageElementTag>(1);
+          tagsByName.put(name, tmpList);
+        }
+        tmpList.add(tag);
+      }
+
       // Update areas of non wiki text
       areas.addTags(tags);
+      analysisLevel = 2;
 
       if (perf != null) {
         perf.printEnd();
@@ -677,8 +709,11 @@ public class PageAnalysis {
    * Perform a level 3 analysis of the page (links, templates, ...).
    */
   private void level3Analysis() {
+    if (analysisLevel >= 3) {
+      return;
+    }
     synchronized (level3Lock) {
-      if (internalLinks != null) {
+      if (analysisLevel >= 3) {
         return;
       }
       level2Analysis();
@@ -708,24 +743,11 @@ public class PageAnalysis {
       int maxIndex = contents.length();
       String text = contents.getText();
       int currentIndex = 0;
-      int areaIndex = 0;
-      List<PageElementAreas.Area> tmpAeras = areas.getAreas();
+      PageElementAreas.Cursor areaCursor = areas.getCursor();
       while (currentIndex < maxIndex) {
 
         // Checking if the current index is in wiki text area.
-        boolean areaFound = false;
-        int nextIndex = currentIndex;
-        while ((areaIndex < tmpAeras.size()) && !areaFound) {
-          PageElementAreas.Area area = tmpAeras.get(areaIndex);
-          if (area.beginIndex > currentIndex) {
-            areaFound = true;
-          } else if (area.endIndex > currentIndex) {
-            areaFound = true;
-            nextIndex = area.endIndex;
-          } else {
-            areaIndex++;
-          }
-        }
+        int nextIndex = areaCursor.getEndArea(currentIndex);
         if (perf != null) {
           perf.stopPart("nextIndex");
         }
@@ -764,6 +786,48 @@ public class PageAnalysis {
         }
       }
 
+      // Index elements
+      internalLinksIndex = new IntervalIndex<PageElementInternalLink>(internalLinks);
+      internalLinksByTarget = new HashMap<String, List<PageElementInternalLink>>();
+      for (PageElementInternalLink internalLink : internalLinks) {
+        String target = internalLink.getNormalizedLink();
+        List<PageElementInternalLink> tmpLinks = internalLinksByTarget.get(target);
+        if (tmpLinks == null) {
+          tmpLinks = new ArrayList<PageElementInternalLink>(1);
+          internalLinksByTarget.put(target, tmpLinks);
+        }
+        tmpLinks.add(internalLink);
+      }
+      imagesIndex = new IntervalIndex<PageElementImage>(images);
+      categoriesIndex = new IntervalIndex<PageElementCategory>(categories);
+      categoriesByName = new HashMap<String, List<PageElementCategory>>();
+      for (PageElementCategory category : categories) {
+        String name = Page.normalizeTitle(category.getName());
+        List<PageElementCategory> tmpCategories = categoriesByName.get(name);
+        if (tmpCategories == null) {
+          tmpCategories = new ArrayList<PageElementCategory>(1);
+          categoriesByName.put(name, tmpCategories);
+        }
+        tmpCategories.add(category);
+      }
+      interwikiLinksIndex = new IntervalIndex<PageElementInterwikiLink>(interwikiLinks);
+      languageLinksIndex = new IntervalIndex<PageElementLanguageLink>(languageLinks);
+      functionsIndex = new IntervalIndex<PageElementFunction>(functions);
+      magicWordsIndex = new IntervalIndex<PageElementMagicWord>(magicWords);
+      templatesIndex = new IntervalIndex<PageElementTemplate>(templates);
+      templatesByName = new HashMap<String, List<PageElementTemplate>>();
+      for (PageElementTemplate template : templates) {
+        String name = Page.normalizeTitle(template.getTemplateName());
+        List<PageElementTemplate> tmpTemplates = templatesByName.get(name);
+        if (tmpTemplates == null) {
+          tmpTemplates = new ArrayList<PageElementTemplate>(1);
+          templatesByName.put(name, tmpTemplates);
+        }
+        tmpTemplates.add(template);
+      }
+      parametersIndex = new IntervalIndex<PageElementParameter>(parameters);
+      titlesIndex = new IntervalIndex<PageElementTitle>(titles);
+
       // Update areas of non wiki text
       areas.addInternalLinks(internalLinks);
       areas.addImages(images);
@@ -775,6 +839,7 @@ public class PageAnalysis {
       areas.addMagicWords(magicWords);
       areas.addParameters(parameters);
       areas.addTitles(titles);
+      analysisLevel = 3;
 
       if (perf != null) {
         perf.stopPart("addAreas");
@@ -788,8 +853,11 @@ public class PageAnalysis {
    * Perform a level 4 analysis of the page (external links).
    */
   private void level4Analysis() {
+    if (analysisLevel >= 4) {
+      return;
+    }
     synchronized (level4Lock) {
-      if (externalLinks != null) {
+      if (analysisLevel >= 4) {
         return;
       }
       level3Analysis();
@@ -805,24 +873,11 @@ public class PageAnalysis {
       int maxIndex = contents.length();
       String text = contents.getText();
       int currentIndex = 0;
-      int areaIndex = 0;
-      List<PageElementAreas.Area> tmpAeras = areas.getAreas();
+      PageElementAreas.Cursor areaCursor = areas.getCursor();
       while (currentIndex < maxIndex) {
 
         // Checking if the current index is in wiki text area.
-        boolean areaFound = false;
-        int nextIndex = currentIndex;
-        while ((areaIndex < tmpAeras.size()) && !areaFound) {
-          PageElementAreas.Area area = tmpAeras.get(areaIndex);
-          if (area.beginIndex > currentIndex) {
-            areaFound = true;
-          } else if (area.endIndex > currentIndex) {
-            areaFound = true;
-            nextIndex = area.endIndex;
-          } else {
-            areaIndex++;
-          }
-        }
+        int nextIndex = areaCursor.getEndArea(currentIndex);
 
         if (nextIndex > currentIndex) {
           currentIndex = nextIndex;
@@ -840,7 +895,9 @@ public class PageAnalysis {
           }
         }
       }
+      externalLinksIndex = new IntervalIndex<PageElementExternalLink>(externalLinks);
       areas.addExternalLinks(externalLinks);
+      analysisLevel = 4;
 
       if (perf != null) {
         perf.printEnd();
@@ -853,8 +910,11 @@ public class PageAnalysis {
    * Perform a level 5 analysis of the page (identifiers).
    */
   private void level5Analysis() {
+    if (analysisLevel >= 5) {
+      return;
+    }
     synchronized (level5Lock) {
-      if ((isbns != null) || (issns != null) || (pmids != null)) {
+      if (analysisLevel >= 5) {
         return;
       }
       level4Analysis();
@@ -865,14 +925,23 @@ public class PageAnalysis {
             "PageAnalysis.level5Analysis", TRACE_THRESHOLD);
       }
 
-      isbns = PageElementISBN.analyzePage(this);
+      List<PageElementISBN> tmpISBNs = PageElementISBN.analyzePage(this);
+      List<PageElementISSN> tmpISSNs = PageElementISSN.analyzePage(this);
+      List<PageElementPMID> tmpPMIDs = PageElementPMID.analyzePage(this);
+      List<PageElementRFC> tmpRFCs = PageElementRFC.analyzePage(this);
+      isbns = tmpISBNs;
+      isbnsIndex = new IntervalIndex<PageElementISBN>(isbns);
       areas.addISBN(isbns);
-      issns = PageElementISSN.analyzePage(this);
+      issns = tmpISSNs;
+      issnsIndex = new IntervalIndex<PageElementISSN>(issns);
       areas.addISSN(issns);
-      pmids = PageElementPMID.analyzePage(this);
+      pmids = tmpPMIDs;
+      pmidsIndex = new IntervalIndex<PageElementPMID>(pmids);
       areas.addPMID(pmids);
-      rfcs = PageElementRFC.analyzePage(this);
+      rfcs = tmpRFCs;
+      rfcsIndex = new IntervalIndex<PageElementRFC>(rfcs);
       areas.addRFC(rfcs);
+      analysisLevel = 5;
 
       if (perf != null) {
         perf.printEnd();
@@ -885,8 +954,12 @@ public class PageAnalysis {
    * Perform a level 6 analysis of the page (tables).
    */
   private void level6Analysis() {
+    if (analysisLevel >= 6) {
+      return;
+    }
     synchronized (level6Lock) {
-      if ((tables != null) || (listItems != null)) {
+      // List items are used by the analysis of paragraphs in the current thread
+      if ((analysisLevel >= 6) || (listItems != null)) {
         return;
       }
       level5Analysis();
@@ -903,6 +976,7 @@ public class PageAnalysis {
       // TODO: areas.addListItems(listItems);
       paragraphs = PageElementParagraph.analyzePage(this);
       // TODO: areas.addParagraph(paragraphs);
+      analysisLevel = 6;
 
       if (perf != null) {
         perf.printEnd();
@@ -1184,6 +1258,11 @@ public class PageAnalysis {
    */
   private List<PageElementTitle> titles;
 
+  /**
+   * Index on titles in the page.
+   */
+  private IntervalIndex<PageElementTitle> titlesIndex;
+
   /**
    * @return All titles in the page.
    */
@@ -1197,13 +1276,8 @@ public class PageAnalysis {
    * @return Next title.
    */
   public PageElementTitle getNextTitle(int currentIndex) {
-    List<PageElementTitle> tmpTitles = getTitles();
-    for (PageElementTitle title : tmpTitles) {
-      if (title.getBeginIndex() >= currentIndex) {
-        return title;
-      }
-    }
-    return null;
+    getTitles();
+    return titlesIndex.getFirstBeginningFrom(currentIndex);
   }
 
   /**
@@ -1211,14 +1285,8 @@ public class PageAnalysis {
    * @return Title if the current index is inside a title.
    */
   public PageElementTitle isInTitle(int currentIndex) {
-    List<PageElementTitle> tmpTitles = getTitles();
-    for (PageElementTitle title : tmpTitles) {
-      if ((title.getBeginIndex() <= currentIndex) &&
-          (title.getEndIndex() > currentIndex)) {
-        return title;
-      }
-    }
-    return null;
+    getTitles();
+    return titlesIndex.getFirstContaining(currentIndex);
   }
 
   /**
@@ -1246,6 +1314,16 @@ public class PageAnalysis {
    */
   private List<PageElementInternalLink> internalLinks;
 
+  /**
+   * Index on internal links in the page.
+   */
+  private IntervalIndex<PageElementInternalLink> internalLinksIndex;
+
+  /**
+   * Internal links in the page by normalized target.
+   */
+  private Map<String, List<PageElementInternalLink>> internalLinksByTarget;
+
   /**
    * @return All internal links in the page.
    */
@@ -1254,18 +1332,26 @@ public class PageAnalysis {
     return internalLinks;
   }
 
+  /**
+   * @param target Target of the internal links.
+   * @return All internal links to the target in the page.
+   */
+  public List<PageElementInternalLink> getInternalLinks(String target) {
+    level3Analysis();
+    List<PageElementInternalLink> result = internalLinksByTarget.get(Page.normalizeTitle(target));
+    if (result == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(result);
+  }
+
   /**
    * @param currentIndex Current index.
    * @return Next internal link.
    */
   public PageElementInternalLink getNextInternalLink(int currentIndex) {
-    List<PageElementInternalLink> tmpInternalLinks = getInternalLinks();
-    for (PageElementInternalLink link : tmpInternalLinks) {
-      if (link.getBeginIndex() >= currentIndex) {
-        return link;
-      }
-    }
-    return null;
+    getInternalLinks();
+    return internalLinksIndex.getFirstBeginningFrom(currentIndex);
   }
 
   /**
@@ -1273,14 +1359,8 @@ public class PageAnalysis {
    * @return Internal link if the current index is inside an internal link.
    */
   public PageElementInternalLink isInInternalLink(int currentIndex) {
-    List<PageElementInternalLink> tmpLinks = getInternalLinks();
-    for (PageElementInternalLink link : tmpLinks) {
-      if ((link.getBeginIndex() <= currentIndex) &&
-          (link.getEndIndex() > currentIndex)) {
-        return link;
-      }
-    }
-    return null;
+    getInternalLinks();
+    return internalLinksIndex.getFirstContaining(currentIndex);
   }
 
   /**
@@ -1333,6 +1413,11 @@ public class PageAnalysis {
    */
   private List<PageElementImage> images;
 
+  /**
+   * Index on images in the page.
+   */
+  private IntervalIndex<PageElementImage> imagesIndex;
+
   /**
    * @return All images in the page.
    */
@@ -1346,13 +1431,8 @@ public class PageAnalysis {
    * @return Next image.
    */
   public PageElementImage getNextImage(int currentIndex) {
-    List<PageElementImage> tmpImages = getImages();
-    for (PageElementImage image : tmpImages) {
-      if (image.getBeginIndex() >= currentIndex) {
-        return image;
-      }
-    }
-    return null;
+    getImages();
+    return imagesIndex.getFirstBeginningFrom(currentIndex);
   }
 
   /**
@@ -1360,18 +1440,8 @@ public class PageAnalysis {
    * @return Image if the current index is inside an image.
    */
   public PageElementImage isInImage(int currentIndex) {
-    List<PageElementImage> tmpImages = getImages();
-    PageElementImage result = null;
-    for (PageElementImage image : tmpImages) {
-      if ((image.getBeginIndex() <= currentIndex) &&
-          (image.getEndIndex() > currentIndex)) {
-        if ((result == null) ||
-            (image.getBeginIndex() > result.getBeginIndex())) {
-          result = image;
-        }
-      }
-    }
-    return result;
+    getImages();
+    return imagesIndex.getInnermostContaining(currentIndex);
   }
 
   // ==========================================================================
@@ -1383,6 +1453,11 @@ public class PageAnalysis {
    */
   private List<PageElementExternalLink> externalLinks;
 
+  /**
+   * Index on external links in the page.
+   */
+  private IntervalIndex<PageElementExternalLink> externalLinksIndex;
+
   /**
    * @return All external links in the page.
    */
@@ -1396,13 +1471,8 @@ public class PageAnalysis {
    * @return Next external link.
    */
   public PageElementExternalLink getNextExternalLink(int currentIndex) {
-    List<PageElementExternalLink> tmpExternalLinks = getExternalLinks();
-    for (PageElementExternalLink link : tmpExternalLinks) {
-      if (link.getBeginIndex() >= currentIndex) {
-        return link;
-      }
-    }
-    return null;
+    getExternalLinks();
+    return externalLinksIndex.getFirstBeginningFrom(currentIndex);
   }
 
   /**
@@ -1410,14 +1480,8 @@ public class PageAnalysis {
    * @return External link if the current index is inside an external link.
    */
   public PageElementExternalLink isInExternalLink(int currentIndex) {
-    List<PageElementExternalLink> tmpLinks = getExternalLinks();
-    for (PageElementExternalLink link : tmpLinks) {
-      if ((link.getBeginIndex() <= currentIndex) &&
-          (link.getEndIndex() > currentIndex)) {
-        return link;
-      }
-    }
-    return null;
+    getExternalLinks();
+    return externalLinksIndex.getFirstContaining(currentIndex);
   }
 
   // ==========================================================================
@@ -1429,6 +1493,16 @@ public class PageAnalysis {
    */
   private List<PageElementTemplate> templates;
 
+  /**
+   * Index on templates in the page.
+   */
+  private IntervalIndex<PageElementTemplate> templatesIndex;
+
+  /**
+   * Templates in the page indexed by normalized name.
+   */
+  private Map<String, List<PageElementTemplate>> templatesByName;
+
   /**
    * @return All templates in the page.
    */
@@ -1445,16 +1519,12 @@ public class PageAnalysis {
     if (name == null) {
       return null;
     }
-    List<PageElementTemplate> tmpTemplates = getTemplates();
-    List<PageElementTemplate> result = new ArrayList<PageElementTemplate>();
-    if (tmpTemplates != null) {
-      for (PageElementTemplate template : tmpTemplates) {
-        if (Page.areSameTitle(name, template.getTemplateName())) {
-          result.add(template);
-        }
-      }
+    level3Analysis();
+    List<PageElementTemplate> result = templatesByName.get(Page.normalizeTitle(name));
+    if (result == null) {
+      return Collections.emptyList();
     }
-    return result;
+    return Collections.unmodifiableList(result);
   }
 
   /**
@@ -1462,13 +1532,8 @@ public class PageAnalysis {
    * @return Next template.
    */
   public PageElementTemplate getNextTemplate(int currentIndex) {
-    List<PageElementTemplate> tmpTemplates = getTemplates();
-    for (PageElementTemplate template : tmpTemplates) {
-      if (template.getBeginIndex() >= currentIndex) {
-        return template;
-      }
-    }
-    return null;
+    getTemplates();
+    return templatesIndex.getFirstBeginningFrom(currentIndex);
   }
 
   /**
@@ -1476,15 +1541,8 @@ public class PageAnalysis {
    * @return Template if the current index is inside a template.
    */
   public PageElementTemplate isInTemplate(int currentIndex) {
-    List<PageElementTemplate> tmpTemplates = getTemplates();
-    PageElementTemplate result = null;
-    for (PageElementTemplate template : tmpTemplates) {
-      if ((template.getBeginIndex() <= currentIndex) &&
-          (template.getEndIndex() > currentIndex)) {
-        result = template;
-      }
-    }
-    return result;
+    getTemplates();
+    return templatesIndex.getLastContaining(currentIndex);
   }
 
   // ==========================================================================
@@ -1496,6 +1554,11 @@ public class PageAnalysis {
    */
   private List<PageElementParameter> parameters;
 
+  /**
+   * Index on parameters in the page.
+   */
+  private IntervalIndex<PageElementParameter> parametersIndex;
+
   /**
    * @return All parameters in the page.
    */
@@ -1509,15 +1572,8 @@ public class PageAnalysis {
    * @return Parameter if the current index is inside a parameter.
    */
   public PageElementParameter isInParameter(int currentIndex) {
-    List<PageElementParameter> tmpParameters = getParameters();
-    PageElementParameter result = null;
-    for (PageElementParameter parameter : tmpParameters) {
-      if ((parameter.getBeginIndex() <= currentIndex) &&
-          (parameter.getEndIndex() > currentIndex)) {
-        result = parameter;
-      }
-    }
-    return result;
+    getParameters();
+    return parametersIndex.getLastContaining(currentIndex);
   }
 
   // ==========================================================================
@@ -1529,6 +1585,11 @@ public class PageAnalysis {
    */
   private List<PageElementFunction> functions;
 
+  /**
+   * Index on functions in the page.
+   */
+  private IntervalIndex<PageElementFunction> functionsIndex;
+
   /**
    * @return All functions in the page.
    */
@@ -1542,15 +1603,8 @@ public class PageAnalysis {
    * @return Function if the current index is inside a function.
    */
   public PageElementFunction isInFunction(int currentIndex) {
-    List<PageElementFunction> tmpFunctions = getFunctions();
-    PageElementFunction result = null;
-    for (PageElementFunction function : tmpFunctions) {
-      if ((function.getBeginIndex() <= currentIndex) &&
-          (function.getEndIndex() > currentIndex)) {
-        result = function;
-      }
-    }
-    return result;
+    getFunctions();
+    return functionsIndex.getLastContaining(currentIndex);
   }
 
   // ==========================================================================
@@ -1562,6 +1616,11 @@ public class PageAnalysis {
    */
   private List<PageElementMagicWord> magicWords;
 
+  /**
+   * Index on magic words in the page.
+   */
+  private IntervalIndex<PageElementMagicWord> magicWordsIndex;
+
   /**
    * @return All magic words in the page.
    */
@@ -1575,15 +1634,8 @@ public class PageAnalysis {
    * @return Magic word if the current index is inside a magic word.
    */
   public PageElementMagicWord isInMagicWord(int currentIndex) {
-    List<PageElementMagicWord> tmpMagicWords = getMagicWords();
-    PageElementMagicWord result = null;
-    for (PageElementMagicWord magicWord : tmpMagicWords) {
-      if ((magicWord.getBeginIndex() <= currentIndex) &&
-          (magicWord.getEndIndex() > currentIndex)) {
-        result = magicWord;
-      }
-    }
-    return result;
+    getMagicWords();
+    return magicWordsIndex.getLastContaining(currentIndex);
   }
 
   // ==========================================================================
@@ -1596,9 +1648,9 @@ public class PageAnalysis {
   private List<PageElementTag> tags;
 
   /**
-   * Lock for updating the tags categorized by name.
+   * Index on tags in the page.
    */
-  private final Object lockTagsByName = new Object();
+  private IntervalIndex<PageElementTag> tagsIndex;
 
   /**
    * All tags in the page categorized by name.
@@ -1609,7 +1661,14 @@ public class PageAnalysis {
    * All complete tags in the page categorized by name.
    * Complete tags are either full tags or opening tags associated with a closing tag.
    */
-  private Map<String, List<PageElementTag>> completeTagsByName;
+  private final ConcurrentMap<String, List<PageElementTag>> completeTagsByName =
+      new ConcurrentHashMap<String, List<PageElementTag>>();
+
+  /**
+   * Index on the values of complete tags categorized by name.
+   */
+  private final ConcurrentMap<String, IntervalIndex<TagValue>> tagValuesByName =
+      new ConcurrentHashMap<String, IntervalIndex<TagValue>>();
 
   /**
    * @return All tags in the page.
@@ -1627,24 +1686,12 @@ public class PageAnalysis {
     if (name == null) {
       return null;
     }
-    synchronized (lockTagsByName) {
-      if (tagsByName == null) {
-        tagsByName = new HashMap<String, List<PageElementTag>>();
-      }
-      name = name.toLowerCase();
-      List<PageElementTag> result = tagsByName.get(name);
-      if (result == null) {
-        List<PageElementTag> tmpTags = getTags();
-        result = new ArrayList<PageElementTag>();
-        tagsByName.put(name, result);
-        for (PageElementTag tag : tmpTags) {
-          if (name.equals(tag.getNormalizedName())) {
-            result.add(tag);
-          }
-        }
-      }
-      return result;
+    level2Analysis();
+    List<PageElementTag> result = tagsByName.get(name.toLowerCase());
+    if (result == null) {
+      return Collections.emptyList();
     }
+    return Collections.unmodifiableList(result);
   }
 
   /**
@@ -1655,26 +1702,24 @@ public class PageAnalysis {
     if (name == null) {
       return null;
     }
-    synchronized (lockTagsByName) {
-      if (completeTagsByName == null) {
-        completeTagsByName = new HashMap<String, List<PageElementTag>>();
-      }
-      name = name.toLowerCase();
-      List<PageElementTag> result = completeTagsByName.get(name);
-      if (result == null) {
-        List<PageElementTag> tmpTags = getTags(name);
-        result = new ArrayList<PageElementTag>();
-        completeTagsByName.put(name, result);
-        for (PageElementTag tag : tmpTags) {
-          if (tag.isFullTag()) {
-            result.add(tag);
-          } else if (!tag.isEndTag() && tag.isComplete()) {
-            result.add(tag);
-          }
+    name = name.toLowerCase();
+    List<PageElementTag> result = completeTagsByName.get(name);
+    if (result == null) {
+      List<PageElementTag> tmpTags = getTags(name);
+      result = new ArrayList<PageElementTag>();
+      for (PageElementTag tag : tmpTags) {
+        if (tag.isFullTag()) {
+          result.add(tag);
+        } else if (!tag.isEndTag() && tag.isComplete()) {
+          result.add(tag);
         }
       }
-      return result;
+      List<PageElementTag> previous = completeTagsByName.putIfAbsent(name, result);
+      if (previous != null) {
+        result = previous;
+      }
     }
+    return result;
   }
 
   /**
@@ -1683,22 +1728,71 @@ public class PageAnalysis {
    * @return Surrounding tag.
    */
   public PageElementTag getSurroundingTag(String name, int currentIndex) {
-    List<PageElementTag> tmpTags = getCompleteTags(name);
-    if (tmpTags == null) {
+    if (name == null) {
       return null;
     }
-    PageElementTag result = null;
-    for (PageElementTag tag : tmpTags) {
-      if ((!tag.isFullTag()) &&
-          (tag.getValueBeginIndex() <= currentIndex) &&
-          (tag.getValueEndIndex() > currentIndex)) {
-        if ((result == null) ||
-            (tag.getBeginIndex() > result.getBeginIndex())) {
-          result = tag;
+    name = name.toLowerCase();
+    IntervalIndex<TagValue> index = tagValuesByName.get(name);
+    if (index == null) {
+      List<PageElementTag> tmpTags = getCompleteTags(name);
+      List<TagValue> values = new ArrayList<TagValue>();
+      for (PageElementTag tag : tmpTags) {
+        if (!tag.isFullTag()) {
+          values.add(new TagValue(tag));
         }
       }
+      index = new IntervalIndex<TagValue>(values);
+      IntervalIndex<TagValue> previous = tagValuesByName.putIfAbsent(name, index);
+      if (previous != null) {
+        index = previous;
+      }
+    }
+    TagValue value = index.getInnermostContaining(currentIndex);
+    return (value != null) ? value.tag : null;
+  }
+
+  /**
+   * Interval on the value of a complete tag.
+   */
+  private static class TagValue implements Interval {
+
+    /** Tag */
+    final PageElementTag tag;
+
+    /**
+     * @param tag Tag.
+     */
+    TagValue(PageElementTag tag) {
+      this.tag = tag;
+    }
+
+    /**
+     * @return Begin index of the value.
+     * @see org.wikipediacleaner.api.data.contents.Interval#getBeginIndex()
+     */
+    @Override
+    public int getBeginIndex() {
+      return tag.getValueBeginIndex();
+    }
+
+    /**
+     * @return End index of the value.
+     * @see org.wikipediacleaner.api.data.contents.Interval#getEndIndex()
+     */
+    @Override
+    public int getEndIndex() {
+      return tag.getValueEndIndex();
+    }
+
+    /**
+     * @param index Index to check.
+     * @return True if the provided index is inside the value.
+     * @see org.wikipediacleaner.api.data.contents.Interval#containsIndex(int)
+     */
+    @Override
+    public boolean containsIndex(int index) {
+      return (index >= getBeginIndex()) && (index < getEndIndex());
     }
-    return result;
   }
 
   /**
@@ -1706,13 +1800,8 @@ public class PageAnalysis {
    * @return Next tag.
    */
   public PageElementTag getNextTag(int currentIndex) {
-    List<PageElementTag> tmpTags = getTags();
-    for (PageElementTag tag : tmpTags) {
-      if (tag.getBeginIndex() >= currentIndex) {
-        return tag;
-      }
-    }
-    return null;
+    getTags();
+    return tagsIndex.getFirstBeginningFrom(currentIndex);
   }
 
   /**
@@ -1720,14 +1809,8 @@ public class PageAnalysis {
    * @return Tag if the current index is inside a tag.
    */
   public PageElementTag isInTag(int currentIndex) {
-    List<PageElementTag> tmpTags = getTags();
-    for (PageElementTag tag : tmpTags) {
-      if ((tag.getBeginIndex() <= currentIndex) &&
-          (tag.getEndIndex() > currentIndex)) {
-        return tag;
-      }
-    }
-    return null;
+    getTags();
+    return tagsIndex.getFirstContaining(currentIndex);
   }
 
   /**
@@ -1791,6 +1874,16 @@ public class PageAnalysis {
    */
   private List<PageElementCategory> categories;
 
+  /**
+   * Index on categories in the page.
+   */
+  private IntervalIndex<PageElementCategory> categoriesIndex;
+
+  /**
+   * Categories in the page indexed by normalized name.
+   */
+  private Map<String, List<PageElementCategory>> categoriesByName;
+
   /**
    * @return All categories in the page.
    */
@@ -1799,18 +1892,29 @@ public class PageAnalysis {
     return categories;
   }
 
+  /**
+   * @param name Category name.
+   * @return All categories with this name in the page.
+   */
+  public List<PageElementCategory> getCategories(String name) {
+    if (name == null) {
+      return null;
+    }
+    level3Analysis();
+    List<PageElementCategory> result = categoriesByName.get(Page.normalizeTitle(name));
+    if (result == null) {
+      return Collections.emptyList();
+    }
+    return Collections.unmodifiableList(result);
+  }
+
   /**
    * @param currentIndex Current index.
    * @return Next category.
    */
   public PageElementCategory getNextCategory(int currentIndex) {
-    List<PageElementCategory> tmpCategories = getCategories();
-    for (PageElementCategory category : tmpCategories) {
-      if (category.getBeginIndex() >= currentIndex) {
-        return category;
-      }
-    }
-    return null;
+    getCategories();
+    return categoriesIndex.getFirstBeginningFrom(currentIndex);
   }
 
   /**
@@ -1818,14 +1922,8 @@ public class PageAnalysis {
    * @return Category if the current index is inside a category.
    */
   public PageElementCategory isInCategory(int currentIndex) {
-    List<PageElementCategory> tmpCategories = getCategories();
-    for (PageElementCategory category : tmpCategories) {
-      if ((category.getBeginIndex() <= currentIndex) &&
-          (category.getEndIndex() > currentIndex)) {
-        return category;
-      }
-    }
-    return null;
+    getCategories();
+    return categoriesIndex.getFirstContaining(currentIndex);
   }
 
   // ==========================================================================
@@ -1837,6 +1935,11 @@ public class PageAnalysis {
    */
   private List<PageElementInterwikiLink> interwikiLinks;
 
+  /**
+   * Index on interwiki links in the page.
+   */
+  private IntervalIndex<PageElementInterwikiLink> interwikiLinksIndex;
+
   /**
    * @return All interwiki links in the page.
    */
@@ -1850,13 +1953,8 @@ public class PageAnalysis {
    * @return Next interwiki link.
    */
   public PageElementInterwikiLink getNextInterwikiLink(int currentIndex) {
-    List<PageElementInterwikiLink> tmpLinks = getInterwikiLinks();
-    for (PageElementInterwikiLink link : tmpLinks) {
-      if (link.getBeginIndex() >= currentIndex) {
-        return link;
-      }
-    }
-    return null;
+    getInterwikiLinks();
+    return interwikiLinksIndex.getFirstBeginningFrom(currentIndex);
   }
 
   /**
@@ -1864,14 +1962,8 @@ public class PageAnalysis {
    * @return Interwiki link if the current index is inside an interwiki link.
    */
   public PageElementInterwikiLink isInInterwikiLink(int currentIndex) {
-    List<PageElementInterwikiLink> tmpLinks = getInterwikiLinks();
-    for (PageElementInterwikiLink link : tmpLinks) {
-      if ((link.getBeginIndex() <= currentIndex) &&
-          (link.getEndIndex() > currentIndex)) {
-        return link;
-      }
-    }
-    return null;
+    getInterwikiLinks();
+    return interwikiLinksIndex.getFirstContaining(currentIndex);
   }
 
   // ==========================================================================
@@ -1883,6 +1975,11 @@ public class PageAnalysis {
    */
   private List<PageElementLanguageLink> languageLinks;
 
+  /**
+   * Index on language links in the page.
+   */
+  private IntervalIndex<PageElementLanguageLink> languageLinksIndex;
+
   /**
    * @return All language links in the page.
    */
@@ -1896,13 +1993,8 @@ public class PageAnalysis {
    * @return Next language link.
    */
   public PageElementLanguageLink getNextLanguageLink(int currentIndex) {
-    List<PageElementLanguageLink> tmpLinks = getLanguageLinks();
-    for (PageElementLanguageLink link : tmpLinks) {
-      if (link.getBeginIndex() >= currentIndex) {
-        return link;
-      }
-    }
-    return null;
+    getLanguageLinks();
+    return languageLinksIndex.getFirstBeginningFrom(currentIndex);
   }
 
   /**
@@ -1910,14 +2002,8 @@ public class PageAnalysis {
    * @return Language link if the current index is inside a language link.
    */
   public PageElementLanguageLink isInLanguageLink(int currentIndex) {
-    List<PageElementLanguageLink> tmpLinks = getLanguageLinks();
-    for (PageElementLanguageLink link : tmpLinks) {
-      if ((link.getBeginIndex() <= currentIndex) &&
-          (link.getEndIndex() > currentIndex)) {
-        return link;
-      }
-    }
-    return null;
+    getLanguageLinks();
+    return languageLinksIndex.getFirstContaining(currentIndex);
   }
 
   // ==========================================================================
@@ -1929,6 +2015,11 @@ public class PageAnalysis {
    */
   private List<PageElementISBN> isbns;
 
+  /**
+   * Index on ISBNs in the page.
+   */
+  private IntervalIndex<PageElementISBN> isbnsIndex;
+
   /**
    * @return All ISBNs in the page.
    */
@@ -1942,14 +2033,8 @@ public class PageAnalysis {
    * @return ISBN if the current index is inside an ISBN.
    */
   public PageElementISBN isInISBN(int currentIndex) {
-    List<PageElementISBN> tmpIsbns = getISBNs();
-    for (PageElementISBN isbn : tmpIsbns) {
-      if ((isbn.getBeginIndex() <= currentIndex) &&
-          (isbn.getEndIndex() > currentIndex)) {
-        return isbn;
-      }
-    }
-    return null;
+    getISBNs();
+    return isbnsIndex.getFirstContaining(currentIndex);
   }
 
 
@@ -1958,6 +2043,11 @@ public class PageAnalysis {
    */
   private List<PageElementISSN> issns;
 
+  /**
+   * Index on ISSNs in the page.
+   */
+  private IntervalIndex<PageElementISSN> issnsIndex;
+
   /**
    * @return All ISSNs in the page.
    */
@@ -1971,14 +2061,8 @@ public class PageAnalysis {
    * @return ISSN if the current index is inside an ISSN.
    */
   public PageElementISSN isInISSN(int currentIndex) {
-    List<PageElementISSN> tmpIsbns = getISSNs();
-    for (PageElementISSN issn : tmpIsbns) {
-      if ((issn.getBeginIndex() <= currentIndex) &&
-          (issn.getEndIndex() > currentIndex)) {
-        return issn;
-      }
-    }
-    return null;
+    getISSNs();
+    return issnsIndex.getFirstContaining(currentIndex);
   }
 
   
@@ -1987,6 +2071,11 @@ public class PageAnalysis {
    */
   private List<PageElementPMID> pmids;
 
+  /**
+   * Index on PMIDs in the page.
+   */
+  private IntervalIndex<PageElementPMID> pmidsIndex;
+
   /**
    * @return All PMIDs in the page.
    */
@@ -2000,14 +2089,8 @@ public class PageAnalysis {
    * @return PMID if the current index is inside a PMID.
    */
   public PageElementPMID isInPMID(int currentIndex) {
-    List<PageElementPMID> tmpPmids = getPMIDs();
-    for (PageElementPMID pmid : tmpPmids) {
-      if ((pmid.getBeginIndex() <= currentIndex) &&
-          (pmid.getEndIndex() > currentIndex)) {
-        return pmid;
-      }
-    }
-    return null;
+    getPMIDs();
+    return pmidsIndex.getFirstContaining(currentIndex);
   }
 
   
@@ -2016,6 +2099,11 @@ public class PageAnalysis {
    */
   private List<PageElementRFC> rfcs;
 
+  /**
+   * Index on RFCs in the page.
+   */
+  private IntervalIndex<PageElementRFC> rfcsIndex;
+
   /**
    * @return All RFCs in the page.
    */
@@ -2029,14 +2117,8 @@ public class PageAnalysis {
    * @return RFC if the current index is inside a RFC.
    */
   public PageElementRFC isInRFC(int currentIndex) {
-    List<PageElementRFC> tmpRfcs = getRFCs();
-    for (PageElementRFC rfc : tmpRfcs) {
-      if ((rfc.getBeginIndex() <= currentIndex) &&
-          (rfc.getEndIndex() > currentIndex)) {
-        return rfc;
-      }
-    }
-    return null;
+    getRFCs();
+    return rfcsIndex.getFirstContaining(currentIndex);
   }
 
   // ==========================================================================
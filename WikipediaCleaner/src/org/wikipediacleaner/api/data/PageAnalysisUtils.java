@@ -8,6 +8,7 @@
 package org.wikipediacleaner.api.data;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -69,11 +70,26 @@ public class PageAnalysisUtils {
       return;
     }
 
+    // Index requested links by normalized title
+    Map<String, List<Page>> linksByTitle = new HashMap<String, List<Page>>();
+    for (Page link : links) {
+      String title = Page.normalizeTitle(link.getTitle());
+      if (title != null) {
+        List<Page> tmpLinks = linksByTitle.get(title);
+        if (tmpLinks == null) {
+          tmpLinks = new ArrayList<Page>(1);
+          linksByTitle.put(title, tmpLinks);
+        }
+        tmpLinks.add(link);
+      }
+    }
+    if (linksByTitle.isEmpty()) {
+      return;
+    }
+
     // Search for simple internal links [[link]], [[link|text]], [[link#anchor|text]], ...
     List<PageElementInternalLink> internalLinks = pageAnalysis.getInternalLinks();
     WPCConfiguration wpcConfiguration = pageAnalysis.getWPCConfiguration();
-    List<String> templatesAfter = wpcConfiguration.getStringList(
-        WPCConfigurationStringList.TEMPLATES_AFTER_HELP_ASKED);
     List<String> commentsAfter = wpcConfiguration.getStringList(
         WPCConfigurationStringList.COMMENTS_FOR_DAB_LINK);
     List<String[]> templatesIgnoreDab = wpcConfiguration.getStringArrayList(
@@ -83,8 +99,9 @@ public class PageAnalysisUtils {
     int maxSize = contents.length();
     boolean firstLink = true;
     for (PageElementInternalLink internalLink : internalLinks) {
-      for (Page link : links) {
-        if (Page.areSameTitle(link.getTitle(), internalLink.getLink())) {
+      List<Page> targets = linksByTitle.get(internalLink.getNormalizedLink());
+      if (targets != null) {
+        for (Page link : targets) {
           int currentPos = internalLink.getEndIndex();
           while ((currentPos < maxSize) && (contents.charAt(currentPos) == ' ')) {
             currentPos++;
@@ -92,16 +109,13 @@ public class PageAnalysisUtils {
 
           // Check if link is marked as needing help
           boolean helpNeeded = false;
-          if (templatesAfter != null) {
-            if ((currentPos < maxSize) && (contents.charAt(currentPos) == '{')) {
-              PageElementTemplate nextTemplate = pageAnalysis.isInTemplate(currentPos);
-              if (nextTemplate != null) {
-                for (String templateAfter : templatesAfter) {
-                  if (Page.areSameTitle(templateAfter, nextTemplate.getTemplateName())) {
-                    helpNeeded = true;
-                  }
-                }
-              }
+          if ((currentPos < maxSize) && (contents.charAt(currentPos) == '{')) {
+            PageElementTemplate nextTemplate = pageAnalysis.isInTemplate(currentPos);
+            if ((nextTemplate != null) &&
+                wpcConfiguration.isNameInList(
+                    WPCConfigurationStringList.TEMPLATES_AFTER_HELP_ASKED,
+                    nextTemplate.getTemplateName())) {
+              helpNeeded = true;
             }
           }
 
@@ -187,11 +201,11 @@ public class PageAnalysisUtils {
         if (matchers != null) {
           for (TemplateMatcher matcher : matchers) {
             String linkTo = matcher.linksTo(pageAnalysis.getPage(), template);
-            if (linkTo != null) {
-              for (Page link : links) {
-                if (Page.areSameTitle(link.getTitle(), linkTo)) {
-                  notification.linkFound(link, template, matcher);
-                }
+            List<Page> targets = (linkTo != null) ?
+                linksByTitle.get(Page.normalizeTitle(linkTo)) : null;
+            if (targets != null) {
+              for (Page link : targets) {
+                notification.linkFound(link, template, matcher);
               }
             }
           }
@@ -218,16 +232,13 @@ public class PageAnalysisUtils {
       return;
     }
 
-    // Check each internal link
-    List<PageElementInternalLink> links = pageAnalysis.getInternalLinks();
-    for (PageElementInternalLink internalLink : links) {
-      String anchor = internalLink.getAnchor();
-      if ((anchor != null) && (anchor.trim().length() > 0)) {
-        String fullAnchor = internalLink.getFullLink();
-        // Check if the internal link is for one of the links
-        for (Page link : pageLinks) {
-          if ((link != null) &&
-              (Page.areSameTitle(link.getTitle(), internalLink.getLink()))) {
+    // Check internal links for each link
+    for (Page link : pageLinks) {
+      if ((link != null) && (link.getTitle() != null)) {
+        for (PageElementInternalLink internalLink : pageAnalysis.getInternalLinks(link.getTitle())) {
+          String anchor = internalLink.getAnchor();
+          if ((anchor != null) && (anchor.trim().length() > 0)) {
+            String fullAnchor = internalLink.getFullLink();
             List<String> listAnchors = anchors.get(link);
             if (listAnchors == null) {
               listAnchors = new ArrayList<String>();
@@ -7,9 +7,9 @@
 
 package org.wikipediacleaner.api.data;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 import org.wikipediacleaner.api.data.contents.ContentsComment;
@@ -18,27 +18,57 @@ import org.wikipediacleaner.api.data.contents.ContentsElement;
 
 /**
  * Management of non wiki text areas.
+ *
+ * Areas are memorized as sorted and merged pairs of begin/end indexes.
+ * Areas added by the same method are first buffered and then merged at once
+ * with the existing areas.
  */
 public class PageElementAreas {
 
   /** Flag to activate areas checking */
   private static boolean CHECK_AREAS = false;
 
-  /** List of non wiki text areas */
-  private final List<Area> areas;
+  /** Empty list of areas */
+  private final static int[] NO_AREAS = new int[0];
+
+  /**
+   * Non wiki text areas, sorted and merged:
+   * begin index of area n at position 2n, end index at position 2n+1.
+   */
+  private int[] areas;
+
+  /** Buffer of areas waiting to be merged: begin index in high bits, end index in low bits */
+  private long[] pendingAreas;
+
+  /** Number of areas waiting to be merged */
+  private int pendingCount;
 
   /**
    * Initialize areas.
    */
   public PageElementAreas() {
-    areas = new LinkedList<PageElementAreas.Area>();
+    areas = NO_AREAS;
+    pendingAreas = new long[16];
+    pendingCount = 0;
   }
 
   /**
    * @return List of areas.
    */
   public List<Area> getAreas() {
-    return Collections.unmodifiableList(areas);
+    int[] tmpAreas = areas;
+    List<Area> result = new ArrayList<Area>(tmpAreas.length / 2);
+    for (int i = 0; i < tmpAreas.length; i += 2) {
+      result.add(new Area(tmpAreas[i], tmpAreas[i + 1]));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * @return Number of areas.
+   */
+  public int size() {
+    return areas.length / 2;
   }
 
   /**
@@ -46,17 +76,40 @@ public class PageElementAreas {
    * @return First index after area.
    */
   public int getEndArea(int index) {
-    for (Area area : areas) {
-      if (area.beginIndex > index) {
-        return index;
-      }
-      if (area.endIndex > index) {
-        return area.endIndex;
-      }
+    int[] tmpAreas = areas;
+    int areaIndex = findArea(tmpAreas, index);
+    if ((areaIndex < tmpAreas.length) && (tmpAreas[areaIndex] <= index)) {
+      return tmpAreas[areaIndex + 1];
     }
     return index;
   }
 
+  /**
+   * @param tmpAreas Areas.
+   * @param index Current index.
+   * @return Position of the first area ending after the index.
+   */
+  private static int findArea(int[] tmpAreas, int index) {
+    int low = 0;
+    int high = tmpAreas.length / 2;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (tmpAreas[2 * middle + 1] <= index) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return 2 * low;
+  }
+
+  /**
+   * @return Cursor for going through the areas.
+   */
+  public Cursor getCursor() {
+    return new Cursor();
+  }
+
   /**
    * Add comments to non wiki text areas.
    * 
@@ -89,6 +142,7 @@ public class PageElementAreas {
         }
       }
     }
+    mergePendingAreas();
   }
 
   /**
@@ -109,6 +163,7 @@ public class PageElementAreas {
         }
       }
     }
+    mergePendingAreas();
   }
 
   /**
@@ -151,6 +206,7 @@ public class PageElementAreas {
         }
       }
     }
+    mergePendingAreas();
   }
 
   /**
@@ -180,6 +236,7 @@ public class PageElementAreas {
         }
       }
     }
+    mergePendingAreas();
   }
 
   /**
@@ -261,6 +318,7 @@ public class PageElementAreas {
         }
       }
     }
+    mergePendingAreas();
   }
 
   /**
@@ -285,6 +343,7 @@ public class PageElementAreas {
         }
       }
     }
+    mergePendingAreas();
   }
 
   /**
@@ -320,6 +379,7 @@ public class PageElementAreas {
         addArea(endIndex - after - title.getSecondLevel(), endIndex - after);
       }
     }
+    mergePendingAreas();
   }
 
   /**
@@ -342,6 +402,7 @@ public class PageElementAreas {
         }
       }
     }
+    mergePendingAreas();
   }
 
   /**
@@ -355,50 +416,67 @@ public class PageElementAreas {
         addArea(element.getBeginIndex(), element.getEndIndex());
       }
     }
+    mergePendingAreas();
   }
 
   /**
-   * Add an area to the list of non wiki text areas.
+   * Add an area to the buffer of areas waiting to be merged.
+   *
    * @param beginIndex Begin index.
    * @param endIndex End index.
    */
   private void addArea(int beginIndex, int endIndex) {
-    Iterator<PageElementAreas.Area> itArea = areas.iterator();
-    int currentIndex = 0;
-    while (itArea.hasNext()) {
-      Area area = itArea.next();
-      if (beginIndex <= area.endIndex) {
-        if (endIndex < area.beginIndex) {
-          areas.add(currentIndex, new Area(beginIndex, endIndex));
-          if (CHECK_AREAS) {
-            checkAreas();
-          }
-          return;
-        }
-        area.beginIndex = Math.min(area.beginIndex, beginIndex);
-        if (endIndex <= area.endIndex) {
-          return;
-        }
-        area.endIndex = endIndex;
-        while (itArea.hasNext()) {
-          Area tmpArea = itArea.next();
-          if (tmpArea.beginIndex > endIndex) {
-            if (CHECK_AREAS) {
-              checkAreas();
-            }
-            return;
-          }
-          area.endIndex = Math.max(area.endIndex, tmpArea.endIndex);
-          itArea.remove();
-        }
-        if (CHECK_AREAS) {
-          checkAreas();
-        }
-        return;
+    if (endIndex <= beginIndex) {
+      return;
+    }
+    if (pendingCount >= pendingAreas.length) {
+      pendingAreas = Arrays.copyOf(pendingAreas, pendingAreas.length * 2);
+    }
+    pendingAreas[pendingCount] = (((long) beginIndex) << 32) | (endIndex & 0xFFFFFFFFL);
+    pendingCount++;
+  }
+
+  /**
+   * Merge the areas waiting to be merged with the existing areas.
+   */
+  private void mergePendingAreas() {
+    if (pendingCount == 0) {
+      return;
+    }
+    Arrays.sort(pendingAreas, 0, pendingCount);
+    int[] oldAreas = areas;
+    int[] newAreas = new int[oldAreas.length + 2 * pendingCount];
+    int newLength = 0;
+    int oldIndex = 0;
+    int pendingIndex = 0;
+    while ((oldIndex < oldAreas.length) || (pendingIndex < pendingCount)) {
+
+      // Take the area with the lowest begin index
+      int beginIndex;
+      int endIndex;
+      if ((pendingIndex >= pendingCount) ||
+          ((oldIndex < oldAreas.length) &&
+           (oldAreas[oldIndex] <= (int) (pendingAreas[pendingIndex] >> 32)))) {
+        beginIndex = oldAreas[oldIndex];
+        endIndex = oldAreas[oldIndex + 1];
+        oldIndex += 2;
+      } else {
+        beginIndex = (int) (pendingAreas[pendingIndex] >> 32);
+        endIndex = (int) pendingAreas[pendingIndex];
+        pendingIndex++;
+      }
+
+      // Merge it with the previous area if they overlap or touch
+      if ((newLength > 0) && (beginIndex <= newAreas[newLength - 1])) {
+        newAreas[newLength - 1] = Math.max(newAreas[newLength - 1], endIndex);
+      } else {
+        newAreas[newLength] = beginIndex;
+        newAreas[newLength + 1] = endIndex;
+        newLength += 2;
       }
-      currentIndex++;
     }
-    areas.add(new Area(beginIndex, endIndex));
+    areas = Arrays.copyOf(newAreas, newLength);
+    pendingCount = 0;
     if (CHECK_AREAS) {
       checkAreas();
     }
@@ -409,21 +487,61 @@ public class PageElementAreas {
    */
   public void checkAreas() {
     int previousEnd = -1;
-    for (PageElementAreas.Area area : areas) {
-      if (area.beginIndex >= area.endIndex) {
-        System.err.println("Error " + area);
+    int[] tmpAreas = areas;
+    for (int i = 0; i < tmpAreas.length; i += 2) {
+      if (tmpAreas[i] >= tmpAreas[i + 1]) {
+        System.err.println("Error " + new Area(tmpAreas[i], tmpAreas[i + 1]));
       }
-      if (previousEnd >= area.beginIndex) {
-        System.err.println("Error " + area + "/" + previousEnd);
+      if (previousEnd >= tmpAreas[i]) {
+        System.err.println("Error " + new Area(tmpAreas[i], tmpAreas[i + 1]) + "/" + previousEnd);
       }
-      previousEnd = area.endIndex;
+      previousEnd = tmpAreas[i + 1];
     }
   }
 
   public void printAreas(String text) {
     System.err.println("Areas " + text + " :");
-    for (Area area : areas) {
-      System.err.println(" " + area.getBeginIndex() + "->" + area.getEndIndex());
+    int[] tmpAreas = areas;
+    for (int i = 0; i < tmpAreas.length; i += 2) {
+      System.err.println(" " + tmpAreas[i] + "->" + tmpAreas[i + 1]);
+    }
+  }
+
+  /**
+   * Cursor for going through the areas with increasing indexes.
+   * 
+   * Consecutive calls with increasing indexes are done in constant amortized
+   * time without any allocation.
+   */
+  public class Cursor {
+
+    /** Position of the current area */
+    private int position;
+
+    /**
+     * Create a cursor at the beginning of the areas.
+     */
+    Cursor() {
+      position = 0;
+    }
+
+    /**
+     * @param index Current index.
+     * @return First index after area.
+     */
+    public int getEndArea(int index) {
+      int[] tmpAreas = areas;
+      if ((position > tmpAreas.length) ||
+          ((position > 0) && (tmpAreas[position - 1] > index))) {
+        position = findArea(tmpAreas, index);
+      }
+      while ((position < tmpAreas.length) && (tmpAreas[position + 1] <= index)) {
+        position += 2;
+      }
+      if ((position < tmpAreas.length) && (tmpAreas[position] <= index)) {
+        return tmpAreas[position + 1];
+      }
+      return index;
     }
   }
 
@@ -435,12 +553,12 @@ public class PageElementAreas {
     /**
      * Begin index of the area.
      */
-    int beginIndex;
+    final int beginIndex;
 
     /**
      * End index of the area.
      */
-    int endIndex;
+    final int endIndex;
 
     /**
      * @param beginIndex Begin index.
@@ -17,6 +17,7 @@ public class PageElementInternalLink extends PageElement {
 
   private final String linkNotTrimmed;
   private final String link;
+  private final String normalizedLink;
   private final String anchorNotTrimmed;
   private final String anchor;
   private final String textNotTrimmed;
@@ -240,6 +241,13 @@ public class PageElementInternalLink extends PageElement {
     return link;
   }
 
+  /**
+   * @return Link normalized with {@link Page#normalizeTitle(String)}.
+   */
+  public String getNormalizedLink() {
+    return normalizedLink;
+  }
+
   public String getLinkNotNormalized() {
     return (linkNotTrimmed != null) ? linkNotTrimmed.trim() : null;
   }
@@ -291,6 +299,7 @@ public class PageElementInternalLink extends PageElement {
     super(beginIndex, endIndex);
     this.linkNotTrimmed = link;
     this.link = (link != null) ? wikipedia.normalizeTitle(link) : null;
+    this.normalizedLink = Page.normalizeTitle(this.link);
     this.anchorNotTrimmed = anchor;
     this.anchor = (anchor != null) ? anchor.trim() : null;
     this.textNotTrimmed = text;
@@ -112,6 +112,21 @@ public class Suggestion implements Comparable<Suggestion> {
   public static Suggestion createSuggestion(
       String patternText, boolean other,
       String chapter) {
+    return createSuggestion(patternText, other, chapter, null);
+  }
+
+  /**
+   * Create a Suggestion.
+   * 
+   * @param patternText Search pattern.
+   * @param other True if the pattern is not a native WPCleaner pattern.
+   * @param chapter Page and chapter in which the suggestion is defined.
+   * @param previous Previous suggestion for the same search pattern, to reuse the compiled pattern (may be null).
+   * @return Suggestion or null if there's a problem.
+   */
+  public static Suggestion createSuggestion(
+      String patternText, boolean other,
+      String chapter, Suggestion previous) {
     try {
       if ((patternText.startsWith(TAG_NOWIKI_1)) &&
           (patternText.endsWith(TAG_NOWIKI_2))) {
@@ -119,7 +134,12 @@ public class Suggestion implements Comparable<Suggestion> {
             TAG_NOWIKI_1.length(),
             patternText.length() - TAG_NOWIKI_2.length());
       }
-      Pattern pattern = Pattern.compile(patternText);
+      Pattern pattern = null;
+      if ((previous != null) && patternText.equals(previous.pattern.pattern())) {
+        pattern = previous.pattern;
+      } else {
+        pattern = Pattern.compile(patternText);
+      }
       return new Suggestion(pattern, other, chapter);
     } catch (PatternSyntaxException e) {
       log.warn("Incorrect pattern syntax for [" + patternText + "]: " + e.getMessage());
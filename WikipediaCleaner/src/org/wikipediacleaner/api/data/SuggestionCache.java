@@ -0,0 +1,336 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+
+/**
+ * Cache of suggestion definitions extracted from suggestion pages.
+ *
+ * Definitions are kept for each source page and each way of extracting them,
+ * with the revision id of the page, so that pages are analyzed again
+ * only when they have been modified.
+ * Only the last revision of each source is kept, and sources not used
+ * since the previous save are forgotten when the cache is saved.
+ * The cache can be saved in a compact binary file to be reused at next start.
+ */
+public class SuggestionCache {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(SuggestionCache.class);
+
+  /** Version of the file format */
+  private final static int VERSION = 1;
+
+  /** File in which the cache is saved (may be null) */
+  private final File file;
+
+  /** Cached definitions by source */
+  private final Map<String, Entry> entries;
+
+  /** Sources used since the cache was loaded or saved */
+  private final Set<String> usedSources;
+
+  /** True if the cache has been modified since it was loaded */
+  private boolean modified;
+
+  /**
+   * @param file File in which the cache is saved (may be null).
+   */
+  public SuggestionCache(File file) {
+    this.file = file;
+    this.entries = new HashMap<String, Entry>();
+    this.usedSources = new HashSet<String>();
+    this.modified = false;
+    load();
+  }
+
+  /**
+   * @param source Source of the definitions (page and way of extracting definitions).
+   * @param revisionId Revision id of the page.
+   * @return Definitions if they are available for this revision, null otherwise.
+   */
+  public List<Definition> getDefinitions(String source, Integer revisionId) {
+    usedSources.add(source);
+    Entry entry = entries.get(source);
+    if ((entry == null) ||
+        (revisionId == null) ||
+        (revisionId.intValue() <= 0) ||
+        (entry.revisionId != revisionId.intValue())) {
+      return null;
+    }
+    return entry.definitions;
+  }
+
+  /**
+   * @param source Source of the definitions (page and way of extracting definitions).
+   * @param revisionId Revision id of the page.
+   * @param definitions Definitions extracted from the page.
+   */
+  public void setDefinitions(String source, Integer revisionId, List<Definition> definitions) {
+    usedSources.add(source);
+    if ((revisionId == null) || (revisionId.intValue() <= 0)) {
+      if (entries.remove(source) != null) {
+        modified = true;
+      }
+      return;
+    }
+    entries.put(source, new Entry(revisionId.intValue(), definitions));
+    modified = true;
+  }
+
+  /**
+   * Load the cache from its file.
+   */
+  private void load() {
+    if ((file == null) || !file.isFile()) {
+      return;
+    }
+    try (DataInputStream input = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(file)))) {
+      if (input.readInt() != VERSION) {
+        return;
+      }
+      int entriesCount = input.readInt();
+      for (int entryNum = 0; entryNum < entriesCount; entryNum++) {
+        String source = input.readUTF();
+        int revisionId = input.readInt();
+        int definitionsCount = input.readInt();
+        List<Definition> definitions = new ArrayList<Definition>(definitionsCount);
+        for (int definitionNum = 0; definitionNum < definitionsCount; definitionNum++) {
+          definitions.add(Definition.read(input));
+        }
+        entries.put(source, new Entry(revisionId, definitions));
+      }
+    } catch (IOException e) {
+      log.warn("Unable to read suggestions cache: " + e.getMessage());
+      entries.clear();
+    }
+  }
+
+  /**
+   * Save the cache in its file if it has been modified.
+   * Definitions of sources not used since the previous save are removed.
+   */
+  public void save() {
+    if (entries.keySet().retainAll(usedSources)) {
+      modified = true;
+    }
+    usedSources.clear();
+    if ((file == null) || !modified) {
+      return;
+    }
+    File parent = file.getParentFile();
+    if ((parent != null) && !parent.isDirectory() && !parent.mkdirs()) {
+      return;
+    }
+    File tmpFile = new File(parent, file.getName() + ".tmp");
+    try (DataOutputStream output = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+      output.writeInt(VERSION);
+      output.writeInt(entries.size());
+      for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+        output.writeUTF(entry.getKey());
+        output.writeInt(entry.getValue().revisionId);
+        output.writeInt(entry.getValue().definitions.size());
+        for (Definition definition : entry.getValue().definitions) {
+          definition.write(output);
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Unable to write suggestions cache: " + e.getMessage());
+      tmpFile.delete();
+      return;
+    }
+    file.delete();
+    if (tmpFile.renameTo(file)) {
+      modified = false;
+    } else {
+      tmpFile.delete();
+    }
+  }
+
+  /**
+   * Definitions extracted from a revision of a page.
+   */
+  private static class Entry {
+
+    /** Revision id of the page */
+    final int revisionId;
+
+    /** Definitions extracted from the page */
+    final List<Definition> definitions;
+
+    /**
+     * @param revisionId Revision id of the page.
+     * @param definitions Definitions extracted from the page.
+     */
+    Entry(int revisionId, List<Definition> definitions) {
+      this.revisionId = revisionId;
+      this.definitions = Collections.unmodifiableList(definitions);
+    }
+  }
+
+  /**
+   * Definition of a suggestion, as found in a page.
+   */
+  public static class Definition {
+
+    /** Search pattern */
+    private final String patternText;
+
+    /** True if the pattern is not a native WPCleaner pattern */
+    private final boolean other;
+
+    /** Page and chapter in which the suggestion is defined */
+    private final String chapter;
+
+    /** True if the comment is defined */
+    private final boolean hasComment;
+
+    /** Comment */
+    private final String comment;
+
+    /** Replacements */
+    private final List<String> replacements;
+
+    /** Flags indicating if the replacements can be done automatically */
+    private final List<Boolean> automatic;
+
+    /**
+     * @param patternText Search pattern.
+     * @param other True if the pattern is not a native WPCleaner pattern.
+     * @param chapter Page and chapter in which the suggestion is defined.
+     * @param hasComment True if the comment is defined.
+     * @param comment Comment.
+     */
+    public Definition(
+        String patternText, boolean other, String chapter,
+        boolean hasComment, String comment) {
+      this.patternText = patternText;
+      this.other = other;
+      this.chapter = chapter;
+      this.hasComment = hasComment;
+      this.comment = comment;
+      this.replacements = new ArrayList<String>(1);
+      this.automatic = new ArrayList<Boolean>(1);
+    }
+
+    /**
+     * @param replacement Replacement.
+     * @param isAutomatic True if replacement can be done automatically.
+     */
+    public void addReplacement(String replacement, boolean isAutomatic) {
+      replacements.add(replacement);
+      automatic.add(Boolean.valueOf(isAutomatic));
+    }
+
+    /**
+     * Apply the definition to a set of suggestions.
+     *
+     * @param suggestions Suggestions by pattern.
+     * @param previous Previous suggestions by pattern (may be null).
+     */
+    public void apply(
+        Map<String, Suggestion> suggestions,
+        Map<String, Suggestion> previous) {
+      Suggestion suggestion = suggestions.get(patternText);
+      if (suggestion == null) {
+        suggestion = Suggestion.createSuggestion(
+            patternText, other, chapter,
+            (previous != null) ? previous.get(patternText) : null);
+        if (suggestion == null) {
+          return;
+        }
+        suggestions.put(patternText, suggestion);
+      }
+      if (hasComment) {
+        suggestion.setComment(comment);
+      }
+      for (int i = 0; i < replacements.size(); i++) {
+        suggestion.addReplacement(replacements.get(i), automatic.get(i).booleanValue());
+      }
+    }
+
+    /**
+     * @param output Output stream.
+     * @throws IOException
+     */
+    void write(DataOutputStream output) throws IOException {
+      output.writeUTF(patternText);
+      output.writeBoolean(other);
+      writeString(output, chapter);
+      output.writeBoolean(hasComment);
+      writeString(output, comment);
+      output.writeInt(replacements.size());
+      for (int i = 0; i < replacements.size(); i++) {
+        output.writeUTF(replacements.get(i));
+        output.writeBoolean(automatic.get(i).booleanValue());
+      }
+    }
+
+    /**
+     * @param input Input stream.
+     * @return Definition.
+     * @throws IOException
+     */
+    static Definition read(DataInputStream input) throws IOException {
+      String patternText = input.readUTF();
+      boolean other = input.readBoolean();
+      String chapter = readString(input);
+      boolean hasComment = input.readBoolean();
+      String comment = readString(input);
+      Definition definition = new Definition(patternText, other, chapter, hasComment, comment);
+      int replacementsCount = input.readInt();
+      for (int i = 0; i < replacementsCount; i++) {
+        String replacement = input.readUTF();
+        definition.addReplacement(replacement, input.readBoolean());
+      }
+      return definition;
+    }
+
+    /**
+     * @param output Output stream.
+     * @param value Value (may be null).
+     * @throws IOException
+     */
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+      output.writeBoolean(value != null);
+      if (value != null) {
+        output.writeUTF(value);
+      }
+    }
+
+    /**
+     * @param input Input stream.
+     * @return Value (may be null).
+     * @throws IOException
+     */
+    private static String readString(DataInputStream input) throws IOException {
+      return input.readBoolean() ? input.readUTF() : null;
+    }
+  }
+}
@@ -0,0 +1,760 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Prefilter for suggestions.
+ *
+ * Literal strings required in every match (anchors) are extracted from the
+ * pattern of each suggestion, and all anchors are compiled in a single
+ * Aho-Corasick automaton. Scanning a text once with the automaton gives
+ * the places where each suggestion may match: a suggestion can only match
+ * in an area containing at least one of its anchors.
+ *
+ * Anchors are compared after case folding, and a suggestion for which no
+ * anchor can be extracted is considered as possibly matching everywhere.
+ */
+public class SuggestionFilter {
+
+  /** Identifiers of the suggestions */
+  private final Map<Suggestion, Integer> ids;
+
+  /** For each suggestion, true if no anchor is available */
+  private final boolean[] noAnchor;
+
+  /** For each anchor, length of the anchor */
+  private final int[] anchorLengths;
+
+  /** For each anchor, identifiers of the suggestions requiring it */
+  private final int[][] anchorSuggestions;
+
+  /** For each state, characters of the transitions (sorted) */
+  private final char[][] transitionChars;
+
+  /** For each state, target states of the transitions */
+  private final int[][] transitionTargets;
+
+  /** For each state, failure state */
+  private final int[] failures;
+
+  /** For each state, anchors ending at this state */
+  private final int[][] outputs;
+
+  /** For each state, next state on the failure path having outputs (-1 if none) */
+  private final int[] outputLinks;
+
+  /**
+   * @param suggestions Suggestions.
+   */
+  public SuggestionFilter(Collection<Suggestion> suggestions) {
+
+    // Extract anchors from suggestions
+    ids = new IdentityHashMap<Suggestion, Integer>();
+    List<Boolean> tmpNoAnchor = new ArrayList<Boolean>();
+    Map<String, List<Integer>> tmpAnchors = new HashMap<String, List<Integer>>();
+    if (suggestions != null) {
+      for (Suggestion suggestion : suggestions) {
+        if ((suggestion != null) && !ids.containsKey(suggestion)) {
+          int id = ids.size();
+          ids.put(suggestion, Integer.valueOf(id));
+          Set<String> anchors = extractAnchors(suggestion.getPatternText());
+          tmpNoAnchor.add(Boolean.valueOf(anchors == null));
+          if (anchors != null) {
+            for (String anchor : anchors) {
+              List<Integer> anchorIds = tmpAnchors.get(anchor);
+              if (anchorIds == null) {
+                anchorIds = new ArrayList<Integer>();
+                tmpAnchors.put(anchor, anchorIds);
+              }
+              anchorIds.add(Integer.valueOf(id));
+            }
+          }
+        }
+      }
+    }
+    noAnchor = new boolean[tmpNoAnchor.size()];
+    for (int id = 0; id < noAnchor.length; id++) {
+      noAnchor[id] = tmpNoAnchor.get(id).booleanValue();
+    }
+
+    // Build the trie of the anchors
+    anchorLengths = new int[tmpAnchors.size()];
+    anchorSuggestions = new int[tmpAnchors.size()][];
+    List<Map<Character, Integer>> tmpTransitions = new ArrayList<Map<Character, Integer>>();
+    List<List<Integer>> tmpOutputs = new ArrayList<List<Integer>>();
+    tmpTransitions.add(new HashMap<Character, Integer>());
+    tmpOutputs.add(null);
+    int anchorIndex = 0;
+    for (Map.Entry<String, List<Integer>> entry : tmpAnchors.entrySet()) {
+      String anchor = entry.getKey();
+      int state = 0;
+      for (int i = 0; i < anchor.length(); i++) {
+        Character c = Character.valueOf(anchor.charAt(i));
+        Integer next = tmpTransitions.get(state).get(c);
+        if (next == null) {
+          next = Integer.valueOf(tmpTransitions.size());
+          tmpTransitions.add(new HashMap<Character, Integer>());
+          tmpOutputs.add(null);
+          tmpTransitions.get(state).put(c, next);
+        }
+        state = next.intValue();
+      }
+      if (tmpOutputs.get(state) == null) {
+        tmpOutputs.set(state, new ArrayList<Integer>());
+      }
+      tmpOutputs.get(state).add(Integer.valueOf(anchorIndex));
+      anchorLengths[anchorIndex] = anchor.length();
+      List<Integer> anchorIds = entry.getValue();
+      anchorSuggestions[anchorIndex] = new int[anchorIds.size()];
+      for (int i = 0; i < anchorIds.size(); i++) {
+        anchorSuggestions[anchorIndex][i] = anchorIds.get(i).intValue();
+      }
+      anchorIndex++;
+    }
+    int stateCount = tmpTransitions.size();
+    transitionChars = new char[stateCount][];
+    transitionTargets = new int[stateCount][];
+    outputs = new int[stateCount][];
+    for (int state = 0; state < stateCount; state++) {
+      Map<Character, Integer> transitions = tmpTransitions.get(state);
+      Character[] chars = transitions.keySet().toArray(new Character[transitions.size()]);
+      Arrays.sort(chars);
+      transitionChars[state] = new char[chars.length];
+      transitionTargets[state] = new int[chars.length];
+      for (int i = 0; i < chars.length; i++) {
+        transitionChars[state][i] = chars[i].charValue();
+        transitionTargets[state][i] = transitions.get(chars[i]).intValue();
+      }
+      List<Integer> stateOutputs = tmpOutputs.get(state);
+      if (stateOutputs != null) {
+        outputs[state] = new int[stateOutputs.size()];
+        for (int i = 0; i < stateOutputs.size(); i++) {
+          outputs[state][i] = stateOutputs.get(i).intValue();
+        }
+      }
+    }
+
+    // Compute failure states with a breadth first traversal
+    failures = new int[stateCount];
+    outputLinks = new int[stateCount];
+    outputLinks[0] = -1;
+    LinkedList<Integer> queue = new LinkedList<Integer>();
+    for (int target : transitionTargets[0]) {
+      failures[target] = 0;
+      outputLinks[target] = -1;
+      queue.add(Integer.valueOf(target));
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.removeFirst().intValue();
+      for (int i = 0; i < transitionChars[state].length; i++) {
+        char c = transitionChars[state][i];
+        int target = transitionTargets[state][i];
+        int failure = failures[state];
+        int next = getTransition(failure, c);
+        while ((next < 0) && (failure != 0)) {
+          failure = failures[failure];
+          next = getTransition(failure, c);
+        }
+        failures[target] = (next >= 0) ? next : 0;
+        outputLinks[target] = (outputs[failures[target]] != null) ?
+            failures[target] : outputLinks[failures[target]];
+        queue.add(Integer.valueOf(target));
+      }
+    }
+  }
+
+  /**
+   * @param state Current state.
+   * @param c Character.
+   * @return Target state of the transition, -1 if there's no transition.
+   */
+  private int getTransition(int state, char c) {
+    int index = Arrays.binarySearch(transitionChars[state], c);
+    return (index >= 0) ? transitionTargets[state][index] : -1;
+  }
+
+  /**
+   * Scan a text to find where suggestions may match.
+   *
+   * @param text Text.
+   * @return Candidates areas for each suggestion.
+   */
+  public Candidates scan(String text) {
+    Candidates candidates = new Candidates();
+    if (text == null) {
+      return candidates;
+    }
+    int state = 0;
+    for (int index = 0; index < text.length(); index++) {
+      char c = foldCase(text.charAt(index));
+      int next = getTransition(state, c);
+      while ((next < 0) && (state != 0)) {
+        state = failures[state];
+        next = getTransition(state, c);
+      }
+      state = (next >= 0) ? next : 0;
+      int outputState = (outputs[state] != null) ? state : outputLinks[state];
+      while (outputState >= 0) {
+        for (int anchor : outputs[outputState]) {
+          for (int id : anchorSuggestions[anchor]) {
+            candidates.addOccurrence(id, index + 1 - anchorLengths[anchor], index + 1);
+          }
+        }
+        outputState = outputLinks[outputState];
+      }
+    }
+    return candidates;
+  }
+
+  /**
+   * Candidate areas for each suggestion in a text.
+   */
+  public class Candidates {
+
+    /** For each suggestion, begin indexes of the anchors found */
+    private final int[][] beginIndexes;
+
+    /** For each suggestion, end indexes (sorted) of the anchors found */
+    private final int[][] endIndexes;
+
+    /** For each suggestion, number of anchors found */
+    private final int[] counts;
+
+    /**
+     * Create an empty list of candidates.
+     */
+    Candidates() {
+      beginIndexes = new int[noAnchor.length][];
+      endIndexes = new int[noAnchor.length][];
+      counts = new int[noAnchor.length];
+    }
+
+    /**
+     * Memorize an anchor found for a suggestion.
+     *
+     * @param id Identifier of the suggestion.
+     * @param beginIndex Begin index of the anchor.
+     * @param endIndex End index of the anchor.
+     */
+    void addOccurrence(int id, int beginIndex, int endIndex) {
+      int count = counts[id];
+      if (beginIndexes[id] == null) {
+        beginIndexes[id] = new int[4];
+        endIndexes[id] = new int[4];
+      } else if (count >= beginIndexes[id].length) {
+        beginIndexes[id] = Arrays.copyOf(beginIndexes[id], 2 * count);
+        endIndexes[id] = Arrays.copyOf(endIndexes[id], 2 * count);
+      }
+      beginIndexes[id][count] = beginIndex;
+      endIndexes[id][count] = endIndex;
+      counts[id] = count + 1;
+    }
+
+    /**
+     * @param suggestion Suggestion.
+     * @param beginIndex Begin index of the area.
+     * @param endIndex End index of the area.
+     * @return True if the suggestion may match in the area.
+     */
+    public boolean hasCandidate(Suggestion suggestion, int beginIndex, int endIndex) {
+      Integer id = ids.get(suggestion);
+      if (id == null) {
+        return true;
+      }
+      int tmpId = id.intValue();
+      if (noAnchor[tmpId]) {
+        return true;
+      }
+      int count = counts[tmpId];
+      if (count == 0) {
+        return false;
+      }
+
+      // Find the first anchor ending after the begin of the area
+      int[] ends = endIndexes[tmpId];
+      int low = 0;
+      int high = count;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (ends[middle] <= beginIndex) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+
+      // Check anchors ending in the area
+      int[] begins = beginIndexes[tmpId];
+      while ((low < count) && (ends[low] <= endIndex)) {
+        if (begins[low] >= beginIndex) {
+          return true;
+        }
+        low++;
+      }
+      return false;
+    }
+  }
+
+  // ==========================================================================
+  // Extraction of anchors
+  // ==========================================================================
+
+  /**
+   * Fold the case of a character, similarly to case insensitive regular expressions.
+   *
+   * @param c Character.
+   * @return Folded character.
+   */
+  static char foldCase(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+
+  /**
+   * Extract the anchors of a pattern: at least one of them is present in each match.
+   *
+   * @param patternText Pattern.
+   * @return Anchors (after case folding), null if no anchor can be extracted.
+   */
+  static Set<String> extractAnchors(String patternText) {
+    if (patternText == null) {
+      return null;
+    }
+    try {
+      patternText = removeQuoting(patternText);
+      AnchorParser parser = new AnchorParser(patternText);
+      Set<String> anchors = parser.parseAlternatives();
+      if (parser.position < patternText.length()) {
+        return null;
+      }
+      return anchors;
+    } catch (IllegalArgumentException e) {
+      return null;
+    } catch (IndexOutOfBoundsException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Replace quoted parts of a pattern by escaped characters.
+   *
+   * Quoted parts are removed before parsing, as in {@link java.util.regex.Pattern}:
+   * an empty quote disappears, and a quantifier following it applies to the previous element.
+   *
+   * @param patternText Pattern.
+   * @return Pattern without quoted parts.
+   */
+  static String removeQuoting(String patternText) {
+    if (patternText.indexOf("\\Q") < 0) {
+      return patternText;
+    }
+    int length = patternText.length();
+    StringBuilder result = new StringBuilder(length + 16);
+    int index = 0;
+    while (index < length) {
+      char current = patternText.charAt(index);
+      if ((current != '\\') || (index + 1 >= length)) {
+        result.append(current);
+        index++;
+      } else if (patternText.charAt(index + 1) != 'Q') {
+        result.append(current);
+        result.append(patternText.charAt(index + 1));
+        index += 2;
+      } else {
+        int end = patternText.indexOf("\\E", index + 2);
+        if (end < 0) {
+          end = length;
+        }
+        for (int i = index + 2; i < end; i++) {
+          char quoted = patternText.charAt(i);
+          if ((quoted >= '0') && (quoted <= '9')) {
+            // Avoid merging with a previous back reference or octal value
+            result.append('[');
+            result.append(quoted);
+            result.append(']');
+          } else if (Character.isLetter(quoted)) {
+            result.append(quoted);
+          } else {
+            result.append('\\');
+            result.append(quoted);
+          }
+        }
+        index = Math.min(end + 2, length);
+      }
+    }
+    return result.toString();
+  }
+
+  /**
+   * Conservative parser of regular expressions for extracting anchors.
+   *
+   * Only simple constructs are understood (literal characters, groups,
+   * alternatives, quantifiers, character classes, ...),
+   * the parser fails on anything unexpected.
+   */
+  private static class AnchorParser {
+
+    /** Pattern */
+    private final String pattern;
+
+    /** Current position in the pattern */
+    int position;
+
+    /** Text matched by the last parsed sequence or alternatives if it's a simple literal */
+    private String exactText;
+
+    /**
+     * @param pattern Pattern.
+     */
+    AnchorParser(String pattern) {
+      this.pattern = pattern;
+      this.position = 0;
+    }
+
+    /**
+     * Parse alternatives, until the end of the pattern or of the group.
+     *
+     * @return Anchors required by the alternatives, null if none.
+     */
+    Set<String> parseAlternatives() {
+      Set<String> result = new LinkedHashSet<String>();
+      boolean ok = true;
+      int count = 0;
+      while (true) {
+        Set<String> anchors = parseSequence();
+        count++;
+        if (anchors == null) {
+          ok = false;
+        } else {
+          result.addAll(anchors);
+        }
+        if ((position < pattern.length()) && (pattern.charAt(position) == '|')) {
+          position++;
+        } else {
+          break;
+        }
+      }
+      if (count > 1) {
+        exactText = null;
+      }
+      return ok ? result : null;
+    }
+
+    /**
+     * Parse a sequence, until the end of the pattern, of the group or of an alternative.
+     *
+     * @return Best anchors required by the sequence, null if none.
+     */
+    private Set<String> parseSequence() {
+      Set<String> best = null;
+      StringBuilder run = new StringBuilder();
+      StringBuilder exact = new StringBuilder();
+      boolean isExact = true;
+      while ((position < pattern.length()) &&
+             (pattern.charAt(position) != '|') &&
+             (pattern.charAt(position) != ')')) {
+        char current = pattern.charAt(position);
+        String literal = null;
+        Set<String> group = null;
+        boolean zeroWidth = false;
+        if (current == '(') {
+          position++;
+          if (pattern.startsWith("?=", position) || pattern.startsWith("?!", position) ||
+              pattern.startsWith("?<=", position) || pattern.startsWith("?<!", position)) {
+            position += pattern.startsWith("?<", position) ? 3 : 2;
+            parseAlternatives();
+            zeroWidth = true;
+          } else if (pattern.startsWith("?", position)) {
+            position++;
+            if (pattern.startsWith(":", position) || pattern.startsWith(">", position)) {
+              position++;
+            } else if (pattern.startsWith("<", position)) {
+              int end = pattern.indexOf('>', position);
+              if (end < 0) {
+                throw new IllegalArgumentException();
+              }
+              position = end + 1;
+            } else {
+              while ("iusmdU-".indexOf(pattern.charAt(position)) >= 0) {
+                position++;
+              }
+              if (pattern.charAt(position) == ')') {
+                zeroWidth = true;
+              } else if (pattern.charAt(position) == ':') {
+                position++;
+              } else {
+                throw new IllegalArgumentException();
+              }
+            }
+            if (!zeroWidth) {
+              group = parseAlternatives();
+            }
+          } else {
+            group = parseAlternatives();
+          }
+          if ((position >= pattern.length()) || (pattern.charAt(position) != ')')) {
+            throw new IllegalArgumentException();
+          }
+          position++;
+          if (!zeroWidth && (exactText != null)) {
+            // Group matching only a literal: handled as a literal
+            literal = exactText;
+            group = null;
+          } else if (group == null) {
+            group = Collections.emptySet();
+          }
+        } else if (current == '[') {
+          literal = parseCharacterClass();
+        } else if (current == '\\') {
+          position++;
+          char escaped = pattern.charAt(position);
+          position++;
+          if ("bBAGZz".indexOf(escaped) >= 0) {
+            zeroWidth = true;
+          } else if ((escaped == 'p') || (escaped == 'P') ||
+                     (escaped == 'x') || (escaped == 'k')) {
+            if (pattern.startsWith("{", position)) {
+              position = pattern.indexOf('}', position) + 1;
+            } else if (pattern.startsWith("<", position)) {
+              position = pattern.indexOf('>', position) + 1;
+            } else {
+              position += (escaped == 'x') ? 2 : 1;
+            }
+            if (position <= 0) {
+              throw new IllegalArgumentException();
+            }
+          } else if (escaped == 'u') {
+            position += 4;
+          } else if (escaped == 'c') {
+            position++;
+          } else if (escaped == '0') {
+            while ((position < pattern.length()) &&
+                   (pattern.charAt(position) >= '0') && (pattern.charAt(position) <= '7')) {
+              position++;
+            }
+          } else if (Character.isDigit(escaped)) {
+            while ((position < pattern.length()) && Character.isDigit(pattern.charAt(position))) {
+              position++;
+            }
+          } else if (!Character.isLetter(escaped)) {
+            literal = foldChar(escaped);
+          }
+        } else if ((current == '^') || (current == '$')) {
+          position++;
+          zeroWidth = true;
+        } else if ((current == '*') || (current == '+') || (current == '?') || (current == '{')) {
+          throw new IllegalArgumentException();
+        } else {
+          position++;
+          if (current != '.') {
+            literal = foldChar(current);
+          }
+        }
+
+        // Quantifier
+        int minimum = parseQuantifier();
+
+        // Handle the result
+        if (zeroWidth) {
+          // Zero width elements don't break the sequence
+        } else if ((literal != null) && (minimum == 1)) {
+          run.append(literal);
+          exact.append(literal);
+        } else {
+          isExact = false;
+          if ((literal != null) && (minimum > 0)) {
+            // Repeated literal: present at the end of a run and at the beginning of the next one
+            run.append(literal);
+            best = selectBest(best, run);
+            run.setLength(0);
+            run.append(literal);
+          } else {
+            best = selectBest(best, run);
+            run.setLength(0);
+            if ((minimum > 0) && (group != null) && !group.isEmpty()) {
+              best = selectBest(best, group);
+            }
+          }
+        }
+      }
+      exactText = isExact ? exact.toString() : null;
+      return selectBest(best, run);
+    }
+
+    /**
+     * Parse a character class.
+     *
+     * @return Literal if the class is only one character after case folding.
+     */
+    private String parseCharacterClass() {
+      position++;
+      boolean simple = true;
+      if (pattern.charAt(position) == '^') {
+        simple = false;
+        position++;
+      }
+      if (pattern.charAt(position) == ']') {
+        throw new IllegalArgumentException();
+      }
+      String literal = null;
+      int depth = 1;
+      while (depth > 0) {
+        char current = pattern.charAt(position);
+        position++;
+        Character member = null;
+        if (current == '\\') {
+          char escaped = pattern.charAt(position);
+          position++;
+          if (Character.isLetterOrDigit(escaped)) {
+            simple = false;
+            if ((escaped == 'Q') || (escaped == 'E')) {
+              throw new IllegalArgumentException();
+            } else if ((escaped == 'p') || (escaped == 'P') || (escaped == 'x')) {
+              if (pattern.charAt(position) == '{') {
+                position = pattern.indexOf('}', position) + 1;
+                if (position <= 0) {
+                  throw new IllegalArgumentException();
+                }
+              } else {
+                position += (escaped == 'x') ? 2 : 1;
+              }
+            } else if (escaped == 'u') {
+              position += 4;
+            } else if (escaped == 'c') {
+              position++;
+            } else if (escaped == '0') {
+              while ((pattern.charAt(position) >= '0') && (pattern.charAt(position) <= '7')) {
+                position++;
+              }
+            }
+          } else {
+            member = Character.valueOf(escaped);
+          }
+        } else if (current == '[') {
+          simple = false;
+          depth++;
+        } else if (current == ']') {
+          depth--;
+        } else if ((current == '-') || (current == '&')) {
+          simple = false;
+        } else {
+          member = Character.valueOf(current);
+        }
+        if (simple && (member != null)) {
+          String folded = foldChar(member.charValue());
+          if (folded == null) {
+            simple = false;
+          } else if (literal == null) {
+            literal = folded;
+          } else if (!literal.equals(folded)) {
+            simple = false;
+          }
+        }
+      }
+      return simple ? literal : null;
+    }
+
+    /**
+     * Parse an optional quantifier.
+     *
+     * @return Minimum number of repetitions (1 if there's no quantifier).
+     */
+    private int parseQuantifier() {
+      if (position >= pattern.length()) {
+        return 1;
+      }
+      int minimum = 1;
+      char current = pattern.charAt(position);
+      if ((current == '?') || (current == '*')) {
+        position++;
+        minimum = 0;
+      } else if (current == '+') {
+        position++;
+        minimum = 2;
+      } else if (current == '{') {
+        int end = pattern.indexOf('}', position);
+        if (end < 0) {
+          throw new IllegalArgumentException();
+        }
+        String value = pattern.substring(position + 1, end);
+        int comma = value.indexOf(',');
+        int min = Integer.parseInt((comma < 0) ? value : value.substring(0, comma));
+        int max = ((comma < 0) || (comma + 1 >= value.length())) ?
+            min : Integer.parseInt(value.substring(comma + 1));
+        minimum = (min == 0) ? 0 : (((min == 1) && (max == 1)) ? 1 : 2);
+        position = end + 1;
+      } else {
+        return 1;
+      }
+      if ((position < pattern.length()) &&
+          ((pattern.charAt(position) == '?') || (pattern.charAt(position) == '+'))) {
+        position++;
+      }
+      return minimum;
+    }
+
+    /**
+     * @param c Literal character.
+     * @return Folded character, null if it can't be used in an anchor.
+     */
+    private static String foldChar(char c) {
+      if (Character.isSurrogate(c)) {
+        return null;
+      }
+      return String.valueOf(foldCase(c));
+    }
+
+    /**
+     * @param best Best anchors so far.
+     * @param run Literal run.
+     * @return Best anchors between the current best and the literal run.
+     */
+    private static Set<String> selectBest(Set<String> best, CharSequence run) {
+      if (run.length() == 0) {
+        return best;
+      }
+      return selectBest(best, Collections.singleton(run.toString()));
+    }
+
+    /**
+     * @param best Best anchors so far.
+     * @param candidate Candidate anchors.
+     * @return Best anchors between the current best and the candidate.
+     */
+    private static Set<String> selectBest(Set<String> best, Set<String> candidate) {
+      if ((best == null) || (getMinLength(candidate) > getMinLength(best))) {
+        return candidate;
+      }
+      return best;
+    }
+
+    /**
+     * @param anchors Anchors.
+     * @return Minimum length of the anchors.
+     */
+    private static int getMinLength(Set<String> anchors) {
+      int minLength = Integer.MAX_VALUE;
+      for (String anchor : anchors) {
+        minLength = Math.min(minLength, anchor.length());
+      }
+      return minLength;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.data.contents;
+
+
+/**
+ * Replacement of an interval of the contents by a new text.
+ */
+public class ContentsReplacement extends ContentsInterval {
+
+  /** Text replacing the interval */
+  private final String replacement;
+
+  /**
+   * @param beginIndex Begin index of the interval.
+   * @param endIndex End index of the interval.
+   * @param replacement Text replacing the interval.
+   */
+  public ContentsReplacement(int beginIndex, int endIndex, String replacement) {
+    super(beginIndex, endIndex);
+    this.replacement = (replacement != null) ? replacement : "";
+  }
+
+  /**
+   * @return Text replacing the interval.
+   */
+  public String getReplacement() {
+    return replacement;
+  }
+
+  /**
+   * @param beginIndex Begin index of an other interval.
+   * @param endIndex End index of an other interval.
+   * @return True if the replacement can't be done together with a replacement of the other interval.
+   */
+  public boolean overlaps(int beginIndex, int endIndex) {
+    if (beginIndex == getBeginIndex()) {
+      return true;
+    }
+    return (getBeginIndex() < endIndex) && (beginIndex < getEndIndex());
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.data.contents;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * List of non overlapping replacements to be done on the contents.
+ *
+ * Replacements are kept sorted by position, so that overlaps are checked
+ * only against neighbors and the new text is built in a single pass.
+ */
+public class ContentsReplacements {
+
+  /** Maximum shift explored to find where texts match again after a difference */
+  private final static int MAX_SHIFT = 200;
+
+  /** Number of matching characters required to consider that texts match again */
+  private final static int RESYNC_LENGTH = 16;
+
+  /**
+   * Create the replacements for the differences between two texts.
+   *
+   * @param oldText Old text.
+   * @param newText New text.
+   * @return Replacements transforming the old text into the new text.
+   */
+  public static ContentsReplacements createDifferences(String oldText, String newText) {
+    ContentsReplacements result = new ContentsReplacements();
+    if ((oldText == null) || (newText == null) || oldText.equals(newText)) {
+      return result;
+    }
+
+    // Ignore common prefix and suffix
+    int maxLength = Math.min(oldText.length(), newText.length());
+    int oldIndex = 0;
+    while ((oldIndex < maxLength) &&
+           (oldText.charAt(oldIndex) == newText.charAt(oldIndex))) {
+      oldIndex++;
+    }
+    int newIndex = oldIndex;
+    int oldEnd = oldText.length();
+    int newEnd = newText.length();
+    while ((oldEnd > oldIndex) && (newEnd > newIndex) &&
+           (oldText.charAt(oldEnd - 1) == newText.charAt(newEnd - 1))) {
+      oldEnd--;
+      newEnd--;
+    }
+
+    // Split the differences where texts match again
+    while ((oldIndex < oldEnd) || (newIndex < newEnd)) {
+      if ((oldIndex < oldEnd) && (newIndex < newEnd) &&
+          (oldText.charAt(oldIndex) == newText.charAt(newIndex))) {
+        oldIndex++;
+        newIndex++;
+      } else {
+        int oldNext = oldEnd;
+        int newNext = newEnd;
+        boolean found = false;
+        for (int shift = 1; !found && (shift <= MAX_SHIFT); shift++) {
+          for (int oldShift = 0; !found && (oldShift <= shift); oldShift++) {
+            int oldTmp = oldIndex + oldShift;
+            int newTmp = newIndex + shift - oldShift;
+            if ((oldTmp <= oldEnd) && (newTmp <= newEnd) &&
+                isMatching(oldText, oldTmp, oldEnd, newText, newTmp, newEnd)) {
+              oldNext = oldTmp;
+              newNext = newTmp;
+              found = true;
+            }
+          }
+        }
+        result.replacements.add(new ContentsReplacement(
+            oldIndex, oldNext, newText.substring(newIndex, newNext)));
+        oldIndex = oldNext;
+        newIndex = newNext;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param oldText Old text.
+   * @param oldIndex Index in the old text.
+   * @param oldEnd End of the differences in the old text.
+   * @param newText New text.
+   * @param newIndex Index in the new text.
+   * @param newEnd End of the differences in the new text.
+   * @return True if both texts match again at the given indexes.
+   */
+  private static boolean isMatching(
+      String oldText, int oldIndex, int oldEnd,
+      String newText, int newIndex, int newEnd) {
+    int length = Math.min(RESYNC_LENGTH, Math.min(oldEnd - oldIndex, newEnd - newIndex));
+    if ((length < RESYNC_LENGTH) && (oldEnd - oldIndex != newEnd - newIndex)) {
+      return false;
+    }
+    return oldText.regionMatches(oldIndex, newText, newIndex, length);
+  }
+
+  /** Replacements sorted by position */
+  private final List<ContentsReplacement> replacements;
+
+  public ContentsReplacements() {
+    this.replacements = new ArrayList<>();
+  }
+
+  /**
+   * @return True if there's no replacement.
+   */
+  public boolean isEmpty() {
+    return replacements.isEmpty();
+  }
+
+  /**
+   * @return Number of replacements.
+   */
+  public int size() {
+    return replacements.size();
+  }
+
+  /**
+   * @return Replacements sorted by position.
+   */
+  public List<ContentsReplacement> getReplacements() {
+    return Collections.unmodifiableList(replacements);
+  }
+
+  /**
+   * @param beginIndex Begin index of the interval.
+   * @param endIndex End index of the interval.
+   * @return True if a replacement of the interval would overlap an existing replacement.
+   */
+  public boolean overlaps(int beginIndex, int endIndex) {
+    int index = getInsertionIndex(beginIndex);
+    if ((index > 0) &&
+        replacements.get(index - 1).overlaps(beginIndex, endIndex)) {
+      return true;
+    }
+    if ((index < replacements.size()) &&
+        replacements.get(index).overlaps(beginIndex, endIndex)) {
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * @param replacement Replacement to add.
+   * @return True if the replacement has been added, false if it overlaps an existing replacement.
+   */
+  public boolean add(ContentsReplacement replacement) {
+    if (replacement == null) {
+      return false;
+    }
+    if (overlaps(replacement.getBeginIndex(), replacement.getEndIndex())) {
+      return false;
+    }
+    replacements.add(getInsertionIndex(replacement.getBeginIndex()), replacement);
+    return true;
+  }
+
+  /**
+   * @param beginIndex Begin index of the interval.
+   * @param endIndex End index of the interval.
+   * @param replacement Text replacing the interval.
+   * @return True if the replacement has been added, false if it overlaps an existing replacement.
+   */
+  public boolean add(int beginIndex, int endIndex, String replacement) {
+    return add(new ContentsReplacement(beginIndex, endIndex, replacement));
+  }
+
+  /**
+   * Apply the replacements to a text.
+   *
+   * @param text Original text.
+   * @return Text with all the replacements done.
+   */
+  public String apply(String text) {
+    if ((text == null) || replacements.isEmpty()) {
+      return text;
+    }
+    int length = text.length();
+    for (ContentsReplacement replacement : replacements) {
+      length += replacement.getReplacement().length() -
+          (replacement.getEndIndex() - replacement.getBeginIndex());
+    }
+    StringBuilder result = new StringBuilder(Math.max(length, 0));
+    int lastIndex = 0;
+    for (ContentsReplacement replacement : replacements) {
+      result.append(text, lastIndex, replacement.getBeginIndex());
+      result.append(replacement.getReplacement());
+      lastIndex = replacement.getEndIndex();
+    }
+    result.append(text, lastIndex, text.length());
+    return result.toString();
+  }
+
+  /**
+   * @param beginIndex Begin index of an interval.
+   * @return Index in the list of the first replacement beginning at or after the begin index.
+   */
+  private int getInsertionIndex(int beginIndex) {
+    int low = 0;
+    int high = replacements.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (replacements.get(middle).getBeginIndex() < beginIndex) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
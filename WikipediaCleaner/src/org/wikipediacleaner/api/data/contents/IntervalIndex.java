@@ -0,0 +1,254 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+
+package org.wikipediacleaner.api.data.contents;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+
+/**
+ * Immutable index on a list of intervals.
+ *
+ * Intervals are sorted by begin index and organized as an implicit
+ * interval tree (each node memorizes the maximum end index of its subtree),
+ * so that finding the intervals containing an index is done in O(log n).
+ * Results are identical to a linear scan of the list in its original order.
+ */
+public class IntervalIndex<T extends Interval> {
+
+  /** Mode: first interval in the list containing the index */
+  private final static int MODE_FIRST = 0;
+
+  /** Mode: last interval in the list containing the index */
+  private final static int MODE_LAST = 1;
+
+  /** Mode: interval containing the index with the greatest begin index */
+  private final static int MODE_INNERMOST = 2;
+
+  /** List of intervals in their original order */
+  private final List<T> intervals;
+
+  /** Positions in the original list, sorted by begin index */
+  private final int[] positions;
+
+  /** Begin indexes, sorted */
+  private final int[] beginIndexes;
+
+  /** End indexes, in the same order as begin indexes */
+  private final int[] endIndexes;
+
+  /** Maximum end index of each subtree of the implicit tree */
+  private final int[] maxEndIndexes;
+
+  /** Minimum original position of the intervals from each sorted position to the end */
+  private final int[] suffixMinPositions;
+
+  /**
+   * @param intervals List of intervals (must not be modified afterwards).
+   */
+  public IntervalIndex(final List<T> intervals) {
+    this.intervals = intervals;
+    int size = (intervals != null) ? intervals.size() : 0;
+    positions = new int[size];
+    beginIndexes = new int[size];
+    endIndexes = new int[size];
+    maxEndIndexes = new int[size];
+    suffixMinPositions = new int[size];
+    if (size == 0) {
+      return;
+    }
+
+    // Sort intervals by begin index, keeping the original order for equal begin indexes
+    boolean sorted = true;
+    for (int i = 0; i < size; i++) {
+      positions[i] = i;
+      if ((i > 0) &&
+          (intervals.get(i).getBeginIndex() < intervals.get(i - 1).getBeginIndex())) {
+        sorted = false;
+      }
+    }
+    if (!sorted) {
+      Integer[] tmpPositions = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        tmpPositions[i] = Integer.valueOf(i);
+      }
+      Arrays.sort(tmpPositions, new Comparator<Integer>() {
+
+        /**
+         * @param o1 First position.
+         * @param o2 Second position.
+         * @return Comparison of the begin indexes of the intervals.
+         * @see java.util.Comparator#compare(java.lang.Object, java.lang.Object)
+         */
+        @Override
+        public int compare(Integer o1, Integer o2) {
+          int begin1 = intervals.get(o1.intValue()).getBeginIndex();
+          int begin2 = intervals.get(o2.intValue()).getBeginIndex();
+          if (begin1 != begin2) {
+            return (begin1 < begin2) ? -1 : 1;
+          }
+          return o1.compareTo(o2);
+        }
+      });
+      for (int i = 0; i < size; i++) {
+        positions[i] = tmpPositions[i].intValue();
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      T interval = intervals.get(positions[i]);
+      beginIndexes[i] = interval.getBeginIndex();
+      endIndexes[i] = interval.getEndIndex();
+    }
+
+    // Compute auxiliary data
+    computeMaxEndIndexes(0, size);
+    suffixMinPositions[size - 1] = positions[size - 1];
+    for (int i = size - 2; i >= 0; i--) {
+      suffixMinPositions[i] = Math.min(positions[i], suffixMinPositions[i + 1]);
+    }
+  }
+
+  /**
+   * Compute maximum end indexes for a subtree of the implicit tree.
+   *
+   * @param low First sorted position of the subtree (inclusive).
+   * @param high Last sorted position of the subtree (exclusive).
+   * @return Maximum end index of the subtree.
+   */
+  private int computeMaxEndIndexes(int low, int high) {
+    if (low >= high) {
+      return Integer.MIN_VALUE;
+    }
+    int middle = (low + high) >>> 1;
+    int maxEndIndex = Math.max(
+        endIndexes[middle],
+        Math.max(computeMaxEndIndexes(low, middle), computeMaxEndIndexes(middle + 1, high)));
+    maxEndIndexes[middle] = maxEndIndex;
+    return maxEndIndex;
+  }
+
+  /**
+   * @return Number of intervals in the index.
+   */
+  public int size() {
+    return positions.length;
+  }
+
+  /**
+   * @param index Index in the contents.
+   * @return First interval of the list containing the index.
+   */
+  public T getFirstContaining(int index) {
+    return getInterval(find(0, positions.length, index, MODE_FIRST, -1));
+  }
+
+  /**
+   * @param index Index in the contents.
+   * @return Last interval of the list containing the index.
+   */
+  public T getLastContaining(int index) {
+    return getInterval(find(0, positions.length, index, MODE_LAST, -1));
+  }
+
+  /**
+   * @param index Index in the contents.
+   * @return Interval containing the index with the greatest begin index
+   *         (first of the list if several intervals have the same begin index).
+   */
+  public T getInnermostContaining(int index) {
+    return getInterval(find(0, positions.length, index, MODE_INNERMOST, -1));
+  }
+
+  /**
+   * @param index Index in the contents.
+   * @return First interval of the list beginning at or after the index.
+   */
+  public T getFirstBeginningFrom(int index) {
+    int low = 0;
+    int high = beginIndexes.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (beginIndexes[middle] < index) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    if (low >= beginIndexes.length) {
+      return null;
+    }
+    return intervals.get(suffixMinPositions[low]);
+  }
+
+  /**
+   * @param sortedPosition Sorted position.
+   * @return Interval at the sorted position.
+   */
+  private T getInterval(int sortedPosition) {
+    if (sortedPosition < 0) {
+      return null;
+    }
+    return intervals.get(positions[sortedPosition]);
+  }
+
+  /**
+   * Find the best interval containing an index in a subtree of the implicit tree.
+   *
+   * @param low First sorted position of the subtree (inclusive).
+   * @param high Last sorted position of the subtree (exclusive).
+   * @param index Index in the contents.
+   * @param mode Selection mode between intervals containing the index.
+   * @param best Sorted position of the best interval found so far.
+   * @return Sorted position of the best interval found.
+   */
+  private int find(int low, int high, int index, int mode, int best) {
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (maxEndIndexes[middle] <= index) {
+        return best;
+      }
+      best = find(low, middle, index, mode, best);
+      if (beginIndexes[middle] > index) {
+        return best;
+      }
+      if (endIndexes[middle] > index) {
+        best = select(best, middle, mode);
+      }
+      low = middle + 1;
+    }
+    return best;
+  }
+
+  /**
+   * Select the best interval between two intervals containing an index.
+   *
+   * @param best Sorted position of the best interval found so far.
+   * @param candidate Sorted position of the candidate interval.
+   * @param mode Selection mode.
+   * @return Sorted position of the best interval.
+   */
+  private int select(int best, int candidate, int mode) {
+    if (best < 0) {
+      return candidate;
+    }
+    switch (mode) {
+    case MODE_FIRST:
+      return (positions[candidate] < positions[best]) ? candidate : best;
+    case MODE_LAST:
+      return (positions[candidate] > positions[best]) ? candidate : best;
+    case MODE_INNERMOST:
+    default:
+      if (beginIndexes[candidate] != beginIndexes[best]) {
+        return (beginIndexes[candidate] > beginIndexes[best]) ? candidate : best;
+      }
+      return (positions[candidate] < positions[best]) ? candidate : best;
+    }
+  }
+}
@@ -9,10 +9,23 @@
 package org.wikipediacleaner.api.dump;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
@@ -20,17 +33,29 @@ import javax.xml.parsers.SAXParserFactory;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
 import org.xml.sax.InputSource;
 
 
 /**
  * Wiki dumps processor.
+ *
+ * When a multistream dump is processed and its index is available,
+ * the independent bzip2 streams are decompressed and parsed in parallel.
+ * In this case, the page processor is called from several threads.
  */
 public class DumpProcessor {
 
   /** Logger */
   private final Log log = LogFactory.getLog(DumpProcessor.class);
 
+  /** Suffix of multistream dump files */
+  private final static String MULTISTREAM_SUFFIX = "-multistream.xml.bz2";
+
+  /** Suffix of multistream index files */
+  private final static String MULTISTREAM_INDEX_SUFFIX = "-multistream-index.txt.bz2";
+
   /** Page processor */
   private PageProcessor pageProcessor;
 
@@ -52,6 +77,20 @@ public class DumpProcessor {
     if (file == null) {
       return;
     }
+    File index = getMultistreamIndex(file);
+    if (index != null) {
+      processDump(file, index);
+      return;
+    }
+    processSequentially(file);
+  }
+
+  /**
+   * Process a wiki dump sequentially.
+   *
+   * @param file File containing the wiki dump.
+   */
+  private void processSequentially(File file) {
     FileInputStream fis = null;
     BufferedInputStream bis = null;
     BZip2CompressorInputStream bzis = null;
@@ -84,4 +123,194 @@ public class DumpProcessor {
       }
     }
   }
+
+  /**
+   * Process a multistream wiki dump in parallel.
+   *
+   * @param file File containing the multistream wiki dump.
+   * @param index File containing the index of the multistream wiki dump.
+   */
+  public void processDump(File file, File index) {
+    if ((file == null) || (index == null)) {
+      return;
+    }
+
+    // Retrieve the offsets of the streams
+    long[] offsets = null;
+    try {
+      offsets = readMultistreamOffsets(index);
+    } catch (IOException e) {
+      log.error("Error reading multistream index file", e);
+    }
+    if ((offsets == null) || (offsets.length == 0)) {
+      log.warn("No stream found in multistream index, processing dump sequentially");
+      processSequentially(file);
+      return;
+    }
+
+    // Process each stream separately
+    int nThreads = getThreadsCount();
+    log.info(
+        "Processing " + offsets.length + " streams of " + file.getName() +
+        " with " + nThreads + " threads");
+    ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+    try {
+      List<Future<Void>> results = new ArrayList<>(offsets.length);
+      for (long offset : offsets) {
+        results.add(executor.submit(new StreamProcessor(file, offset)));
+      }
+      for (Future<Void> result : results) {
+        try {
+          result.get();
+        } catch (ExecutionException e) {
+          log.error("Error processing a stream of the dump file", e.getCause());
+        }
+      }
+    } catch (InterruptedException e) {
+      log.error("Processing of dump file interrupted", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * @return Number of threads for processing streams in parallel.
+   */
+  private int getThreadsCount() {
+    Configuration config = Configuration.getConfiguration();
+    int nThreads = config.getInt(null, ConfigurationValueInteger.DUMP_THREADS);
+    if (nThreads <= 0) {
+      nThreads = Runtime.getRuntime().availableProcessors();
+    }
+    return Math.max(1, nThreads);
+  }
+
+  /**
+   * Find the index associated with a multistream dump.
+   *
+   * @param file File containing the wiki dump.
+   * @return File containing the index if available.
+   */
+  private File getMultistreamIndex(File file) {
+    String name = file.getName();
+    if (!name.endsWith(MULTISTREAM_SUFFIX)) {
+      return null;
+    }
+    File index = new File(
+        file.getParentFile(),
+        name.substring(0, name.length() - MULTISTREAM_SUFFIX.length()) + MULTISTREAM_INDEX_SUFFIX);
+    if (!index.isFile() || !index.canRead()) {
+      return null;
+    }
+    return index;
+  }
+
+  /**
+   * Read the offsets of the streams from a multistream index.
+   *
+   * Each line of the index is formatted as offset:page id:title,
+   * consecutive pages of the same stream sharing the same offset.
+   *
+   * @param index File containing the index of the multistream dump.
+   * @return Sorted offsets of the streams.
+   * @throws IOException Error reading the index.
+   */
+  private long[] readMultistreamOffsets(File index) throws IOException {
+    long[] offsets = new long[1024];
+    int count = 0;
+    BufferedReader reader = null;
+    try {
+      reader = new BufferedReader(new InputStreamReader(
+          new BZip2CompressorInputStream(new BufferedInputStream(new FileInputStream(index)), true),
+          "UTF-8"));
+      long lastOffset = -1;
+      String line = null;
+      while ((line = reader.readLine()) != null) {
+        int colonIndex = line.indexOf(':');
+        if (colonIndex > 0) {
+          try {
+            long offset = Long.parseLong(line.substring(0, colonIndex));
+            if (offset != lastOffset) {
+              if (count >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+              }
+              offsets[count] = offset;
+              count++;
+              lastOffset = offset;
+            }
+          } catch (NumberFormatException e) {
+            log.warn("Incorrect line in multistream index: " + line);
+          }
+        }
+      }
+    } finally {
+      if (reader != null) {
+        reader.close();
+      }
+    }
+    offsets = Arrays.copyOf(offsets, count);
+    Arrays.sort(offsets);
+    return offsets;
+  }
+
+  /**
+   * Decompression and parsing of one stream of a multistream dump.
+   */
+  private class StreamProcessor implements Callable<Void> {
+
+    /** File containing the multistream wiki dump */
+    private final File file;
+
+    /** Offset of the stream in the file */
+    private final long offset;
+
+    /**
+     * @param file File containing the multistream wiki dump.
+     * @param offset Offset of the stream in the file.
+     */
+    public StreamProcessor(File file, long offset) {
+      this.file = file;
+      this.offset = offset;
+    }
+
+    /**
+     * Decompress and parse the stream.
+     *
+     * @return Nothing.
+     * @throws Exception Error processing the stream.
+     * @see java.util.concurrent.Callable#call()
+     */
+    @Override
+    public Void call() throws Exception {
+      FileInputStream fis = null;
+      try {
+        fis = new FileInputStream(file);
+        long skipped = 0;
+        while (skipped < offset) {
+          long count = fis.skip(offset - skipped);
+          if (count <= 0) {
+            throw new IOException("Unable to reach offset " + offset + " in " + file.getName());
+          }
+          skipped += count;
+        }
+
+        // Each stream contains a list of pages without a root element
+        InputStream bzis = new BZip2CompressorInputStream(new BufferedInputStream(fis), false);
+        InputStream is = new SequenceInputStream(
+            new ByteArrayInputStream("<mediawiki>".getBytes("UTF-8")),
+            new SequenceInputStream(
+                bzis,
+                new ByteArrayInputStream("</mediawiki>".getBytes("UTF-8"))));
+        SAXParser parser = SAXParserFactory.newInstance().newSAXParser();
+        DumpHandler dh = new DumpHandler();
+        dh.setPageProcessor(pageProcessor);
+        parser.parse(new InputSource(new InputStreamReader(is, "UTF-8")), dh);
+        return null;
+      } finally {
+        if (fis != null) {
+          fis.close();
+        }
+      }
+    }
+  }
 }
@@ -0,0 +1,525 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.dump;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.DataManager;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.Page.RelatedPages;
+
+
+/**
+ * Index of the links between pages, built from a dump by {@link LinkGraphIndexBuilder}.
+ *
+ * The index is stored in a compact file which is memory-mapped when it's opened,
+ * so that links, back links, redirects and disambiguation pages can be found
+ * without calling the API and without loading the whole index in memory.
+ * Titles are sorted, and each page is identified by its position in the list of titles.
+ * Links created by templates are not in the index, and the index is only as recent
+ * as the dump: information should be checked against the wiki before editing a page.
+ */
+public class LinkGraphIndex implements Closeable {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(LinkGraphIndex.class);
+
+  /** Identifier of the file format */
+  final static int MAGIC = 0x57504C47;
+
+  /** Version of the file format */
+  final static int VERSION = 1;
+
+  /** Flag for pages existing in the dump */
+  final static byte FLAG_EXISTS = 0x01;
+
+  /** Flag for redirect pages */
+  final static byte FLAG_REDIRECT = 0x02;
+
+  /** Flag for disambiguation pages */
+  final static byte FLAG_DISAMBIGUATION = 0x04;
+
+  /** Maximum number of redirects followed */
+  private final static int MAX_REDIRECTS = 5;
+
+  /** Indexes opened for each wiki */
+  private final static Map<EnumWikipedia, LinkGraphIndex> indexes =
+      new HashMap<EnumWikipedia, LinkGraphIndex>();
+
+  /**
+   * @param wiki Wiki.
+   * @return Default file for the index of the wiki.
+   */
+  public static File getIndexFile(EnumWikipedia wiki) {
+    return new File(
+        new File(new File(System.getProperty("user.home"), ".wpcleaner"), "links"),
+        wiki.getSettings().getCode() + ".idx");
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @return Index for the wiki (null if the index hasn't been built).
+   */
+  public static synchronized LinkGraphIndex getIndex(EnumWikipedia wiki) {
+    if (wiki == null) {
+      return null;
+    }
+    File file = getIndexFile(wiki);
+    LinkGraphIndex index = indexes.get(wiki);
+    if ((index != null) &&
+        file.isFile() && (file.lastModified() == index.lastModified)) {
+      return index;
+    }
+    if (index != null) {
+      release(wiki);
+    }
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      index = open(wiki, file);
+      indexes.put(wiki, index);
+      return index;
+    } catch (IOException e) {
+      log.warn("Unable to open link graph index " + file + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Release the index opened for a wiki, for example before its file is replaced.
+   *
+   * @param wiki Wiki.
+   */
+  public static synchronized void release(EnumWikipedia wiki) {
+    LinkGraphIndex index = indexes.remove(wiki);
+    if (index != null) {
+      try {
+        index.close();
+      } catch (IOException e) {
+        // Nothing to do
+      }
+    }
+  }
+
+  /**
+   * Open an index.
+   *
+   * @param wiki Wiki.
+   * @param file File containing the index.
+   * @return Index.
+   * @throws IOException
+   */
+  public static LinkGraphIndex open(EnumWikipedia wiki, File file) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      return new LinkGraphIndex(wiki, file, raf.getChannel());
+    }
+  }
+
+  /** Wiki */
+  private final EnumWikipedia wiki;
+
+  /** Last modification of the file when it was opened */
+  private final long lastModified;
+
+  /** Number of pages */
+  private final int count;
+
+  /** Offsets of the titles */
+  private IntBuffer titleOffsets;
+
+  /** Titles (UTF-8) */
+  private ByteBuffer titles;
+
+  /** Flags of the pages */
+  private ByteBuffer flags;
+
+  /** Namespaces of the pages */
+  private IntBuffer namespaces;
+
+  /** Revision ids of the pages */
+  private IntBuffer revisionIds;
+
+  /** Targets of the redirects (-1 if the page is not a redirect) */
+  private IntBuffer redirects;
+
+  /** Offsets of the links of each page */
+  private IntBuffer linkOffsets;
+
+  /** Links */
+  private IntBuffer links;
+
+  /** Offsets of the back links of each page */
+  private IntBuffer backlinkOffsets;
+
+  /** Back links */
+  private IntBuffer backlinks;
+
+  /**
+   * @param wiki Wiki.
+   * @param file File containing the index.
+   * @param channel Channel for reading the file.
+   * @throws IOException
+   */
+  private LinkGraphIndex(
+      EnumWikipedia wiki, File file,
+      FileChannel channel) throws IOException {
+    this.wiki = wiki;
+    this.lastModified = file.lastModified();
+
+    // Read header
+    ByteBuffer header = channel.map(
+        FileChannel.MapMode.READ_ONLY, 0,
+        Math.min(channel.size(), 1024));
+    if ((header.remaining() < 8) ||
+        (header.getInt() != MAGIC) ||
+        (header.getInt() != VERSION)) {
+      throw new IOException("Unknown file format");
+    }
+    byte[] code = new byte[header.getShort() & 0xFFFF];
+    header.get(code);
+    if (!wiki.getSettings().getCode().equals(new String(code, StandardCharsets.UTF_8))) {
+      throw new IOException("Index built for another wiki");
+    }
+    count = header.getInt();
+    int linkCount = header.getInt();
+    long titlesSize = header.getLong();
+
+    // Map sections
+    long position = header.position();
+    titleOffsets = map(channel, position, (count + 1) * 4L).asIntBuffer();
+    position += (count + 1) * 4L;
+    titles = map(channel, position, titlesSize);
+    position += titlesSize;
+    flags = map(channel, position, count);
+    position += count;
+    namespaces = map(channel, position, count * 4L).asIntBuffer();
+    position += count * 4L;
+    revisionIds = map(channel, position, count * 4L).asIntBuffer();
+    position += count * 4L;
+    redirects = map(channel, position, count * 4L).asIntBuffer();
+    position += count * 4L;
+    linkOffsets = map(channel, position, (count + 1) * 4L).asIntBuffer();
+    position += (count + 1) * 4L;
+    links = map(channel, position, linkCount * 4L).asIntBuffer();
+    position += linkCount * 4L;
+    backlinkOffsets = map(channel, position, (count + 1) * 4L).asIntBuffer();
+    position += (count + 1) * 4L;
+    backlinks = map(channel, position, linkCount * 4L).asIntBuffer();
+  }
+
+  /**
+   * @param channel Channel for reading the file.
+   * @param position Position of the section.
+   * @param size Size of the section.
+   * @return Section mapped in memory.
+   * @throws IOException
+   */
+  private static ByteBuffer map(
+      FileChannel channel, long position, long size) throws IOException {
+    if ((size > Integer.MAX_VALUE) || (position + size > channel.size())) {
+      throw new IOException("Invalid section size");
+    }
+    return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+  }
+
+  /**
+   * Close the index: it can't be used afterwards.
+   *
+   * References to the mapped memory are dropped, and mapped memory is released
+   * when it is garbage collected.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (LinkGraphIndex.class) {
+      if (indexes.get(wiki) == this) {
+        indexes.remove(wiki);
+      }
+    }
+    titleOffsets = null;
+    titles = null;
+    flags = null;
+    namespaces = null;
+    revisionIds = null;
+    redirects = null;
+    linkOffsets = null;
+    links = null;
+    backlinkOffsets = null;
+    backlinks = null;
+  }
+
+  // ==========================================================================
+  // Pages
+  // ==========================================================================
+
+  /**
+   * @return Wiki.
+   */
+  public EnumWikipedia getWiki() {
+    return wiki;
+  }
+
+  /**
+   * @return Number of pages in the index.
+   */
+  public int getPagesCount() {
+    return count;
+  }
+
+  /**
+   * @param title Page title.
+   * @return Page identifier (-1 if the page is not in the index).
+   */
+  public int getId(String title) {
+    if (title == null) {
+      return -1;
+    }
+    title = Page.normalizeTitle(title);
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = getTitle(middle).compareTo(title);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * @param id Page identifier.
+   * @return Page title.
+   */
+  public String getTitle(int id) {
+    int begin = titleOffsets.get(id);
+    byte[] bytes = new byte[titleOffsets.get(id + 1) - begin];
+    ByteBuffer buffer = titles.duplicate();
+    buffer.position(begin);
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * @param id Page identifier.
+   * @return True if the page exists in the dump.
+   */
+  public boolean exists(int id) {
+    return (flags.get(id) & FLAG_EXISTS) != 0;
+  }
+
+  /**
+   * @param id Page identifier.
+   * @return True if the page is a redirect.
+   */
+  public boolean isRedirect(int id) {
+    return (flags.get(id) & FLAG_REDIRECT) != 0;
+  }
+
+  /**
+   * @param id Page identifier.
+   * @return True if the page is a disambiguation page.
+   */
+  public boolean isDisambiguation(int id) {
+    return (flags.get(id) & FLAG_DISAMBIGUATION) != 0;
+  }
+
+  /**
+   * @param id Page identifier.
+   * @return Namespace of the page.
+   */
+  public int getNamespace(int id) {
+    return namespaces.get(id);
+  }
+
+  /**
+   * @param id Page identifier.
+   * @return Revision id of the page in the dump (0 if the page doesn't exist).
+   */
+  public int getRevisionId(int id) {
+    return revisionIds.get(id);
+  }
+
+  /**
+   * @param id Page identifier.
+   * @return Target of the redirect (-1 if the page is not a redirect).
+   */
+  public int getRedirectTarget(int id) {
+    return redirects.get(id);
+  }
+
+  /**
+   * @param id Page identifier.
+   * @return Identifiers of the pages linked from the page.
+   */
+  public int[] getLinks(int id) {
+    return getSlice(linkOffsets, links, id);
+  }
+
+  /**
+   * @param id Page identifier.
+   * @return Identifiers of the pages linking to the page.
+   */
+  public int[] getBacklinks(int id) {
+    return getSlice(backlinkOffsets, backlinks, id);
+  }
+
+  /**
+   * @param offsets Offsets of the values of each page.
+   * @param values Values.
+   * @param id Page identifier.
+   * @return Values for the page.
+   */
+  private static int[] getSlice(IntBuffer offsets, IntBuffer values, int id) {
+    int begin = offsets.get(id);
+    int[] result = new int[offsets.get(id + 1) - begin];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = values.get(begin + i);
+    }
+    return result;
+  }
+
+  // ==========================================================================
+  // Page objects
+  // ==========================================================================
+
+  /**
+   * Fill the links of a page with the links in the index.
+   *
+   * Links get their namespace, existence, redirects and disambiguation status.
+   *
+   * @param page Page with its last revision id.
+   * @param namespace If set, only links in this name space are used.
+   * @return True if the links have been filled,
+   *         false if the page is not in the index or if its revision is not the one in the dump.
+   */
+  public boolean fillLinks(Page page, Integer namespace) {
+    int id = getId(page, true);
+    if (id < 0) {
+      return false;
+    }
+    int[] linkIds = getLinks(id);
+    List<Page> pageLinks = new ArrayList<Page>(linkIds.length);
+    for (int linkId : linkIds) {
+      if ((namespace == null) || (namespace.intValue() == getNamespace(linkId))) {
+        pageLinks.add(createPage(linkId, true));
+      }
+    }
+    page.setLinks(pageLinks);
+    return true;
+  }
+
+  /**
+   * Fill the links to a page with the back links in the index.
+   *
+   * Back links are filled as if they were retrieved with the API:
+   * links to the page and redirects to the page with their own links.
+   *
+   * @param page Page.
+   * @return True if the links to the page have been filled,
+   *         false if the page is not in the index.
+   */
+  public boolean fillLinksToPage(Page page) {
+    int id = getId(page, false);
+    if (id < 0) {
+      return false;
+    }
+    List<Page> linksHere = new ArrayList<Page>();
+    List<Page> pageRedirects = new ArrayList<Page>();
+    for (int backlinkId : getBacklinks(id)) {
+      Page backlink = createPage(backlinkId, false);
+      linksHere.add(backlink);
+      if (getRedirectTarget(backlinkId) == id) {
+        pageRedirects.add(backlink);
+        List<Page> redirectLinksHere = new ArrayList<Page>();
+        for (int redirectBacklinkId : getBacklinks(backlinkId)) {
+          redirectLinksHere.add(createPage(redirectBacklinkId, false));
+        }
+        backlink.setRelatedPages(RelatedPages.LINKS_HERE, redirectLinksHere);
+      }
+    }
+    page.setRelatedPages(RelatedPages.REDIRECTS, pageRedirects);
+    page.setRelatedPages(RelatedPages.LINKS_HERE, linksHere);
+    return true;
+  }
+
+  /**
+   * @param page Page.
+   * @param checkRevision True if the page must exist with the same revision in the index.
+   * @return Page identifier (-1 if the page is not in the index or doesn't match).
+   */
+  private int getId(Page page, boolean checkRevision) {
+    if ((page == null) || (page.getWikipedia() != wiki)) {
+      return -1;
+    }
+    int id = getId(page.getTitle());
+    if (id < 0) {
+      return -1;
+    }
+    if (checkRevision) {
+      if (!exists(id)) {
+        return -1;
+      }
+      Integer revisionId = page.getRevisionId();
+      if ((revisionId == null) || (revisionId.intValue() != getRevisionId(id))) {
+        return -1;
+      }
+    }
+    return id;
+  }
+
+  /**
+   * @param id Page identifier.
+   * @param withRedirects True if redirects should be followed.
+   * @return Page object.
+   */
+  private Page createPage(int id, boolean withRedirects) {
+    Page page = DataManager.getPage(wiki, getTitle(id), null, null, null);
+    page.setNamespace(Integer.valueOf(getNamespace(id)));
+    page.setExisting(Boolean.valueOf(exists(id)));
+    if (!isRedirect(id)) {
+      if (exists(id)) {
+        page.setDisambiguationPage(Boolean.valueOf(isDisambiguation(id)));
+      }
+      return page;
+    }
+    page.isRedirect(true);
+    if (withRedirects) {
+      int targetId = getRedirectTarget(id);
+      int redirectsCount = 0;
+      while ((targetId >= 0) && (redirectsCount < MAX_REDIRECTS)) {
+        Page target = DataManager.getPage(wiki, getTitle(targetId), null, null, null);
+        target.setNamespace(Integer.valueOf(getNamespace(targetId)));
+        target.setExisting(Boolean.valueOf(exists(targetId)));
+        page.addRedirect(target);
+        page.setDisambiguationPage(Boolean.valueOf(isDisambiguation(targetId)));
+        targetId = isRedirect(targetId) ? getRedirectTarget(targetId) : -1;
+        redirectsCount++;
+      }
+    }
+    return page;
+  }
+}
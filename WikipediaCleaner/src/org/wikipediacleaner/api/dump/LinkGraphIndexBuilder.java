@@ -0,0 +1,537 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.dump;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.MagicWord;
+import org.wikipediacleaner.api.data.Namespace;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.api.data.PageElementInternalLink;
+import org.wikipediacleaner.api.data.PageElementMagicWord;
+import org.wikipediacleaner.api.data.PageElementTemplate;
+
+
+/**
+ * Page processor building a {@link LinkGraphIndex} from a dump.
+ *
+ * Each page of the dump is analyzed to record its outgoing links, its redirect target
+ * and the information needed to decide if it's a disambiguation page.
+ * Pages can be processed by several threads at the same time.
+ */
+public class LinkGraphIndexBuilder implements PageProcessor {
+
+  /** Logs */
+  private final static Log log = LogFactory.getLog(LinkGraphIndexBuilder.class);
+
+  /** No identifier */
+  private final static int[] NO_IDS = new int[0];
+
+  /** Wiki */
+  private final EnumWikipedia wiki;
+
+  /** Page identifiers by title */
+  private final Map<String, Integer> ids;
+
+  /** Titles of the pages */
+  private final List<String> titles;
+
+  /** Flags of the pages */
+  private byte[] flags;
+
+  /** Namespaces of the pages */
+  private int[] namespaces;
+
+  /** Revision ids of the pages */
+  private int[] revisionIds;
+
+  /** Targets of the redirects */
+  private int[] redirects;
+
+  /** Links of the pages */
+  private int[][] links;
+
+  /** Templates used in the pages of the main namespace */
+  private int[][] templates;
+
+  /** Count of links */
+  private long linkCount;
+
+  /**
+   * @param wiki Wiki.
+   */
+  public LinkGraphIndexBuilder(EnumWikipedia wiki) {
+    this.wiki = wiki;
+    this.ids = new HashMap<String, Integer>();
+    this.titles = new ArrayList<String>();
+    this.flags = new byte[1024];
+    this.namespaces = new int[1024];
+    this.revisionIds = new int[1024];
+    this.redirects = new int[1024];
+    this.links = new int[1024][];
+    this.templates = new int[1024][];
+    this.linkCount = 0;
+  }
+
+  /**
+   * @return Wiki.
+   * @see org.wikipediacleaner.api.dump.PageProcessor#getWiki()
+   */
+  @Override
+  public EnumWikipedia getWiki() {
+    return wiki;
+  }
+
+  /**
+   * @return Number of pages processed or linked.
+   */
+  public synchronized int getPagesCount() {
+    return titles.size();
+  }
+
+  /**
+   * @param page Page to be processed.
+   * @see org.wikipediacleaner.api.dump.PageProcessor#processPage(org.wikipediacleaner.api.data.Page)
+   */
+  @Override
+  public void processPage(Page page) {
+    if ((page == null) || (page.getTitle() == null) || (page.getNamespace() == null)) {
+      return;
+    }
+    String contents = page.getContents();
+    if (contents == null) {
+      contents = "";
+    }
+
+    // Analyze the page outside the lock
+    PageAnalysis analysis = page.getAnalysis(contents, false);
+    String redirect = null;
+    Set<String> pageLinks = new LinkedHashSet<String>();
+    int redirectPrefix = getRedirectPrefix(contents);
+    for (PageElementInternalLink link : analysis.getInternalLinks()) {
+      String title = getCanonicalTitle(link.getLink(), Namespace.MAIN);
+      if (title != null) {
+        if ((redirectPrefix > 0) && (redirect == null) &&
+            (contents.substring(redirectPrefix, link.getBeginIndex()).trim().length() == 0)) {
+          redirect = title;
+        }
+        pageLinks.add(title);
+      }
+    }
+    boolean disambiguation = false;
+    for (PageElementMagicWord magicWord : analysis.getMagicWords()) {
+      if ((magicWord.getMagicWord() != null) &&
+          MagicWord.DISAMBIGUATION.equals(magicWord.getMagicWord().getName())) {
+        disambiguation = true;
+      }
+    }
+    Set<String> pageTemplates = new LinkedHashSet<String>();
+    if ((page.getNamespace().intValue() == Namespace.MAIN) && (redirect == null)) {
+      for (PageElementTemplate template : analysis.getTemplates()) {
+        String title = getCanonicalTitle(template.getTemplateName(), Namespace.TEMPLATE);
+        if (title != null) {
+          pageTemplates.add(title);
+        }
+      }
+    }
+    String title = getCanonicalTitle(page.getTitle(), page.getNamespace().intValue());
+    if (title == null) {
+      return;
+    }
+
+    // Register the page
+    synchronized (this) {
+      int id = getOrCreateId(title, page.getNamespace().intValue());
+      byte pageFlags = LinkGraphIndex.FLAG_EXISTS;
+      if (redirect != null) {
+        pageFlags |= LinkGraphIndex.FLAG_REDIRECT;
+        redirects[id] = getOrCreateId(redirect, Namespace.MAIN);
+      }
+      if (disambiguation) {
+        pageFlags |= LinkGraphIndex.FLAG_DISAMBIGUATION;
+      }
+      flags[id] = pageFlags;
+      Integer revisionId = page.getRevisionId();
+      revisionIds[id] = (revisionId != null) ? revisionId.intValue() : 0;
+      int[] linkIds = getOrCreateIds(pageLinks);
+      if (links[id] != null) {
+        linkCount -= links[id].length;
+      }
+      links[id] = linkIds;
+      linkCount += linkIds.length;
+      templates[id] = getOrCreateIds(pageTemplates);
+    }
+  }
+
+  /**
+   * @param contents Page contents.
+   * @return Index after the redirect magic word (0 if the page is not a redirect).
+   */
+  private int getRedirectPrefix(String contents) {
+    MagicWord redirect = wiki.getWikiConfiguration().getMagicWordByName(MagicWord.REDIRECT);
+    if ((redirect == null) || (redirect.getAliases() == null)) {
+      return 0;
+    }
+    int startIndex = 0;
+    while ((startIndex < contents.length()) &&
+           Character.isWhitespace(contents.charAt(startIndex))) {
+      startIndex++;
+    }
+    int length = 0;
+    for (String alias : redirect.getAliases()) {
+      if ((alias.length() > length) &&
+          contents.regionMatches(true, startIndex, alias, 0, alias.length())) {
+        length = alias.length();
+      }
+    }
+    return (length > 0) ? startIndex + length : 0;
+  }
+
+  /**
+   * @param title Title as written in the page.
+   * @param defaultNamespace Namespace used when the title has no namespace.
+   * @return Canonical title (null if the title is empty).
+   */
+  private String getCanonicalTitle(String title, int defaultNamespace) {
+    if (title == null) {
+      return null;
+    }
+    title = title.trim();
+    if (title.startsWith(":")) {
+      title = title.substring(1);
+      defaultNamespace = Namespace.MAIN;
+    }
+    Namespace namespace = null;
+    int colonIndex = title.indexOf(':');
+    if (colonIndex > 0) {
+      List<Namespace> allNamespaces = wiki.getWikiConfiguration().getNamespaces();
+      if (allNamespaces != null) {
+        String prefix = title.substring(0, colonIndex).trim();
+        for (Namespace tmpNamespace : allNamespaces) {
+          if (tmpNamespace.isPossibleName(prefix)) {
+            namespace = tmpNamespace;
+          }
+        }
+      }
+      if (namespace != null) {
+        title = title.substring(colonIndex + 1);
+      }
+    }
+    if (namespace == null) {
+      namespace = wiki.getWikiConfiguration().getNamespace(defaultNamespace);
+    }
+    title = Page.normalizeTitle(title);
+    if ((title == null) || (title.length() == 0)) {
+      return null;
+    }
+    if ((namespace == null) || (namespace.getId() == null) ||
+        (namespace.getId().intValue() == Namespace.MAIN)) {
+      return title;
+    }
+    return namespace.getTitle() + ":" + title;
+  }
+
+  /**
+   * @param title Canonical title.
+   * @param namespace Namespace of the page.
+   * @return Page identifier.
+   */
+  private int getOrCreateId(String title, int namespace) {
+    Integer id = ids.get(title);
+    if (id != null) {
+      return id.intValue();
+    }
+    int newId = titles.size();
+    if (newId >= flags.length) {
+      int size = flags.length * 2;
+      flags = Arrays.copyOf(flags, size);
+      namespaces = Arrays.copyOf(namespaces, size);
+      revisionIds = Arrays.copyOf(revisionIds, size);
+      redirects = Arrays.copyOf(redirects, size);
+      links = Arrays.copyOf(links, size);
+      templates = Arrays.copyOf(templates, size);
+    }
+    titles.add(title);
+    ids.put(title, Integer.valueOf(newId));
+    namespaces[newId] = getNamespace(title, namespace);
+    redirects[newId] = -1;
+    return newId;
+  }
+
+  /**
+   * @param pageTitles Canonical titles.
+   * @return Page identifiers.
+   */
+  private int[] getOrCreateIds(Set<String> pageTitles) {
+    if (pageTitles.isEmpty()) {
+      return NO_IDS;
+    }
+    int[] result = new int[pageTitles.size()];
+    int index = 0;
+    for (String pageTitle : pageTitles) {
+      result[index] = getOrCreateId(pageTitle, Namespace.MAIN);
+      index++;
+    }
+    return result;
+  }
+
+  /**
+   * @param title Canonical title.
+   * @param namespace Known namespace (MAIN if it should be found from the title).
+   * @return Namespace of the page.
+   */
+  private int getNamespace(String title, int namespace) {
+    if (namespace != Namespace.MAIN) {
+      return namespace;
+    }
+    int colonIndex = title.indexOf(':');
+    if (colonIndex > 0) {
+      List<Namespace> allNamespaces = wiki.getWikiConfiguration().getNamespaces();
+      if (allNamespaces != null) {
+        String prefix = title.substring(0, colonIndex);
+        for (Namespace tmpNamespace : allNamespaces) {
+          if ((tmpNamespace.getId() != null) &&
+              prefix.equals(tmpNamespace.getTitle())) {
+            return tmpNamespace.getId().intValue();
+          }
+        }
+      }
+    }
+    return Namespace.MAIN;
+  }
+
+  // ==========================================================================
+  // Index file
+  // ==========================================================================
+
+  /**
+   * Write the index.
+   *
+   * Disambiguation pages are the pages containing the disambiguation magic word
+   * or using a disambiguation template, either configured for the wiki
+   * or containing the magic word itself.
+   * The index is written in a temporary file which then replaces the index file.
+   *
+   * @param file File in which the index is written.
+   * @throws IOException
+   */
+  public synchronized void write(File file) throws IOException {
+    int count = titles.size();
+    if (linkCount > Integer.MAX_VALUE / 4) {
+      throw new IOException("Too many links for the index: " + linkCount);
+    }
+    markDisambiguationPages();
+
+    // Sort the titles
+    Integer[] order = new Integer[count];
+    for (int id = 0; id < count; id++) {
+      order[id] = Integer.valueOf(id);
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+
+      @Override
+      public int compare(Integer id1, Integer id2) {
+        return titles.get(id1.intValue()).compareTo(titles.get(id2.intValue()));
+      }
+    });
+    int[] newIds = new int[count];
+    for (int newId = 0; newId < count; newId++) {
+      newIds[order[newId].intValue()] = newId;
+    }
+
+    // Compute the back links
+    int[] backlinkOffsets = new int[count + 1];
+    for (int id = 0; id < count; id++) {
+      if (links[id] != null) {
+        for (int linkId : links[id]) {
+          backlinkOffsets[newIds[linkId] + 1]++;
+        }
+      }
+    }
+    for (int newId = 0; newId < count; newId++) {
+      backlinkOffsets[newId + 1] += backlinkOffsets[newId];
+    }
+    int[] backlinks = new int[(int) linkCount];
+    int[] positions = Arrays.copyOf(backlinkOffsets, count);
+    for (int newId = 0; newId < count; newId++) {
+      int id = order[newId].intValue();
+      if (links[id] != null) {
+        for (int linkId : links[id]) {
+          backlinks[positions[newIds[linkId]]++] = newId;
+        }
+      }
+    }
+
+    // Write the index
+    File parent = file.getAbsoluteFile().getParentFile();
+    if ((parent != null) && !parent.isDirectory() && !parent.mkdirs()) {
+      throw new IOException("Unable to create directory " + parent);
+    }
+    File tmpFile = new File(file.getPath() + ".tmp");
+    try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(tmpFile), 1 << 16))) {
+      List<byte[]> titleBytes = new ArrayList<byte[]>(count);
+      long titlesSize = 0;
+      for (int newId = 0; newId < count; newId++) {
+        byte[] bytes = titles.get(order[newId].intValue()).getBytes(StandardCharsets.UTF_8);
+        titleBytes.add(bytes);
+        titlesSize += bytes.length;
+      }
+      if (titlesSize > Integer.MAX_VALUE) {
+        throw new IOException("Titles are too big for the index: " + titlesSize);
+      }
+
+      // Header
+      output.writeInt(LinkGraphIndex.MAGIC);
+      output.writeInt(LinkGraphIndex.VERSION);
+      byte[] code = wiki.getSettings().getCode().getBytes(StandardCharsets.UTF_8);
+      output.writeShort(code.length);
+      output.write(code);
+      output.writeInt(count);
+      output.writeInt((int) linkCount);
+      output.writeLong(titlesSize);
+
+      // Titles
+      int offset = 0;
+      output.writeInt(offset);
+      for (byte[] bytes : titleBytes) {
+        offset += bytes.length;
+        output.writeInt(offset);
+      }
+      for (byte[] bytes : titleBytes) {
+        output.write(bytes);
+      }
+      titleBytes.clear();
+
+      // Pages
+      for (int newId = 0; newId < count; newId++) {
+        output.writeByte(flags[order[newId].intValue()]);
+      }
+      for (int newId = 0; newId < count; newId++) {
+        output.writeInt(namespaces[order[newId].intValue()]);
+      }
+      for (int newId = 0; newId < count; newId++) {
+        output.writeInt(revisionIds[order[newId].intValue()]);
+      }
+      for (int newId = 0; newId < count; newId++) {
+        int redirect = redirects[order[newId].intValue()];
+        output.writeInt((redirect >= 0) ? newIds[redirect] : -1);
+      }
+
+      // Links
+      offset = 0;
+      output.writeInt(offset);
+      for (int newId = 0; newId < count; newId++) {
+        int[] pageLinks = links[order[newId].intValue()];
+        offset += (pageLinks != null) ? pageLinks.length : 0;
+        output.writeInt(offset);
+      }
+      int[] sortedLinks = NO_IDS;
+      for (int newId = 0; newId < count; newId++) {
+        int[] pageLinks = links[order[newId].intValue()];
+        if (pageLinks != null) {
+          if (sortedLinks.length < pageLinks.length) {
+            sortedLinks = new int[pageLinks.length];
+          }
+          for (int i = 0; i < pageLinks.length; i++) {
+            sortedLinks[i] = newIds[pageLinks[i]];
+          }
+          Arrays.sort(sortedLinks, 0, pageLinks.length);
+          for (int i = 0; i < pageLinks.length; i++) {
+            output.writeInt(sortedLinks[i]);
+          }
+        }
+      }
+
+      // Back links
+      for (int newId = 0; newId <= count; newId++) {
+        output.writeInt(backlinkOffsets[newId]);
+      }
+      for (int backlink : backlinks) {
+        output.writeInt(backlink);
+      }
+    }
+
+    // Release the index currently opened so that its file can be replaced
+    LinkGraphIndex.release(wiki);
+    try {
+      Files.move(
+          tmpFile.toPath(), file.toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(
+          tmpFile.toPath(), file.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    log.info(
+        "Link graph index written in " + file + ": " +
+        count + " pages, " + linkCount + " links");
+  }
+
+  /**
+   * Mark pages using disambiguation templates as disambiguation pages.
+   */
+  private void markDisambiguationPages() {
+    int count = titles.size();
+
+    // Find disambiguation templates
+    boolean[] dabTemplates = new boolean[count];
+    List<Page> configuredTemplates = wiki.getDisambiguationTemplates();
+    if (configuredTemplates != null) {
+      for (Page template : configuredTemplates) {
+        Integer id = ids.get(getCanonicalTitle(template.getTitle(), Namespace.TEMPLATE));
+        if (id != null) {
+          dabTemplates[id.intValue()] = true;
+        }
+      }
+    }
+    for (int id = 0; id < count; id++) {
+      if ((namespaces[id] == Namespace.TEMPLATE) &&
+          ((flags[id] & LinkGraphIndex.FLAG_DISAMBIGUATION) != 0)) {
+        dabTemplates[id] = true;
+      }
+    }
+    for (int id = 0; id < count; id++) {
+      if ((redirects[id] >= 0) && dabTemplates[redirects[id]]) {
+        dabTemplates[id] = true;
+      }
+    }
+
+    // Mark pages using them
+    for (int id = 0; id < count; id++) {
+      int[] pageTemplates = templates[id];
+      if (pageTemplates != null) {
+        for (int templateId : pageTemplates) {
+          if (dabTemplates[templateId]) {
+            flags[id] |= LinkGraphIndex.FLAG_DISAMBIGUATION;
+          }
+        }
+      }
+    }
+  }
+}
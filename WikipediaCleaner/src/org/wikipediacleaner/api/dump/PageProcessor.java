@@ -14,6 +14,9 @@ import org.wikipediacleaner.api.data.Page;
 
 /**
  * Interface to process pages from dumps.
+ * 
+ * Implementations may be called from several threads at the same time
+ * when a multistream dump is processed in parallel.
  */
 public interface PageProcessor {
 
@@ -0,0 +1,84 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.execution;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.wikipediacleaner.api.API;
+import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.MediaWikiListener;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.PageAnalysis;
+import org.wikipediacleaner.i18n.GT;
+
+
+/**
+ * A Callable implementation for retrieving Contents of a list of pages
+ * with as few requests as possible.
+ */
+public class ContentsListCallable extends MediaWikiCallable<List<Page>> {
+
+  private final List<Page> pages;
+  private final boolean usePageId;
+  private final boolean withRedirects;
+  private final boolean doAnalysis;
+  private final boolean returnPages;
+
+  /**
+   * @param wikipedia Wikipedia.
+   * @param listener Listener of MediaWiki events.
+   * @param api MediaWiki API.
+   * @param pages List of pages.
+   * @param usePageId True if page identifiers should be used.
+   * @param withRedirects Flag indicating if redirects information should be retrieved.
+   * @param doAnalysis True if page analysis should be done.
+   * @param returnPages True if the list of pages should be returned at the end of the processing.
+   */
+  public ContentsListCallable(
+      EnumWikipedia wikipedia, MediaWikiListener listener, API api,
+      List<Page> pages, boolean usePageId,
+      boolean withRedirects, boolean doAnalysis,
+      boolean returnPages) {
+    super(wikipedia, listener, api);
+    this.pages = pages;
+    this.usePageId = usePageId;
+    this.withRedirects = withRedirects;
+    this.doAnalysis = doAnalysis;
+    this.returnPages = returnPages;
+  }
+
+  /* (non-Javadoc)
+   * @see java.util.concurrent.Callable#call()
+   */
+  @Override
+  public List<Page> call() throws APIException {
+    setText(GT._("Retrieving contents"));
+    api.retrieveContents(getWikipedia(), pages, usePageId, withRedirects);
+    if (withRedirects) {
+      List<Page> redirects = new ArrayList<Page>();
+      for (Page page : pages) {
+        if (page.isRedirect() && (page.getRedirects().size() > 0)) {
+          redirects.addAll(page.getRedirects());
+        }
+      }
+      if (!redirects.isEmpty()) {
+        api.retrieveContents(getWikipedia(), redirects, false, false);
+      }
+    }
+    if (doAnalysis) {
+      for (Page page : pages) {
+        PageAnalysis analysis = page.getAnalysis(page.getContents(), true);
+        analysis.performFullPageAnalysis(null);
+      }
+    }
+    return returnPages ? pages : null;
+  }
+
+}
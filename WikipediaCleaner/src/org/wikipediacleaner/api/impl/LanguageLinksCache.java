@@ -0,0 +1,137 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+
+
+/**
+ * Cache of language links between two wikis.
+ *
+ * The least recently used entries are removed when the cache is full,
+ * and entries expire after some time so that new language links are found.
+ * Pages without language link are also kept in the cache.
+ */
+public class LanguageLinksCache {
+
+  /** Maximum number of entries for a pair of wikis */
+  private final static int MAX_SIZE = 10000;
+
+  /** Time before an entry expires (in milliseconds) */
+  private final static long TTL = 60 * 60 * 1000L;
+
+  /** Cached language links by pair of wikis */
+  private final Map<String, Map<String, CacheEntry>> caches;
+
+  public LanguageLinksCache() {
+    this.caches = new LinkedHashMap<String, Map<String, CacheEntry>>();
+  }
+
+  /**
+   * @param from Wiki in which the article is.
+   * @param to Wiki to which the link is searched.
+   * @param title Page title.
+   * @return True if the language link of the page is in the cache.
+   */
+  public synchronized boolean contains(EnumWikipedia from, EnumWikipedia to, String title) {
+    return getEntry(from, to, title) != null;
+  }
+
+  /**
+   * @param from Wiki in which the article is.
+   * @param to Wiki to which the link is searched.
+   * @param title Page title.
+   * @return Language link of the page (null if there's no language link or if it's not in the cache).
+   */
+  public synchronized String get(EnumWikipedia from, EnumWikipedia to, String title) {
+    CacheEntry entry = getEntry(from, to, title);
+    return (entry != null) ? entry.link : null;
+  }
+
+  /**
+   * @param from Wiki in which the article is.
+   * @param to Wiki to which the link is searched.
+   * @param title Page title.
+   * @param link Language link of the page (null if there's no language link).
+   */
+  public synchronized void put(EnumWikipedia from, EnumWikipedia to, String title, String link) {
+    if (title == null) {
+      return;
+    }
+    String key = getKey(from, to);
+    Map<String, CacheEntry> cache = caches.get(key);
+    if (cache == null) {
+      cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+          return size() > MAX_SIZE;
+        }
+      };
+      caches.put(key, cache);
+    }
+    cache.put(title, new CacheEntry(link, System.currentTimeMillis() + TTL));
+  }
+
+  /**
+   * @param from Wiki in which the article is.
+   * @param to Wiki to which the link is searched.
+   * @param title Page title.
+   * @return Entry if it is in the cache and not expired.
+   */
+  private CacheEntry getEntry(EnumWikipedia from, EnumWikipedia to, String title) {
+    Map<String, CacheEntry> cache = caches.get(getKey(from, to));
+    if ((cache == null) || (title == null)) {
+      return null;
+    }
+    CacheEntry entry = cache.get(title);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.expiration < System.currentTimeMillis()) {
+      cache.remove(title);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * @param from Wiki in which the article is.
+   * @param to Wiki to which the link is searched.
+   * @return Key for the pair of wikis.
+   */
+  private static String getKey(EnumWikipedia from, EnumWikipedia to) {
+    return from.name() + "|" + to.name();
+  }
+
+  /**
+   * Language link of a page.
+   */
+  private static class CacheEntry {
+
+    /** Language link (null if there's no language link) */
+    final String link;
+
+    /** Time at which the entry expires */
+    final long expiration;
+
+    /**
+     * @param link Language link.
+     * @param expiration Time at which the entry expires.
+     */
+    CacheEntry(String link, long expiration) {
+      this.link = link;
+      this.expiration = expiration;
+    }
+  }
+}
@@ -15,11 +15,13 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.httpclient.Header;
@@ -31,18 +33,18 @@ import org.apache.commons.logging.LogFactory;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
-import org.jdom2.filter.Filters;
 import org.jdom2.input.JDOMParseException;
 import org.jdom2.input.SAXBuilder;
 import org.jdom2.output.Format;
 import org.jdom2.output.XMLOutputter;
-import org.jdom2.xpath.XPathExpression;
-import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.CaptchaException;
+import org.wikipediacleaner.api.EditThrottle;
 import org.wikipediacleaner.api.HttpUtils;
+import org.wikipediacleaner.api.PageContentsCache;
 import org.wikipediacleaner.api.RecentChangesListener;
+import org.wikipediacleaner.api.RetryPolicy;
 import org.wikipediacleaner.api.constants.ConnectionInformation;
 import org.wikipediacleaner.api.constants.EnumQueryPage;
 import org.wikipediacleaner.api.constants.EnumQueryResult;
@@ -179,10 +181,17 @@ public class MediaWikiAPI implements API {
   private HttpClient httpClient;
 
   /**
-   * Time of last edit.
+   * Throttle for edits.
    */
-  private LinkedList<Long> lastEditTimes = new LinkedList<Long>();
-  private final Object editLock = new Object();
+  private final EditThrottle editThrottle = new EditThrottle();
+
+  /**
+   * Cache of language links.
+   */
+  private final LanguageLinksCache languageLinksCache = new LanguageLinksCache();
+
+  /** Cache of TemplateData */
+  private final TemplateDataCache templateDataCache = new TemplateDataCache();
 
   /**
    * Constructor.
@@ -202,6 +211,7 @@ public class MediaWikiAPI implements API {
         null, ConfigurationValueBoolean.DEBUG_API);
     HttpUtils.updateConfiguration();
     ApiXmlResult.updateConfiguration();
+    RetryPolicy.updateConfiguration();
   }
 
   /**
@@ -253,7 +263,7 @@ public class MediaWikiAPI implements API {
       if (userConfigPage != null) {
         pages.add(userConfigPage);
       }
-      retrieveContents(wiki, pages, false, false);
+      retrieveContentsWithCache(wiki, pages);
 
       // Set configuration
       wiki.getConfiguration().setGeneralConfiguration(
@@ -423,7 +433,7 @@ public class MediaWikiAPI implements API {
       } catch (APIException e) {
         if (e.getHttpStatus() == HttpStatus.SC_GATEWAY_TIMEOUT) {
           log.warn("Gateway timeout, waiting to see if modification has been taken into account");
-          waitBeforeRetrying();
+          RetryPolicy.getPolicy().waitBeforeRetrying(wikipedia, attemptNumber, null, 0);
           Page tmpPage = page.replicatePage();
           retrieveContents(wikipedia, Collections.singletonList(tmpPage), false, false);
           String tmpContents = tmpPage.getContents();
@@ -439,7 +449,7 @@ public class MediaWikiAPI implements API {
           throw e;
         }
         if (e.getQueryResult() == EnumQueryResult.BAD_TOKEN) {
-          waitBeforeRetrying();
+          RetryPolicy.getPolicy().waitBeforeRetrying(wikipedia, attemptNumber, null, 0);
           log.warn("Retrieving tokens after a BAD_TOKEN answer");
           retrieveTokens(wikipedia);
         }
@@ -583,7 +593,7 @@ public class MediaWikiAPI implements API {
           throw e;
         }
         if (e.getQueryResult() == EnumQueryResult.BAD_TOKEN) {
-          waitBeforeRetrying();
+          RetryPolicy.getPolicy().waitBeforeRetrying(wikipedia, attemptNumber, null, 0);
           log.warn("Retrieving tokens after a BAD_TOKEN answer");
           retrieveTokens(wikipedia);
         }
@@ -643,9 +653,7 @@ public class MediaWikiAPI implements API {
   private QueryResult constructEdit(Element root, String query)
       throws APIException, CaptchaException {
 
-    XPathExpression<Element> xpa = XPathFactory.instance().compile(
-        query, Filters.element());
-    Element node = xpa.evaluateFirst(root);
+    Element node = getFirstElement(root, query);
     if (node != null) {
       String result = node.getAttributeValue("result");
       if ("Success".equalsIgnoreCase(result)) {
@@ -671,9 +679,7 @@ public class MediaWikiAPI implements API {
             pageId, node.getAttributeValue("title"),
             pageOldRevId, pageNewRevId);
       } else if ("Failure".equalsIgnoreCase(result)) {
-        XPathExpression<Element> xpaCaptcha = XPathFactory.instance().compile(
-            "./captcha", Filters.element());
-        Element captcha = xpaCaptcha.evaluateFirst(node);
+        Element captcha = node.getChild("captcha");
         if (captcha != null) {
           CaptchaException exception = new CaptchaException("Captcha", captcha.getAttributeValue("type"));
           exception.setMime(captcha.getAttributeValue("mime"));
@@ -697,7 +703,7 @@ public class MediaWikiAPI implements API {
   /**
    * @param page Page.
    * @param root Root element.
-   * @param query XPath query to retrieve the contents 
+   * @param query Path to the contents.
    * @throws JDOMException
    */
   private boolean constructContents(Page page, Element root, String query)
@@ -707,9 +713,8 @@ public class MediaWikiAPI implements API {
     }
     boolean redirect = false;
 
-    XPathExpression<Element> xpaPage = XPathFactory.instance().compile(
-        query, Filters.element());
-    Element node = xpaPage.evaluateFirst(root);
+    Element node = getFirstElement(root, query);
+    Element pageNode = node;
     if (node != null) {
       page.setNamespace(node.getAttributeValue("ns"));
       if (node.getAttribute("redirect") != null) {
@@ -722,17 +727,14 @@ public class MediaWikiAPI implements API {
       page.setPageId(node.getAttributeValue("pageid"));
       page.setStartTimestamp(node.getAttributeValue("starttimestamp"));
     }
-    XPathExpression<Element> xpa = XPathFactory.instance().compile(
-        query + "/revisions/rev", Filters.element());
-    node = xpa.evaluateFirst(root);
+    node = getFirstElement(pageNode, "revisions/rev");
     if (node != null) {
       page.setContents(node.getText());
       page.setExisting(Boolean.TRUE);
       page.setRevisionId(node.getAttributeValue("revid"));
       page.setContentsTimestamp(node.getAttributeValue("timestamp"));
     }
-    xpa = XPathFactory.instance().compile(query + "/protection/pr", Filters.element());
-    for (Element prNode : xpa.evaluate(root)) {
+    for (Element prNode : getElements(pageNode, "protection/pr")) {
       if ("edit".equals(prNode.getAttributeValue("type"))) {
         page.setEditProtectionLevel(prNode.getAttributeValue("level"));
       }
@@ -744,7 +746,7 @@ public class MediaWikiAPI implements API {
   /**
    * @param pages Pages.
    * @param root Root element.
-   * @param query XPath query to retrieve the contents 
+   * @param query Path to the contents.
    * @throws APIException
    */
   private void constructContents(List<Page> pages, Element root, String query)
@@ -753,16 +755,12 @@ public class MediaWikiAPI implements API {
       throw new APIException("Pages is null");
     }
 
-    XPathExpression<Element> xpaPage = XPathFactory.instance().compile(
-        query, Filters.element());
-    XPathExpression<Element> xpaRev = XPathFactory.instance().compile(
-        "./revisions/rev", Filters.element());
-    List<Element> resultPages = xpaPage.evaluate(root);
+    List<Element> resultPages = getElements(root, query);
     Iterator<Element> iterPages = resultPages.iterator();
     while (iterPages.hasNext()) {
       Element currentPage = iterPages.next();
       String title = currentPage.getAttributeValue("title");
-      Element currentRev = xpaRev.evaluateFirst(currentPage);
+      Element currentRev = getFirstElement(currentPage, "revisions/rev");
       String contents = currentRev.getText();
       
       for (Page page : pages) {
@@ -982,7 +980,60 @@ public class MediaWikiAPI implements API {
       throws APIException {
     ApiRevisionsResult result = new ApiXmlRevisionsResult(wiki, httpClient);
     ApiRevisionsRequest request = new ApiRevisionsRequest(wiki, result);
-    request.loadContent(pages, usePageId, withRedirects);
+    if ((pages == null) || (pages.size() <= MAX_PAGES_PER_QUERY)) {
+      request.loadContent(pages, usePageId, withRedirects);
+      return;
+    }
+
+    // Split the list of pages in groups accepted by the API
+    List<Page> tmpPages = new ArrayList<Page>(MAX_PAGES_PER_QUERY);
+    for (Page page : pages) {
+      tmpPages.add(page);
+      if (tmpPages.size() >= MAX_PAGES_PER_QUERY) {
+        request.loadContent(tmpPages, usePageId, withRedirects);
+        tmpPages.clear();
+      }
+    }
+    if (!tmpPages.isEmpty()) {
+      request.loadContent(tmpPages, usePageId, withRedirects);
+    }
+  }
+
+  /**
+   * Retrieves the contents of a list of pages, using a local cache
+   * for pages that haven't been modified since they were cached.
+   * (<code>action=query</code>, <code>prop=info</code>, <code>prop=revisions</code>).
+   * 
+   * @param wiki Wiki.
+   * @param pages List of pages.
+   * @throws APIException
+   */
+  @Override
+  public void retrieveContentsWithCache(
+      EnumWikipedia wiki,
+      Collection<Page> pages) throws APIException {
+    PageContentsCache cache = PageContentsCache.getCache();
+    if ((cache == null) || (pages == null)) {
+      retrieveContents(wiki, pages, false, false);
+      return;
+    }
+
+    // Check last revision of each page, and use cache for unmodified pages
+    retrieveInfo(wiki, pages);
+    List<Page> modifiedPages = new ArrayList<Page>();
+    for (Page page : pages) {
+      if (!Boolean.FALSE.equals(page.isExisting()) && !cache.restore(page)) {
+        modifiedPages.add(page);
+      }
+    }
+
+    // Retrieve contents of modified pages
+    if (!modifiedPages.isEmpty()) {
+      retrieveContents(wiki, modifiedPages, false, false);
+      for (Page page : modifiedPages) {
+        cache.store(page);
+      }
+    }
   }
 
   /**
@@ -1154,6 +1205,56 @@ public class MediaWikiAPI implements API {
     return request.getLanguageLink(DataManager.getPage(from, title, null, null, null), to);
   }
 
+  /**
+   * Retrieve language links of a list of pages, following redirects.
+   * (<code>action=query</code>, <code>prop=langlinks</code>).
+   * 
+   * @param from Wiki in which the articles are.
+   * @param to Wiki to which the links are searched.
+   * @param titles Page titles.
+   * @return Page titles in the destination wiki (page title => language link).
+   * @throws APIException
+   * @see <a href="http://www.mediawiki.org/wiki/API:Properties#langlinks_.2F_ll">API:Properties#langlinks</a>
+   */
+  @Override
+  public Map<String, String> getLanguageLinks(
+      EnumWikipedia from, EnumWikipedia to, Collection<String> titles)
+      throws APIException {
+    Map<String, String> languageLinks = new HashMap<String, String>();
+    if (titles == null) {
+      return languageLinks;
+    }
+
+    // Use language links already known
+    List<Page> pages = new ArrayList<Page>();
+    Set<String> requestedTitles = new HashSet<String>();
+    for (String title : titles) {
+      if (languageLinksCache.contains(from, to, title)) {
+        String link = languageLinksCache.get(from, to, title);
+        if (link != null) {
+          languageLinks.put(title, link);
+        }
+      } else if ((title != null) && requestedTitles.add(title)) {
+        pages.add(DataManager.getPage(from, title, null, null, null));
+      }
+    }
+
+    // Retrieve other language links
+    if (!pages.isEmpty()) {
+      ApiLanguageLinksResult result = new ApiXmlLanguageLinksResult(from, httpClient);
+      ApiLanguageLinksRequest request = new ApiLanguageLinksRequest(from, result);
+      Map<String, String> newLinks = request.getLanguageLinks(pages, to);
+      for (Page page : pages) {
+        String link = newLinks.get(page.getTitle());
+        languageLinksCache.put(from, to, page.getTitle(), link);
+        if (link != null) {
+          languageLinks.put(page.getTitle(), link);
+        }
+      }
+    }
+    return languageLinks;
+  }
+
   // ==========================================================================
   // API : Queries / Lists
   // ==========================================================================
@@ -1557,9 +1658,113 @@ public class MediaWikiAPI implements API {
   @Override
   public TemplateData retrieveTemplateData(EnumWikipedia wiki, Page page)
       throws APIException {
+    if (templateDataCache.contains(wiki, page)) {
+      return templateDataCache.get(wiki, page);
+    }
     ApiTemplateDataResult result = new ApiJsonTemplateDataResult(wiki, httpClient);
     ApiTemplateDataRequest request = new ApiTemplateDataRequest(wiki, result);
-    return request.retrieveTemplateData(page);
+    TemplateData templateData = request.retrieveTemplateData(page);
+    templateDataCache.put(wiki, page, templateData);
+    return templateData;
+  }
+
+  /**
+   * Retrieve the TemplateData for a list of pages.
+   * (<code>action=templatedata</code>).
+   * 
+   * @param wiki Wiki.
+   * @param pages List of pages.
+   * @return TemplateData for each page having a TemplateData block (page title => TemplateData).
+   * @throws APIException
+   */
+  @Override
+  public Map<String, TemplateData> retrieveTemplateData(
+      EnumWikipedia wiki, Collection<Page> pages)
+      throws APIException {
+    Map<String, TemplateData> templateData = new HashMap<String, TemplateData>();
+    if (pages == null) {
+      return templateData;
+    }
+
+    // Use TemplateData already known
+    List<Page> missingPages = new ArrayList<Page>();
+    Set<String> requestedTitles = new HashSet<String>();
+    for (Page page : pages) {
+      if (templateDataCache.contains(wiki, page)) {
+        TemplateData tmpTemplateData = templateDataCache.get(wiki, page);
+        if (tmpTemplateData != null) {
+          templateData.put(page.getTitle(), tmpTemplateData);
+        }
+      } else if ((page.getTitle() != null) && requestedTitles.add(page.getTitle())) {
+        missingPages.add(page);
+      }
+    }
+
+    // Retrieve other TemplateData
+    if (!missingPages.isEmpty()) {
+      ApiTemplateDataResult result = new ApiJsonTemplateDataResult(wiki, httpClient);
+      ApiTemplateDataRequest request = new ApiTemplateDataRequest(wiki, result);
+      Map<String, TemplateData> newTemplateData = request.retrieveTemplateData(missingPages);
+      for (Page page : missingPages) {
+        TemplateData tmpTemplateData = newTemplateData.get(page.getTitle());
+        templateDataCache.put(wiki, page, tmpTemplateData);
+        if (tmpTemplateData != null) {
+          templateData.put(page.getTitle(), tmpTemplateData);
+        }
+      }
+    }
+    return templateData;
+  }
+
+  /**
+   * Compute the TemplateData of a list of pages from their contents.
+   * (<code>action=query</code>, <code>prop=info</code>, <code>prop=revisions</code>).
+   * 
+   * @param wiki Wiki.
+   * @param pages List of pages.
+   * @return TemplateData computed for each page (page title => TemplateData).
+   * @throws APIException
+   */
+  @Override
+  public Map<String, TemplateData> computeTemplateData(
+      EnumWikipedia wiki, Collection<Page> pages)
+      throws APIException {
+    Map<String, TemplateData> templateData = new HashMap<String, TemplateData>();
+    if ((pages == null) || pages.isEmpty()) {
+      return templateData;
+    }
+
+    // Use TemplateData computed for the last revision of each page
+    retrieveInfo(wiki, pages);
+    Map<Page, Integer> missingPages = new LinkedHashMap<Page, Integer>();
+    for (Page page : pages) {
+      TemplateData tmpTemplateData = templateDataCache.getComputed(wiki, page);
+      if (tmpTemplateData != null) {
+        templateData.put(page.getTitle(), tmpTemplateData);
+      } else if (!Boolean.FALSE.equals(page.isExisting())) {
+        missingPages.put(page, page.getRevisionId());
+      }
+    }
+    if (missingPages.isEmpty()) {
+      return templateData;
+    }
+
+    // Compute other TemplateData
+    retrieveContents(wiki, missingPages.keySet(), false, true);
+    for (Map.Entry<Page, Integer> missingPage : missingPages.entrySet()) {
+      Page page = missingPage.getKey();
+      if (page.getContents() != null) {
+        TemplateData tmpTemplateData = TemplateData.createFromContent(
+            page.getAnalysis(page.getContents(), false));
+        // Keep revision of the page itself, contents may come from the redirect target
+        if (missingPage.getValue() != null) {
+          page.setRevisionId(missingPage.getValue().toString());
+        }
+        templateDataCache.putComputed(wiki, page, tmpTemplateData);
+        templateData.put(page.getTitle(), tmpTemplateData);
+      }
+    }
+    return templateData;
   }
 
   // ==========================================================================
@@ -1584,7 +1789,7 @@ public class MediaWikiAPI implements API {
       RecentChangesListener listener) {
     RecentChangesManager rcManager = rcManagers.get(wiki);
     if (rcManager == null) {
-      rcManager = new RecentChangesManager(wiki, this);
+      rcManager = new RecentChangesManager(wiki, this, templateDataCache);
       rcManagers.put(wiki, rcManager);
     }
     rcManager.addRecentChangesListener(listener);
@@ -1643,9 +1848,11 @@ public class MediaWikiAPI implements API {
     Element root = null;
     HttpMethod method = null;
     int attempt = 0;
+    RetryPolicy policy = RetryPolicy.getPolicy();
     for (;;) {
       try {
         attempt++;
+        policy.waitForAvailability(wikipedia);
         method = createHttpMethod(wikipedia, properties);
         int statusCode = httpClient.executeMethod(method);
         if (statusCode != HttpStatus.SC_OK) {
@@ -1655,7 +1862,7 @@ public class MediaWikiAPI implements API {
             log.warn("Error. Maximum attempts count reached.");
             throw new APIException(message, statusCode);
           }
-          waitBeforeRetrying();
+          policy.waitBeforeRetrying(wikipedia, attempt, method, 0);
         } else {
           InputStream stream = method.getResponseBodyAsStream();
           stream = new BufferedInputStream(stream);
@@ -1670,6 +1877,7 @@ public class MediaWikiAPI implements API {
           traceDocument(document);
           root = document.getRootElement();
           checkForError(root);
+          policy.recordSuccess(wikipedia);
           return root;
         }
       } catch (JDOMParseException e) {
@@ -1680,7 +1888,7 @@ public class MediaWikiAPI implements API {
           log.warn("Error. Maximum attempts count reached.");
           throw e;
         }
-        waitBeforeRetrying();
+        policy.waitBeforeRetrying(wikipedia, attempt, method, 0);
       } catch (JDOMException e) {
         String message = "JDOMException: " + e.getMessage();
         log.error(message);
@@ -1688,7 +1896,7 @@ public class MediaWikiAPI implements API {
           log.warn("Error. Maximum attempts count reached.");
           throw new APIException("Error parsing XML result", e);
         }
-        waitBeforeRetrying();
+        policy.waitBeforeRetrying(wikipedia, attempt, method, 0);
       } catch (IOException e) {
         String message = "" + e.getClass().getName() + ": " + e.getMessage();
         log.error(message);
@@ -1696,12 +1904,12 @@ public class MediaWikiAPI implements API {
           log.warn("Error. Maximum attempts count reached.");
           throw new APIException("Error accessing MediaWiki", e);
         }
-        waitBeforeRetrying();
+        policy.waitBeforeRetrying(wikipedia, attempt, method, 0);
       } catch (APIException e) {
         if (!e.shouldRetry() || (attempt > e.getMaxRetry())) {
           throw e;
         }
-        e.waitForRetry();
+        policy.waitBeforeRetrying(wikipedia, attempt, method, e.getRetryDelay());
       } finally {
         if (method != null) {
           method.releaseConnection();
@@ -1711,29 +1919,19 @@ public class MediaWikiAPI implements API {
     }
   }
 
-  /**
-   * Wait after a problem occurred.
-   */
-  private void waitBeforeRetrying() {
-    try {
-      Thread.sleep(30000);
-    } catch (InterruptedException e) {
-      // Nothing
-    }
-  }
-
   /**
    * Check current time to see if edit is authorized (wait if needed).
    * 
    * @param user Current user.
    * @param namespace Name space for the edit.
+   * @throws APIException Exception thrown if the wait is interrupted.
    */
-  private void checkTimeForEdit(User user, Integer namespace) {
+  private void checkTimeForEdit(User user, Integer namespace) throws APIException {
     Configuration config = Configuration.getConfiguration();
     int minimumTime = config.getInt(null, ConfigurationValueInteger.TIME_BETWEEN_EDIT);
     int maxEdits = 0;
     if ((namespace == null) || (namespace.intValue() % 2 == 0)) {
-      config.getInt(null, ConfigurationValueInteger.MAX_EDITS_PER_MINUTE);
+      maxEdits = config.getInt(null, ConfigurationValueInteger.MAX_EDITS_PER_MINUTE);
       if ((maxEdits > ConfigurationValueInteger.MAX_EDITS_PER_MINUTE_NORMAL) ||
           (maxEdits <= 0)) {
         if (!user.isMemberOf("admin") &&
@@ -1745,35 +1943,19 @@ public class MediaWikiAPI implements API {
     if ((minimumTime <= 0) && (maxEdits <= 0)) {
       return;
     }
-    synchronized (editLock) {
-      long currentTime = System.currentTimeMillis();
-      if ((minimumTime > 0) && (!lastEditTimes.isEmpty())) {
-        long lastEditTime = lastEditTimes.getLast();
-        if (currentTime < lastEditTime + minimumTime * 1000) {
-          try {
-            Thread.sleep(lastEditTime + minimumTime * 1000 - currentTime);
-          } catch (InterruptedException e) {
-            // Nothing to do
-          }
-          currentTime = System.currentTimeMillis();
-        }
-      }
-      while ((!lastEditTimes.isEmpty()) &&
-             (lastEditTimes.getFirst() + 60 * 1000 <= currentTime)) {
-        lastEditTimes.removeFirst();
-      }
-      if ((maxEdits > 0) && (lastEditTimes.size() >= maxEdits)) {
-        try {
-          Thread.sleep(lastEditTimes.getFirst() + 60 * 1000 - currentTime);
-        } catch (InterruptedException e) {
-          // Nothing to do
-        }
-        currentTime = System.currentTimeMillis();
-      }
-      lastEditTimes.add(currentTime);
+    if (!editThrottle.waitForEdit(minimumTime, maxEdits)) {
+      throw new APIException("Interrupted while waiting before editing");
     }
   }
 
+  /**
+   * @return Throttle for edits.
+   */
+  @Override
+  public EditThrottle getEditThrottle() {
+    return editThrottle;
+  }
+
   /**
    * Create an HttpMethod.
    * 
@@ -1823,9 +2005,7 @@ public class MediaWikiAPI implements API {
     }
     
     // Check for errors
-    XPathExpression<Element> xpa = XPathFactory.instance().compile(
-        "/api/error", Filters.element());
-    List<Element> listErrors = xpa.evaluate(root);
+    List<Element> listErrors = getElements(root, "/api/error");
     if (listErrors != null) {
       Iterator<Element> iterErrors = listErrors.iterator();
       while (iterErrors.hasNext()) {
@@ -1837,18 +2017,71 @@ public class MediaWikiAPI implements API {
     }
     
     // Check for warnings
-    xpa = XPathFactory.instance().compile(
-        "/api/warnings/*", Filters.element());
-    List<Element> listWarnings = xpa.evaluate(root);
-    if (listWarnings != null) {
-      Iterator iterWarnings = listWarnings.iterator();
+    for (Element warnings : getElements(root, "/api/warnings")) {
+      Iterator<Element> iterWarnings = warnings.getChildren().iterator();
       while (iterWarnings.hasNext()) {
-        Element currentNode = (Element) iterWarnings.next();
+        Element currentNode = iterWarnings.next();
         log.warn("Warning reported: " + currentNode.getName() + " - " + currentNode.getValue());
       }
     }
   }
 
+  /**
+   * Retrieve the elements matching a simple path (names separated by /).
+   * 
+   * The children are navigated directly, without compiling an XPath expression.
+   * 
+   * @param node Starting element (any element of the document for an absolute path).
+   * @param path Path to the elements.
+   * @return List of elements matching the path.
+   */
+  private static List<Element> getElements(Element node, String path) {
+    List<Element> elements = new ArrayList<Element>();
+    if (node == null) {
+      return elements;
+    }
+
+    // Find starting point
+    String[] names = null;
+    if (path.startsWith("/")) {
+      names = path.substring(1).split("/");
+      Element top = node;
+      while (top.getParentElement() != null) {
+        top = top.getParentElement();
+      }
+      if (!names[0].equals(top.getName())) {
+        return elements;
+      }
+      elements.add(top);
+      names[0] = null;
+    } else {
+      names = path.split("/");
+      elements.add(node);
+    }
+
+    // Navigate through the children
+    for (String name : names) {
+      if (name != null) {
+        List<Element> children = new ArrayList<Element>();
+        for (Element element : elements) {
+          children.addAll(element.getChildren(name));
+        }
+        elements = children;
+      }
+    }
+    return elements;
+  }
+
+  /**
+   * @param node Starting element (any element of the document for an absolute path).
+   * @param path Path to the element.
+   * @return First element matching the path.
+   */
+  private static Element getFirstElement(Element node, String path) {
+    List<Element> elements = getElements(node, path);
+    return elements.isEmpty() ? null : elements.get(0);
+  }
+
   /**
    * Ask for captcha answer.
    * 
@@ -32,6 +32,11 @@ class RecentChangesManager {
    */
   private final API api;
 
+  /**
+   * Cache of TemplateData.
+   */
+  private final TemplateDataCache templateDataCache;
+
   /**
    * Listeners.
    */
@@ -45,10 +50,14 @@ class RecentChangesManager {
   /**
    * @param wiki Wiki.
    * @param api API.
+   * @param templateDataCache Cache of TemplateData.
    */
-  public RecentChangesManager(EnumWikipedia wiki, API api) {
+  public RecentChangesManager(
+      EnumWikipedia wiki, API api,
+      TemplateDataCache templateDataCache) {
     this.wiki = wiki;
     this.api = api;
+    this.templateDataCache = templateDataCache;
   }
 
   /**
@@ -80,6 +89,9 @@ class RecentChangesManager {
    * @param currentTime Current time.
    */
   public void fireRecentChanges(List<RecentChange> rc, Date currentTime) {
+    if (templateDataCache != null) {
+      templateDataCache.invalidate(wiki, rc);
+    }
     for (RecentChangesListener listener : listeners) {
       listener.recentChanges(rc, currentTime);
     }
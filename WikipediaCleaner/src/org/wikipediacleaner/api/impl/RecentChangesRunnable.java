@@ -14,6 +14,7 @@ import java.util.List;
 
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.RetryPolicy;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.RecentChange;
@@ -24,6 +25,11 @@ import org.wikipediacleaner.api.data.RecentChange;
  */
 class RecentChangesRunnable implements Runnable {
 
+  /**
+   * Delay between two requests for recent changes (in milliseconds).
+   */
+  private final static long POLL_DELAY = 30000;
+
   /**
    * Recent changes manager.
    */
@@ -69,6 +75,7 @@ class RecentChangesRunnable implements Runnable {
    */
   @Override
   public void run() {
+    int failures = 0;
     while (!shouldStop) {
       try {
         List<RecentChange> recentChanges = new ArrayList<RecentChange>();
@@ -77,13 +84,20 @@ class RecentChangesRunnable implements Runnable {
           Date currentTime = DataManager.convertIso8601DateTime(start);
           manager.fireRecentChanges(recentChanges, currentTime);
         }
+        failures = 0;
       } catch (APIException e) {
-        // Nothing to do.
+        failures++;
       } catch (ParseException e) {
         // Nothing to do.
       }
+
+      // Poll regularly, back off after errors
+      long delay = POLL_DELAY;
+      if (failures > 0) {
+        delay = Math.max(delay, RetryPolicy.getPolicy().getDelay(failures, null, 0));
+      }
       try {
-        Thread.sleep(30000);
+        Thread.sleep(delay);
       } catch (InterruptedException e) {
         // Nothing to do.
       }
@@ -0,0 +1,226 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.impl;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.Namespace;
+import org.wikipediacleaner.api.data.Page;
+import org.wikipediacleaner.api.data.RecentChange;
+import org.wikipediacleaner.api.data.TemplateData;
+
+
+/**
+ * Cache of TemplateData for templates.
+ *
+ * Entries are kept by wiki and by template title with the revision id of the template
+ * when it is known, and they are used only while the revision id is still the last one.
+ * The least recently used entries are removed when the cache is full,
+ * entries expire after some time, and they are removed when the template is modified.
+ * Templates without TemplateData block are also kept in the cache.
+ *
+ * Modifications of templates are only known while recent changes are followed,
+ * that is while a recent changes listener is registered.
+ * Otherwise (bot, checks without recent changes monitoring), only the expiration
+ * limits how old an entry can be, including entries for pages without revision id.
+ */
+public class TemplateDataCache {
+
+  /** Maximum number of entries for a wiki */
+  private final static int MAX_SIZE = 2000;
+
+  /** Time before an entry expires (in milliseconds) */
+  private final static long TTL = 60 * 60 * 1000L;
+
+  /** Cached TemplateData by wiki */
+  private final Map<EnumWikipedia, Map<String, CacheEntry>> caches;
+
+  public TemplateDataCache() {
+    this.caches = new LinkedHashMap<EnumWikipedia, Map<String, CacheEntry>>();
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param page Template page (with its last revision id if known).
+   * @return True if the TemplateData block of the template is in the cache.
+   */
+  public synchronized boolean contains(EnumWikipedia wiki, Page page) {
+    CacheEntry entry = getEntry(wiki, page);
+    return (entry != null) && entry.known;
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param page Template page (with its last revision id if known).
+   * @return TemplateData block of the template (null if there's no block or if it's not in the cache).
+   */
+  public synchronized TemplateData get(EnumWikipedia wiki, Page page) {
+    CacheEntry entry = getEntry(wiki, page);
+    return (entry != null) ? entry.templateData : null;
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param page Template page (with its last revision id if known).
+   * @param templateData TemplateData block of the template (null if there's no block).
+   */
+  public synchronized void put(EnumWikipedia wiki, Page page, TemplateData templateData) {
+    CacheEntry entry = getOrCreateEntry(wiki, page);
+    if (entry != null) {
+      entry.known = true;
+      entry.templateData = templateData;
+    }
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param page Template page (with its last revision id if known).
+   * @return TemplateData computed from the contents of the template (null if it's not in the cache).
+   */
+  public synchronized TemplateData getComputed(EnumWikipedia wiki, Page page) {
+    CacheEntry entry = getEntry(wiki, page);
+    return (entry != null) ? entry.computedTemplateData : null;
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param page Template page (with its last revision id if known).
+   * @param templateData TemplateData computed from the contents of the template.
+   */
+  public synchronized void putComputed(EnumWikipedia wiki, Page page, TemplateData templateData) {
+    CacheEntry entry = getOrCreateEntry(wiki, page);
+    if (entry != null) {
+      entry.computedTemplateData = templateData;
+    }
+  }
+
+  /**
+   * Remove templates modified in recent changes.
+   *
+   * Called only while recent changes are followed for the wiki.
+   *
+   * @param wiki Wiki.
+   * @param rcs Recent changes.
+   */
+  public synchronized void invalidate(EnumWikipedia wiki, Collection<RecentChange> rcs) {
+    Map<String, CacheEntry> cache = caches.get(wiki);
+    if ((cache == null) || (rcs == null)) {
+      return;
+    }
+    for (RecentChange rc : rcs) {
+      if ((rc.getNamespace() == Namespace.TEMPLATE) && (rc.getTitle() != null)) {
+        cache.remove(Page.normalizeTitle(rc.getTitle()));
+      }
+    }
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param page Template page.
+   * @return Entry if it is in the cache, not expired and for the last revision.
+   */
+  private CacheEntry getEntry(EnumWikipedia wiki, Page page) {
+    Map<String, CacheEntry> cache = caches.get(wiki);
+    if ((cache == null) || (page == null) || (page.getTitle() == null)) {
+      return null;
+    }
+    String key = Page.normalizeTitle(page.getTitle());
+    CacheEntry entry = cache.get(key);
+    if (entry == null) {
+      return null;
+    }
+    Integer revisionId = getRevisionId(page);
+    if ((entry.expiration < System.currentTimeMillis()) ||
+        ((revisionId != null) && (entry.revisionId != null) &&
+         !revisionId.equals(entry.revisionId))) {
+      cache.remove(key);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * @param wiki Wiki.
+   * @param page Template page.
+   * @return Entry, created if it's not in the cache.
+   */
+  private CacheEntry getOrCreateEntry(EnumWikipedia wiki, Page page) {
+    if ((wiki == null) || (page == null) || (page.getTitle() == null)) {
+      return null;
+    }
+    Integer revisionId = getRevisionId(page);
+    CacheEntry entry = getEntry(wiki, page);
+    if (entry != null) {
+      if (entry.revisionId == null) {
+        entry.revisionId = revisionId;
+      }
+      return entry;
+    }
+    Map<String, CacheEntry> cache = caches.get(wiki);
+    if (cache == null) {
+      cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+          return size() > MAX_SIZE;
+        }
+      };
+      caches.put(wiki, cache);
+    }
+    entry = new CacheEntry(revisionId, System.currentTimeMillis() + TTL);
+    cache.put(Page.normalizeTitle(page.getTitle()), entry);
+    return entry;
+  }
+
+  /**
+   * @param page Template page.
+   * @return Last revision id of the template (null if unknown).
+   */
+  private static Integer getRevisionId(Page page) {
+    Integer revisionId = page.getRevisionId();
+    if ((revisionId == null) || (revisionId.intValue() <= 0)) {
+      return null;
+    }
+    return revisionId;
+  }
+
+  /**
+   * TemplateData of a template.
+   */
+  private static class CacheEntry {
+
+    /** Revision id of the template (null if unknown) */
+    Integer revisionId;
+
+    /** Time at which the entry expires */
+    final long expiration;
+
+    /** True if the TemplateData block is known */
+    boolean known;
+
+    /** TemplateData block (null if there's no block) */
+    TemplateData templateData;
+
+    /** TemplateData computed from the contents of the template */
+    TemplateData computedTemplateData;
+
+    /**
+     * @param revisionId Revision id of the template.
+     * @param expiration Time at which the entry expires.
+     */
+    CacheEntry(Integer revisionId, long expiration) {
+      this.revisionId = revisionId;
+      this.expiration = expiration;
+    }
+  }
+}
@@ -24,6 +24,7 @@ import org.jdom2.Attribute;
 import org.jdom2.Element;
 import org.jdom2.input.JDOMParseException;
 import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.RetryPolicy;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Page;
@@ -99,6 +100,7 @@ public abstract class ApiJsonResult extends BasicApiResult {
       int maxTry)
           throws APIException {
     int attempt = 0;
+    RetryPolicy policy = RetryPolicy.getPolicy();
     for (;;) {
       JsonNode root = null;
       HttpMethod method = null;
@@ -106,6 +108,7 @@ public abstract class ApiJsonResult extends BasicApiResult {
       try {
         // Executing HTTP method
         attempt++;
+        policy.waitForAvailability(getWiki());
         method = createHttpMethod(properties);
         int statusCode = getHttpClient().executeMethod(method);
 
@@ -143,12 +146,9 @@ public abstract class ApiJsonResult extends BasicApiResult {
             log.warn("Error. Maximum attempts count reached.");
             throw new APIException(message);
           }
-          try {
-            Thread.sleep(30000);
-          } catch (InterruptedException e) {
-            // Nothing
-          }
+          policy.waitBeforeRetrying(getWiki(), attempt, method, 0);
         } else {
+          policy.recordSuccess(getWiki());
           return root;
         }
       } catch (IOException e) {
@@ -158,16 +158,12 @@ public abstract class ApiJsonResult extends BasicApiResult {
           log.warn("Error. Maximum attempts count reached.");
           throw new APIException("Error accessing MediaWiki", e);
         }
-        try {
-          Thread.sleep(30000);
-        } catch (InterruptedException e2) {
-          // Nothing
-        }
+        policy.waitBeforeRetrying(getWiki(), attempt, method, 0);
       } catch (APIException e) {
         if (!e.shouldRetry() || (attempt > e.getMaxRetry())) {
           throw e;
         }
-        e.waitForRetry();
+        policy.waitBeforeRetrying(getWiki(), attempt, method, e.getRetryDelay());
       } finally {
         if (stream != null) {
           try {
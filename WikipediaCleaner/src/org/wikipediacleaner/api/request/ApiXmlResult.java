@@ -10,27 +10,38 @@ package org.wikipediacleaner.api.request;
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.zip.GZIPInputStream;
 
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
 import org.apache.commons.httpclient.HttpMethod;
 import org.apache.commons.httpclient.HttpStatus;
 import org.jdom2.Attribute;
+import org.jdom2.Content;
 import org.jdom2.Document;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
+import org.jdom2.Namespace;
 import org.jdom2.filter.Filters;
 import org.jdom2.input.JDOMParseException;
 import org.jdom2.input.SAXBuilder;
+import org.jdom2.input.StAXStreamBuilder;
 import org.jdom2.output.Format;
 import org.jdom2.output.XMLOutputter;
 import org.jdom2.xpath.XPathExpression;
 import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.RetryPolicy;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Page;
@@ -96,7 +107,34 @@ public abstract class ApiXmlResult extends BasicApiResult {
       Map<String, String> properties,
       int maxTry)
           throws JDOMParseException, APIException {
+    return getRoot(properties, maxTry, null, null);
+  }
+
+  /**
+   * Send a request to MediaWiki API and process its answer as a stream.
+   * 
+   * Elements matching the element path are built one at a time and given
+   * to the handler as soon as they are read, without being kept in the answer.
+   * Other elements (errors, warnings, continue, ...) are kept in the answer.
+   * As the answer is read again if the request has to be retried,
+   * the handler must support receiving the same elements several times.
+   * 
+   * @param properties Properties defining the request.
+   * @param maxTry Maximum number of tries.
+   * @param elementPath Simple absolute path to the elements to be streamed (/api/query/...).
+   * @param handler Handler for the elements to be streamed.
+   * @return Answer of MediaWiki API without the streamed elements.
+   * @throws JDOMParseException
+   * @throws APIException
+   */
+  protected Element getRoot(
+      Map<String, String> properties,
+      int maxTry,
+      String elementPath,
+      XmlElementHandler handler)
+          throws JDOMParseException, APIException {
     int attempt = 0;
+    RetryPolicy policy = RetryPolicy.getPolicy();
     for (;;) {
       Element root = null;
       HttpMethod method = null;
@@ -104,6 +142,7 @@ public abstract class ApiXmlResult extends BasicApiResult {
       try {
         // Executing HTTP method
         attempt++;
+        policy.waitForAvailability(getWiki());
         method = createHttpMethod(properties);
         int statusCode = getHttpClient().executeMethod(method);
 
@@ -125,11 +164,21 @@ public abstract class ApiXmlResult extends BasicApiResult {
 
         // Read the response
         if (statusCode == HttpStatus.SC_OK){
-          SAXBuilder sxb = new SAXBuilder();
-          Document document = sxb.build(stream);
-          traceDocument(document);
-          root = document.getRootElement();
-          checkForError(root);
+          if ((handler == null) || DEBUG_XML) {
+            SAXBuilder sxb = new SAXBuilder();
+            Document document = sxb.build(stream);
+            traceDocument(document);
+            root = document.getRootElement();
+            checkForError(root);
+            if (handler != null) {
+              for (Element element : getElements(root, elementPath)) {
+                handler.handleElement(element);
+              }
+            }
+          } else {
+            root = buildStreamedDocument(stream, elementPath, handler);
+            checkForError(root);
+          }
         } else {
           try {
             while (stream.read() >= 0) {
@@ -148,12 +197,9 @@ public abstract class ApiXmlResult extends BasicApiResult {
             log.warn("Error. Maximum attempts count reached.");
             throw new APIException(message);
           }
-          try {
-            Thread.sleep(30000);
-          } catch (InterruptedException e) {
-            // Nothing
-          }
+          policy.waitBeforeRetrying(getWiki(), attempt, method, 0);
         } else {
+          policy.recordSuccess(getWiki());
           return root;
         }
       } catch (JDOMException e) {
@@ -163,11 +209,15 @@ public abstract class ApiXmlResult extends BasicApiResult {
           log.warn("Error. Maximum attempts count reached.");
           throw new APIException("Error parsing XML result", e);
         }
-        try {
-          Thread.sleep(30000);
-        } catch (InterruptedException e2) {
-          // Nothing
+        policy.waitBeforeRetrying(getWiki(), attempt, method, 0);
+      } catch (XMLStreamException e) {
+        String message = "XMLStreamException: " + e.getMessage();
+        log.error(message);
+        if (attempt > maxTry) {
+          log.warn("Error. Maximum attempts count reached.");
+          throw new APIException("Error parsing XML result", e);
         }
+        policy.waitBeforeRetrying(getWiki(), attempt, method, 0);
       } catch (IOException e) {
         String message = "IOException: " + e.getMessage();
         log.error(message);
@@ -175,16 +225,12 @@ public abstract class ApiXmlResult extends BasicApiResult {
           log.warn("Error. Maximum attempts count reached.");
           throw new APIException("Error accessing MediaWiki", e);
         }
-        try {
-          Thread.sleep(30000);
-        } catch (InterruptedException e2) {
-          // Nothing
-        }
+        policy.waitBeforeRetrying(getWiki(), attempt, method, 0);
       } catch (APIException e) {
         if (!e.shouldRetry() || (attempt > e.getMaxRetry())) {
           throw e;
         }
-        e.waitForRetry();
+        policy.waitBeforeRetrying(getWiki(), attempt, method, e.getRetryDelay());
       } finally {
         if (stream != null) {
           try {
@@ -201,6 +247,190 @@ public abstract class ApiXmlResult extends BasicApiResult {
     }
   }
 
+  /**
+   * Handler for elements of an answer processed as a stream.
+   */
+  protected static interface XmlElementHandler {
+
+    /**
+     * Process an element of the answer.
+     * 
+     * @param element Element.
+     * @throws JDOMException
+     * @throws APIException
+     */
+    public void handleElement(Element element) throws JDOMException, APIException;
+  }
+
+  /**
+   * Factory for StAX readers.
+   */
+  private final static XMLInputFactory xmlInputFactory = createXMLInputFactory();
+
+  /**
+   * @return Factory for StAX readers.
+   */
+  private static XMLInputFactory createXMLInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+    return factory;
+  }
+
+  /**
+   * Read an answer as a stream.
+   * 
+   * Only the ancestors of the streamed elements are created by hand,
+   * every other element is built directly as a JDOM fragment.
+   * 
+   * @param stream Stream containing the answer.
+   * @param elementPath Simple absolute path to the elements to be streamed.
+   * @param handler Handler for the elements to be streamed.
+   * @return Root of the answer without the streamed elements.
+   * @throws XMLStreamException
+   * @throws JDOMException
+   * @throws APIException
+   */
+  private Element buildStreamedDocument(
+      InputStream stream,
+      String elementPath,
+      XmlElementHandler handler)
+          throws XMLStreamException, JDOMException, APIException {
+    String[] names = elementPath.substring(1).split("/");
+    XMLStreamReader reader = null;
+    synchronized (xmlInputFactory) {
+      reader = xmlInputFactory.createXMLStreamReader(stream);
+    }
+    try {
+      StAXStreamBuilder builder = new StAXStreamBuilder();
+      Document document = new Document();
+      Element current = null;
+      int depth = 0;
+      int event = reader.next();
+      while (event != XMLStreamConstants.END_DOCUMENT) {
+        if (event == XMLStreamConstants.START_ELEMENT) {
+          if ((depth < names.length) && names[depth].equals(reader.getLocalName())) {
+            if (depth == names.length - 1) {
+
+              // Streamed element: given to the handler (the reader is moved after it)
+              handler.handleElement((Element) builder.fragment(reader));
+              event = reader.getEventType();
+              continue;
+            }
+
+            // Ancestor of the streamed elements
+            Element element = new Element(
+                reader.getLocalName(),
+                getNamespace(reader.getPrefix(), reader.getNamespaceURI()));
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+              element.setAttribute(
+                  reader.getAttributeLocalName(i),
+                  reader.getAttributeValue(i),
+                  getNamespace(reader.getAttributePrefix(i), reader.getAttributeNamespace(i)));
+            }
+            if (current != null) {
+              current.addContent(element);
+            } else {
+              document.setRootElement(element);
+            }
+            current = element;
+            depth++;
+          } else {
+
+            // Other element: built completely (the reader is moved after it)
+            Content content = builder.fragment(reader);
+            if (current != null) {
+              current.addContent(content);
+            } else if (content instanceof Element) {
+              document.setRootElement((Element) content);
+            }
+            event = reader.getEventType();
+            continue;
+          }
+        } else if ((event == XMLStreamConstants.END_ELEMENT) && (current != null)) {
+          current = current.getParentElement();
+          depth--;
+        }
+        event = reader.next();
+      }
+      return document.hasRootElement() ? document.getRootElement() : null;
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * @param prefix Namespace prefix.
+   * @param uri Namespace URI.
+   * @return Namespace.
+   */
+  private static Namespace getNamespace(String prefix, String uri) {
+    if ((uri == null) || (uri.length() == 0)) {
+      return Namespace.NO_NAMESPACE;
+    }
+    return Namespace.getNamespace((prefix != null) ? prefix : "", uri);
+  }
+
+  /**
+   * Retrieve elements with a simple path (names separated by /, absolute or relative).
+   * 
+   * Simple paths are resolved by navigating directly through the children,
+   * other paths are evaluated as XPath expressions.
+   * 
+   * @param node Starting element.
+   * @param path Path to the elements.
+   * @return List of elements matching the path.
+   */
+  public static List<Element> getElements(Element node, String path) {
+    if ((node == null) || (path == null)) {
+      return Collections.emptyList();
+    }
+    boolean simple = (path.length() > 0);
+    for (int i = 0; (i < path.length()) && simple; i++) {
+      char currentChar = path.charAt(i);
+      if (!Character.isLetterOrDigit(currentChar) &&
+          (currentChar != '/') && (currentChar != '-') && (currentChar != '_')) {
+        simple = false;
+      }
+    }
+    if (!simple || path.endsWith("/") || (path.indexOf("//") >= 0)) {
+      XPathExpression<Element> xpa = XPathFactory.instance().compile(
+          path, Filters.element());
+      return xpa.evaluate(node);
+    }
+
+    // Find starting point
+    String[] names = null;
+    List<Element> elements = new ArrayList<Element>();
+    if (path.startsWith("/")) {
+      names = path.substring(1).split("/");
+      Element top = node;
+      while (top.getParentElement() != null) {
+        top = top.getParentElement();
+      }
+      if (!names[0].equals(top.getName())) {
+        return elements;
+      }
+      elements.add(top);
+      names[0] = null;
+    } else {
+      names = path.split("/");
+      elements.add(node);
+    }
+
+    // Navigate through the children
+    for (String name : names) {
+      if (name != null) {
+        List<Element> children = new ArrayList<Element>();
+        for (Element element : elements) {
+          children.addAll(element.getChildren(name));
+        }
+        elements = children;
+      }
+    }
+    return elements;
+  }
+
   /**
    * Check for errors reported by the API.
    * 
@@ -213,9 +443,7 @@ public abstract class ApiXmlResult extends BasicApiResult {
     }
     
     // Check for errors
-    XPathExpression<Element> xpa = XPathFactory.instance().compile(
-        "/api/error", Filters.element());
-    List<Element> listErrors = xpa.evaluate(root);
+    List<Element> listErrors = getElements(root, "/api/error");
     if (listErrors != null) {
       Iterator<Element> iterErrors = listErrors.iterator();
       while (iterErrors.hasNext()) {
@@ -230,11 +458,8 @@ public abstract class ApiXmlResult extends BasicApiResult {
     }
     
     // Check for warnings
-    xpa = XPathFactory.instance().compile(
-        "/api/warnings/*", Filters.element());
-    List<Element> listWarnings = xpa.evaluate(root);
-    if (listWarnings != null) {
-      Iterator<Element> iterWarnings = listWarnings.iterator();
+    for (Element warnings : getElements(root, "/api/warnings")) {
+      Iterator<Element> iterWarnings = warnings.getChildren().iterator();
       while (iterWarnings.hasNext()) {
         Element currentNode = iterWarnings.next();
         log.warn("Warning reported: " + currentNode.getName() + " - " + currentNode.getValue());
@@ -257,13 +482,9 @@ public abstract class ApiXmlResult extends BasicApiResult {
       return false;
     }
     boolean result = false;
-    XPathExpression<Element> xpa = XPathFactory.instance().compile(
-        queryContinue, Filters.element());
-    List<Element> results = xpa.evaluate(root);
+    List<Element> results = getElements(root, queryContinue);
     if ((results == null) || (results.isEmpty())) {
-      xpa = XPathFactory.instance().compile(
-          "/api/continue", Filters.element());
-      results = xpa.evaluate(root);
+      results = getElements(root, "/api/continue");
     }
     if (results != null) {
       for (Object currentNode : results) {
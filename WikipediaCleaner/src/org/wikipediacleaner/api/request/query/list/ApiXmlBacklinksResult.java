@@ -15,9 +15,6 @@ import java.util.Map;
 import org.apache.commons.httpclient.HttpClient;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
-import org.jdom2.filter.Filters;
-import org.jdom2.xpath.XPathExpression;
-import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.DataManager;
@@ -54,53 +51,25 @@ public class ApiXmlBacklinksResult extends ApiXmlResult implements ApiBacklinksR
   @Override
   public boolean executeBacklinks(
       Map<String, String> properties,
-      Page page,
-      List<Page> list)
+      final Page page,
+      final List<Page> list)
           throws APIException {
     try {
-      Element root = getRoot(properties, ApiRequest.MAX_ATTEMPTS);
-
-      // Retrieve back links
-      XPathExpression<Element> xpa = XPathFactory.instance().compile(
-          "/api/query/backlinks/bl", Filters.element());
-      List<Element> listBacklinks = xpa.evaluate(root);
-      Iterator<Element> itBacklink = listBacklinks.iterator();
-      XPathExpression<Element> xpaRedirLinks = XPathFactory.instance().compile(
-          "redirlinks/bl", Filters.element());
-      while (itBacklink.hasNext()) {
-        Element currentBacklink = itBacklink.next();
-        Page link = DataManager.getPage(
-            getWiki(), currentBacklink.getAttributeValue("title"), null, null, null);
-        link.setNamespace(currentBacklink.getAttributeValue("ns"));
-        link.setPageId(currentBacklink.getAttributeValue("pageid"));
-        if (currentBacklink.getAttribute("redirect") != null) {
-          link.addRedirect(page);
-        }
-        if (!list.contains(link)) {
-          list.add(link);
-        }
+      // Retrieve back links while reading the answer
+      Element root = getRoot(
+          properties, ApiRequest.MAX_ATTEMPTS,
+          "/api/query/backlinks/bl",
+          new XmlElementHandler() {
 
-        // Links through redirects
-        List<Element> listRedirLinks = xpaRedirLinks.evaluate(currentBacklink);
-        if (listRedirLinks != null) {
-          List<Page> linkList = new ArrayList<Page>();
-          Iterator<Element> itRedirLink = listRedirLinks.iterator();
-          while (itRedirLink.hasNext()) {
-            currentBacklink = itRedirLink.next();
-            Page link2 = DataManager.getPage(
-                getWiki(), currentBacklink.getAttributeValue("title"), null, null, null);
-            link2.setNamespace(currentBacklink.getAttributeValue("ns"));
-            link2.setPageId(currentBacklink.getAttributeValue("pageid"));
-            if (!list.contains(link2)) {
-              list.add(link2);
-            }
-            if (!linkList.contains(link2)) {
-              linkList.add(link2);
+            /**
+             * @param element Back link element.
+             * @see org.wikipediacleaner.api.request.ApiXmlResult.XmlElementHandler#handleElement(org.jdom2.Element)
+             */
+            @Override
+            public void handleElement(Element element) {
+              addBacklink(element, page, list);
             }
-          }
-          link.setRelatedPages(Page.RelatedPages.BACKLINKS, linkList);
-        }
-      }
+          });
 
       // Retrieve continue
       return shouldContinue(
@@ -111,4 +80,48 @@ public class ApiXmlBacklinksResult extends ApiXmlResult implements ApiBacklinksR
       throw new APIException("Error parsing XML", e);
     }
   }
+
+  /**
+   * Add a back link (and the links through redirects) to a list.
+   * 
+   * @param currentBacklink Element for the back link.
+   * @param page Page.
+   * @param list List of pages to be filled with the back links.
+   */
+  private void addBacklink(
+      Element currentBacklink,
+      Page page,
+      List<Page> list) {
+    Page link = DataManager.getPage(
+        getWiki(), currentBacklink.getAttributeValue("title"), null, null, null);
+    link.setNamespace(currentBacklink.getAttributeValue("ns"));
+    link.setPageId(currentBacklink.getAttributeValue("pageid"));
+    if (currentBacklink.getAttribute("redirect") != null) {
+      link.addRedirect(page);
+    }
+    if (!list.contains(link)) {
+      list.add(link);
+    }
+
+    // Links through redirects
+    List<Element> listRedirLinks = getElements(currentBacklink, "redirlinks/bl");
+    if (listRedirLinks != null) {
+      List<Page> linkList = new ArrayList<Page>();
+      Iterator<Element> itRedirLink = listRedirLinks.iterator();
+      while (itRedirLink.hasNext()) {
+        Element currentRedirLink = itRedirLink.next();
+        Page link2 = DataManager.getPage(
+            getWiki(), currentRedirLink.getAttributeValue("title"), null, null, null);
+        link2.setNamespace(currentRedirLink.getAttributeValue("ns"));
+        link2.setPageId(currentRedirLink.getAttributeValue("pageid"));
+        if (!list.contains(link2)) {
+          list.add(link2);
+        }
+        if (!linkList.contains(link2)) {
+          linkList.add(link2);
+        }
+      }
+      link.setRelatedPages(Page.RelatedPages.BACKLINKS, linkList);
+    }
+  }
 }
@@ -7,16 +7,12 @@
 
 package org.wikipediacleaner.api.request.query.list;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.httpclient.HttpClient;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
-import org.jdom2.filter.Filters;
-import org.jdom2.xpath.XPathExpression;
-import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.DataManager;
@@ -54,31 +50,35 @@ public class ApiXmlCategoryMembersResult extends ApiXmlResult implements ApiCate
   @Override
   public boolean executeCategoryMembers(
       Map<String, String> properties,
-      List<Page> list,
-      Map<Page, Integer> categories, int depth) throws APIException {
+      final List<Page> list,
+      final Map<Page, Integer> categories, final int depth) throws APIException {
     try {
-      Element root = getRoot(properties, ApiRequest.MAX_ATTEMPTS);
+      // Retrieve category members while reading the answer
+      Element root = getRoot(
+          properties, ApiRequest.MAX_ATTEMPTS,
+          "/api/query/categorymembers/cm",
+          new XmlElementHandler() {
 
-      // Retrieve category members
-      XPathExpression<Element> xpa = XPathFactory.instance().compile(
-          "/api/query/categorymembers/cm", Filters.element());
-      List<Element> results = xpa.evaluate(root);
-      Iterator<Element> iter = results.iterator();
-      while (iter.hasNext()) {
-        Element currentNode = iter.next();
-        Page page = DataManager.getPage(
-            getWiki(), currentNode.getAttributeValue("title"), null, null, null);
-        page.setNamespace(currentNode.getAttributeValue("ns"));
-        page.setPageId(currentNode.getAttributeValue("pageid"));
-        if ((page.getNamespace() != null) &&
-            (page.getNamespace().intValue() == Namespace.CATEGORY)) {
-          categories.put(page, depth + 1);
-        } else {
-          if (!list.contains(page)) {
-            list.add(page);
-          }
-        }
-      }
+            /**
+             * @param currentNode Category member element.
+             * @see org.wikipediacleaner.api.request.ApiXmlResult.XmlElementHandler#handleElement(org.jdom2.Element)
+             */
+            @Override
+            public void handleElement(Element currentNode) {
+              Page page = DataManager.getPage(
+                  getWiki(), currentNode.getAttributeValue("title"), null, null, null);
+              page.setNamespace(currentNode.getAttributeValue("ns"));
+              page.setPageId(currentNode.getAttributeValue("pageid"));
+              if ((page.getNamespace() != null) &&
+                  (page.getNamespace().intValue() == Namespace.CATEGORY)) {
+                categories.put(page, depth + 1);
+              } else {
+                if (!list.contains(page)) {
+                  list.add(page);
+                }
+              }
+            }
+          });
 
       // Retrieve continue
       return shouldContinue(
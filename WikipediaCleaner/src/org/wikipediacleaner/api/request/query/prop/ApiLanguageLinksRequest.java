@@ -7,7 +7,9 @@
 
 package org.wikipediacleaner.api.request.query.prop;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.wikipediacleaner.api.APIException;
@@ -72,4 +74,31 @@ public class ApiLanguageLinksRequest extends ApiPropertiesRequest {
     }
     return languageLinks.get(toWikiCode);
   }
+
+  /**
+   * Get language links of a list of pages to a specific wiki.
+   * 
+   * @param pages List of pages.
+   * @param toWiki Destination wiki.
+   * @return Language links (page title => language link), following redirects.
+   */
+  public Map<String, String> getLanguageLinks(
+      Collection<Page> pages, EnumWikipedia toWiki) throws APIException {
+    Map<String, String> properties = getProperties(ACTION_QUERY, result.getFormat());
+    properties.put(PROPERTY_PROP, PROPERTY_PROP_LANGLINKS);
+    properties.put(PROPERTY_CONTINUE, PROPERTY_CONTINUE_DEFAULT);
+    properties.put(PROPERTY_LANG, toWiki.getSettings().getCode());
+    properties.put(PROPERTY_LIMIT, LIMIT_MAX);
+    properties.put(PROPERTY_REDIRECTS, "");
+    Map<String, String> languageLinks = new HashMap<String, String>();
+    List<Collection<Page>> splitPagesList = splitListPages(pages, MAX_PAGES_PER_QUERY);
+    for (Collection<Page> splitPages : splitPagesList) {
+      Map<String, String> tmpProperties = new HashMap<String, String>(properties);
+      tmpProperties.put(PROPERTY_TITLES, constructListTitles(splitPages));
+      while (result.getLanguageLinks(tmpProperties, splitPages, languageLinks)) {
+        //
+      }
+    }
+    return languageLinks;
+  }
 }
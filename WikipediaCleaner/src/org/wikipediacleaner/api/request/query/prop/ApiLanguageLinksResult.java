@@ -7,9 +7,11 @@
 
 package org.wikipediacleaner.api.request.query.prop;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.data.Page;
 
 
 /**
@@ -28,4 +30,18 @@ public interface ApiLanguageLinksResult extends ApiPropertiesResult {
   public boolean getLanguageLinks(
       Map<String, String> properties,
       Map<String, String> languageLinks) throws APIException;
+
+  /**
+   * Get language links of a list of pages, following redirects.
+   * 
+   * @param properties Properties defining request.
+   * @param pages List of pages.
+   * @param languageLinks Map of language links to be set (page title => language link).
+   * @return True if request should be continued.
+   * @throws APIException
+   */
+  public boolean getLanguageLinks(
+      Map<String, String> properties,
+      Collection<Page> pages,
+      Map<String, String> languageLinks) throws APIException;
 }
@@ -8,6 +8,7 @@
 package org.wikipediacleaner.api.request.query.prop;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.httpclient.HttpClient;
@@ -52,6 +53,27 @@ public class ApiXmlInfoResult extends ApiXmlPropertiesResult implements ApiInfoR
       // Manage redirects and missing pages
       updateRedirect(root, pages);
 
+      // Retrieve last revision of each page
+      Map<String, String> normalization = new HashMap<String, String>();
+      retrieveNormalization(root, normalization);
+      for (Element pageNode : getElements(root, "/api/query/pages/page")) {
+        Element revNode = null;
+        Element revisionsNode = pageNode.getChild("revisions");
+        if (revisionsNode != null) {
+          revNode = revisionsNode.getChild("rev");
+        }
+        if (revNode != null) {
+          String title = pageNode.getAttributeValue("title");
+          for (Page page : pages) {
+            String normalizedTitle = getNormalizedTitle(page.getTitle(), normalization);
+            if (Page.areSameTitle(normalizedTitle, title)) {
+              page.setRevisionId(revNode.getAttributeValue("revid"));
+              page.setContentsTimestamp(revNode.getAttributeValue("timestamp"));
+            }
+          }
+        }
+      }
+
       // Retrieve continue
       return false;
     } catch (JDOMException e) {
@@ -7,6 +7,8 @@
 
 package org.wikipediacleaner.api.request.query.prop;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -19,6 +21,7 @@ import org.jdom2.xpath.XPathExpression;
 import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.request.ApiRequest;
 
 
@@ -75,4 +78,74 @@ public class ApiXmlLanguageLinksResult extends ApiXmlPropertiesResult implements
       throw new APIException("Error parsing XML", e);
     }
   }
+
+  /**
+   * Get language links of a list of pages, following redirects.
+   * 
+   * @param properties Properties defining request.
+   * @param pages List of pages.
+   * @param languageLinks Map of language links to be set (page title => language link).
+   * @return True if request should be continued.
+   * @throws APIException
+   */
+  @Override
+  public boolean getLanguageLinks(
+      Map<String, String> properties,
+      Collection<Page> pages,
+      Map<String, String> languageLinks) throws APIException {
+    try {
+      Element root = getRoot(properties, ApiRequest.MAX_ATTEMPTS);
+
+      // Retrieve normalization and redirects
+      Map<String, String> normalization = new HashMap<String, String>();
+      retrieveNormalization(root, normalization);
+      Map<String, Element> redirects = new HashMap<String, Element>();
+      for (Element redirect : getElements(root, "/api/query/redirects/r")) {
+        String from = redirect.getAttributeValue("from");
+        if (from != null) {
+          redirects.put(from, redirect);
+        }
+      }
+
+      // Retrieve language links of each page
+      Map<String, String> links = new HashMap<String, String>();
+      for (Element page : getElements(root, "/api/query/pages/page")) {
+        String title = page.getAttributeValue("title");
+        for (Element ll : getElements(page, "langlinks/ll")) {
+          String link = ll.getText();
+          if ((title != null) && (link != null) && (link.trim().length() > 0)) {
+            links.put(title, link);
+          }
+        }
+      }
+
+      // Associate language links to the requested pages
+      if (!links.isEmpty()) {
+        for (Page page : pages) {
+          String title = getNormalizedTitle(page.getTitle(), normalization);
+          String fragment = null;
+          Element redirect = redirects.get(title);
+          if (redirect != null) {
+            title = redirect.getAttributeValue("to");
+            fragment = redirect.getAttributeValue("tofragment");
+          }
+          String link = links.get(title);
+          if (link != null) {
+            if ((fragment != null) && (fragment.length() > 0) && (link.indexOf('#') < 0)) {
+              link = link + "#" + fragment;
+            }
+            languageLinks.put(page.getTitle(), link);
+          }
+        }
+      }
+
+      // Retrieve continue
+      return shouldContinue(
+          root, "/api/query-continue/langlinks",
+          properties);
+    } catch (JDOMException e) {
+      log.error("Error retrieving language links", e);
+      throw new APIException("Error parsing XML", e);
+    }
+  }
 }
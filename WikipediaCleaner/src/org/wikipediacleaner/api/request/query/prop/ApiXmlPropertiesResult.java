@@ -17,9 +17,6 @@ import org.apache.commons.httpclient.HttpClient;
 import org.jdom2.Attribute;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
-import org.jdom2.filter.Filters;
-import org.jdom2.xpath.XPathExpression;
-import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.DataManager;
@@ -72,9 +69,7 @@ public class ApiXmlPropertiesResult extends ApiXmlResult implements ApiPropertie
     }
 
     // Retrieve protection information
-    XPathExpression<Element> xpaProtection = XPathFactory.instance().compile(
-        "protection/pr[@type=\"edit\"]", Filters.element());
-    List<Element> protectionNodes = xpaProtection.evaluate(node);
+    List<Element> protectionNodes = getElements(node, "protection/pr");
     for (Element protectionNode : protectionNodes) {
       if ("edit".equals(protectionNode.getAttributeValue("type"))) {
         page.setEditProtectionLevel(protectionNode.getAttributeValue("level"));
@@ -117,9 +112,7 @@ public class ApiXmlPropertiesResult extends ApiXmlResult implements ApiPropertie
     if (normalization == null) {
       return;
     }
-    XPathExpression<Element> xpaNormalized = XPathFactory.instance().compile(
-        "/api/query/normalized/n", Filters.element());
-    List<Element> listNormalized = xpaNormalized.evaluate(root);
+    List<Element> listNormalized = getElements(root, "/api/query/normalized/n");
     if ((listNormalized == null) || (listNormalized.isEmpty())) {
       return;
     }
@@ -162,14 +155,10 @@ public class ApiXmlPropertiesResult extends ApiXmlResult implements ApiPropertie
   public void updateRedirect(Element root, Collection<Page> pages) throws JDOMException {
 
     // Retrieving redirects
-    XPathExpression<Element> xpaRedirects = XPathFactory.instance().compile(
-        "/api/query/redirects/r", Filters.element());
-    List<Element> listRedirects = xpaRedirects.evaluate(root);
+    List<Element> listRedirects = getElements(root, "/api/query/redirects/r");
 
     // Retrieving pages
-    XPathExpression<Element> xpaPages = XPathFactory.instance().compile(
-        "/api/query/pages/page", Filters.element());
-    List<Element> listPages = xpaPages.evaluate(root);
+    List<Element> listPages = getElements(root, "/api/query/pages/page");
 
     // Retrieving normalization information
     Map<String, String> normalization = new HashMap<String, String>();
@@ -16,9 +16,6 @@ import java.util.Map;
 import org.apache.commons.httpclient.HttpClient;
 import org.jdom2.Element;
 import org.jdom2.JDOMException;
-import org.jdom2.filter.Filters;
-import org.jdom2.xpath.XPathExpression;
-import org.jdom2.xpath.XPathFactory;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.data.Page;
@@ -63,9 +60,7 @@ public class ApiXmlRevisionsResult extends ApiXmlPropertiesResult implements Api
       retrieveNormalization(root, normalization);
 
       // Retrieve pages
-      XPathExpression<Element> xpa = XPathFactory.instance().compile(
-          "/api/query/pages/page", Filters.element());
-      List<Element> results = xpa.evaluate(root);
+      List<Element> results = getElements(root, "/api/query/pages/page");
       Iterator<Element> iter = results.iterator();
       while (iter.hasNext()) {
         Element pageNode = iter.next();
@@ -100,9 +95,11 @@ public class ApiXmlRevisionsResult extends ApiXmlPropertiesResult implements Api
   
               // Retrieve revisions
               if (!Boolean.FALSE.equals(page.isExisting())) {
-                XPathExpression<Element> xpaRevisions = XPathFactory.instance().compile(
-                    "revisions/rev", Filters.element());
-                Element revNode = xpaRevisions.evaluateFirst(pageNode);
+                Element revNode = null;
+                Element revisionsNode = pageNode.getChild("revisions");
+                if (revisionsNode != null) {
+                  revNode = revisionsNode.getChild("rev");
+                }
                 if (revNode != null) {
                   page.setContents(revNode.getText());
                   page.setExisting(Boolean.TRUE);
@@ -8,6 +8,8 @@
 package org.wikipediacleaner.api.request.templatedata;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +18,7 @@ import java.util.Map.Entry;
 import org.apache.commons.httpclient.HttpClient;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.TemplateData;
 import org.wikipediacleaner.api.data.TemplateData.InterfaceText;
 import org.wikipediacleaner.api.data.TemplateData.LanguageValue;
@@ -66,6 +69,70 @@ public class ApiJsonTemplateDataResult extends ApiJsonResult implements ApiTempl
     return result;
   }
 
+  /**
+   * Execute TemplateData request for a list of pages.
+   * 
+   * @param properties Properties defining request.
+   * @param pages Pages for which TemplateData is requested.
+   * @param templateData TemplateData to be filled (page title => TemplateData).
+   * @throws APIException
+   */
+  @Override
+  public void executeTemplateData(
+      Map<String, String> properties,
+      Collection<Page> pages,
+      Map<String, TemplateData> templateData) throws APIException {
+    JsonNode root = getRoot(properties, ApiRequest.MAX_ATTEMPTS);
+    if (root == null) {
+      return;
+    }
+
+    // Retrieve TemplateData by title
+    Map<String, TemplateData> templateDataByTitle = new HashMap<String, TemplateData>();
+    Iterator<JsonNode> itPages = root.path("pages").iterator();
+    while (itPages.hasNext()) {
+      TemplateData tmpTemplateData = createTemplateData(itPages.next());
+      if ((tmpTemplateData != null) && (tmpTemplateData.getTitle() != null)) {
+        templateDataByTitle.put(tmpTemplateData.getTitle(), tmpTemplateData);
+      }
+    }
+
+    // Associate TemplateData to each page, following normalization and redirects
+    Map<String, String> normalization = new HashMap<String, String>();
+    retrieveFromTo(root.path("normalized"), normalization);
+    Map<String, String> redirects = new HashMap<String, String>();
+    retrieveFromTo(root.path("redirects"), redirects);
+    for (Page page : pages) {
+      String title = page.getTitle();
+      if (normalization.containsKey(title)) {
+        title = normalization.get(title);
+      }
+      if (redirects.containsKey(title)) {
+        title = redirects.get(title);
+      }
+      TemplateData tmpTemplateData = templateDataByTitle.get(title);
+      if (tmpTemplateData != null) {
+        templateData.put(page.getTitle(), tmpTemplateData);
+      }
+    }
+  }
+
+  /**
+   * @param node JSON node for a list of from/to elements.
+   * @param fromTo Map to be filled (From => To).
+   */
+  private void retrieveFromTo(JsonNode node, Map<String, String> fromTo) {
+    Iterator<JsonNode> itElements = node.iterator();
+    while (itElements.hasNext()) {
+      JsonNode element = itElements.next();
+      String from = element.path("from").textValue();
+      String to = element.path("to").textValue();
+      if ((from != null) && (to != null)) {
+        fromTo.put(from, to);
+      }
+    }
+  }
+
   /**
    * @param page JSON node for the page.
    * @return TemplateData.
@@ -7,6 +7,9 @@
 
 package org.wikipediacleaner.api.request.templatedata;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.wikipediacleaner.api.APIException;
@@ -67,4 +70,24 @@ public class ApiTemplateDataRequest extends ApiRequest {
     properties.put(PROPERTY_REDIRECTS, "");
     return result.executeTemplateData(properties);
   }
+
+  /**
+   * Retrieve TemplateData for a list of pages.
+   * 
+   * @param pages Pages for which TemplateData is requested.
+   * @return TemplateData for each page having a TemplateData block (page title => TemplateData).
+   */
+  public Map<String, TemplateData> retrieveTemplateData(
+      Collection<Page> pages) throws APIException {
+    Map<String, String> properties = getProperties(ACTION_TEMPLATE_DATA, result.getFormat());
+    properties.put(PROPERTY_REDIRECTS, "");
+    Map<String, TemplateData> templateData = new HashMap<String, TemplateData>();
+    List<Collection<Page>> splitPagesList = splitListPages(pages, MAX_PAGES_PER_QUERY);
+    for (Collection<Page> splitPages : splitPagesList) {
+      Map<String, String> tmpProperties = new HashMap<String, String>(properties);
+      tmpProperties.put(PROPERTY_TITLES, constructListTitles(splitPages));
+      result.executeTemplateData(tmpProperties, splitPages, templateData);
+    }
+    return templateData;
+  }
 }
@@ -7,9 +7,11 @@
 
 package org.wikipediacleaner.api.request.templatedata;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.TemplateData;
 import org.wikipediacleaner.api.request.ApiResult;
 
@@ -27,4 +29,17 @@ public interface ApiTemplateDataResult extends ApiResult {
    * @throws APIException
    */
   public TemplateData executeTemplateData(Map<String, String> properties) throws APIException;
+
+  /**
+   * Execute TemplateData request for a list of pages.
+   * 
+   * @param properties Properties defining request.
+   * @param pages Pages for which TemplateData is requested.
+   * @param templateData TemplateData to be filled (page title => TemplateData).
+   * @throws APIException
+   */
+  public void executeTemplateData(
+      Map<String, String> properties,
+      Collection<Page> pages,
+      Map<String, TemplateData> templateData) throws APIException;
 }
@@ -19,6 +19,7 @@ import org.apache.commons.httpclient.HttpMethod;
 import org.apache.commons.httpclient.HttpStatus;
 import org.jdom2.input.JDOMParseException;
 import org.wikipediacleaner.api.APIException;
+import org.wikipediacleaner.api.RetryPolicy;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.utils.Configuration;
 import org.wikipediacleaner.utils.ConfigurationValueBoolean;
@@ -84,6 +85,7 @@ public abstract class RestApiJsonResult extends BasicRestApiResult {
       int maxTry)
           throws APIException {
     int attempt = 0;
+    RetryPolicy policy = RetryPolicy.getPolicy();
     for (;;) {
       JsonNode root = null;
       HttpMethod method = null;
@@ -91,6 +93,7 @@ public abstract class RestApiJsonResult extends BasicRestApiResult {
       try {
         // Executing HTTP method
         attempt++;
+        policy.waitForAvailability(getWiki());
         method = createHttpMethod(properties, path, param);
         int statusCode = getHttpClient().executeMethod(method);
 
@@ -128,12 +131,9 @@ public abstract class RestApiJsonResult extends BasicRestApiResult {
             log.warn("Error. Maximum attempts count reached.");
             throw new APIException(message);
           }
-          try {
-            Thread.sleep(30000);
-          } catch (InterruptedException e) {
-            // Nothing
-          }
+          policy.waitBeforeRetrying(getWiki(), attempt, method, 0);
         } else {
+          policy.recordSuccess(getWiki());
           return root;
         }
       } catch (IOException e) {
@@ -143,16 +143,12 @@ public abstract class RestApiJsonResult extends BasicRestApiResult {
           log.warn("Error. Maximum attempts count reached.");
           throw new APIException("Error accessing MediaWiki", e);
         }
-        try {
-          Thread.sleep(30000);
-        } catch (InterruptedException e2) {
-          // Nothing
-        }
+        policy.waitBeforeRetrying(getWiki(), attempt, method, 0);
       } catch (APIException e) {
         if (!e.shouldRetry() || (attempt > e.getMaxRetry())) {
           throw e;
         }
-        e.waitForRetry();
+        policy.waitBeforeRetrying(getWiki(), attempt, method, e.getRetryDelay());
       } finally {
         if (stream != null) {
           try {
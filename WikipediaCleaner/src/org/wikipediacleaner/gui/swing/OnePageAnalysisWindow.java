@@ -63,7 +63,6 @@ import org.wikipediacleaner.api.data.InternalLinkCount;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageAnalysis;
 import org.wikipediacleaner.api.data.PageComparator;
-import org.wikipediacleaner.api.data.PageElementCategory;
 import org.wikipediacleaner.api.data.PageElementInternalLink;
 import org.wikipediacleaner.api.data.PageElementTemplate;
 import org.wikipediacleaner.api.data.User;
@@ -1321,21 +1320,17 @@ public class OnePageAnalysisWindow
     // Comments for added categories / templates
     boolean isCategoryAdded = false;
     if ((addedCategories != null) && (analysis != null)) {
-      for (PageElementCategory category : analysis.getCategories()) {
-        for (String category2 : addedCategories) {
-          if (Page.areSameTitle(category.getName(), category2)) {
-            isCategoryAdded = true;
-          }
+      for (String category : addedCategories) {
+        if (!analysis.getCategories(category).isEmpty()) {
+          isCategoryAdded = true;
         }
       }
     }
     boolean isTemplateAdded = false;
     if ((addedTemplates != null) && (analysis != null)) {
-      for (PageElementTemplate template : analysis.getTemplates()) {
-        for (String template2 : addedTemplates) {
-          if (Page.areSameTitle(template.getTemplateName(), template2)) {
-            isTemplateAdded = true;
-          }
+      for (String template : addedTemplates) {
+        if (!analysis.getTemplates(template).isEmpty()) {
+          isTemplateAdded = true;
         }
       }
     }
@@ -9,7 +9,15 @@ package org.wikipediacleaner.gui.swing.bot;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
@@ -30,6 +38,8 @@ import org.wikipediacleaner.gui.swing.basic.BasicWindow;
 import org.wikipediacleaner.gui.swing.basic.BasicWorker;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
 import org.wikipediacleaner.i18n.GT;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
 
 
 /**
@@ -106,63 +116,197 @@ public class AutomaticCWWorker extends BasicWorker {
    */
   @Override
   public Object construct() {
+    ExecutorService executor = Executors.newFixedThreadPool(getThreadCount());
     try {
-      for (CheckErrorAlgorithm algorithm : selectedAlgorithms) {
+
+      // Retrieve the lists of pages for all algorithms in parallel
+      List<Future<List<CheckError>>> lists = new ArrayList<>();
+      for (final CheckErrorAlgorithm algorithm : selectedAlgorithms) {
+        lists.add(executor.submit(new Callable<List<CheckError>>() {
+
+          /**
+           * @return List of errors for the algorithm.
+           * @throws APIException
+           * @see java.util.concurrent.Callable#call()
+           */
+          @Override
+          public List<CheckError> call() throws APIException {
+            return retrieveErrors(algorithm);
+          }
+        }));
+      }
+
+      // Group algorithms by page, so that each page is analyzed only once
+      Map<String, PageErrors> pages = new LinkedHashMap<>();
+      for (int numAlgorithm = 0; numAlgorithm < selectedAlgorithms.size(); numAlgorithm++) {
         if (!shouldContinue()) {
           return null;
         }
-        analyzeAlgorithm(algorithm);
+        CheckErrorAlgorithm algorithm = selectedAlgorithms.get(numAlgorithm);
+        setText(
+            GT._("Checking for errors n°{0}", Integer.toString(algorithm.getErrorNumber())) +
+            " - " + algorithm.getShortDescriptionReplaced());
+        List<CheckError> errors = getResult(lists.get(numAlgorithm));
+        for (CheckError error : errors) {
+          for (int numPage = 0; numPage < error.getPageCount(); numPage++) {
+            Page page = error.getPage(numPage);
+            PageErrors pageErrors = pages.get(page.getTitle());
+            if (pageErrors == null) {
+              pageErrors = new PageErrors(page);
+              pages.put(page.getTitle(), pageErrors);
+            }
+            if (!pageErrors.algorithms.contains(algorithm)) {
+              pageErrors.algorithms.add(algorithm);
+            }
+          }
+        }
+      }
+
+      // Analyze pages, the next page being retrieved and analyzed
+      // while the current one is fixed
+      int maxPages = pages.size();
+      Iterator<PageErrors> itPages = pages.values().iterator();
+      Future<PageAnalysis> nextAnalysis = null;
+      PageErrors nextPage = null;
+      if (itPages.hasNext()) {
+        nextPage = itPages.next();
+        nextAnalysis = executor.submit(new AnalysisCallable(nextPage.page));
+      }
+      for (int numPage = 0; (nextPage != null) && shouldContinue(); numPage++) {
+        PageErrors currentPage = nextPage;
+        Future<PageAnalysis> currentAnalysis = nextAnalysis;
+        nextPage = null;
+        if (itPages.hasNext()) {
+          nextPage = itPages.next();
+          nextAnalysis = executor.submit(new AnalysisCallable(nextPage.page));
+        }
+        try {
+          StringBuilder prefix = new StringBuilder();
+          for (CheckErrorAlgorithm algorithm : currentPage.algorithms) {
+            prefix.append(algorithm.getErrorNumberString());
+            prefix.append(" - ");
+          }
+          prefix.append(numPage + 1);
+          prefix.append("/");
+          prefix.append(maxPages);
+          setText(prefix.toString() + " - " + GT._("Analyzing page {0}", currentPage.page.getTitle()));
+          PageAnalysis analysis = getResult(currentAnalysis);
+          analyzePage(
+              currentPage.page, analysis, currentPage.algorithms,
+              prefix.toString());
+        } catch (APIException e) {
+          //
+        }
       }
     } catch (APIException e) {
       return e;
+    } finally {
+      executor.shutdownNow();
     }
     return null;
   }
 
   /**
-   * Analyze an algorithm.
+   * @return Number of threads for retrieving lists and pages.
+   */
+  private int getThreadCount() {
+    Configuration config = Configuration.getConfiguration();
+    int nThreads = config.getInt(null, ConfigurationValueInteger.CHECK_WIKI_THREADS);
+    return Math.max(Math.min(nThreads, selectedAlgorithms.size() + 1), 2);
+  }
+
+  /**
+   * @param future Future result.
+   * @return Result.
+   * @throws APIException
+   */
+  private static <T> T getResult(Future<T> future) throws APIException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      throw new APIException("Interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof APIException) {
+        throw (APIException) e.getCause();
+      }
+      throw new APIException("Error", e.getCause());
+    }
+  }
+
+  /**
+   * Retrieve the list of pages for an algorithm.
    * 
    * @param algorithm Algorithm.
+   * @return List of errors for the algorithm.
    * @throws APIException
    */
-  private void analyzeAlgorithm(CheckErrorAlgorithm algorithm) throws APIException {
+  List<CheckError> retrieveErrors(CheckErrorAlgorithm algorithm) throws APIException {
+    List<CheckError> errors = new ArrayList<>();
 
     // Check if analysis is useful
     if (!saveModifications) {
       if (algorithm.getErrorNumber() >= CheckErrorAlgorithm.MAX_ERROR_NUMBER_WITH_LIST) {
-        return;
+        return errors;
       }
     }
 
     // Configuration
-    setText(
-        GT._("Checking for errors n°{0}", Integer.toString(algorithm.getErrorNumber())) +
-        " - " + algorithm.getShortDescriptionReplaced());
     int maxSize = max;
     if (noLimit && algorithm.hasSpecialList()) {
       maxSize = Integer.MAX_VALUE;
     }
 
     // Analysis
-    List<CheckError> errors = new ArrayList<>();
     CheckWiki checkWiki = APIFactory.getCheckWiki();
     checkWiki.retrievePages(algorithm, maxSize, getWikipedia(), errors);
-    while (!errors.isEmpty()) {
-      CheckError error = errors.remove(0);
-      int maxErrors = error.getPageCount();
-      for (int numPage = 0;
-          (error.getPageCount() > 0) && shouldContinue();
-          numPage++) {
-        try {
-          Page page = error.getPage(0);
-          error.remove(page);
-          analyzePage(
-              page, algorithm,
-              algorithm.getErrorNumberString() + " - " + (numPage + 1) + "/" + maxErrors);
-        } catch (APIException e) {
-          //
-        }
-      }
+    return errors;
+  }
+
+  /**
+   * Algorithms for which a page has been listed.
+   */
+  private static class PageErrors {
+
+    /** Page */
+    final Page page;
+
+    /** Algorithms for which the page has been listed */
+    final List<CheckErrorAlgorithm> algorithms;
+
+    /**
+     * @param page Page.
+     */
+    PageErrors(Page page) {
+      this.page = page;
+      this.algorithms = new ArrayList<>();
+    }
+  }
+
+  /**
+   * Retrieve the content of a page and analyze it.
+   */
+  private class AnalysisCallable implements Callable<PageAnalysis> {
+
+    /** Page */
+    private final Page page;
+
+    /**
+     * @param page Page.
+     */
+    AnalysisCallable(Page page) {
+      this.page = page;
+    }
+
+    /**
+     * @return Analysis of the page.
+     * @throws APIException
+     * @see java.util.concurrent.Callable#call()
+     */
+    @Override
+    public PageAnalysis call() throws APIException {
+      API api = APIFactory.getAPI();
+      api.retrieveContents(getWikipedia(), Collections.singletonList(page), true, false);
+      return page.getAnalysis(page.getContents(), true);
     }
   }
 
@@ -170,53 +314,44 @@ public class AutomaticCWWorker extends BasicWorker {
    * Analyze and fix a page.
    * 
    * @param page Page.
-   * @param algorithm Main algorithm.
+   * @param analysis Page analysis.
+   * @param algorithms Algorithms for which the page has been listed.
    * @param prefix Prefix for the message
    * @throws APIException
    */
   private void analyzePage(
-      Page page,
-      CheckErrorAlgorithm algorithm,
+      Page page, PageAnalysis analysis,
+      List<CheckErrorAlgorithm> algorithms,
       String prefix) throws APIException {
 
-    setText(prefix + " - " + GT._("Analyzing page {0}", page.getTitle()));
-
-    // Retrieve page content 
-    API api = APIFactory.getAPI();
-    api.retrieveContents(getWikipedia(), Collections.singletonList(page), true, false);
-    PageAnalysis analysis = page.getAnalysis(page.getContents(), true);
-
     // Check that robots are authorized to change this page
     boolean preventBot = false;
     if (saveModifications) {
       WPCConfiguration config = getWikipedia().getConfiguration();
-      List<String[]> nobotTemplates = config.getStringArrayList(
-          WPCConfigurationStringList.NOBOT_TEMPLATES);
-      if ((nobotTemplates != null) && (!nobotTemplates.isEmpty())) {
-        for (String[] nobotTemplate : nobotTemplates) {
-          String templateName = nobotTemplate[0];
-          List<PageElementTemplate> templates = analysis.getTemplates(templateName);
-          if ((templates != null) && (!templates.isEmpty())) {
-            preventBot = true;
-          }
+      for (PageElementTemplate template : analysis.getTemplates()) {
+        if (config.isNameInList(
+            WPCConfigurationStringList.NOBOT_TEMPLATES,
+            template.getTemplateName())) {
+          preventBot = true;
         }
       }
     }
 
-    // Analyze page to check if an error has been found
-    CheckErrorPage errorPage = CheckError.analyzeError(algorithm, analysis);
-    boolean found = false;
-    if (errorPage != null) {
-      if (errorPage.getErrorFound()) {
-        found = true;
+    // Analyze page to check if errors have been found
+    List<CheckErrorAlgorithm> foundAlgorithms = new ArrayList<>();
+    List<CheckErrorAlgorithm> notFoundAlgorithms = new ArrayList<>();
+    for (CheckErrorAlgorithm algorithm : algorithms) {
+      CheckErrorPage errorPage = CheckError.analyzeError(algorithm, analysis);
+      if ((errorPage != null) && errorPage.getErrorFound()) {
+        foundAlgorithms.add(algorithm);
+      } else {
+        notFoundAlgorithms.add(algorithm);
       }
     }
 
+    API api = APIFactory.getAPI();
     CheckWiki checkWiki = APIFactory.getCheckWiki();
-    if (found) {
-      if (!saveModifications) {
-        return;
-      }
+    if (!foundAlgorithms.isEmpty() && saveModifications) {
 
       // Fix all errors that can be fixed
       String newContents = page.getContents();
@@ -225,11 +360,11 @@ public class AutomaticCWWorker extends BasicWorker {
         newContents = AutomaticFormatter.tidyArticle(page, newContents, allAlgorithms, true, errorsFixed);
       }
 
-      // Check if error has been fixed
+      // Check if errors have been fixed
       boolean isFixed = false;
       if (!newContents.equals(page.getContents())) {
         for (CheckError.Progress errorFixed : errorsFixed) {
-          if ((algorithm != null) && (algorithm.equals(errorFixed.algorithm))) {
+          if (foundAlgorithms.contains(errorFixed.algorithm)) {
             isFixed = true;
           }
         }
@@ -251,7 +386,7 @@ public class AutomaticCWWorker extends BasicWorker {
         countModified++;
         for (CheckError.Progress errorFixed : errorsFixed) {
           CheckErrorAlgorithm usedAlgorithm = errorFixed.algorithm;
-          errorPage = CheckError.analyzeError(usedAlgorithm, page.getAnalysis(newContents, true));
+          CheckErrorPage errorPage = CheckError.analyzeError(usedAlgorithm, page.getAnalysis(newContents, true));
           if ((errorPage != null) && (!errorPage.getErrorFound())) {
             checkWiki.markAsFixed(page, usedAlgorithm.getErrorNumberString());
             if (selectedAlgorithms.contains(usedAlgorithm)) {
@@ -264,12 +399,17 @@ public class AutomaticCWWorker extends BasicWorker {
       } else if (analyzeNonFixed) {
         Controller.runFullAnalysis(page.getTitle(), null, getWikipedia());
       }
-    } else if (algorithm.getErrorNumber() < CheckErrorAlgorithm.MAX_ERROR_NUMBER_WITH_LIST) {
-      Boolean errorDetected = checkWiki.isErrorDetected(
-          page, algorithm.getErrorNumber());
-      if (Boolean.FALSE.equals(errorDetected)) {
-        checkWiki.markAsFixed(page, algorithm.getErrorNumberString());
-        countMarked++;
+    }
+
+    // Mark errors that are not detected any more
+    for (CheckErrorAlgorithm algorithm : notFoundAlgorithms) {
+      if (algorithm.getErrorNumber() < CheckErrorAlgorithm.MAX_ERROR_NUMBER_WITH_LIST) {
+        Boolean errorDetected = checkWiki.isErrorDetected(
+            page, algorithm.getErrorNumber());
+        if (Boolean.FALSE.equals(errorDetected)) {
+          checkWiki.markAsFixed(page, algorithm.getErrorNumberString());
+          countMarked++;
+        }
       }
     }
   }
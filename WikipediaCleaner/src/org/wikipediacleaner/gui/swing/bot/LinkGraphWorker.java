@@ -0,0 +1,71 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.gui.swing.bot;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.wikipediacleaner.api.APIFactory;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.dump.DumpProcessor;
+import org.wikipediacleaner.api.dump.LinkGraphIndex;
+import org.wikipediacleaner.api.dump.LinkGraphIndexBuilder;
+import org.wikipediacleaner.gui.swing.basic.BasicWindow;
+import org.wikipediacleaner.gui.swing.basic.BasicWorker;
+
+
+/**
+ * SwingWorker for building the link graph index from a dump.
+ */
+public class LinkGraphWorker extends BasicWorker {
+
+  /** File containing the dump */
+  private final File dumpFile;
+
+  /** File in which the index is written */
+  private final File output;
+
+  /**
+   * @param wiki Wiki.
+   * @param window Window.
+   * @param dumpFile File containing the dump to be analyzed.
+   * @param output File in which the index is written (default index file if null).
+   */
+  public LinkGraphWorker(
+      EnumWikipedia wiki, BasicWindow window,
+      File dumpFile, File output) {
+    super(wiki, window);
+    this.dumpFile = dumpFile;
+    this.output = (output != null) ? output : LinkGraphIndex.getIndexFile(wiki);
+  }
+
+  /**
+   * Compute the value to be returned by the <code>get</code> method.
+   *
+   * @return Object returned by the <code>get</code> method.
+   * @see org.wikipediacleaner.gui.swing.basic.BasicWorker#construct()
+   */
+  @Override
+  public Object construct() {
+    if ((dumpFile == null) || !dumpFile.canRead() || !dumpFile.isFile()) {
+      return null;
+    }
+    EnumWikipedia wiki = getWikipedia();
+    wiki.initDisambiguationTemplates(APIFactory.getAPI());
+    LinkGraphIndexBuilder builder = new LinkGraphIndexBuilder(wiki);
+    DumpProcessor dumpProcessor = new DumpProcessor(builder);
+    dumpProcessor.processDump(dumpFile);
+    try {
+      builder.write(output);
+    } catch (IOException e) {
+      return e;
+    }
+    System.out.println("Link graph index: " + builder.getPagesCount() + " pages");
+    return null;
+  }
+}
@@ -20,7 +20,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
-import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
@@ -44,6 +44,8 @@ import org.wikipediacleaner.gui.swing.basic.BasicWindow;
 import org.wikipediacleaner.gui.swing.basic.BasicWorker;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
 import org.wikipediacleaner.i18n.GT;
+import org.wikipediacleaner.utils.Configuration;
+import org.wikipediacleaner.utils.ConfigurationValueInteger;
 
 
 /**
@@ -179,13 +181,7 @@ public class ListCWWorker extends BasicWorker {
     }
     DumpProcessor dumpProcessor = new DumpProcessor(pageProcessor);
     dumpProcessor.processDump(dumpFile);
-    while (!pageProcessor.hasFinished()) {
-      try {
-        Thread.sleep(100);
-      } catch (InterruptedException e) {
-        // Nothing to do
-      }
-    }
+    pageProcessor.waitForCompletion();
     for (AlgorithmInformation algorithm : selectedAlgorithms) {
       Map<String, Detection> pages = algorithm.getDetections();
       if (pages == null) {
@@ -483,37 +479,72 @@ public class ListCWWorker extends BasicWorker {
 
   /**
    * Controller for background tasks.
+   * 
+   * The number of pending tasks is limited to keep memory usage flat:
+   * adding a task blocks until a previous task is completed.
    */
   private class CWController extends MediaWikiController {
 
+    /** Maximum number of pending tasks */
+    private final int maxTasks;
+
+    /** Available slots for pending tasks */
+    private final Semaphore slots;
+
     /**
      * @param listener Listener to MediaWiki events.
      */
     public CWController(MediaWikiListener listener) {
       super(listener);
+      Configuration config = Configuration.getConfiguration();
+      int tmpMaxTasks = config.getInt(null, ConfigurationValueInteger.DUMP_QUEUE_SIZE);
+      if (tmpMaxTasks <= 0) {
+        tmpMaxTasks = 2 * config.getInt(null, ConfigurationValueInteger.INTERROG_THREAD);
+      }
+      this.maxTasks = Math.max(1, tmpMaxTasks);
+      this.slots = new Semaphore(this.maxTasks);
     }
 
     /**
+     * Add a task, waiting for a slot to be available.
+     * 
      * @param task Task to be performed in background.
      * @see org.wikipediacleaner.api.MediaWikiController#addTask(java.util.concurrent.Callable)
      */
     @Override
-    public void addTask(Callable<?> task) {
-      hasFinished(); // To clean up done tasks
-      super.addTask(task);
+    public void addTask(final Callable<?> task) {
+      slots.acquireUninterruptibly();
+      try {
+        addSimpleTask(new Callable<Object>() {
+
+          /**
+           * Execute the task and release its slot.
+           * 
+           * @return Result of the task.
+           * @throws Exception Error executing the task.
+           * @see java.util.concurrent.Callable#call()
+           */
+          @Override
+          public Object call() throws Exception {
+            try {
+              return task.call();
+            } finally {
+              slots.release();
+            }
+          }
+        });
+      } catch (RuntimeException e) {
+        slots.release();
+        throw e;
+      }
     }
 
     /**
-     * @return True if all tasks are completed.
+     * Wait for all tasks to be completed.
      */
-    public boolean hasFinished() {
-      if (hasRemainingTask()) {
-        Future<?> result = getNextDoneResult();
-        if (result == null) {
-          return false;
-        }
-      }
-      return !hasRemainingTask();
+    public void waitForCompletion() {
+      slots.acquireUninterruptibly(maxTasks);
+      slots.release(maxTasks);
     }
   }
 
@@ -691,10 +722,10 @@ public class ListCWWorker extends BasicWorker {
     }
 
     /**
-     * @return True if all tasks are completed.
+     * Wait for all pages to be processed.
      */
-    public boolean hasFinished() {
-      return controller.hasFinished();
+    public void waitForCompletion() {
+      controller.waitForCompletion();
     }
   }
 
@@ -9,6 +9,8 @@ package org.wikipediacleaner.gui.swing.component;
 
 import java.awt.Font;
 import java.awt.GraphicsEnvironment;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.font.TextAttribute;
@@ -23,6 +25,7 @@ import javax.swing.InputMap;
 import javax.swing.JComponent;
 import javax.swing.JTextPane;
 import javax.swing.KeyStroke;
+import javax.swing.Timer;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.text.StyledDocument;
@@ -34,6 +37,7 @@ import org.wikipediacleaner.api.data.PageElementTitle;
 import org.wikipediacleaner.gui.swing.action.FindTextAction;
 import org.wikipediacleaner.gui.swing.action.ReplaceLinkAction;
 import org.wikipediacleaner.gui.swing.basic.BasicWindow;
+import org.wikipediacleaner.gui.swing.basic.SwingWorker;
 import org.wikipediacleaner.utils.Configuration;
 import org.wikipediacleaner.utils.ConfigurationValueInteger;
 import org.wikipediacleaner.utils.ConfigurationValueString;
@@ -153,16 +157,22 @@ public class MWPane
        * @see javax.swing.event.DocumentListener#insertUpdate(javax.swing.event.DocumentEvent)
        */
       @Override
-      public void insertUpdate(@SuppressWarnings("unused") DocumentEvent e) {
+      public void insertUpdate(DocumentEvent e) {
         changeDocument();
+        if (!isInInternalModification) {
+          textInserted(e.getOffset(), e.getLength());
+        }
       }
 
       /* (non-Javadoc)
        * @see javax.swing.event.DocumentListener#removeUpdate(javax.swing.event.DocumentEvent)
        */
       @Override
-      public void removeUpdate(@SuppressWarnings("unused") DocumentEvent e) {
+      public void removeUpdate(DocumentEvent e) {
         changeDocument();
+        if (!isInInternalModification) {
+          textRemoved(e.getOffset(), e.getLength());
+        }
       }
 
       public void changeDocument() {
@@ -333,11 +343,13 @@ public class MWPane
 
     boolean oldState = isInInternalModification;
     isInInternalModification = true;
+    clearModifiedRegion();
 
     // First remove MediaWiki styles
     String contents = getText();
     PageAnalysis pageAnalysis = (page != null) ? page.getAnalysis(contents, true) : null;
     formatter.format(this, pageAnalysis);
+    formattedAnalysis = pageAnalysis;
 
     isInInternalModification = oldState;
 
@@ -346,6 +358,166 @@ public class MWPane
     }
   }
 
+  /**
+   * Delay before formatting a modified region (in milliseconds).
+   */
+  private final static int FORMAT_DELAY = 300;
+
+  /**
+   * Timer for formatting the modified region once modifications stop.
+   */
+  private Timer formatTimer;
+
+  /**
+   * Begin of the region modified since last formatting (-1 if none).
+   */
+  private int modifiedBegin = -1;
+
+  /**
+   * End of the region modified since last formatting.
+   */
+  private int modifiedEnd = -1;
+
+  /**
+   * Page analysis used for the last formatting.
+   */
+  private PageAnalysis formattedAnalysis;
+
+  /**
+   * Counter of modifications, used to discard outdated analysis.
+   */
+  private int modificationCount = 0;
+
+  /**
+   * Update modified region after an insertion.
+   * 
+   * @param offset Offset of the insertion.
+   * @param length Length of the insertion.
+   */
+  void textInserted(int offset, int length) {
+    if (modifiedBegin < 0) {
+      modifiedBegin = offset;
+      modifiedEnd = offset + length;
+    } else {
+      if (modifiedEnd >= offset) {
+        modifiedEnd += length;
+      }
+      if (modifiedBegin > offset) {
+        modifiedBegin += length;
+      }
+      modifiedBegin = Math.min(modifiedBegin, offset);
+      modifiedEnd = Math.max(modifiedEnd, offset + length);
+    }
+    scheduleFormatting();
+  }
+
+  /**
+   * Update modified region after a removal.
+   * 
+   * @param offset Offset of the removal.
+   * @param length Length of the removal.
+   */
+  void textRemoved(int offset, int length) {
+    if (modifiedBegin < 0) {
+      modifiedBegin = offset;
+      modifiedEnd = offset;
+    } else {
+      if (modifiedEnd > offset) {
+        modifiedEnd = Math.max(offset, modifiedEnd - length);
+      }
+      if (modifiedBegin > offset) {
+        modifiedBegin = Math.max(offset, modifiedBegin - length);
+      }
+      modifiedBegin = Math.min(modifiedBegin, offset);
+      modifiedEnd = Math.max(modifiedEnd, offset);
+    }
+    scheduleFormatting();
+  }
+
+  /**
+   * Forget about the modified region.
+   */
+  private void clearModifiedRegion() {
+    modificationCount++;
+    modifiedBegin = -1;
+    modifiedEnd = -1;
+    if (formatTimer != null) {
+      formatTimer.stop();
+    }
+  }
+
+  /**
+   * Schedule formatting of the modified region, once modifications stop.
+   */
+  private void scheduleFormatting() {
+    modificationCount++;
+    if (formatTimer == null) {
+      formatTimer = new Timer(FORMAT_DELAY, new ActionListener() {
+
+        /* (non-Javadoc)
+         * @see java.awt.event.ActionListener#actionPerformed(java.awt.event.ActionEvent)
+         */
+        @Override
+        public void actionPerformed(@SuppressWarnings("unused") ActionEvent e) {
+          formatModifiedRegion();
+        }
+      });
+      formatTimer.setRepeats(false);
+    }
+    formatTimer.restart();
+  }
+
+  /**
+   * Analyze the text in the background, and then format the modified region.
+   */
+  void formatModifiedRegion() {
+    if ((formatter == null) || (page == null) ||
+        (formattedAnalysis == null) || (modifiedBegin < 0)) {
+      return;
+    }
+    if (!MWPaneFormatter.canFormatWikiSyntax(getStyledDocument())) {
+      return;
+    }
+    final String contents = getText();
+    final int count = modificationCount;
+    new SwingWorker() {
+
+      /* (non-Javadoc)
+       * @see org.wikipediacleaner.gui.swing.basic.SwingWorker#construct()
+       */
+      @Override
+      public Object construct() {
+        // Analysis is not stored with the page, which is used in the event dispatch thread
+        PageAnalysis analysis = page.createAnalysis(contents);
+        analysis.performFullPageAnalysis(null);
+        return analysis;
+      }
+
+      /* (non-Javadoc)
+       * @see org.wikipediacleaner.gui.swing.basic.SwingWorker#finished()
+       */
+      @Override
+      public void finished() {
+        if ((count != modificationCount) || (modifiedBegin < 0)) {
+          return;
+        }
+        Object result = get();
+        if (!(result instanceof PageAnalysis)) {
+          return;
+        }
+        boolean oldState = isInInternalModification;
+        isInInternalModification = true;
+        formatter.formatRegion(
+            getStyledDocument(), formattedAnalysis, (PageAnalysis) result,
+            modifiedBegin, modifiedEnd);
+        formattedAnalysis = (PageAnalysis) result;
+        modifiedBegin = -1;
+        modifiedEnd = -1;
+        isInInternalModification = oldState;
+      }
+    }.start();
+  }
+
   /* ========================================================================= */
   /* Font management                                                           */
   /* ========================================================================= */
@@ -7,7 +7,9 @@
 
 package org.wikipediacleaner.gui.swing.component;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.JTextPane;
 import javax.swing.text.DefaultStyledDocument;
@@ -136,16 +138,172 @@ public abstract class MWPaneFormatter {
   private void formatWikiSyntax(
       StyledDocument doc,
       PageAnalysis analysis) {
+    List<ContentsElement> elements = getWikiSyntaxElements(doc, analysis);
+    if (elements != null) {
+      formatElementsDirectly(doc, analysis, elements, 0, elements.size());
+    }
+  }
+
+  /**
+   * Format a region of a MediaWikiPane following Wiki syntax.
+   * 
+   * The region is first extended to the elements that differ between both
+   * analyses, and to the elements and formatted runs it intersects,
+   * so that elements whose boundaries have changed are completely formatted again,
+   * then only this region is formatted.
+   * 
+   * @param doc Document to be formatted.
+   * @param previousAnalysis Page analysis used for the previous formatting.
+   * @param analysis Page analysis.
+   * @param begin Begin of the modified region.
+   * @param end End of the modified region.
+   */
+  public void formatRegion(
+      StyledDocument doc,
+      PageAnalysis previousAnalysis,
+      PageAnalysis analysis,
+      int begin, int end) {
+    List<ContentsElement> elements = getWikiSyntaxElements(doc, analysis);
+    if (elements == null) {
+      return;
+    }
+    List<ContentsElement> previousElements = getWikiSyntaxElements(doc, previousAnalysis);
+    if ((previousElements == null) ||
+        (previousAnalysis.getContents() == null) ||
+        (analysis.getContents() == null)) {
+      format(doc, analysis);
+      return;
+    }
+
+    // Extend region to elements that are not identical in both analyses
+    int delta = analysis.getContents().length() - previousAnalysis.getContents().length();
+    int previousEnd = end - delta;
+    int newBegin = begin;
+    int newEnd = end;
+    Map<String, ContentsElement> previousKeys = new HashMap<>();
+    for (ContentsElement element : previousElements) {
+      int elementBegin = element.getBeginIndex();
+      int elementEnd = getFormattedEndIndex(element);
+      if ((elementBegin < previousEnd) && (elementEnd > begin)) {
+        newBegin = Math.min(newBegin, elementBegin);
+        newEnd = Math.max(newEnd, (elementEnd > previousEnd) ? elementEnd + delta : end);
+      } else {
+        if (elementBegin >= previousEnd) {
+          elementBegin += delta;
+          elementEnd += delta;
+        }
+        previousKeys.put(getElementKey(element, elementBegin, elementEnd), element);
+      }
+    }
+    for (ContentsElement element : elements) {
+      int elementEnd = getFormattedEndIndex(element);
+      String key = getElementKey(element, element.getBeginIndex(), elementEnd);
+      if (previousKeys.remove(key) == null) {
+        newBegin = Math.min(newBegin, element.getBeginIndex());
+        newEnd = Math.max(newEnd, elementEnd);
+      }
+    }
+    for (ContentsElement element : previousKeys.values()) {
+      int elementBegin = element.getBeginIndex();
+      int elementEnd = getFormattedEndIndex(element);
+      if (elementBegin >= previousEnd) {
+        elementBegin += delta;
+        elementEnd += delta;
+      }
+      newBegin = Math.min(newBegin, elementBegin);
+      newEnd = Math.max(newEnd, elementEnd);
+    }
+    begin = newBegin;
+    end = newEnd;
+
+    // Extend region to complete lines
+    String contents = analysis.getContents();
+    begin = Math.max(0, Math.min(begin, doc.getLength()));
+    end = Math.max(begin, Math.min(end, doc.getLength()));
+    begin = (begin > 0) ? contents.lastIndexOf('\n', begin - 1) + 1 : 0;
+    end = contents.indexOf('\n', end);
+    end = (end < 0) ? contents.length() : end + 1;
+    end = Math.min(end, doc.getLength());
+
+    // Extend region to formatted runs and elements
+    boolean extended = true;
+    while (extended) {
+      extended = false;
+      Element run = doc.getCharacterElement(begin);
+      if ((run != null) && (run.getStartOffset() < begin)) {
+        begin = run.getStartOffset();
+        extended = true;
+      }
+      run = doc.getCharacterElement(Math.max(begin, end - 1));
+      if ((run != null) && (run.getEndOffset() > end)) {
+        end = Math.min(run.getEndOffset(), doc.getLength());
+        extended = true;
+      }
+      for (ContentsElement element : elements) {
+        if ((element.getBeginIndex() <= end) && (getFormattedEndIndex(element) >= begin)) {
+          if (element.getBeginIndex() < begin) {
+            begin = element.getBeginIndex();
+            extended = true;
+          }
+          int elementEnd = getFormattedEndIndex(element);
+          if (elementEnd > end) {
+            end = elementEnd;
+            extended = true;
+          }
+        }
+      }
+    }
+
+    // Format region
+    doc.setCharacterAttributes(
+        begin, end - begin,
+        doc.getStyle(StyleContext.DEFAULT_STYLE),
+        true);
+    for (ContentsElement element : elements) {
+      if ((element.getBeginIndex() <= end) && (getFormattedEndIndex(element) >= begin)) {
+        formatElementDirectly(doc, analysis, element);
+      }
+    }
+  }
+
+  /**
+   * @param element Element.
+   * @return End of the text that can be formatted for the element.
+   */
+  private static int getFormattedEndIndex(ContentsElement element) {
+    if (element instanceof PageElementTag) {
+      return Math.max(element.getEndIndex(), ((PageElementTag) element).getCompleteEndIndex());
+    }
+    return element.getEndIndex();
+  }
+
+  /**
+   * @param element Element.
+   * @param begin Begin of the element.
+   * @param end End of the element.
+   * @return Key identifying the element by its type and its position.
+   */
+  private static String getElementKey(ContentsElement element, int begin, int end) {
+    return element.getClass().getName() + ":" + begin + ":" + end;
+  }
+
+  /**
+   * @param doc Document to be formatted.
+   * @param analysis Page analysis.
+   * @return Elements to be formatted following Wiki syntax (null if none).
+   */
+  private List<ContentsElement> getWikiSyntaxElements(
+      StyledDocument doc,
+      PageAnalysis analysis) {
     // Basic checks
     if ((doc == null) || (analysis == null)) {
-      return;
+      return null;
     }
 
     // Retrieve configuration
     Configuration config = Configuration.getConfiguration();
-    int limit = config.getInt(null, ConfigurationValueInteger.SYNTAX_HIGHLIGHTING_LIMIT);
-    if (doc.getLength() > limit) {
-      return;
+    if (!canFormatWikiSyntax(doc)) {
+      return null;
     }
     ConfigurationValueStyle.StyleProperties styleCategory = config.getStyle(
         ConfigurationValueStyle.CATEGORY);
@@ -191,7 +349,20 @@ public abstract class MWPaneFormatter {
         styleTag.getEnabled(),
         styleTemplate.getEnabled(),
         styleTitle.getEnabled());
-    formatElementsDirectly(doc, analysis, elements, 0, elements.size());
+    return elements;
+  }
+
+  /**
+   * @param doc Document to be formatted.
+   * @return True if the document is small enough to be formatted following Wiki syntax.
+   */
+  public static boolean canFormatWikiSyntax(StyledDocument doc) {
+    if (doc == null) {
+      return false;
+    }
+    Configuration config = Configuration.getConfiguration();
+    int limit = config.getInt(null, ConfigurationValueInteger.SYNTAX_HIGHLIGHTING_LIMIT);
+    return (doc.getLength() <= limit);
   }
 
   /**
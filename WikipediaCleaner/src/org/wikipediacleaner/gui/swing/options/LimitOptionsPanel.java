@@ -183,6 +183,57 @@ public class LimitOptionsPanel extends OptionsPanel {
     add(spin, constraints);
     constraints.gridy++;
 
+    // Check Wiki threads
+    spin = createJSpinner(
+        ConfigurationValueInteger.CHECK_WIKI_THREADS,
+        1, 10, 1);
+    JLabel labelCWThreads = Utilities.createJLabel(GT._("Number of threads for retrieving Check Wiki lists :"));
+    labelCWThreads.setLabelFor(spin);
+    labelCWThreads.setHorizontalAlignment(SwingConstants.TRAILING);
+    constraints.gridwidth = 2;
+    constraints.gridx = 0;
+    constraints.weightx = 0;
+    add(labelCWThreads, constraints);
+    constraints.gridwidth = 1;
+    constraints.gridx = 2;
+    constraints.weightx = 1;
+    add(spin, constraints);
+    constraints.gridy++;
+
+    // Dump analysis threads
+    spin = createJSpinner(
+        ConfigurationValueInteger.DUMP_THREADS,
+        0, 99, 1);
+    JLabel labelDumpThreads = Utilities.createJLabel(GT._("Number of threads for reading dumps (0 for automatic) :"));
+    labelDumpThreads.setLabelFor(spin);
+    labelDumpThreads.setHorizontalAlignment(SwingConstants.TRAILING);
+    constraints.gridwidth = 2;
+    constraints.gridx = 0;
+    constraints.weightx = 0;
+    add(labelDumpThreads, constraints);
+    constraints.gridwidth = 1;
+    constraints.gridx = 2;
+    constraints.weightx = 1;
+    add(spin, constraints);
+    constraints.gridy++;
+
+    // Dump analysis queue
+    spin = createJSpinner(
+        ConfigurationValueInteger.DUMP_QUEUE_SIZE,
+        0, 10000, 10);
+    JLabel labelDumpQueue = Utilities.createJLabel(GT._("Maximum number of pages waiting for analysis when reading dumps (0 for automatic) :"));
+    labelDumpQueue.setLabelFor(spin);
+    labelDumpQueue.setHorizontalAlignment(SwingConstants.TRAILING);
+    constraints.gridwidth = 2;
+    constraints.gridx = 0;
+    constraints.weightx = 0;
+    add(labelDumpQueue, constraints);
+    constraints.gridwidth = 1;
+    constraints.gridx = 2;
+    constraints.weightx = 1;
+    add(spin, constraints);
+    constraints.gridy++;
+
     // Add size limit for syntax highlighting
     spin = createJSpinner(
         ConfigurationValueInteger.SYNTAX_HIGHLIGHTING_LIMIT,
@@ -29,6 +29,7 @@ import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Namespace;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageComparator;
+import org.wikipediacleaner.api.dump.LinkGraphIndex;
 import org.wikipediacleaner.gui.swing.basic.BasicWindow;
 import org.wikipediacleaner.gui.swing.basic.BasicWorker;
 import org.wikipediacleaner.gui.swing.basic.Utilities;
@@ -407,8 +408,7 @@ public class PageListWorker extends BasicWorker {
   private void constructDabWatch(List<Page> pages) throws APIException {
     if (elementNames != null) {
       List<Page> tmpPages = constructInternalPageList();
-      MediaWiki mw = MediaWiki.getMediaWikiAccess(this);
-      mw.retrieveAllLinksToPages(getWikipedia(), tmpPages, true);
+      retrieveAllLinksToPages(tmpPages);
       Configuration configuration = Configuration.getConfiguration();
       for (Page tmpPage : tmpPages) {
         List<Page> backlinks = tmpPage.getAllLinksToPage();
@@ -528,8 +528,7 @@ public class PageListWorker extends BasicWorker {
       return;
     }
     setText(GT._("Checking that protected titles have backlinks"));
-    MediaWiki mw = MediaWiki.getMediaWikiAccess(this);
-    mw.retrieveAllLinksToPages(wiki, tmpPages, true);
+    retrieveAllLinksToPages(tmpPages);
     for (Page page : tmpPages) {
       Integer backlinks = page.getBacklinksCountInMainNamespace();
       if ((backlinks != null) && (backlinks.intValue() > 0)) {
@@ -539,6 +538,30 @@ public class PageListWorker extends BasicWorker {
     Collections.sort(pages, PageComparator.getNamespaceFirstComparator());
   }
 
+  /**
+   * Retrieve all links to a list of pages (with redirects).
+   * 
+   * When a link graph index has been built from a dump,
+   * links are taken from the index for the pages it knows.
+   * 
+   * @param tmpPages List of pages.
+   * @throws APIException
+   */
+  private void retrieveAllLinksToPages(List<Page> tmpPages) throws APIException {
+    List<Page> missingPages = tmpPages;
+    LinkGraphIndex index = LinkGraphIndex.getIndex(getWikipedia());
+    if (index != null) {
+      missingPages = new ArrayList<Page>();
+      for (Page page : tmpPages) {
+        if (!index.fillLinksToPage(page)) {
+          missingPages.add(page);
+        }
+      }
+    }
+    MediaWiki mw = MediaWiki.getMediaWikiAccess(this);
+    mw.retrieveAllLinksToPages(getWikipedia(), missingPages, true);
+  }
+
   /**
    * Construct special list of pages.
    * 
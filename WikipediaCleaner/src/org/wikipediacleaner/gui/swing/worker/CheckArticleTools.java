@@ -103,24 +103,47 @@ public class CheckArticleTools {
     }
     CheckArticleStep step = currentReport.setCurrentStep(GT._("Templates"));
 
+    // Retrieve TemplateData blocks for every template at once
+    Map<String, Page> templatePages = new HashMap<String, Page>();
+    for (PageElementTemplate template : templates) {
+      String templateName = template.getTemplateName();
+      if (!templatePages.containsKey(templateName)) {
+        templatePages.put(templateName, getTemplatePage(template));
+      }
+    }
+    API api = APIFactory.getAPI();
+    Map<String, TemplateData> templateDataByTitle =
+        api.retrieveTemplateData(wiki, templatePages.values());
+
     // Check the existence of TemplateData blocks for every template
     CheckArticleElement element = step.setCurrentElement(GT._("Existence of {0} blocks", "TemplateData"));
     Map<String, TemplateData> templateDataMap = new HashMap<String, TemplateData>();
-    Map<String, TemplateData> backupTemplateDataMap = new HashMap<String, TemplateData>();
+    List<Page> missingPages = new ArrayList<Page>();
     for (PageElementTemplate template : templates) {
       String templateName = template.getTemplateName();
       if (!templateDataMap.containsKey(templateName)) {
-        TemplateData templateData = retrieveTemplateData(template);
+        Page templatePage = templatePages.get(templateName);
+        TemplateData templateData = templateDataByTitle.get(templatePage.getTitle());
         templateDataMap.put(templateName, templateData);
         if (templateData == null) {
           String message = GT._(
               "Template \"{0}\" has no {1} block defined.",
               new Object[] { template.getTemplateName(), "TemplateData" });
           element.addWarning(message);
-          templateData = computeTemplateData(template);
-          if (templateData != null) {
-            backupTemplateDataMap.put(templateName, templateData);
-          }
+          missingPages.add(templatePage);
+        }
+      }
+    }
+
+    // Compute TemplateData for templates without TemplateData blocks
+    Map<String, TemplateData> backupTemplateDataMap = new HashMap<String, TemplateData>();
+    if (!missingPages.isEmpty()) {
+      Map<String, TemplateData> computedTemplateData =
+          api.computeTemplateData(wiki, missingPages);
+      for (Map.Entry<String, Page> templatePage : templatePages.entrySet()) {
+        TemplateData templateData = computedTemplateData.get(templatePage.getValue().getTitle());
+        if (templateData != null) {
+          backupTemplateDataMap.put(templatePage.getKey(), templateData);
         }
       }
     }
@@ -150,33 +173,19 @@ public class CheckArticleTools {
    */
   private TemplateData retrieveTemplateData(
       PageElementTemplate template) throws APIException {
-    String templateName = template.getTemplateName();
-    String title = wiki.getWikiConfiguration().getPageTitle(
-        Namespace.TEMPLATE, templateName);
-    Page templatePage = DataManager.getPage(
-        wiki, title, null, null, null);
     API api = APIFactory.getAPI();
-    return api.retrieveTemplateData(wiki, templatePage);
+    return api.retrieveTemplateData(wiki, getTemplatePage(template));
   }
 
   /**
-   * Compute TemplateData.
-   * 
    * @param template Template.
-   * @return TemplateData.
-   * @throws APIException
+   * @return Page for the template.
    */
-  private TemplateData computeTemplateData(
-      PageElementTemplate template) throws APIException {
+  private Page getTemplatePage(PageElementTemplate template) {
     String templateName = template.getTemplateName();
     String title = wiki.getWikiConfiguration().getPageTitle(
         Namespace.TEMPLATE, templateName);
-    Page templatePage = DataManager.getPage(
-        wiki, title, null, null, null);
-    API api = APIFactory.getAPI();
-    api.retrieveContents(wiki, Collections.singletonList(templatePage), false, true);
-    return TemplateData.createFromContent(
-        templatePage.getAnalysis(templatePage.getContents(), false));
+    return DataManager.getPage(wiki, title, null, null, null);
   }
 
   /**
@@ -7,16 +7,16 @@
 
 package org.wikipediacleaner.gui.swing.worker;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.wikipediacleaner.api.API;
 import org.wikipediacleaner.api.APIException;
 import org.wikipediacleaner.api.APIFactory;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
-import org.wikipediacleaner.api.data.DataManager;
 import org.wikipediacleaner.api.data.Namespace;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageAnalysis;
@@ -97,19 +97,16 @@ public class TranslateWorker extends BasicWorker {
       boolean useInterLanguage) throws APIException {
     PageAnalysis analysis = page.getAnalysis(text, true);
     Collection<PageElementInternalLink> links = analysis.getInternalLinks();
-    Map<String, String> interwikis = new HashMap<String, String>();
+    List<String> linkPages = new ArrayList<String>();
+    for (PageElementInternalLink link : links) {
+      linkPages.add(link.getLink());
+    }
+    Map<String, String> interwikis = getLanguageLinks(linkPages);
     StringBuilder newText = new StringBuilder();
     int lastPosition = 0;
     for (PageElementInternalLink link : links) {
       String linkPage = link.getLink();
-      setText(GT._("Retrieving interwiki for {0}", linkPage));
-      String translated = null;
-      if (!interwikis.containsKey(linkPage)) {
-        translated = getLanguageLink(linkPage);
-        interwikis.put(linkPage, translated);
-      } else {
-        translated = interwikis.get(linkPage);
-      }
+      String translated = interwikis.get(linkPage);
       if (translated != null) {
         if (!Page.areSameTitle(linkPage, translated)) {
           if (link.getBeginIndex() > lastPosition) {
@@ -185,20 +182,17 @@ public class TranslateWorker extends BasicWorker {
     }
     PageAnalysis analysis = page.getAnalysis(text, true);
     Collection<PageElementCategory> categories = analysis.getCategories();
-    Map<String, String> interwikis = new HashMap<String, String>();
+    List<String> fullCategoryNames = new ArrayList<String>();
+    for (PageElementCategory category : categories) {
+      fullCategoryNames.add(categoryNamespace.getCanonicalTitle() + ":" + category.getName());
+    }
+    Map<String, String> interwikis = getLanguageLinks(fullCategoryNames);
     StringBuilder newText = new StringBuilder();
     int lastPosition = 0;
     for (PageElementCategory category : categories) {
       String categoryName = category.getName();
       String fullCategoryName = categoryNamespace.getCanonicalTitle() + ":" + categoryName;
-      setText(GT._("Retrieving interwiki for {0}", fullCategoryName));
-      String translated = null;
-      if (!interwikis.containsKey(categoryName)) {
-        translated = getLanguageLink(fullCategoryName);
-        interwikis.put(categoryName, translated);
-      } else {
-        translated = interwikis.get(categoryName);
-      }
+      String translated = interwikis.get(fullCategoryName);
       if ((translated != null) && !Page.areSameTitle(categoryName, translated)) {
         if (category.getBeginIndex() > lastPosition) {
           newText.append(text.substring(lastPosition, category.getBeginIndex()));
@@ -244,20 +238,17 @@ public class TranslateWorker extends BasicWorker {
     }
     PageAnalysis analysis = page.getAnalysis(text, true);
     Collection<PageElementTemplate> templates = analysis.getTemplates();
-    Map<String, String> interwikis = new HashMap<String, String>();
+    List<String> fullTemplateNames = new ArrayList<String>();
+    for (PageElementTemplate template : templates) {
+      fullTemplateNames.add(templateNamespace.getCanonicalTitle() + ":" + template.getTemplateName());
+    }
+    Map<String, String> interwikis = getLanguageLinks(fullTemplateNames);
     StringBuilder newText = new StringBuilder();
     int lastPosition = 0;
     for (PageElementTemplate template : templates) {
       String templateName = template.getTemplateName();
       String fullTemplateName = templateNamespace.getCanonicalTitle() + ":" + templateName;
-      setText(GT._("Retrieving interwiki for {0}", fullTemplateName));
-      String translated = null;
-      if (!interwikis.containsKey(templateName)) {
-        translated = getLanguageLink(fullTemplateName);
-        interwikis.put(templateName, translated);
-      } else {
-        translated = interwikis.get(templateName);
-      }
+      String translated = interwikis.get(fullTemplateName);
       if ((translated != null) && !Page.areSameTitle(templateName, translated)) {
         if (template.getBeginIndex() > lastPosition) {
           newText.append(text.substring(lastPosition, template.getBeginIndex()));
@@ -291,32 +282,16 @@ public class TranslateWorker extends BasicWorker {
   }
 
   /**
-   * @param pageName Page name.
-   * @return Language link.
+   * @param pageNames Page names.
+   * @return Language links (page name => language link).
    * @throws APIException
    */
-  private String getLanguageLink(String pageName) throws APIException {
-    API api = APIFactory.getAPI();
-    String link = api.getLanguageLink(from, getWikipedia(), pageName);
-    if (link != null) {
-      return link;
-    }
-    Page original = DataManager.getPage(from, pageName, null, null, null);
-    //api.retrieveLinksWithRedirects(from, original, null, null);
-    api.initializeRedirect(from, Collections.singletonList(original));
-    if (!original.isRedirect()) {
-      return link;
+  private Map<String, String> getLanguageLinks(Collection<String> pageNames) throws APIException {
+    if (pageNames.isEmpty()) {
+      return Collections.emptyMap();
     }
-    api.retrieveContents(from, Collections.singletonList(original), false, true);
-    link = api.getLanguageLink(from, getWikipedia(), original.getRedirectTitle());
-    if (link == null) {
-      return null;
-    }
-    String destination = original.getRedirectDestination();
-    int anchorPos = destination.indexOf('#');
-    if (anchorPos < 0) {
-      return link;
-    }
-    return link + destination.substring(anchorPos);
+    setText(GT._("Retrieving interwiki for {0}", page.getTitle()));
+    API api = APIFactory.getAPI();
+    return api.getLanguageLinks(from, getWikipedia(), pageNames);
   }
 }
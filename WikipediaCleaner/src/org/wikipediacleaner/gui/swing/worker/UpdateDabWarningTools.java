@@ -11,9 +11,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -27,6 +29,7 @@ import org.wikipediacleaner.api.data.Namespace;
 import org.wikipediacleaner.api.data.Page;
 import org.wikipediacleaner.api.data.PageAnalysis;
 import org.wikipediacleaner.api.data.PageElementTemplate;
+import org.wikipediacleaner.api.dump.LinkGraphIndex;
 import org.wikipediacleaner.gui.swing.basic.BasicWindow;
 import org.wikipediacleaner.gui.swing.basic.BasicWorker;
 import org.wikipediacleaner.i18n.GT;
@@ -48,6 +51,9 @@ public class UpdateDabWarningTools extends UpdateWarningTools {
   /** True if disambiguation information is already available in pages. */
   private boolean dabInformationAvailable;
 
+  /** Titles of the pages for which links have been found in the link graph index. */
+  private final Set<String> pagesFromIndex;
+
   /**
    * @param wiki Wiki.
    * @param worker Worker.
@@ -83,6 +89,7 @@ public class UpdateDabWarningTools extends UpdateWarningTools {
     super(wiki, worker, window, createWarning, automaticEdit);
     this.dabPages = new HashMap<String, Page>();
     this.nonDabPages = new HashMap<String, Page>();
+    this.pagesFromIndex = new HashSet<String>();
   }
 
   /**
@@ -122,12 +129,37 @@ public class UpdateDabWarningTools extends UpdateWarningTools {
   @Override
   protected boolean retrievePageInformation(
       List<Page> pages) throws APIException {
+    return retrievePageInformation(pages, true);
+  }
+
+  /**
+   * Retrieve information in the pages to construct the warning.
+   * 
+   * When a link graph index has been built from a dump, links of the pages
+   * that haven't been modified since the dump are taken from the index.
+   * 
+   * @param pages List of pages.
+   * @param useIndex True if the link graph index can be used.
+   * @return True if information was retrieved.
+   * @throws APIException
+   */
+  private boolean retrievePageInformation(
+      List<Page> pages, boolean useIndex) throws APIException {
     MediaWiki mw = MediaWiki.getMediaWikiAccess(worker);
 
     // Retrieving links in each page
+    pagesFromIndex.clear();
     if (!linksAvailable) {
+      LinkGraphIndex index = useIndex ? LinkGraphIndex.getIndex(wiki) : null;
+      if (index != null) {
+        api.retrieveInfo(wiki, pages);
+      }
       for (Page page : pages) {
-        mw.retrieveAllLinks(wiki, page, Namespace.MAIN, null, false, false);
+        if ((index != null) && index.fillLinks(page, Integer.valueOf(Namespace.MAIN))) {
+          pagesFromIndex.add(page.getTitle());
+        } else {
+          mw.retrieveAllLinks(wiki, page, Namespace.MAIN, null, false, false);
+        }
       }
       mw.block(true);
       if (shouldStop()) {
@@ -136,10 +168,12 @@ public class UpdateDabWarningTools extends UpdateWarningTools {
     }
 
     // Retrieving disambiguation information in each page
+    // (information from the index is used only if the wiki doesn't give it)
     boolean hasDisambiguationLink = false;
     if (!dabInformationAvailable) {
       if (!wiki.isDisambiguationPagesLoaded()) {
         List<Page> tmpPages = new ArrayList<Page>();
+        Map<Page, Boolean> indexDabPages = new HashMap<Page, Boolean>();
         for (Page page : pages) {
           for (int numLink = 0; numLink < page.getLinks().size(); numLink++) {
             Page link = page.getLinks().get(numLink);
@@ -149,6 +183,9 @@ public class UpdateDabWarningTools extends UpdateWarningTools {
             } else if (nonDabPages.containsKey(link.getTitle())) {
               page.getLinks().set(numLink, nonDabPages.get(link.getTitle()));
             } else {
+              if (pagesFromIndex.contains(page.getTitle())) {
+                indexDabPages.put(link, link.isDisambiguationPage());
+              }
               tmpPages.add(link);
             }
           }
@@ -157,6 +194,9 @@ public class UpdateDabWarningTools extends UpdateWarningTools {
           mw.retrieveDisambiguationInformation(wiki, tmpPages, null, false, false, true);
         }
         for (Page page : tmpPages) {
+          if ((page.isDisambiguationPage() == null) && indexDabPages.containsKey(page)) {
+            page.setDisambiguationPage(indexDabPages.get(page));
+          }
           if (Boolean.TRUE.equals(page.isDisambiguationPage())) {
             dabPages.put(page.getTitle(), page);
             hasDisambiguationLink = true;
@@ -205,6 +245,46 @@ public class UpdateDabWarningTools extends UpdateWarningTools {
     return true;
   }
 
+  /**
+   * Check links of the pages found in the link graph index.
+   * 
+   * Links created by templates are not in the index, and the index may be older
+   * than the list of disambiguation pages: pages for which the warning
+   * would be modified are analyzed again with information from the wiki.
+   * 
+   * @param pages List of pages.
+   * @param talkPages Talk page for each page.
+   * @param todoSubpages "To do" sub-page for each page.
+   * @return True if warnings can be updated.
+   * @throws APIException
+   */
+  @Override
+  protected boolean verifyPageInformation(
+      List<Page> pages,
+      Map<Page, Page> talkPages,
+      Map<Page, Page> todoSubpages) throws APIException {
+    if (pagesFromIndex.isEmpty() || !canUpdateWarning()) {
+      return true;
+    }
+    List<Page> tmpPages = new ArrayList<Page>();
+    for (Page page : pages) {
+      if (pagesFromIndex.contains(page.getTitle())) {
+        Page talkPage = talkPages.get(page);
+        Page todoSubpage = todoSubpages.get(page);
+        PageAnalysis analysis = page.getAnalysis(page.getContents(), true);
+        Collection<String> dabLinks = computeDabLinks(analysis, talkPage, todoSubpage, false);
+        if (!isWarningUpToDate(dabLinks, talkPage, todoSubpage)) {
+          tmpPages.add(page);
+        }
+      }
+    }
+    pagesFromIndex.clear();
+    if (tmpPages.isEmpty()) {
+      return true;
+    }
+    return retrievePageInformation(tmpPages, false);
+  }
+
   /**
    * Extract links to disambiguation pages.
    * 
@@ -216,6 +296,21 @@ public class UpdateDabWarningTools extends UpdateWarningTools {
   @Override
   protected Collection<String> constructWarningElements(
       PageAnalysis analysis, Page talkPage, Page todoSubpage) {
+    return computeDabLinks(analysis, talkPage, todoSubpage, true);
+  }
+
+  /**
+   * Extract links to disambiguation pages.
+   * 
+   * @param analysis Page analysis (must have enough information to compute the list of disambiguation links).
+   * @param talkPage Talk page.
+   * @param todoSubpage to do sub-page.
+   * @param memorize True if links to disambiguation pages should be memorized as errors.
+   * @return List of links to disambiguation pages.
+   */
+  private Collection<String> computeDabLinks(
+      PageAnalysis analysis, Page talkPage, Page todoSubpage,
+      boolean memorize) {
     if ((analysis == null) || (analysis.getPage() == null)) {
       return null;
     }
@@ -234,7 +329,9 @@ public class UpdateDabWarningTools extends UpdateWarningTools {
                 (linkCount.getHelpNeededCount() > 0)) {
               String error = link.getTitle();
               dabLinks.add(error);
-              memorizeError(error, analysis.getPage().getTitle());
+              if (memorize) {
+                memorizeError(error, analysis.getPage().getTitle());
+              }
             }
           }
         }
@@ -212,6 +212,11 @@ public abstract class UpdateWarningTools {
       }
     }
 
+    // Check information before modifying warnings
+    if (!verifyPageInformation(pages, mapTalkPages, mapTodoSubpages)) {
+      return;
+    }
+
     // Update warning
     for (Page page : pages) {
       PageAnalysis pageAnalysis = page.getAnalysis(page.getContents(), true);
@@ -1103,6 +1108,84 @@ public abstract class UpdateWarningTools {
   protected abstract boolean retrievePageInformation(
       List<Page> pages) throws APIException;
 
+  /**
+   * Check information in the pages before updating the warnings.
+   * 
+   * Called once talk pages and "To do" sub-pages are loaded, so that information
+   * retrieved from an offline source can be checked on the wiki for the pages
+   * in which the warning is going to be modified.
+   * 
+   * @param pages List of pages.
+   * @param talkPages Talk page for each page.
+   * @param todoSubpages "To do" sub-page for each page.
+   * @return True if warnings can be updated.
+   * @throws APIException
+   */
+  protected boolean verifyPageInformation(
+      List<Page> pages,
+      Map<Page, Page> talkPages,
+      Map<Page, Page> todoSubpages) throws APIException {
+    return true;
+  }
+
+  /**
+   * Tell if the existing warning already matches the elements.
+   * 
+   * @param elements Elements for the warning.
+   * @param talkPage Talk page with contents.
+   * @param todoSubpage (Optional) "To do" sub-page with contents.
+   * @return True if the warning doesn't need to be modified.
+   */
+  protected boolean isWarningUpToDate(
+      Collection<String> elements, Page talkPage, Page todoSubpage) {
+    List<PageElementTemplate> warnings = new ArrayList<PageElementTemplate>();
+
+    // Search warning in the "To do" sub-page
+    if ((todoSubpage != null) && (todoSubpage.getContents() != null)) {
+      PageAnalysis analysis = todoSubpage.getAnalysis(todoSubpage.getContents(), true);
+      PageElementTemplate templateWarning = getFirstWarningTemplate(analysis);
+      if (templateWarning != null) {
+        warnings.add(templateWarning);
+      }
+    }
+
+    // Search warning in the "To do" parameter of the talk page
+    if ((talkPage != null) && (talkPage.getContents() != null)) {
+      PageAnalysis talkAnalysis = talkPage.getAnalysis(talkPage.getContents(), true);
+      List<String> todoTemplates = configuration.getStringList(WPCConfigurationStringList.TODO_TEMPLATES);
+      PageElementTemplate templateTodo = null;
+      if (todoTemplates != null) {
+        for (String todoTemplate : todoTemplates) {
+          List<PageElementTemplate> templates = talkAnalysis.getTemplates(todoTemplate);
+          PageElementTemplate templateTmp = (templates != null) && (templates.size() > 0) ?
+              templates.get(0) : null;
+          if (templateTmp != null) {
+            if ((templateTodo == null) || (templateTmp.getBeginIndex() < templateTodo.getBeginIndex())) {
+              templateTodo = templateTmp;
+            }
+          }
+        }
+      }
+      String parameter = (templateTodo != null) ? templateTodo.getParameterValue("1") : null;
+      if (parameter != null) {
+        PageElementTemplate templateWarning = getFirstWarningTemplate(
+            talkPage.getAnalysis(parameter, false));
+        if (templateWarning != null) {
+          warnings.add(templateWarning);
+        }
+      }
+    }
+
+    // Compare with the elements
+    if ((elements == null) || elements.isEmpty()) {
+      return warnings.isEmpty();
+    }
+    if (warnings.size() != 1) {
+      return false;
+    }
+    return !isModified(elements, warnings.get(0));
+  }
+
   /**
    * Construct elements for the warning.
    * 
@@ -16,9 +16,13 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.Map.Entry;
 import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
@@ -26,6 +30,7 @@ import java.util.prefs.Preferences;
 import javax.swing.JOptionPane;
 
 import org.wikipediacleaner.WikipediaCleaner;
+import org.wikipediacleaner.api.HttpConnectionPools;
 import org.wikipediacleaner.api.constants.EnumLanguage;
 import org.wikipediacleaner.api.constants.EnumWikipedia;
 import org.wikipediacleaner.api.impl.MediaWikiAPI;
@@ -164,6 +169,9 @@ public class Configuration implements WindowListener {
           ok &= moveChild(getPreferences(), getPreferences(preferredWikipedia), POJO_AUTOMATIC_FIXING);
           ok &= moveChild(getPreferences(), getPreferences(preferredWikipedia), POJO_PAGE_COMMENTS);
           ok &= moveChild(getPreferences(), getPreferences(preferredWikipedia), SUB_ARRAY_PREFERRED_DAB);
+          synchronized (pojoNames) {
+            pojoNames.clear();
+          }
         }
 
         // Update from version 2 to 3 : Several users
@@ -306,6 +314,7 @@ public class Configuration implements WindowListener {
    */
   public void updateConfiguration() {
     MediaWikiAPI.updateConfiguration();
+    HttpConnectionPools.updateConfiguration();
   }
 
   // ==========================================================================
@@ -580,6 +589,189 @@ public class Configuration implements WindowListener {
   // POJO management (Plain Old Java Object)
   // ==========================================================================
 
+  /**
+   * Names of the existing POJO for each wiki and property.
+   */
+  private final Map<String, Set<String>> pojoNames = new HashMap<String, Set<String>>();
+
+  /**
+   * Setters of each POJO class.
+   */
+  private final Map<Class<?>, PojoSetters> pojoSetters = new HashMap<Class<?>, PojoSetters>();
+
+  /**
+   * @param wikipedia Wikipedia.
+   * @param property Property name.
+   * @return Key for the names of the existing POJO.
+   */
+  private String getPojoKey(EnumWikipedia wikipedia, String property) {
+    if (wikipedia == null) {
+      return "/" + property;
+    }
+    return wikipedia.getSettings().getCode() + "/" + property;
+  }
+
+  /**
+   * Check if a POJO may exist, without accessing the preferences once
+   * the names of the existing POJO have been loaded for the property.
+   * 
+   * As names containing a slash are stored in sub nodes,
+   * only the first part of the name is checked.
+   * 
+   * @param wikipedia Wikipedia.
+   * @param property Property name.
+   * @param name Pojo name.
+   * @return False if the POJO doesn't exist.
+   * @throws BackingStoreException
+   */
+  private boolean hasPojo(
+      EnumWikipedia wikipedia, String property, String name)
+      throws BackingStoreException {
+    synchronized (pojoNames) {
+      String key = getPojoKey(wikipedia, property);
+      Set<String> names = pojoNames.get(key);
+      if (names == null) {
+        names = new HashSet<String>();
+        Preferences prefs = getPreferences(wikipedia);
+        if (prefs.nodeExists(property)) {
+          String[] children = prefs.node(property).childrenNames();
+          if (children != null) {
+            names.addAll(Arrays.asList(children));
+          }
+        }
+        pojoNames.put(key, names);
+      }
+      return names.contains(getPojoFirstName(name));
+    }
+  }
+
+  /**
+   * @param name Pojo name.
+   * @return First part of the name (before a slash).
+   */
+  private static String getPojoFirstName(String name) {
+    int slashIndex = name.indexOf('/');
+    return (slashIndex < 0) ? name : name.substring(0, slashIndex);
+  }
+
+  /**
+   * Keep the names of the existing POJO consistent with a modification.
+   * 
+   * @param wikipedia Wikipedia.
+   * @param property Property name.
+   * @param name Pojo name (null if every POJO of the property is concerned).
+   * @param exists True if the POJO exists after the modification.
+   */
+  private void updatePojoNames(
+      EnumWikipedia wikipedia, String property, String name, boolean exists) {
+    synchronized (pojoNames) {
+      String key = getPojoKey(wikipedia, property);
+      Set<String> names = pojoNames.get(key);
+      if ((names == null) || (name == null)) {
+        pojoNames.remove(key);
+      } else if (exists) {
+        names.add(getPojoFirstName(name));
+      } else if (name.indexOf('/') < 0) {
+        names.remove(name);
+      }
+    }
+  }
+
+  /**
+   * @param valueClass Pojo class.
+   * @return Setters of the POJO class.
+   */
+  private PojoSetters getPojoSetters(Class<?> valueClass) {
+    synchronized (pojoSetters) {
+      PojoSetters setters = pojoSetters.get(valueClass);
+      if (setters == null) {
+        setters = new PojoSetters(valueClass);
+        pojoSetters.put(valueClass, setters);
+      }
+      return setters;
+    }
+  }
+
+  /**
+   * Setters of a POJO class, analyzed only once.
+   */
+  private static class PojoSetters {
+
+    /** Setters */
+    final List<Method> methods = new ArrayList<Method>();
+
+    /** Parameter names of the setters */
+    final List<String> parameterNames = new ArrayList<String>();
+
+    /** Method for fixing values once the setters have been called */
+    final Method fixValuesMethod;
+
+    /**
+     * @param valueClass Pojo class.
+     */
+    PojoSetters(Class<?> valueClass) {
+      Method tmpFixValuesMethod = null;
+      for (Method m : valueClass.getMethods()) {
+        if (Modifier.isPublic(m.getModifiers()) &&
+            (m.getName().equals("fixValues")) &&
+            (m.getGenericParameterTypes().length == 0)) {
+          tmpFixValuesMethod = m;
+        }
+        if (Modifier.isPublic(m.getModifiers()) &&
+            m.getName().startsWith("set") &&
+            (m.getGenericParameterTypes().length == 1)) {
+          methods.add(m);
+          parameterNames.add("" + Character.toLowerCase(m.getName().charAt(3)) + m.getName().substring(4));
+        }
+      }
+      fixValuesMethod = tmpFixValuesMethod;
+    }
+
+    /**
+     * Create a POJO from a preferences node.
+     * 
+     * @param valueClass Pojo class.
+     * @param node Preferences node.
+     * @return Pojo.
+     * @throws BackingStoreException
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    Object readPojo(Class<?> valueClass, Preferences node)
+        throws BackingStoreException, InstantiationException,
+               IllegalAccessException, InvocationTargetException {
+      Object result = valueClass.newInstance();
+      List<String> keys = Arrays.asList(node.keys());
+      for (int i = 0; i < methods.size(); i++) {
+        String parameterName = parameterNames.get(i);
+        if (keys.contains(parameterName)) {
+          Method m = methods.get(i);
+          Class<?> parameterType = m.getParameterTypes()[0];
+          if (String.class.isAssignableFrom(parameterType)) {
+            m.invoke(result, node.get(parameterName, null));
+          } else if (Integer.class.isAssignableFrom(parameterType)) {
+            m.invoke(result, node.getInt(parameterName, 0));
+          } else if (Boolean.class.isAssignableFrom(parameterType)) {
+            m.invoke(result, node.getBoolean(parameterName, true));
+          } else if (Double.class.isAssignableFrom(parameterType)) {
+            m.invoke(result, node.getDouble(parameterName, 0));
+          } else if (Long.class.isAssignableFrom(parameterType)) {
+            m.invoke(result, node.getLong(parameterName, 0));
+          } else if (Float.class.isAssignableFrom(parameterType)) {
+            m.invoke(result, node.getFloat(parameterName, 0));
+          } else if (Color.class.isAssignableFrom(parameterType)) {
+            m.invoke(result, new Color(node.getInt(parameterName, 0)));
+          }
+        }
+      }
+      if (fixValuesMethod != null) {
+        fixValuesMethod.invoke(result);
+      }
+      return result;
+    }
+  }
+
   /**
    * @param wikipedia Wikipedia.
    * @param property Property name.
@@ -592,6 +784,7 @@ public class Configuration implements WindowListener {
     if (getPreferences(wikipedia) != null) {
       // First, remove the old array list
       removeNode(getPreferences(wikipedia), property);
+      updatePojoNames(wikipedia, property, null, false);
       
       // Create the new one
       if (values != null) {
@@ -616,7 +809,7 @@ public class Configuration implements WindowListener {
           (property != null) &&
           (name != null) &&
           (valueClass != null)) {
-        if (!getPreferences(wikipedia).nodeExists(property)) {
+        if (!hasPojo(wikipedia, property, name)) {
           return null;
         }
         Preferences globalNode = getPreferences(wikipedia).node(property);
@@ -624,49 +817,7 @@ public class Configuration implements WindowListener {
           return null;
         }
         Preferences node = globalNode.node(name);
-        Object result = valueClass.newInstance();
-        Method[] methods = valueClass.getMethods();
-        Method fixValuesMethod = null;
-        for (Method m : methods) {
-          if (Modifier.isPublic(m.getModifiers()) &&
-              (m.getName().equals("fixValues")) &&
-              (m.getGenericParameterTypes().length == 0)) {
-            fixValuesMethod = m;
-          }
-          if (Modifier.isPublic(m.getModifiers()) &&
-              m.getName().startsWith("set") &&
-              (m.getGenericParameterTypes().length == 1)) {
-            String parameterName = "" + Character.toLowerCase(m.getName().charAt(3)) + m.getName().substring(4);
-            boolean exist = false;
-            for (String key : node.keys()) {
-              if (parameterName.equals(key)) {
-                exist = true;
-              }
-            }
-            if (exist) {
-              Class parameterType = m.getParameterTypes()[0];
-              if (String.class.isAssignableFrom(parameterType)) {
-                m.invoke(result, node.get(parameterName, null));
-              } else if (Integer.class.isAssignableFrom(parameterType)) {
-                m.invoke(result, node.getInt(parameterName, 0));
-              } else if (Boolean.class.isAssignableFrom(parameterType)) {
-                m.invoke(result, node.getBoolean(parameterName, true));
-              } else if (Double.class.isAssignableFrom(parameterType)) {
-                m.invoke(result, node.getDouble(parameterName, 0));
-              } else if (Long.class.isAssignableFrom(parameterType)) {
-                m.invoke(result, node.getLong(parameterName, 0));
-              } else if (Float.class.isAssignableFrom(parameterType)) {
-                m.invoke(result, node.getFloat(parameterName, 0));
-              } else if (Color.class.isAssignableFrom(parameterType)) {
-                m.invoke(result, new Color(node.getInt(parameterName, 0)));
-              }
-            }
-          }
-        }
-        if (fixValuesMethod != null) {
-          fixValuesMethod.invoke(result);
-        }
-        return result;
+        return getPojoSetters(valueClass).readPojo(valueClass, node);
       }
     } catch (BackingStoreException e) {
       //
@@ -696,8 +847,11 @@ public class Configuration implements WindowListener {
           Preferences node = globalNode.node(id);
           node.removeNode();
         }
+        updatePojoNames(wikipedia, property, id, false);
       } catch (BackingStoreException e) {
         //
+      } catch (IllegalArgumentException e) {
+        // Happens with names ending with a slash
       }
     }
   }
@@ -722,6 +876,7 @@ public class Configuration implements WindowListener {
         // Add the new object
         Method[] methods = value.getClass().getMethods();
         Preferences node = globalNode.node(id);
+        updatePojoNames(wikipedia, property, id, true);
         for (Method m : methods) {
           if (Modifier.isPublic(m.getModifiers()) &&
               m.getName().startsWith("get") &&
@@ -772,7 +927,7 @@ public class Configuration implements WindowListener {
           (property != null) &&
           (name != null) &&
           (valueClass != null)) {
-        if (!getPreferences(wikipedia).nodeExists(property)) {
+        if (!hasPojo(wikipedia, property, name)) {
           return null;
         }
         Preferences globalNode = getPreferences(wikipedia).node(property);
@@ -780,52 +935,12 @@ public class Configuration implements WindowListener {
           return null;
         }
         Preferences pageNode = globalNode.node(name);
+        PojoSetters setters = getPojoSetters(valueClass);
         ArrayList<Object> results = new ArrayList<Object>();
         int i = 0;
         while (pageNode.nodeExists(Integer.toString(i))) {
           Preferences node = pageNode.node(Integer.toString(i));
-          Object result = valueClass.newInstance();
-          Method[] methods = valueClass.getMethods();
-          Method fixValuesMethod = null;
-          for (Method m : methods) {
-            if (Modifier.isPublic(m.getModifiers()) &&
-                (m.getName().equals("fixValues")) &&
-                (m.getGenericParameterTypes().length == 0)) {
-              fixValuesMethod = m;
-            }
-            if (Modifier.isPublic(m.getModifiers()) &&
-                m.getName().startsWith("set") &&
-                (m.getGenericParameterTypes().length == 1)) {
-              String parameterName = "" + Character.toLowerCase(m.getName().charAt(3)) + m.getName().substring(4);
-              boolean exist = false;
-              for (String key : node.keys()) {
-                if (parameterName.equals(key)) {
-                  exist = true;
-                }
-              }
-              if (exist) {
-                Class parameterType = m.getParameterTypes()[0];
-                if (String.class.isAssignableFrom(parameterType)) {
-                  m.invoke(result, node.get(parameterName, null));
-                } else if (Integer.class.isAssignableFrom(parameterType)) {
-                  m.invoke(result, node.getInt(parameterName, 0));
-                } else if (Boolean.class.isAssignableFrom(parameterType)) {
-                  m.invoke(result, node.getBoolean(parameterName, true));
-                } else if (Double.class.isAssignableFrom(parameterType)) {
-                  m.invoke(result, node.getDouble(parameterName, 0));
-                } else if (Long.class.isAssignableFrom(parameterType)) {
-                  m.invoke(result, node.getLong(parameterName, 0));
-                } else if (Float.class.isAssignableFrom(parameterType)) {
-                  m.invoke(result, node.getFloat(parameterName, 0));
-                } else if (Color.class.isAssignableFrom(parameterType)) {
-                  m.invoke(result, new Color(node.getInt(parameterName, 0)));
-                }
-              }
-            }
-          }
-          if (fixValuesMethod != null) {
-            fixValuesMethod.invoke(result);
-          }
+          Object result = setters.readPojo(valueClass, node);
           results.add(result);
           i++;
         }
@@ -864,6 +979,7 @@ public class Configuration implements WindowListener {
         
         // Add the new objects
         Preferences pageNode = globalNode.node(id);
+        updatePojoNames(wikipedia, property, id, true);
         for (int i = 0; i < values.length; i++) {
           Object value = values[i];
           Preferences node = pageNode.node(Integer.toString(i));
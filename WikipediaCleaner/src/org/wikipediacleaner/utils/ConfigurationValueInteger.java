@@ -19,9 +19,15 @@ public enum ConfigurationValueInteger {
   ANALYSIS_UNDO_LVL("AnalysisUndoLevels", 10),
   CHECK_BOT_NB_PAGES("CheckBotNbPages", 100),
   CHECK_NB_ERRORS("CheckNbErrors", 100),
+  CHECK_WIKI_THREADS("CheckWikiThreads", 3),
+  CIRCUIT_BREAKER_DELAY("CircuitBreakerDelay", 60),
+  CIRCUIT_BREAKER_ERRORS("CircuitBreakerErrors", 5),
   CONFIG_VERSION("ConfigurationVersion", 1),
+  DUMP_QUEUE_SIZE("DumpQueueSize", 0),
+  DUMP_THREADS("DumpThreads", 0),
   EDITOR_FONT_SIZE("EditorFontSize", 12),
   FONT_SIZE("FontSize", 0),
+  HTTP_CONNECTIONS_PER_HOST("HttpConnectionsPerHost", 0),
   INTERROG_THREAD("InterrogationThreads", 30),
   MAXIMUM_PAGES("MaximumPages", 20),
   MAX_CATEGORY_MEMBERS("MaxCategoryMembers", 1000),
@@ -35,6 +41,8 @@ public enum ConfigurationValueInteger {
   MAX_SEARCH("MaxSearch", 1000),
   MENU_SIZE("MenuSize", 30),
   PLAF_TYPE("LookAndFeelType", ConfigurationConstants.VALUE_PLAF_TYPE_WPCLEANER),
+  RETRY_MAX_DELAY("RetryMaxDelay", 60),
+  RETRY_MIN_DELAY("RetryMinDelay", 2),
   SAVE_USER("SaveUser", ConfigurationConstants.VALUE_SAVE_USER_NAME),
   SLOW_REGEXP("SlowRegexp", 1000),
   SYNTAX_HIGHLIGHTING_LIMIT("SyntaxHighlightingLimit", 40000),
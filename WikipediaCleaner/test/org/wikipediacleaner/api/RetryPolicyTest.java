@@ -0,0 +1,211 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpStatus;
+import org.apache.commons.httpclient.methods.GetMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+
+/**
+ * Test class for the retry policy, against a local HTTP server.
+ */
+public class RetryPolicyTest {
+
+  /** Local HTTP server */
+  private HttpServer server;
+
+  /** Number of requests received by the server */
+  private AtomicInteger requests;
+
+  /** Number of requests failing before a successful one */
+  private volatile int failures;
+
+  /** Value of the Retry-After header sent with failures (null for none) */
+  private volatile String retryAfter;
+
+  /**
+   * Start a local HTTP server failing a given number of times.
+   *
+   * @throws IOException Exception thrown if the server can't be started.
+   */
+  @Before
+  public void startServer() throws IOException {
+    requests = new AtomicInteger();
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", new HttpHandler() {
+
+      @Override
+      public void handle(HttpExchange exchange) throws IOException {
+        int count = requests.incrementAndGet();
+        byte[] body = "OK".getBytes("UTF-8");
+        if (count <= failures) {
+          if (retryAfter != null) {
+            exchange.getResponseHeaders().add("Retry-After", retryAfter);
+          }
+          exchange.sendResponseHeaders(HttpStatus.SC_SERVICE_UNAVAILABLE, body.length);
+        } else {
+          exchange.sendResponseHeaders(HttpStatus.SC_OK, body.length);
+        }
+        try (OutputStream os = exchange.getResponseBody()) {
+          os.write(body);
+        }
+      }
+    });
+    server.start();
+  }
+
+  /**
+   * Stop the local HTTP server.
+   */
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  /**
+   * Test that delays grow exponentially and are limited.
+   */
+  @Test
+  public void testBackoff() {
+    RetryPolicy policy = new RetryPolicy(100, 1000, 0, 0);
+    long[] limits = { 100, 200, 400, 800, 1000, 1000 };
+    for (int attempt = 1; attempt <= limits.length; attempt++) {
+      long delay = policy.getDelay(attempt, null, 0);
+      long limit = limits[attempt - 1];
+      assertTrue(
+          "Delay " + delay + " for attempt " + attempt + " outside [" + (limit / 2) + ", " + limit + "]",
+          (delay >= limit / 2) && (delay <= limit));
+    }
+    assertEquals(
+        "Minimum delay not respected",
+        5000, policy.getDelay(1, null, 5000));
+  }
+
+  /**
+   * Test that requests are retried after the delay requested by the server.
+   *
+   * @throws Exception Exception thrown by the requests.
+   */
+  @Test
+  public void testRetryAfter() throws Exception {
+    failures = 2;
+    retryAfter = "1";
+    RetryPolicy policy = new RetryPolicy(10, 20, 0, 0);
+    HttpClient httpClient = new HttpClient();
+    long start = System.currentTimeMillis();
+    int attempt = 0;
+    for (;;) {
+      attempt++;
+      GetMethod method = new GetMethod(getURL());
+      try {
+        int statusCode = httpClient.executeMethod(method);
+        if (statusCode == HttpStatus.SC_OK) {
+          break;
+        }
+        assertEquals(
+            "Incorrect delay from Retry-After",
+            1000, RetryPolicy.getRetryAfter(method));
+        assertTrue("Too many attempts", attempt < 5);
+        policy.waitBeforeRetrying(null, attempt, method, 0);
+      } finally {
+        method.releaseConnection();
+      }
+    }
+    long duration = System.currentTimeMillis() - start;
+    assertEquals("Incorrect number of requests", 3, requests.get());
+    assertEquals("Incorrect number of retries", 2, policy.getRetries());
+    assertTrue("Retry-After not respected: " + duration + "ms", duration >= 2000);
+    assertTrue(
+        "Incorrect retries delay: " + policy.getRetriesDelay(),
+        policy.getRetriesDelay() >= 2000);
+  }
+
+  /**
+   * Test that requests to a wiki are paused after too many failures.
+   *
+   * @throws Exception Exception thrown by the requests.
+   */
+  @Test
+  public void testBreaker() throws Exception {
+    failures = 3;
+    retryAfter = null;
+    RetryPolicy policy = new RetryPolicy(10, 20, 3, 1000);
+    EnumWikipedia wiki = EnumWikipedia.EN;
+    HttpClient httpClient = new HttpClient();
+    long pauseStart = 0;
+    int attempt = 0;
+    for (;;) {
+      attempt++;
+      policy.waitForAvailability(wiki);
+      if (attempt == 4) {
+        long duration = System.currentTimeMillis() - pauseStart;
+        assertTrue("Requests not paused: " + duration + "ms", duration >= 900);
+      }
+      GetMethod method = new GetMethod(getURL());
+      try {
+        int statusCode = httpClient.executeMethod(method);
+        if (statusCode == HttpStatus.SC_OK) {
+          policy.recordSuccess(wiki);
+          break;
+        }
+        assertTrue("Too many attempts", attempt < 5);
+        policy.waitBeforeRetrying(wiki, attempt, method, 0);
+        pauseStart = System.currentTimeMillis();
+      } finally {
+        method.releaseConnection();
+      }
+    }
+    assertEquals("Incorrect number of requests", 4, requests.get());
+    assertEquals("Incorrect number of pauses", 1, policy.getPauses());
+
+    // Requests are no longer paused
+    long start = System.currentTimeMillis();
+    policy.waitForAvailability(wiki);
+    assertTrue(
+        "Requests still paused",
+        System.currentTimeMillis() - start < 500);
+  }
+
+  /**
+   * Test that an interrupted wait is reported.
+   */
+  @Test
+  public void testInterrupt() {
+    RetryPolicy policy = new RetryPolicy(10000, 10000, 0, 0);
+    Thread.currentThread().interrupt();
+    try {
+      policy.waitBeforeRetrying(null, 1, null, 0);
+      fail("Interrupted wait not reported");
+    } catch (APIException e) {
+      assertTrue("Interrupt flag not restored", Thread.interrupted());
+    }
+  }
+
+  /**
+   * @return URL of the local HTTP server.
+   */
+  private String getURL() {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + "/w/api.php";
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+
+
+/**
+ * Benchmark of the prefilter of suggestions against running every suggestion.
+ *
+ * Usage: SuggestionFilterBenchmark [suggestions count] [text length] [iterations]
+ */
+public class SuggestionFilterBenchmark {
+
+  /** Syllables used to build random words */
+  private final static String[] SYLLABLES = {
+    "ba", "co", "mi", "tra", "ver", "lo", "pen", "dus", "qui", "sar", "ne", "fo",
+    "ri", "gal", "ton", "ex", "ma", "pli", "zu", "kel", "bro", "sti", "gna", "vol",
+  };
+
+  /**
+   * @param args Command line arguments.
+   */
+  public static void main(String[] args) {
+    int suggestionsCount = (args.length > 0) ? Integer.parseInt(args[0]) : 5000;
+    int textLength = (args.length > 1) ? Integer.parseInt(args[1]) : 50000;
+    int iterations = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+    Random random = new Random(0);
+
+    // Create suggestions, similar to the ones in suggestion pages
+    List<Suggestion> suggestions = new ArrayList<Suggestion>();
+    for (int i = 0; i < suggestionsCount; i++) {
+      String word = createWord(random);
+      String pattern = null;
+      switch (i % 5) {
+      case 0:
+        pattern = "\\b([" + Character.toUpperCase(word.charAt(0)) + word.charAt(0) + "])" + word.substring(1) + "\\b";
+        break;
+      case 1:
+        pattern = "\\b" + word + "(s?)\\b";
+        break;
+      case 2:
+        pattern = "\\b(?:" + word + "|" + createWord(random) + ")\\b";
+        break;
+      case 3:
+        pattern = "(?<![a-z])" + word + "(?![a-z])";
+        break;
+      default:
+        pattern = "\\b" + word.substring(0, 2) + "[a-z]?" + word.substring(2) + "\\b";
+      }
+      Suggestion suggestion = Suggestion.createSuggestion(pattern, false, "Benchmark");
+      if (suggestion != null) {
+        suggestions.add(suggestion);
+      }
+    }
+    long start = System.nanoTime();
+    SuggestionFilter filter = new SuggestionFilter(suggestions);
+    System.out.println(
+        "Prefilter built for " + suggestions.size() + " suggestions in " +
+        ((System.nanoTime() - start) / 1000000) + " ms");
+
+    // Create a text
+    StringBuilder buffer = new StringBuilder(textLength + 20);
+    while (buffer.length() < textLength) {
+      buffer.append(createWord(random));
+      buffer.append((random.nextInt(10) == 0) ? ". " : " ");
+    }
+    String text = buffer.toString();
+
+    // Compare both methods
+    for (int iteration = 0; iteration < iterations; iteration++) {
+      start = System.nanoTime();
+      int countLoop = 0;
+      for (Suggestion suggestion : suggestions) {
+        countLoop += countMatches(suggestion, text);
+      }
+      long timeLoop = System.nanoTime() - start;
+      start = System.nanoTime();
+      int countFilter = 0;
+      SuggestionFilter.Candidates candidates = filter.scan(text);
+      for (Suggestion suggestion : suggestions) {
+        if (candidates.hasCandidate(suggestion, 0, text.length())) {
+          countFilter += countMatches(suggestion, text);
+        }
+      }
+      long timeFilter = System.nanoTime() - start;
+      System.out.println(
+          "Iteration " + iteration +
+          ": loop " + (timeLoop / 1000000) + " ms (" + countLoop + " matches)" +
+          ", prefilter " + (timeFilter / 1000000) + " ms (" + countFilter + " matches)");
+      if (countLoop != countFilter) {
+        System.out.println("Different results");
+      }
+    }
+  }
+
+  /**
+   * @param random Random generator.
+   * @return Random word.
+   */
+  private static String createWord(Random random) {
+    StringBuilder word = new StringBuilder();
+    int count = 2 + random.nextInt(3);
+    for (int i = 0; i < count; i++) {
+      word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+    }
+    return word.toString();
+  }
+
+  /**
+   * @param suggestion Suggestion.
+   * @param text Text.
+   * @return Number of matches of the suggestion in the text.
+   */
+  private static int countMatches(Suggestion suggestion, String text) {
+    Matcher matcher = suggestion.initMatcher(text);
+    int count = 0;
+    while (matcher.find()) {
+      count++;
+    }
+    return count;
+  }
+}
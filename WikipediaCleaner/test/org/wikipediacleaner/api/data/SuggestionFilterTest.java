@@ -0,0 +1,130 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+
+
+/**
+ * Test class for the prefilter of suggestions.
+ */
+public class SuggestionFilterTest {
+
+  /** Elements used to build random patterns */
+  private final static String[] ATOMS = {
+    "a", "b", "c", "i", "A", "I", "é", "É", "ı", "\\.", "\\b", "[aA]", "[ab]", ".", "\\d",
+    "(a|bc)", "(?:ab|c)?", "(?=a)", "(?i)", "x+", "y*", "z?", "\\s", "[^b]", "(ab)+",
+    "\\Qa(\\E", "\\Qab\\E", "\\Q\\E", "\\Q\\E*", "\\Q\\E{0,2}", "\\Q\\E*+", "\\Qb",
+    "b{2}", "c{1,2}", "{0,2}", "?", "*", "+", "(?<!a)", "^", "$", "([aA])", "(?:ab)", "(b)",
+    "(?:(a)b)+", "(a(?:b|c))", "\\1",
+  };
+
+  /** Characters used to build random texts */
+  private final static String ALPHABET = "abciABCIıxyz. éÉ(1SK";
+
+  /**
+   * Test anchors extracted from simple patterns.
+   */
+  @Test
+  public void testAnchors() {
+    assertEquals(
+        "Incorrect anchors", Collections.singleton("accomodation"),
+        SuggestionFilter.extractAnchors("\\b([Aa])ccomodation\\b"));
+    assertEquals(
+        "Incorrect anchors", Collections.singleton("a.b"),
+        SuggestionFilter.extractAnchors("\\Qa.b\\E"));
+    assertNull(
+        "Anchors extracted from an unanchored pattern",
+        SuggestionFilter.extractAnchors(".*"));
+  }
+
+  /**
+   * Test that a quantifier after an empty quote applies to the previous element.
+   */
+  @Test
+  public void testEmptyQuote() {
+    assertEquals(
+        "Incorrect anchors", Collections.singleton("a"),
+        SuggestionFilter.extractAnchors("i\\Q\\E{0,2}A"));
+    checkMatch("i\\Q\\E{0,2}A", "ıSBAb K");
+    checkMatch("a\\Q\\E{0,2}i?", "ıSBAb K");
+    checkMatch("\\Qab\\E\\Q\\E*+c?", "ıSBAb K");
+  }
+
+  /**
+   * Compare the prefilter with {@link Matcher#find()} on random patterns and texts.
+   */
+  @Test
+  public void testRandom() {
+    Random random = new Random(0);
+    for (int test = 0; test < 20000; test++) {
+      StringBuilder patternText = new StringBuilder();
+      int count = 1 + random.nextInt(6);
+      for (int i = 0; i < count; i++) {
+        patternText.append(ATOMS[random.nextInt(ATOMS.length)]);
+      }
+      try {
+        Pattern.compile(patternText.toString());
+      } catch (PatternSyntaxException e) {
+        continue;
+      }
+      for (int i = 0; i < 5; i++) {
+        StringBuilder text = new StringBuilder();
+        int length = random.nextInt(40);
+        for (int j = 0; j < length; j++) {
+          text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        int beginIndex = random.nextInt(length + 1);
+        int endIndex = beginIndex + random.nextInt(length + 1 - beginIndex);
+        checkMatch(patternText.toString(), text.toString(), beginIndex, endIndex);
+      }
+    }
+  }
+
+  /**
+   * Check that the prefilter accepts a text when the pattern matches it.
+   *
+   * @param patternText Pattern.
+   * @param text Text.
+   */
+  private static void checkMatch(String patternText, String text) {
+    checkMatch(patternText, text, 0, text.length());
+  }
+
+  /**
+   * Check that the prefilter accepts an area when the pattern matches in it.
+   *
+   * @param patternText Pattern.
+   * @param text Text.
+   * @param beginIndex Begin index of the area.
+   * @param endIndex End index of the area.
+   */
+  private static void checkMatch(
+      String patternText, String text,
+      int beginIndex, int endIndex) {
+    Suggestion suggestion = Suggestion.createSuggestion(patternText, false, "Test");
+    assertNotNull("Suggestion not created for " + patternText, suggestion);
+    SuggestionFilter filter = new SuggestionFilter(Collections.singletonList(suggestion));
+    Matcher matcher = suggestion.initMatcher(text);
+    matcher.region(beginIndex, endIndex);
+    if (matcher.find()) {
+      assertTrue(
+          "Suggestion " + patternText + " skipped on [" + text + "] " +
+          "between " + beginIndex + " and " + endIndex,
+          filter.scan(text).hasCandidate(suggestion, beginIndex, endIndex));
+    }
+  }
+}
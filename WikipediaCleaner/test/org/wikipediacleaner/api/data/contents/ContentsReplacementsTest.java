@@ -0,0 +1,177 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data.contents;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Test class for replacements on contents.
+ */
+public class ContentsReplacementsTest {
+
+  /** Text longer than the length required to resynchronize texts */
+  private final static String REPEATED = "repeated text block ";
+
+  /**
+   * Test differences between identical texts.
+   */
+  @Test
+  public void testIdentical() {
+    assertTrue(
+        "Differences found in identical texts",
+        ContentsReplacements.createDifferences("Some text", "Some text").isEmpty());
+    assertTrue(
+        "Differences found with null text",
+        ContentsReplacements.createDifferences(null, "Some text").isEmpty());
+  }
+
+  /**
+   * Test inserts and deletes at the start and at the end of the text.
+   */
+  @Test
+  public void testStartAndEnd() {
+    String text = "Some text in the middle of the page";
+    checkDifferences(text, "Inserted. " + text, 1);
+    checkReplacement(text, "Inserted. " + text, 0, 0, "Inserted. ");
+    checkDifferences(text, text + " inserted.", 1);
+    checkReplacement(text, text + " inserted.", text.length(), text.length(), " inserted.");
+    checkDifferences(text, text.substring(5), 1);
+    checkReplacement(text, text.substring(5), 0, 5, "");
+    checkDifferences(text, text.substring(0, 9), 1);
+    checkReplacement(text, text.substring(0, 9), 9, text.length(), "");
+    checkDifferences(text, "Inserted. " + text.substring(0, 25), 2);
+    checkDifferences(text, "Inserted. " + text.substring(0, 9), 1);
+    checkDifferences(text, "", 1);
+    checkDifferences("", text, 1);
+  }
+
+  /**
+   * Test differences around text repeated and longer than the resynchronization length.
+   */
+  @Test
+  public void testRepeatedText() {
+    String oldText = "Begin 1 " + REPEATED + REPEATED + "end";
+    String newText = "Begin 2 " + REPEATED + "end";
+    checkDifferences(oldText, newText, 1);
+
+    oldText = "Begin " + REPEATED + REPEATED + "end";
+    newText = "Begin " + REPEATED + "inserted " + REPEATED + "end";
+    checkDifferences(oldText, newText, 1);
+
+    oldText = "Begin 1 " + REPEATED + "middle " + REPEATED + "end 1";
+    newText = "Begin 2 " + REPEATED + "middle " + REPEATED + "end 2";
+    checkDifferences(oldText, newText, 2);
+
+    oldText = "Begin " + REPEATED + REPEATED + REPEATED + "end";
+    newText = "Begin " + REPEATED + "end";
+    checkDifferences(oldText, newText, 1);
+  }
+
+  /**
+   * Test differences shifting texts by more than the maximum shift explored.
+   */
+  @Test
+  public void testLongShift() {
+    Random random = new Random(0);
+    String begin = createText(random, 500);
+    String middle = createText(random, 500);
+    String end = createText(random, 500);
+
+    // Short insert: both modifications are found separately
+    String oldText = begin + "1" + middle + "3" + end;
+    String newText = begin + "2" + createText(random, 50) + middle + "4" + end;
+    checkDifferences(oldText, newText, 2);
+
+    // Long insert: texts are not resynchronized, modifications are merged
+    newText = begin + "2" + createText(random, 300) + middle + "4" + end;
+    checkDifferences(oldText, newText, 1);
+
+    // Long delete
+    checkDifferences(newText, oldText, 1);
+  }
+
+  /**
+   * Test that overlapping replacements are rejected.
+   */
+  @Test
+  public void testOverlaps() {
+    ContentsReplacements replacements = new ContentsReplacements();
+    assertTrue("Replacement not added", replacements.add(10, 15, "B"));
+    assertTrue("Replacement not added", replacements.add(0, 5, "A"));
+    assertFalse("Overlapping replacement added", replacements.add(12, 20, "C"));
+    assertFalse("Overlapping replacement added", replacements.add(3, 12, "C"));
+    assertFalse("Included replacement added", replacements.add(11, 12, "C"));
+    assertFalse("Replacement at same position added", replacements.add(10, 10, "C"));
+    assertTrue("Adjacent replacement not added", replacements.add(5, 7, "C"));
+    assertTrue("Insert not added", replacements.add(20, 20, "D"));
+    assertFalse("Null replacement added", replacements.add(null));
+    assertEquals("Incorrect number of replacements", 4, replacements.size());
+
+    List<ContentsReplacement> list = replacements.getReplacements();
+    for (int i = 1; i < list.size(); i++) {
+      assertTrue(
+          "Replacements not sorted",
+          list.get(i - 1).getBeginIndex() < list.get(i).getBeginIndex());
+    }
+    assertEquals(
+        "Incorrect result",
+        "AC789BFGHIJD",
+        replacements.apply("0123456789ABCDEFGHIJ"));
+  }
+
+  /**
+   * Check that the differences between two texts transform the old text into the new text.
+   *
+   * @param oldText Old text.
+   * @param newText New text.
+   * @param count Expected number of replacements.
+   */
+  private static void checkDifferences(String oldText, String newText, int count) {
+    ContentsReplacements differences = ContentsReplacements.createDifferences(oldText, newText);
+    assertEquals("Incorrect number of differences", count, differences.size());
+    assertEquals("Incorrect result", newText, differences.apply(oldText));
+  }
+
+  /**
+   * Check the single replacement between two texts.
+   *
+   * @param oldText Old text.
+   * @param newText New text.
+   * @param beginIndex Expected begin index.
+   * @param endIndex Expected end index.
+   * @param replacement Expected replacement.
+   */
+  private static void checkReplacement(
+      String oldText, String newText,
+      int beginIndex, int endIndex, String replacement) {
+    ContentsReplacements differences = ContentsReplacements.createDifferences(oldText, newText);
+    ContentsReplacement difference = differences.getReplacements().get(0);
+    assertEquals("Incorrect begin index", beginIndex, difference.getBeginIndex());
+    assertEquals("Incorrect end index", endIndex, difference.getEndIndex());
+    assertEquals("Incorrect replacement", replacement, difference.getReplacement());
+  }
+
+  /**
+   * @param random Random generator.
+   * @param length Length of the text.
+   * @return Random text.
+   */
+  private static String createText(Random random, int length) {
+    StringBuilder buffer = new StringBuilder(length);
+    while (buffer.length() < length) {
+      buffer.append((char) ('a' + random.nextInt(26)));
+    }
+    return buffer.toString();
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data.contents;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+
+/**
+ * Benchmark of the index on intervals against a linear scan, as done for isInXxx lookups.
+ *
+ * Usage: IntervalIndexBenchmark [elements count] [lookups count] [iterations]
+ */
+public class IntervalIndexBenchmark {
+
+  /**
+   * @param args Command line arguments.
+   */
+  public static void main(String[] args) {
+    int elementsCount = (args.length > 0) ? Integer.parseInt(args[0]) : 5000;
+    int lookupsCount = (args.length > 1) ? Integer.parseInt(args[1]) : 100000;
+    int iterations = (args.length > 2) ? Integer.parseInt(args[2]) : 10;
+    Random random = new Random(0);
+
+    // Create elements, similar to the ones in a page (sequence with some nesting)
+    List<ContentsInterval> intervals = new ArrayList<ContentsInterval>();
+    int position = 0;
+    while (intervals.size() < elementsCount) {
+      position += random.nextInt(50);
+      int length = 5 + random.nextInt(40);
+      intervals.add(new ContentsInterval(position, position + length));
+      if ((random.nextInt(5) == 0) && (intervals.size() < elementsCount)) {
+        int begin = position + 1 + random.nextInt(length / 2);
+        intervals.add(new ContentsInterval(begin, begin + 1 + random.nextInt(position + length - begin - 1)));
+      }
+      position += length;
+    }
+    int textLength = position;
+    long start = System.nanoTime();
+    IntervalIndex<ContentsInterval> index = new IntervalIndex<ContentsInterval>(intervals);
+    System.out.println(
+        "Index built for " + intervals.size() + " intervals in " +
+        ((System.nanoTime() - start) / 1000000) + " ms");
+
+    // Positions to look up
+    int[] positions = new int[lookupsCount];
+    for (int i = 0; i < lookupsCount; i++) {
+      positions[i] = random.nextInt(textLength);
+    }
+
+    // Compare both methods
+    for (int iteration = 0; iteration < iterations; iteration++) {
+      start = System.nanoTime();
+      int countLoop = 0;
+      for (int lookup : positions) {
+        countLoop += getHash(getFirstContaining(intervals, lookup));
+        countLoop += getHash(getLastContaining(intervals, lookup));
+      }
+      long timeLoop = System.nanoTime() - start;
+      start = System.nanoTime();
+      int countIndex = 0;
+      for (int lookup : positions) {
+        countIndex += getHash(index.getFirstContaining(lookup));
+        countIndex += getHash(index.getLastContaining(lookup));
+      }
+      long timeIndex = System.nanoTime() - start;
+      System.out.println(
+          "Iteration " + iteration +
+          ": loop " + (timeLoop / 1000000) + " ms" +
+          ", index " + (timeIndex / 1000000) + " ms");
+      if (countLoop != countIndex) {
+        System.out.println("Different results");
+      }
+    }
+  }
+
+  /**
+   * @param intervals List of intervals.
+   * @param index Index in the text.
+   * @return First interval in the list containing the index.
+   */
+  private static ContentsInterval getFirstContaining(List<ContentsInterval> intervals, int index) {
+    for (ContentsInterval interval : intervals) {
+      if (interval.containsIndex(index)) {
+        return interval;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param intervals List of intervals.
+   * @param index Index in the text.
+   * @return Last interval in the list containing the index.
+   */
+  private static ContentsInterval getLastContaining(List<ContentsInterval> intervals, int index) {
+    ContentsInterval result = null;
+    for (ContentsInterval interval : intervals) {
+      if (interval.containsIndex(index)) {
+        result = interval;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param interval Interval.
+   * @return Value identifying the interval, to compare results.
+   */
+  private static int getHash(ContentsInterval interval) {
+    if (interval == null) {
+      return 0;
+    }
+    return interval.getBeginIndex() * 31 + interval.getEndIndex();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.data.contents;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+/**
+ * Test class for index on intervals.
+ */
+public class IntervalIndexTest {
+
+  /**
+   * Test on an empty list of intervals.
+   */
+  @Test
+  public void testEmpty() {
+    IntervalIndex<ContentsInterval> index = new IntervalIndex<ContentsInterval>(
+        new ArrayList<ContentsInterval>());
+    assertEquals("Index is not empty", 0, index.size());
+    assertNull("Interval found in empty index", index.getFirstContaining(0));
+    assertNull("Interval found in empty index", index.getLastContaining(0));
+    assertNull("Interval found in empty index", index.getInnermostContaining(0));
+    assertNull("Interval found in empty index", index.getFirstBeginningFrom(0));
+  }
+
+  /**
+   * Test on nested intervals.
+   */
+  @Test
+  public void testNested() {
+    List<ContentsInterval> intervals = new ArrayList<ContentsInterval>();
+    ContentsInterval outer = new ContentsInterval(0, 100);
+    ContentsInterval middle = new ContentsInterval(10, 50);
+    ContentsInterval inner = new ContentsInterval(20, 30);
+    ContentsInterval after = new ContentsInterval(60, 70);
+    intervals.add(outer);
+    intervals.add(middle);
+    intervals.add(inner);
+    intervals.add(after);
+    IntervalIndex<ContentsInterval> index = new IntervalIndex<ContentsInterval>(intervals);
+    assertSame("Incorrect first interval", outer, index.getFirstContaining(25));
+    assertSame("Incorrect last interval", inner, index.getLastContaining(25));
+    assertSame("Incorrect innermost interval", inner, index.getInnermostContaining(25));
+    assertSame("Incorrect innermost interval", middle, index.getInnermostContaining(30));
+    assertSame("Incorrect next interval", after, index.getFirstBeginningFrom(51));
+    assertNull("Interval found after the end", index.getFirstContaining(100));
+  }
+
+  /**
+   * Compare results with a linear scan on random intervals.
+   */
+  @Test
+  public void testRandom() {
+    Random random = new Random(0);
+    for (int test = 0; test < 500; test++) {
+      List<ContentsInterval> intervals = new ArrayList<ContentsInterval>();
+      int count = random.nextInt(50);
+      for (int i = 0; i < count; i++) {
+        int begin = random.nextInt(200);
+        intervals.add(new ContentsInterval(begin, begin + random.nextInt(40)));
+      }
+      IntervalIndex<ContentsInterval> index = new IntervalIndex<ContentsInterval>(intervals);
+      for (int position = -1; position < 250; position++) {
+        ContentsInterval first = null;
+        ContentsInterval last = null;
+        ContentsInterval innermost = null;
+        ContentsInterval next = null;
+        for (ContentsInterval interval : intervals) {
+          if (interval.containsIndex(position)) {
+            if (first == null) {
+              first = interval;
+            }
+            last = interval;
+            if ((innermost == null) ||
+                (interval.getBeginIndex() > innermost.getBeginIndex())) {
+              innermost = interval;
+            }
+          }
+          if ((next == null) && (interval.getBeginIndex() >= position)) {
+            next = interval;
+          }
+        }
+        assertSame("Incorrect first interval", first, index.getFirstContaining(position));
+        assertSame("Incorrect last interval", last, index.getLastContaining(position));
+        assertSame("Incorrect innermost interval", innermost, index.getInnermostContaining(position));
+        assertSame("Incorrect next interval", next, index.getFirstBeginningFrom(position));
+      }
+    }
+  }
+}
@@ -0,0 +1,233 @@
+/*
+ *  WPCleaner: A tool to help on Wikipedia maintenance tasks.
+ *  Copyright (C) 2018  Nicolas Vervelle
+ *
+ *  See README.txt file for licensing information.
+ */
+
+package org.wikipediacleaner.api.dump;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wikipediacleaner.api.constants.EnumCaseSensitiveness;
+import org.wikipediacleaner.api.constants.EnumWikipedia;
+import org.wikipediacleaner.api.constants.WikiConfiguration;
+import org.wikipediacleaner.api.data.DataManager;
+import org.wikipediacleaner.api.data.Interwiki;
+import org.wikipediacleaner.api.data.Language;
+import org.wikipediacleaner.api.data.MagicWord;
+import org.wikipediacleaner.api.data.Namespace;
+import org.wikipediacleaner.api.data.Page;
+
+
+/**
+ * Test class for the link graph index.
+ */
+public class LinkGraphIndexTest {
+
+  /** Wiki */
+  private EnumWikipedia wiki;
+
+  /** File containing the index */
+  private File file;
+
+  /**
+   * Configure the wiki and build an index from a few pages.
+   *
+   * @throws IOException Exception thrown if the index can't be written.
+   */
+  @Before
+  public void beforeTest() throws IOException {
+    wiki = EnumWikipedia.EN;
+    WikiConfiguration config = wiki.getWikiConfiguration();
+    List<Namespace> namespaces = new ArrayList<Namespace>();
+    namespaces.add(new Namespace("0", "", "", EnumCaseSensitiveness.FIRST_LETTER, false));
+    namespaces.add(new Namespace("2", "User", "User", EnumCaseSensitiveness.FIRST_LETTER, true));
+    namespaces.add(new Namespace("6", "File", "File", EnumCaseSensitiveness.FIRST_LETTER, false));
+    namespaces.add(new Namespace("10", "Template", "Template", EnumCaseSensitiveness.FIRST_LETTER, true));
+    namespaces.add(new Namespace("14", "Category", "Category", EnumCaseSensitiveness.FIRST_LETTER, true));
+    config.setNamespaces(namespaces);
+    Map<String, MagicWord> magicWords = new HashMap<String, MagicWord>();
+    magicWords.put(MagicWord.REDIRECT, new MagicWord(
+        MagicWord.REDIRECT, Arrays.asList("#REDIRECT"), false));
+    magicWords.put(MagicWord.DISAMBIGUATION, new MagicWord(
+        MagicWord.DISAMBIGUATION, Arrays.asList("__DISAMBIG__"), true));
+    config.setMagicWords(magicWords);
+    config.setLanguages(new ArrayList<Language>());
+    config.setInterwikis(new ArrayList<Interwiki>());
+
+    file = File.createTempFile("LinkGraphIndexTest", ".idx");
+    LinkGraphIndexBuilder builder = new LinkGraphIndexBuilder(wiki);
+    builder.processPage(createPage(
+        "Article", 0, "100",
+        "See [[Mercury]], [[mercury (planet)|planet]], [[:Category:Cats]], " +
+        "[[Category:Real]], [[Dab2]] and [[User:Bob]]. {{Other}}"));
+    builder.processPage(createPage(
+        "Mercury", 0, "101", "'''Mercury''' may be: [[Mercury (planet)]] __DISAMBIG__"));
+    builder.processPage(createPage(
+        "Mercury (planet)", 0, "102", "A planet. [[Article]]"));
+    builder.processPage(createPage(
+        "Dab2", 0, "103", "#REDIRECT [[Dab3]]"));
+    builder.processPage(createPage(
+        "Dab3", 0, "104", "{{Dab}} [[Article]]"));
+    builder.processPage(createPage(
+        "Template:Dab", 10, "105", "Disambiguation __DISAMBIG__"));
+    builder.write(file);
+  }
+
+  /**
+   * Remove the index file.
+   */
+  @After
+  public void afterTest() {
+    if (file != null) {
+      file.delete();
+    }
+  }
+
+  /**
+   * Test links, back links, redirects and disambiguation pages read back from the index.
+   *
+   * @throws IOException Exception thrown if the index can't be read.
+   */
+  @Test
+  public void testRoundTrip() throws IOException {
+    try (LinkGraphIndex index = LinkGraphIndex.open(wiki, file)) {
+      assertEquals("Incorrect number of pages", 9, index.getPagesCount());
+      int article = index.getId("Article");
+      int mercury = index.getId("mercury");
+      int planet = index.getId("Mercury (planet)");
+      int dab2 = index.getId("Dab2");
+      int dab3 = index.getId("Dab3");
+      int template = index.getId("Template:Dab");
+      int user = index.getId("User:Bob");
+      assertEquals("Page not in dump found", -1, index.getId("Unknown"));
+
+      // Links
+      assertEquals(
+          "Incorrect links",
+          sortedTitles(index, new int[] { index.getId("Category:Cats"), dab2, mercury, planet, user }),
+          sortedTitles(index, index.getLinks(article)));
+      assertEquals(
+          "Incorrect back links",
+          sortedTitles(index, new int[] { article, mercury }),
+          sortedTitles(index, index.getBacklinks(planet)));
+      assertEquals(
+          "Categorization counted as a link", -1, index.getId("Category:Real"));
+      assertFalse("Missing page exists", index.exists(user));
+      assertEquals("Incorrect namespace", 2, index.getNamespace(user));
+
+      // Redirects
+      assertTrue("Redirect not detected", index.isRedirect(dab2));
+      assertEquals("Incorrect redirect target", dab3, index.getRedirectTarget(dab2));
+      assertEquals("Incorrect redirect target", -1, index.getRedirectTarget(dab3));
+
+      // Disambiguation pages
+      assertTrue("Magic word not detected", index.isDisambiguation(mercury));
+      assertTrue("Disambiguation template not detected", index.isDisambiguation(dab3));
+      assertTrue("Template not detected", index.isDisambiguation(template));
+      assertFalse("Incorrect disambiguation page", index.isDisambiguation(planet));
+    }
+  }
+
+  /**
+   * Test that pages are filled only for the revision in the index.
+   *
+   * @throws IOException Exception thrown if the index can't be read.
+   */
+  @Test
+  public void testRevision() throws IOException {
+    try (LinkGraphIndex index = LinkGraphIndex.open(wiki, file)) {
+      assertEquals("Incorrect revision", 100, index.getRevisionId(index.getId("Article")));
+      assertFalse(
+          "Links filled for another revision",
+          index.fillLinks(DataManager.getPage(wiki, "Article", null, "99", null), null));
+      assertFalse(
+          "Links filled for an unknown revision",
+          index.fillLinks(DataManager.getPage(wiki, "Article", null, null, null), null));
+
+      Page page = DataManager.getPage(wiki, "Article", null, "100", null);
+      assertTrue("Links not filled", index.fillLinks(page, Integer.valueOf(0)));
+      List<String> titles = new ArrayList<String>();
+      for (Page link : page.getLinks()) {
+        titles.add(link.getTitle());
+        if (link.getTitle().equals("Dab2")) {
+          assertTrue("Redirect not detected", link.isRedirect());
+          assertTrue("Redirect to disambiguation page not detected", link.isDisambiguationPage());
+        } else if (link.getTitle().equals("Mercury")) {
+          assertTrue("Disambiguation page not detected", link.isDisambiguationPage());
+        } else {
+          assertFalse("Incorrect disambiguation page", link.isDisambiguationPage());
+        }
+      }
+      assertEquals(
+          "Incorrect links",
+          Arrays.asList("Dab2", "Mercury", "Mercury (planet)"), titles);
+
+      page = DataManager.getPage(wiki, "Dab3", null, null, null);
+      assertTrue("Links to page not filled", index.fillLinksToPage(page));
+      assertEquals(
+          "Incorrect number of links to page",
+          2, page.getBacklinksCountInMainNamespace().intValue());
+    }
+  }
+
+  /**
+   * Test that the index file can be replaced while an index is opened.
+   *
+   * @throws IOException Exception thrown if the index can't be read or written.
+   */
+  @Test
+  public void testReplace() throws IOException {
+    LinkGraphIndex index = LinkGraphIndex.open(wiki, file);
+    LinkGraphIndexBuilder builder = new LinkGraphIndexBuilder(wiki);
+    builder.processPage(createPage("Other", 0, "200", "[[Article]]"));
+    builder.write(file);
+    index.close();
+    assertFalse("Temporary file not removed", new File(file.getPath() + ".tmp").exists());
+    try (LinkGraphIndex newIndex = LinkGraphIndex.open(wiki, file)) {
+      assertEquals("Incorrect number of pages", 2, newIndex.getPagesCount());
+      assertEquals("Incorrect revision", 200, newIndex.getRevisionId(newIndex.getId("Other")));
+    }
+  }
+
+  /**
+   * @param title Page title.
+   * @param namespace Page namespace.
+   * @param revision Page revision.
+   * @param contents Page contents.
+   * @return Page.
+   */
+  private Page createPage(String title, int namespace, String revision, String contents) {
+    Page page = DataManager.getPage(wiki, title, null, revision, null);
+    page.setNamespace(Integer.valueOf(namespace));
+    page.setContents(contents);
+    return page;
+  }
+
+  /**
+   * @param index Index.
+   * @param ids Page identifiers.
+   * @return Sorted titles of the pages.
+   */
+  private static List<String> sortedTitles(LinkGraphIndex index, int[] ids) {
+    List<String> titles = new ArrayList<String>();
+    for (int id : ids) {
+      titles.add(index.getTitle(id));
+    }
+    Collections.sort(titles);
+    return titles;
+  }
+}